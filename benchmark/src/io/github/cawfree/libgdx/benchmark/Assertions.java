@@ -0,0 +1,32 @@
+package io.github.cawfree.libgdx.benchmark;
+
+/** The assertions made by the headless checks. A failure throws an AssertionError whether or not the JVM was started with assertions enabled, so a failed check always fails the build. */
+public final class Assertions {
+
+    /** Constructor. */
+    private Assertions() {
+        // Prevent instantiation.
+    }
+
+    /** Asserts that a condition holds. */
+    public static final void isTrue(final boolean pIsTrue, final String pMessage) {
+        // Does the condition fail?
+        if(!pIsTrue) {
+            // Report the failure.
+            throw new AssertionError(pMessage);
+        }
+    }
+
+    /** Asserts that a count has the expected value. */
+    public static final void isEqual(final long pExpected, final long pActual, final String pMessage) {
+        // Compare the values.
+        Assertions.isTrue(pExpected == pActual, pMessage + " (expected " + pExpected + ", but was " + pActual + ")");
+    }
+
+    /** Asserts that a value lies within a Tolerance of the expected value. */
+    public static final void isNear(final double pExpected, final double pActual, final double pTolerance, final String pMessage) {
+        // Compare the values.
+        Assertions.isTrue(Math.abs(pExpected - pActual) <= pTolerance, pMessage + " (expected " + pExpected + " within " + pTolerance + ", but was " + pActual + ")");
+    }
+
+}
@@ -0,0 +1,52 @@
+package io.github.cawfree.libgdx.benchmark;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+import io.github.cawfree.libgdx.simulation.WorldConfiguration;
+
+/** Compares the broadphases on the standard SpawnWorkload, and prints the per-step cost of the whole step and of the broadphase alone, alongside the number of overlapping pairs. Every configuration must keep the pile in play and hand its pairs to the narrowphase; a sweep-and-prune broadphase sized too small for the scene would lose bodies or pairs. Runs headless; the first argument optionally overrides the number of recorded steps. */
+public final class BroadphaseBenchmark {
+
+    /* Static Declarations. */
+    private static final float EXTENT_ARENA  = 16.0f;
+    private static final float EXTENT_LOOSE  = 256.0f;
+
+    /** Entry point. */
+    public static final void main(final String[] pArguments) {
+        // Load the natives; there's no Application to do it for us.
+        GdxNativesLoader.load();
+        // Define the workload.
+        final SpawnWorkload        lSpawnWorkload = pArguments.length > 0 ? new SpawnWorkload(SpawnWorkload.DEFAULT_SEED, Integer.parseInt(pArguments[0]), SpawnWorkload.DEFAULT_WARMUP, SpawnWorkload.DEFAULT_SPAWN_PERIOD) : new SpawnWorkload();
+        // Define the configurations.
+        final WorldConfiguration[] lConfigurations = new WorldConfiguration[] {
+            new WorldConfiguration(),
+            new WorldConfiguration().setVelocityPrediction(0.5f),
+            new WorldConfiguration().setDynamicUpdates(5).setFixedUpdates(5),
+            new WorldConfiguration().setDeferredCollide(true),
+            BroadphaseBenchmark.sweep(WorldConfiguration.Broadphase.AXIS_SWEEP,    BroadphaseBenchmark.EXTENT_ARENA),
+            BroadphaseBenchmark.sweep(WorldConfiguration.Broadphase.AXIS_SWEEP,    BroadphaseBenchmark.EXTENT_LOOSE),
+            BroadphaseBenchmark.sweep(WorldConfiguration.Broadphase.AXIS_SWEEP_32, BroadphaseBenchmark.EXTENT_ARENA),
+        };
+        // Print the header.
+        System.out.println(SpawnWorkload.header());
+        // Iterate the configurations.
+        for(final WorldConfiguration lWorldConfiguration : lConfigurations) {
+            // Run the workload.
+            final SpawnWorkload.Result lResult = lSpawnWorkload.run(new PhysicsSimulation(true, lWorldConfiguration));
+            // Print the result.
+            System.out.println(SpawnWorkload.format(lWorldConfiguration.toString(), lResult));
+            // Assert that the pile was simulated. (The lowest quantile is exact for small counts.)
+            Assertions.isTrue(lResult.getBodies().getQuantile(0.0f) > 0L, "Every step of " + lWorldConfiguration + " should have live bodies.");
+            Assertions.isTrue(lResult.getPairs().getMaximum() > 0L, "The pile under " + lWorldConfiguration + " should produce overlapping pairs.");
+        }
+    }
+
+    /** Creates a sweep-and-prune configuration over a cube of the specified half-extent, sized for the default number of bodies. */
+    private static final WorldConfiguration sweep(final WorldConfiguration.Broadphase pBroadphase, final float pExtent) {
+        // Allocate the configuration.
+        return new WorldConfiguration().setBroadphase(pBroadphase).setBounds(new Vector3(-pExtent, -pExtent, -pExtent), new Vector3(pExtent, pExtent, pExtent)).setMaximumHandles(PhysicsSimulation.DEFAULT_MAXIMUM_BODIES * 2);
+    }
+
+}
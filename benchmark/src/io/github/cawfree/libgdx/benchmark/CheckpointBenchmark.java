@@ -0,0 +1,121 @@
+package io.github.cawfree.libgdx.benchmark;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
+import io.github.cawfree.libgdx.profile.RollingHistogram;
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+import io.github.cawfree.libgdx.simulation.WorldCheckpoint;
+
+/** Measures the cost of checkpointing a settled pile, and of restoring it, against the cost of simulating the pile into place. A headless simulation spawns primitives onto the Floor from a fixed seed until the pile has settled; the pile is then repeatedly captured, saved to a temporary file, loaded back by memory-mapping and restored. The loaded checkpoint must hold exactly the bytes that were saved, and capturing the restored pile must reproduce them; so nothing is lost on the way round. Runs headless; the first argument optionally overrides the number of bodies. */
+public final class CheckpointBenchmark {
+
+    /* Static Declarations. */
+    private static final int  ITERATIONS       = 100;
+    private static final int  SPAWN_PERIOD     = 2;
+    private static final int  SETTLE_STEPS     = 600;
+    private static final int  DEFAULT_BODIES   = 2048;
+    private static final long NANOS_PER_MICRO  = 1000L;
+    private static final long NANOS_PER_MILLI  = 1000000L;
+
+    /** Entry point. */
+    public static final void main(final String[] pArguments) throws IOException {
+        // Load the natives; there's no Application to do it for us.
+        GdxNativesLoader.load();
+        // Fetch the number of bodies.
+        final int lBodies = pArguments.length > 0 ? Integer.parseInt(pArguments[0]) : CheckpointBenchmark.DEFAULT_BODIES;
+        // Allocate the simulation. (Nothing renders it, so bodies are never retired for resting.)
+        final PhysicsSimulation lPhysicsSimulation = new PhysicsSimulation(true).registerPrimitives();
+        lPhysicsSimulation.setMaximumBodies(lBodies);
+        lPhysicsSimulation.setRestTimeout(0.0f);
+        lPhysicsSimulation.compile();
+        lPhysicsSimulation.setAutoSync(false);
+        // Allocate the histograms.
+        final RollingHistogram lCapture = new RollingHistogram(CheckpointBenchmark.ITERATIONS);
+        final RollingHistogram lSave    = new RollingHistogram(CheckpointBenchmark.ITERATIONS);
+        final RollingHistogram lLoad    = new RollingHistogram(CheckpointBenchmark.ITERATIONS);
+        final RollingHistogram lRestore = new RollingHistogram(CheckpointBenchmark.ITERATIONS);
+        // Allocate the checkpoint, and the file it's saved to.
+        final WorldCheckpoint  lWorldCheckpoint = new WorldCheckpoint();
+        final WorldCheckpoint  lRecapture       = new WorldCheckpoint();
+        final File             lFile            = File.createTempFile("checkpoint", ".bin");
+        try {
+            // Fix the scene.
+            MathUtils.random.setSeed(SpawnWorkload.DEFAULT_SEED);
+            // Fetch the time the pile began.
+            final long lStart = System.nanoTime();
+            // Build the pile, and let it settle.
+            for(int i = 0; i < lBodies * CheckpointBenchmark.SPAWN_PERIOD + CheckpointBenchmark.SETTLE_STEPS; i++) {
+                // Is a spawn due?
+                if(i < lBodies * CheckpointBenchmark.SPAWN_PERIOD && i % CheckpointBenchmark.SPAWN_PERIOD == 0) {
+                    // Spawn a primitive.
+                    lPhysicsSimulation.spawn();
+                }
+                // Step the simulation.
+                lPhysicsSimulation.step();
+                lPhysicsSimulation.getContactEventBuffer().clear();
+            }
+            // Report the cost of simulating the pile into place.
+            System.out.println(String.format("simulated %d bodies (%d frozen) in %dms", lPhysicsSimulation.getLiveBodies() + lPhysicsSimulation.getFrozenPile().getEntities().size, lPhysicsSimulation.getFrozenPile().getEntities().size, (System.nanoTime() - lStart) / CheckpointBenchmark.NANOS_PER_MILLI));
+            // Print the header.
+            System.out.println(String.format("%8s %10s %10s %10s %10s %10s", "bodies", "bytes", "capture", "save", "load", "restore"));
+            // Iterate the round trips.
+            for(int i = 0; i < CheckpointBenchmark.ITERATIONS; i++) {
+                // Capture the pile.
+                long lTime = System.nanoTime();
+                lWorldCheckpoint.capture(lPhysicsSimulation);
+                lCapture.record((System.nanoTime() - lTime) / CheckpointBenchmark.NANOS_PER_MICRO);
+                // Keep what was captured.
+                final byte[] lCaptured = CheckpointBenchmark.bytes(lWorldCheckpoint);
+                // Save the pile.
+                lTime = System.nanoTime();
+                lWorldCheckpoint.save(lFile);
+                lSave.record((System.nanoTime() - lTime) / CheckpointBenchmark.NANOS_PER_MICRO);
+                // Load the pile.
+                lTime = System.nanoTime();
+                if(!lWorldCheckpoint.load(lFile)) {
+                    throw new IllegalStateException("The checkpoint couldn't be loaded.");
+                }
+                lLoad.record((System.nanoTime() - lTime) / CheckpointBenchmark.NANOS_PER_MICRO);
+                // Assert that the file held what was saved.
+                Assertions.isTrue(Arrays.equals(lCaptured, CheckpointBenchmark.bytes(lWorldCheckpoint)), "The loaded checkpoint should match the one that was saved.");
+                // Restore the pile.
+                lTime = System.nanoTime();
+                final int lRestored = lWorldCheckpoint.restore(lPhysicsSimulation);
+                lRestore.record((System.nanoTime() - lTime) / CheckpointBenchmark.NANOS_PER_MICRO);
+                // Assert that the restored pile is the one that was captured.
+                Assertions.isEqual(lWorldCheckpoint.getEntities(), lRestored, "Every Entity should be restored");
+                lRecapture.capture(lPhysicsSimulation);
+                Assertions.isTrue(Arrays.equals(lCaptured, CheckpointBenchmark.bytes(lRecapture)), "The restored pile should capture exactly as it was checkpointed.");
+                // Step once, as the scene would after resuming.
+                lPhysicsSimulation.step();
+                lPhysicsSimulation.getContactEventBuffer().clear();
+            }
+            // Summarize the round trips.
+            System.out.println(String.format("%8d %10d %10.1f %10.1f %10.1f %10.1f", lWorldCheckpoint.getEntities(), lWorldCheckpoint.getSize(), lCapture.getMean(), lSave.getMean(), lLoad.getMean(), lRestore.getMean()));
+        }
+        finally {
+            // Dispose of the simulation.
+            lPhysicsSimulation.dispose();
+            // Remove the checkpoint.
+            lFile.delete();
+        }
+    }
+
+    /** Copies out the bytes of a checkpoint, so that checkpoints may be compared. */
+    private static final byte[] bytes(final WorldCheckpoint pWorldCheckpoint) throws IOException {
+        // Allocate the stream.
+        final ByteArrayOutputStream lByteArrayOutputStream = new ByteArrayOutputStream(pWorldCheckpoint.getSize());
+        // Write the checkpoint.
+        pWorldCheckpoint.write(Channels.newChannel(lByteArrayOutputStream));
+        // Return the bytes.
+        return lByteArrayOutputStream.toByteArray();
+    }
+
+}
@@ -0,0 +1,44 @@
+package io.github.cawfree.libgdx.benchmark;
+
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import java.io.IOException;
+
+/** Runs every benchmark as a check, on workloads small enough to finish within a build. Each benchmark asserts what it measures, and throws an AssertionError if it doesn't hold; so the process only exits cleanly once every check has passed. Runs headless. */
+public final class Checks {
+
+    /** Entry point. */
+    public static final void main(final String[] pArguments) throws IOException {
+        // Load the natives; there's no Application to do it for us.
+        GdxNativesLoader.load();
+        // Off-screen bodies are never submitted for drawing.
+        CullBenchmark.main(new String[] { "300" });
+        // The histograms are as precise as their buckets, and the dumps describe every metric.
+        ProfilerBenchmark.main(new String[] { "10000" });
+        // Bodies landing on the FrozenPile are still reported.
+        FreezeBenchmark.main(new String[0]);
+        // Every broadphase keeps the pile in play.
+        BroadphaseBenchmark.main(new String[] { "300" });
+        // The tower settles under every solver profile.
+        SolverBenchmark.main(new String[] { "300" });
+        // The layer matrix rejects exactly the pairs it should.
+        LayerBenchmark.main(new String[] { "300" });
+        // The renderable state matches the Bodies, however it's read back.
+        SyncBenchmark.main(new String[] { "300" });
+        // The levels of detail save vertices, and hysteresis steadies them.
+        LodBenchmark.main(new String[0]);
+        // Overlaps and sweeps find what they touch, and triggers see bodies come and go.
+        QueryBenchmark.main(new String[] { "1000" });
+        // Deltas decode to the full state.
+        ReplicationBenchmark.main(new String[] { "256" });
+        // Checkpoints round-trip through a file and a restore.
+        CheckpointBenchmark.main(new String[] { "256" });
+        // A recorded session replays to where it ended.
+        ReplayBenchmark.main(new String[0]);
+        // Nothing native outlives its owner; this runs last, so it also covers the checks before it.
+        LifecycleBenchmark.main(new String[] { "5" });
+        // Report the result.
+        System.out.println("All checks passed.");
+    }
+
+}
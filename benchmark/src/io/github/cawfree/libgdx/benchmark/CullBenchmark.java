@@ -0,0 +1,127 @@
+package io.github.cawfree.libgdx.benchmark;
+
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import io.github.cawfree.libgdx.ecs.CullSystem;
+import io.github.cawfree.libgdx.ecs.RenderSystem;
+import io.github.cawfree.libgdx.ecs.StepSystem;
+import io.github.cawfree.libgdx.ecs.SyncSystem;
+import io.github.cawfree.libgdx.ecs.TransformStore;
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+import io.github.cawfree.libgdx.profile.FrameProfiler;
+import io.github.cawfree.libgdx.render.LevelOfDetail;
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+import io.github.cawfree.libgdx.simulation.PhysicsThread;
+
+/** Checks that the cull keeps off-screen bodies away from the ModelBatch. A pile of primitives is spawned from the standard seed through the same Engine that PhysicsWorld runs, without a ModelBatch; the pile is then viewed head on, and with the Camera turned away from it. Every Instance submitted for drawing must lie within the frustum, and every Instance within the frustum must be submitted; with the Camera turned away, nothing may be submitted, and no vertices may be drawn. Runs headless; the first argument optionally overrides the number of steps spent filling the scene. */
+public final class CullBenchmark {
+
+    /* Static Declarations. */
+    private static final int   DEFAULT_STEPS = 900;
+    private static final int   SPAWN_PERIOD  = 4;
+    private static final float DISTANCE      = 20.0f;
+
+    /** Entry point. */
+    public static final void main(final String[] pArguments) {
+        // Load the natives; there's no Application to do it for us.
+        GdxNativesLoader.load();
+        // Allocate the simulation. (Nothing is retired for resting, so the pile keeps growing.)
+        final PhysicsSimulation lPhysicsSimulation = new PhysicsSimulation(true).registerPrimitives();
+        lPhysicsSimulation.setRestTimeout(0.0f);
+        lPhysicsSimulation.setSpawnInterval(0.0f);
+        try {
+            // Fix the scene.
+            MathUtils.random.setSeed(SpawnWorkload.DEFAULT_SEED);
+            // Build the primitives, and place the Floor.
+            lPhysicsSimulation.compile();
+            // Allocate the Engine, as PhysicsWorld does; but without a ModelBatch, nothing is drawn.
+            final FrameProfiler     lFrameProfiler     = new FrameProfiler();
+            final TransformStore    lTransformStore    = new TransformStore();
+            final StepSystem        lStepSystem        = new StepSystem(lPhysicsSimulation, new PhysicsThread(lPhysicsSimulation), lTransformStore, lFrameProfiler);
+            final CullSystem        lCullSystem        = new CullSystem(lTransformStore);
+            final RenderSystem      lRenderSystem      = new RenderSystem(lStepSystem, lTransformStore, new LevelOfDetail(), lFrameProfiler, null, null, null);
+            final PooledEngine      lPooledEngine      = new PooledEngine();
+            final PerspectiveCamera lPerspectiveCamera = new PerspectiveCamera(67.0f, 1280.0f, 720.0f);
+            lPerspectiveCamera.far = 300.0f;
+            lCullSystem.setCamera(lPerspectiveCamera);
+            lRenderSystem.setCamera(lPerspectiveCamera);
+            lPooledEngine.addSystem(lStepSystem);
+            lPooledEngine.addSystem(new SyncSystem(lStepSystem, lTransformStore));
+            lPooledEngine.addSystem(lCullSystem);
+            lPooledEngine.addSystem(lRenderSystem);
+            // Look at the pile head on.
+            CullBenchmark.look(lPerspectiveCamera, 0.0f, 0.0f, 0.0f);
+            // Fill the scene.
+            for(int i = 0, lSteps = pArguments.length > 0 ? Integer.parseInt(pArguments[0]) : CullBenchmark.DEFAULT_STEPS; i < lSteps; i++) {
+                // Is a spawn due?
+                if(i % CullBenchmark.SPAWN_PERIOD == 0) {
+                    // Spawn a primitive.
+                    lPhysicsSimulation.spawn();
+                }
+                // Step, sync, cull and select.
+                lPooledEngine.update(PhysicsSimulation.TIME_STEP);
+                lPhysicsSimulation.getContactEventBuffer().clear();
+                lFrameProfiler.endFrame();
+            }
+            // Print the header.
+            System.out.println(String.format("%-10s %8s %8s %8s %10s", "view", "bodies", "visible", "culled", "vertices"));
+            // Summarize the view of the pile.
+            CullBenchmark.print("pile", lPhysicsSimulation, lCullSystem, lFrameProfiler);
+            // Nothing is on screen if nothing was submitted.
+            Assertions.isTrue(lRenderSystem.getVisible().size > 0, "The pile should be visible when it's looked at.");
+            // Check the submissions against the frustum.
+            CullBenchmark.verify(lPerspectiveCamera, lPhysicsSimulation, lCullSystem, lRenderSystem);
+            // Turn the Camera away from the pile.
+            CullBenchmark.look(lPerspectiveCamera, 0.0f, CullBenchmark.DISTANCE * 0.5f, CullBenchmark.DISTANCE * 2.0f);
+            lPooledEngine.update(PhysicsSimulation.TIME_STEP);
+            lPhysicsSimulation.getContactEventBuffer().clear();
+            lFrameProfiler.endFrame();
+            // Summarize the view away from the pile.
+            CullBenchmark.print("away", lPhysicsSimulation, lCullSystem, lFrameProfiler);
+            // Check the submissions against the frustum.
+            CullBenchmark.verify(lPerspectiveCamera, lPhysicsSimulation, lCullSystem, lRenderSystem);
+            // Assert that the off-screen bodies cost nothing to draw.
+            Assertions.isEqual(0L, lRenderSystem.getVisible().size, "Nothing behind the Camera should be submitted for drawing");
+            Assertions.isEqual(lPhysicsSimulation.getInstances().size, lCullSystem.getCulledCount(), "Every body should be culled");
+            Assertions.isEqual(0L, lFrameProfiler.getHistogram(FrameProfiler.Counter.VERTICES).getLatest(), "No vertices should be submitted for drawing");
+        }
+        finally {
+            // Dispose of the simulation.
+            lPhysicsSimulation.dispose();
+        }
+    }
+
+    /** Places the Camera above and in front of the Floor, looking at the specified point. */
+    private static final void look(final PerspectiveCamera pPerspectiveCamera, final float pX, final float pY, final float pZ) {
+        // Place the Camera.
+        pPerspectiveCamera.position.set(0.0f, CullBenchmark.DISTANCE * 0.5f, CullBenchmark.DISTANCE);
+        pPerspectiveCamera.up.set(0.0f, 1.0f, 0.0f);
+        pPerspectiveCamera.lookAt(pX, pY, pZ);
+        pPerspectiveCamera.update();
+    }
+
+    /** Asserts that exactly the Instances within the frustum were submitted for drawing. */
+    private static final void verify(final PerspectiveCamera pPerspectiveCamera, final PhysicsSimulation pPhysicsSimulation, final CullSystem pCullSystem, final RenderSystem pRenderSystem) {
+        // Every mirrored Instance was either kept or culled.
+        Assertions.isEqual(pPhysicsSimulation.getInstances().size, pCullSystem.getVisibleCount() + pCullSystem.getCulledCount(), "Every body should be tested against the frustum");
+        // Everything the cull kept was submitted.
+        Assertions.isEqual(pCullSystem.getVisibleCount(), pRenderSystem.getVisible().size, "Every body that passed the cull should be submitted");
+        // Iterate the submitted Instances.
+        for(int i = 0; i < pRenderSystem.getVisible().size; i++) {
+            // Fetch the PhysicsEntity.
+            final PhysicsEntity lPhysicsEntity = pRenderSystem.getVisible().get(i);
+            // Assert that the Instance is on screen.
+            Assertions.isTrue(pPerspectiveCamera.frustum.boundsInFrustum(lPhysicsEntity.getBounds()), "An off-screen body was submitted for drawing.");
+        }
+    }
+
+    /** Prints a row of the summary. */
+    private static final void print(final String pView, final PhysicsSimulation pPhysicsSimulation, final CullSystem pCullSystem, final FrameProfiler pFrameProfiler) {
+        // Format the row.
+        System.out.println(String.format("%-10s %8d %8d %8d %10d", pView, pPhysicsSimulation.getInstances().size, pCullSystem.getVisibleCount(), pCullSystem.getCulledCount(), pFrameProfiler.getHistogram(FrameProfiler.Counter.VERTICES).getLatest()));
+    }
+
+}
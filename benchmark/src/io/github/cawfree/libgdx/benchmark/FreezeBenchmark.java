@@ -0,0 +1,96 @@
+package io.github.cawfree.libgdx.benchmark;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+import io.github.cawfree.libgdx.simulation.ContactEventBuffer;
+import io.github.cawfree.libgdx.simulation.FrozenPile;
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+
+/** Checks that bodies landing on the FrozenPile are still reported. The scene is stepped until something has been frozen, and a fresh body is then dropped onto it; the ContactTracker must report the landing against the pile's handle, matching the falling Entity, and never the pile itself. Runs headless; the first argument optionally overrides the number of steps allowed for each phase. */
+public final class FreezeBenchmark {
+
+    /** Records the contacts made with the FrozenPile. */
+    private static final class PileListener implements ContactEventBuffer.Listener {
+        /* Member Variables. */
+        private final int mHandle;
+        private       int mLandings;
+        /** Constructor. */
+        private PileListener(final int pHandle) {
+            // Initialize Member Variables.
+            this.mHandle   = pHandle;
+            this.mLandings = 0;
+        }
+        /** Called for each drained event. */
+        @Override public final void onContactEvent(final int pType, final int pHandle0, final int pHandle1, final boolean pIsMatch0, final boolean pIsMatch1) {
+            // Is either side the pile?
+            if(pHandle0 != FrozenPile.HANDLE_PILE && pHandle1 != FrozenPile.HANDLE_PILE) {
+                return;
+            }
+            // The pile is static; it may never be reported as a match.
+            Assertions.isTrue(!(pHandle0 == FrozenPile.HANDLE_PILE ? pIsMatch0 : pIsMatch1), "The FrozenPile should never match a contact.");
+            // Has the dropped Entity only just landed?
+            if(pType == ContactEventBuffer.EVENT_BEGIN && (pHandle0 == this.mHandle || pHandle1 == this.mHandle)) {
+                // The Entity's filter accepts the pile, just as it accepts the Floor.
+                Assertions.isTrue(pHandle0 == this.mHandle ? pIsMatch0 : pIsMatch1, "A body landing on the FrozenPile should match.");
+                // Count the landing.
+                this.mLandings++;
+            }
+        }
+    }
+
+    /* Static Declarations. */
+    private static final long  SEED           = 1L;
+    private static final int   DEFAULT_STEPS  = 1200;
+    private static final float FREEZE_TIMEOUT = 0.5f;
+    private static final float DROP_HEIGHT    = 3.0f;
+
+    /** Entry point. */
+    public static final void main(final String[] pArguments) {
+        // Load the natives; there's no Application to do it for us.
+        GdxNativesLoader.load();
+        // Define how long each phase may take.
+        final int               lSteps             = pArguments.length > 0 ? Integer.parseInt(pArguments[0]) : FreezeBenchmark.DEFAULT_STEPS;
+        // Allocate the simulation. (Nothing is retired for resting, so sleeping bodies are frozen instead.)
+        final PhysicsSimulation lPhysicsSimulation = new PhysicsSimulation(true).registerPrimitives();
+        lPhysicsSimulation.setRestTimeout(0.0f);
+        lPhysicsSimulation.setFreezeTimeout(FreezeBenchmark.FREEZE_TIMEOUT);
+        try {
+            // Fix the scene.
+            MathUtils.random.setSeed(FreezeBenchmark.SEED);
+            // Build the primitives, and place the Floor.
+            lPhysicsSimulation.compile();
+            // Step until something has been frozen.
+            for(int i = 0; i < lSteps && lPhysicsSimulation.getFrozenPile().getEntities().size == 0; i++) {
+                lPhysicsSimulation.step();
+                lPhysicsSimulation.getContactEventBuffer().clear();
+            }
+            // Nothing can land on the pile unless it exists.
+            Assertions.isTrue(lPhysicsSimulation.getFrozenPile().getEntities().size > 0, "A sleeping body should have been frozen.");
+            // Find the top of the first frozen Entity.
+            final Vector3       lPosition      = lPhysicsSimulation.getFrozenPile().getEntities().first().getWorldTransform().getTranslation(new Vector3());
+            // Drop a fresh Entity onto it.
+            final PhysicsEntity lPhysicsEntity = lPhysicsSimulation.spawn();
+            lPhysicsEntity.getWorldTransform().setToTranslation(lPosition.x, lPosition.y + FreezeBenchmark.DROP_HEIGHT, lPosition.z);
+            lPhysicsEntity.getBody().proceedToTransform(lPhysicsEntity.getWorldTransform());
+            // Listen for the landing.
+            final PileListener  lPileListener  = new PileListener(lPhysicsEntity.getHandle());
+            for(int i = 0; i < lSteps && lPileListener.mLandings == 0; i++) {
+                lPhysicsSimulation.step();
+                lPhysicsSimulation.getContactEventBuffer().drain(lPileListener);
+            }
+            // Print the result.
+            System.out.println(String.format("%-10s %8s %8s", "freeze", "frozen", "landings"));
+            System.out.println(String.format("%-10s %8d %8d", "pile", lPhysicsSimulation.getFrozenPile().getEntities().size, lPileListener.mLandings));
+            // Assert that the landing was reported.
+            Assertions.isEqual(1L, lPileListener.mLandings, "A body landing on the FrozenPile should begin a single contact");
+        }
+        finally {
+            // Dispose of the simulation.
+            lPhysicsSimulation.dispose();
+        }
+    }
+
+}
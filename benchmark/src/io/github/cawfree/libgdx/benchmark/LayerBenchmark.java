@@ -0,0 +1,58 @@
+package io.github.cawfree.libgdx.benchmark;
+
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+import io.github.cawfree.libgdx.simulation.WorldConfiguration;
+
+/** Measures what a collision layer matrix saves on a mixed scene. Every primitive but the box is placed on a debris layer; the standard SpawnWorkload is then run with debris colliding with itself, and with debris only colliding with the boxes and the Floor. Each is run once with the pairs audited, to count the candidate pairs the layers reject, and once without, for an honest step time. The audit must find no rejections whilst every layer collides, and some once debris stops colliding with itself. Runs headless; the first argument optionally overrides the number of recorded steps. */
+public final class LayerBenchmark {
+
+    /* Static Declarations. */
+    private static final String LAYER_DEBRIS = "debris";
+
+    /** Entry point. */
+    public static final void main(final String[] pArguments) {
+        // Load the natives; there's no Application to do it for us.
+        GdxNativesLoader.load();
+        // Define the workload.
+        final SpawnWorkload lSpawnWorkload = pArguments.length > 0 ? new SpawnWorkload(SpawnWorkload.DEFAULT_SEED, Integer.parseInt(pArguments[0]), SpawnWorkload.DEFAULT_WARMUP, SpawnWorkload.DEFAULT_SPAWN_PERIOD) : new SpawnWorkload();
+        // Print the header.
+        System.out.println(SpawnWorkload.header());
+        // Iterate whether debris collides with itself.
+        for(final boolean lIsCollides : new boolean[] { true, false }) {
+            // Iterate whether the pairs are audited.
+            for(final boolean lIsAudited : new boolean[] { true, false }) {
+                // Allocate the layered simulation.
+                final PhysicsSimulation lPhysicsSimulation = LayerBenchmark.layered(lIsCollides);
+                lPhysicsSimulation.setPairAudit(lIsAudited);
+                // Run the workload.
+                final SpawnWorkload.Result lResult = lSpawnWorkload.run(lPhysicsSimulation);
+                // Print the result.
+                System.out.println(SpawnWorkload.format((lIsCollides ? "debris-debris" : "no debris-debris") + (lIsAudited ? ", audited" : ", unaudited"), lResult));
+                // Were the pairs counted?
+                if(lIsAudited) {
+                    // Assert that the layers only reject the pairs they were told to.
+                    Assertions.isTrue(lIsCollides ? lResult.getRejected().getMaximum() == 0L : lResult.getRejected().getMaximum() > 0L, lIsCollides ? "No pairs should be rejected whilst every layer collides." : "Pairs of debris should be rejected by the broadphase.");
+                }
+            }
+        }
+    }
+
+    /** Creates a simulation whose primitives, bar the box, are debris. */
+    private static final PhysicsSimulation layered(final boolean pIsDebrisCollides) {
+        // Declare the layers.
+        final WorldConfiguration lWorldConfiguration = new WorldConfiguration();
+        lWorldConfiguration.getCollisionLayers().define(LayerBenchmark.LAYER_DEBRIS).setCollides(LayerBenchmark.LAYER_DEBRIS, LayerBenchmark.LAYER_DEBRIS, pIsDebrisCollides);
+        // Allocate the simulation, and register the primitives.
+        final PhysicsSimulation  lPhysicsSimulation  = new PhysicsSimulation(true, lWorldConfiguration).registerPrimitives();
+        // Move the primitives onto the debris layer.
+        lPhysicsSimulation.getConstructors().get(PhysicsSimulation.KEY_OBJECT_SPHERE).setLayer(LayerBenchmark.LAYER_DEBRIS);
+        lPhysicsSimulation.getConstructors().get(PhysicsSimulation.KEY_OBJECT_CONE).setLayer(LayerBenchmark.LAYER_DEBRIS);
+        lPhysicsSimulation.getConstructors().get(PhysicsSimulation.KEY_OBJECT_CAPSULE).setLayer(LayerBenchmark.LAYER_DEBRIS);
+        lPhysicsSimulation.getConstructors().get(PhysicsSimulation.KEY_OBJECT_CYLINDER).setLayer(LayerBenchmark.LAYER_DEBRIS);
+        // Return the simulation.
+        return lPhysicsSimulation;
+    }
+
+}
@@ -0,0 +1,76 @@
+package io.github.cawfree.libgdx.benchmark;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import io.github.cawfree.libgdx.simulation.NativeRegistry;
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+
+/** Checks that creating and destroying simulations leaves a flat native footprint. Each cycle builds a headless simulation, fills it with primitives from a fixed seed, steps it and disposes of it; the NativeRegistry is then read to see what outlived the cycle. Every cycle must end with nothing live, the peak must stop growing after the first, and nothing may be reported as leaked, disposed of twice or disposed of whilst still in a world. Run after the other checks, this also catches anything they leaked. Runs headless; the first argument optionally overrides the number of cycles. */
+public final class LifecycleBenchmark {
+
+    /* Static Declarations. */
+    private static final int  DEFAULT_CYCLES  = 50;
+    private static final int  STEPS           = 300;
+    private static final int  SPAWN_PERIOD    = 2;
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    /** Entry point. */
+    public static final void main(final String[] pArguments) {
+        // Load the natives; there's no Application to do it for us.
+        GdxNativesLoader.load();
+        // Fetch the number of cycles.
+        final int lCycles = pArguments.length > 0 ? Integer.parseInt(pArguments[0]) : LifecycleBenchmark.DEFAULT_CYCLES;
+        // Print the header.
+        System.out.println(String.format("%8s %10s %10s %12s %12s %10s", "cycle", "peakLive", "live", "bytes", "peakBytes", "ms"));
+        // Declare the number of objects live at the busiest point of a cycle, and the peak footprint once the first cycle has finished.
+        int  lPeakLive  = 0;
+        long lPeakBytes = -1L;
+        // Iterate the cycles.
+        for(int i = 0; i < lCycles; i++) {
+            // Fix the scene.
+            MathUtils.random.setSeed(SpawnWorkload.DEFAULT_SEED);
+            // Fetch the time the cycle began.
+            final long lStart = System.nanoTime();
+            // Allocate the simulation. (Nothing renders it, so bodies are never retired for resting.)
+            final PhysicsSimulation lPhysicsSimulation = new PhysicsSimulation(true).registerPrimitives();
+            lPhysicsSimulation.setRestTimeout(0.0f);
+            lPhysicsSimulation.compile();
+            lPhysicsSimulation.setAutoSync(false);
+            try {
+                // Iterate the steps.
+                for(int j = 0; j < LifecycleBenchmark.STEPS; j++) {
+                    // Is a spawn due?
+                    if(j % LifecycleBenchmark.SPAWN_PERIOD == 0) {
+                        // Spawn a primitive.
+                        lPhysicsSimulation.spawn();
+                    }
+                    // Step the simulation.
+                    lPhysicsSimulation.step();
+                    lPhysicsSimulation.getContactEventBuffer().clear();
+                }
+                // Count the objects held by the full scene.
+                lPeakLive = NativeRegistry.getLive();
+            }
+            finally {
+                // Dispose of the simulation.
+                lPhysicsSimulation.dispose();
+            }
+            // Summarize the cycle.
+            System.out.println(String.format("%8d %10d %10d %12d %12d %10d", i + 1, lPeakLive, NativeRegistry.getLive(), NativeRegistry.getBytes(), NativeRegistry.getPeakBytes(), (System.nanoTime() - lStart) / LifecycleBenchmark.NANOS_PER_MILLI));
+            // Assert that the cycle left nothing behind.
+            Assertions.isEqual(0L, NativeRegistry.getLive(), "Nothing should outlive cycle " + (i + 1));
+            // Remember the peak of the first cycle.
+            lPeakBytes = lPeakBytes < 0L ? NativeRegistry.getPeakBytes() : lPeakBytes;
+        }
+        // Report anything that leaked.
+        final int lLeaked = NativeRegistry.reportLeaks();
+        System.out.println(lLeaked == 0 ? "flat; nothing leaked" : "leaked:\n" + NativeRegistry.report());
+        // Assert that the footprint stayed flat.
+        Assertions.isEqual(0L, lLeaked, "No native objects should leak");
+        Assertions.isEqual(0L, NativeRegistry.getDoubleDisposed(), "No native object should be disposed of twice");
+        Assertions.isEqual(0L, NativeRegistry.getAttached(), "No CollisionObject should be disposed of whilst in a DynamicsWorld");
+        Assertions.isEqual(lPeakBytes, NativeRegistry.getPeakBytes(), "The peak footprint should stop growing after the first cycle");
+    }
+
+}
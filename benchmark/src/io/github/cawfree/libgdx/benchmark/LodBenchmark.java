@@ -0,0 +1,140 @@
+package io.github.cawfree.libgdx.benchmark;
+
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+import io.github.cawfree.libgdx.render.LevelOfDetail;
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+
+/** Measures what the levels of detail save. A pile of primitives is spawned from the standard seed, and then viewed from a range of distances; at each, the levels selected for the visible Entities and the vertices they submit are compared with drawing everything at full detail. Finally the Camera is swayed back and forth across the distance at which an Entity crosses a threshold, to count how often Entities change level with and without hysteresis. No view may submit more vertices than full detail would, the farthest view must submit fewer, and hysteresis must reduce the transitions. Runs headless; the first argument optionally overrides the number of steps spent filling the scene. */
+public final class LodBenchmark {
+
+    /* Static Declarations. */
+    private static final int     DEFAULT_STEPS     = 900;
+    private static final float[] DISTANCES         = new float[] { 5.0f, 10.0f, 20.0f, 40.0f, 80.0f };
+    private static final int     SWAY_FRAMES       = 240;
+    private static final float   SWAY_AMPLITUDE    = 0.05f;
+    private static final float   SWAY_PERIOD       = 40.0f;
+    private static final int     SEARCH_ITERATIONS = 24;
+
+    /** Entry point. */
+    public static final void main(final String[] pArguments) {
+        // Load the natives; there's no Application to do it for us.
+        GdxNativesLoader.load();
+        // Allocate the simulation.
+        final PhysicsSimulation lPhysicsSimulation = new PhysicsSimulation(true);
+        try {
+            // Fix the scene.
+            MathUtils.random.setSeed(SpawnWorkload.DEFAULT_SEED);
+            // Build the primitives, and place the Floor.
+            lPhysicsSimulation.registerPrimitives().compile();
+            // Fill the scene.
+            for(int i = 0, lSteps = pArguments.length > 0 ? Integer.parseInt(pArguments[0]) : LodBenchmark.DEFAULT_STEPS; i < lSteps; i++) {
+                lPhysicsSimulation.step();
+                lPhysicsSimulation.getContactEventBuffer().clear();
+            }
+            // Allocate the Camera, and the passes that feed the ModelBatch.
+            final PerspectiveCamera    lPerspectiveCamera = new PerspectiveCamera(67.0f, 1280.0f, 720.0f);
+            final Array<PhysicsEntity> lView              = new Array<PhysicsEntity>(false, 64);
+            final LevelOfDetail        lLevelOfDetail     = new LevelOfDetail();
+            lPerspectiveCamera.far = 300.0f;
+            // Print the header.
+            System.out.println(String.format("%-10s %8s %8s %8s %8s %10s %10s %8s", "distance", "visible", "level0", "level1", "level2", "vertices", "full", "saved"));
+            // Iterate the distances.
+            for(final float lDistance : LodBenchmark.DISTANCES) {
+                // Look at the pile from the distance.
+                final Array<PhysicsEntity> lVisible = LodBenchmark.view(lPerspectiveCamera, lView, lPhysicsSimulation, lDistance);
+                // Select the levels.
+                lLevelOfDetail.select(lPerspectiveCamera, lVisible);
+                // Print the row.
+                System.out.println(String.format("%-10.1f %8d %8d %8d %8d %10d %10d %7.1f%%", lDistance, lVisible.size, lLevelOfDetail.getSelections(0), lLevelOfDetail.getSelections(1), lLevelOfDetail.getSelections(2), lLevelOfDetail.getVertices(), lLevelOfDetail.getFullVertices(), 100.0f * (1.0f - (float)lLevelOfDetail.getVertices() / Math.max(1L, lLevelOfDetail.getFullVertices()))));
+                // Assert that the levels never cost more than full detail.
+                Assertions.isTrue(lLevelOfDetail.getVertices() <= lLevelOfDetail.getFullVertices(), "The levels of detail should never submit more vertices than full detail.");
+            }
+            // Assert that the farthest view saved vertices.
+            Assertions.isTrue(lLevelOfDetail.getVertices() < lLevelOfDetail.getFullVertices(), "The distant pile should be drawn with fewer vertices than full detail.");
+            // Find an Entity with levels to choose between.
+            final Array<PhysicsEntity> lVisible = LodBenchmark.view(lPerspectiveCamera, lView, lPhysicsSimulation, LodBenchmark.DISTANCES[0]);
+            PhysicsEntity lSubject = null;
+            for(final PhysicsEntity lPhysicsEntity : lVisible) {
+                lSubject = lSubject == null && lPhysicsEntity.getLevels() > 1 ? lPhysicsEntity : lSubject;
+            }
+            // Assert that there's something to sway across.
+            Assertions.isTrue(lSubject != null, "The pile should contain an Entity with several levels.");
+            // Search for the distance at which the Entity crosses the first threshold. (Its size on screen falls with the distance.)
+            float lNear = LodBenchmark.DISTANCES[0];
+            float lFar  = LodBenchmark.DISTANCES[LodBenchmark.DISTANCES.length - 1];
+            for(int i = 0; i < LodBenchmark.SEARCH_ITERATIONS; i++) {
+                // Look from halfway between the bounds.
+                LodBenchmark.view(lPerspectiveCamera, lView, lPhysicsSimulation, (lNear + lFar) * 0.5f);
+                // Is the Entity still larger than the threshold?
+                if(lLevelOfDetail.getScreenSize(lPerspectiveCamera, lSubject) > LevelOfDetail.DEFAULT_THRESHOLDS[0]) {
+                    lNear = (lNear + lFar) * 0.5f;
+                }
+                else {
+                    lFar  = (lNear + lFar) * 0.5f;
+                }
+            }
+            final float lThreshold = (lNear + lFar) * 0.5f;
+            // Declare the transitions made without hysteresis.
+            int lUnsteady = 0;
+            // Sway the Camera across the threshold, with and without hysteresis.
+            for(final float lHysteresis : new float[] { 0.0f, LevelOfDetail.DEFAULT_HYSTERESIS }) {
+                // Allocate the selector.
+                final LevelOfDetail lSwaySelector = new LevelOfDetail(LevelOfDetail.DEFAULT_THRESHOLDS, lHysteresis);
+                // Count the transitions.
+                int lTransitions = 0;
+                // Iterate the frames.
+                for(int i = 0; i < LodBenchmark.SWAY_FRAMES; i++) {
+                    // Sway about the threshold.
+                    final float lDistance = lThreshold * (1.0f + LodBenchmark.SWAY_AMPLITUDE * MathUtils.sin(MathUtils.PI2 * i / LodBenchmark.SWAY_PERIOD));
+                    // Select the levels.
+                    lSwaySelector.select(lPerspectiveCamera, LodBenchmark.view(lPerspectiveCamera, lView, lPhysicsSimulation, lDistance));
+                    // Accumulate the transitions; the first frame only settles the levels.
+                    lTransitions += i == 0 ? 0 : lSwaySelector.getTransitions();
+                }
+                // Print the result.
+                System.out.println(String.format("sway[hysteresis=%.2f]: %d transitions over %d frames", lHysteresis, lTransitions, LodBenchmark.SWAY_FRAMES));
+                // Is this the run without hysteresis?
+                if(lHysteresis == 0.0f) {
+                    // Remember the transitions.
+                    lUnsteady = lTransitions;
+                }
+                else {
+                    // Assert that hysteresis steadied the levels.
+                    Assertions.isTrue(lTransitions < lUnsteady, "Hysteresis should reduce the transitions (" + lTransitions + " with, " + lUnsteady + " without).");
+                }
+            }
+        }
+        finally {
+            // Dispose of the simulation.
+            lPhysicsSimulation.dispose();
+        }
+    }
+
+    /** Points the Camera at the pile from a distance, and returns the visible Instances, using their synced bounds as the CullSystem does. The View is reused between calls. */
+    private static final Array<PhysicsEntity> view(final PerspectiveCamera pPerspectiveCamera, final Array<PhysicsEntity> pView, final PhysicsSimulation pPhysicsSimulation, final float pDistance) {
+        // Place the Camera above and in front of the Floor, looking at its centre.
+        pPerspectiveCamera.position.set(0.0f, pDistance * 0.5f, pDistance);
+        pPerspectiveCamera.lookAt(0.0f, 0.0f, 0.0f);
+        pPerspectiveCamera.update();
+        // Empty the previous results.
+        pView.clear();
+        // Iterate the Instances.
+        for(int i = 0; i < pPhysicsSimulation.getInstances().size; i++) {
+            // Fetch the PhysicsEntity.
+            final PhysicsEntity lPhysicsEntity = pPhysicsSimulation.getInstances().get(i);
+            // Is the PhysicsEntity on screen?
+            if(pPerspectiveCamera.frustum.boundsInFrustum(lPhysicsEntity.getBounds())) {
+                // Keep the PhysicsEntity.
+                pView.add(lPhysicsEntity);
+            }
+        }
+        // Return the visible Instances.
+        return pView;
+    }
+
+}
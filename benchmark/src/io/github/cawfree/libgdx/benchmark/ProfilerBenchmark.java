@@ -0,0 +1,61 @@
+package io.github.cawfree.libgdx.benchmark;
+
+import io.github.cawfree.libgdx.profile.FrameProfiler;
+import io.github.cawfree.libgdx.profile.RollingHistogram;
+
+/** Measures the cost of recording into a RollingHistogram, and checks what it reports. A window of uniformly distributed samples must produce quantiles within the precision of the buckets, and once the window has been overwritten, nothing of the old samples may remain. A FrameProfiler fed a known sequence of frames must then dump a row for every Stage and Counter. Requires no natives; the first argument optionally overrides the size of the window. */
+public final class ProfilerBenchmark {
+
+    /* Static Declarations. */
+    private static final int    DEFAULT_WINDOW = 10000;
+    private static final int    FRAMES         = 120;
+    private static final long   CONSTANT       = 7L;
+    private static final double PRECISION      = 1.0 / 32.0;
+
+    /** Entry point. */
+    public static final void main(final String[] pArguments) {
+        // Fetch the size of the window.
+        final int              lWindow           = pArguments.length > 0 ? Integer.parseInt(pArguments[0]) : ProfilerBenchmark.DEFAULT_WINDOW;
+        // Allocate the RollingHistogram.
+        final RollingHistogram lRollingHistogram = new RollingHistogram(lWindow);
+        // Fetch the start time.
+        final long             lStart            = System.nanoTime();
+        // Fill the window with 1, 2, ..., Window.
+        for(int i = 1; i <= lWindow; i++) {
+            lRollingHistogram.record(i);
+        }
+        // Report the cost of recording.
+        System.out.println(String.format("recorded %d samples at %.1fns each", lWindow, (double)(System.nanoTime() - lStart) / lWindow));
+        System.out.println(String.format("p50 %d, p90 %d, p99 %d, max %d, mean %.1f", lRollingHistogram.getQuantile(0.5f), lRollingHistogram.getQuantile(0.9f), lRollingHistogram.getQuantile(0.99f), lRollingHistogram.getMaximum(), lRollingHistogram.getMean()));
+        // Assert that the quantiles are as precise as the buckets.
+        Assertions.isNear(0.50 * lWindow, lRollingHistogram.getQuantile(0.50f), 0.50 * lWindow * ProfilerBenchmark.PRECISION + 1.0, "The median should be within the precision of the buckets");
+        Assertions.isNear(0.90 * lWindow, lRollingHistogram.getQuantile(0.90f), 0.90 * lWindow * ProfilerBenchmark.PRECISION + 1.0, "The 90th percentile should be within the precision of the buckets");
+        Assertions.isNear(0.99 * lWindow, lRollingHistogram.getQuantile(0.99f), 0.99 * lWindow * ProfilerBenchmark.PRECISION + 1.0, "The 99th percentile should be within the precision of the buckets");
+        Assertions.isEqual(lWindow, lRollingHistogram.getMaximum(), "The maximum should be exact");
+        Assertions.isNear((lWindow + 1) * 0.5, lRollingHistogram.getMean(), 1.0e-6, "The mean should be exact");
+        // Overwrite the window.
+        for(int i = 0; i < lWindow; i++) {
+            lRollingHistogram.record(ProfilerBenchmark.CONSTANT);
+        }
+        // Assert that the old samples were evicted.
+        Assertions.isEqual(lWindow, lRollingHistogram.getCount(), "The window should stay full");
+        Assertions.isEqual(ProfilerBenchmark.CONSTANT, lRollingHistogram.getQuantile(0.99f), "Evicted samples shouldn't be counted");
+        Assertions.isEqual(ProfilerBenchmark.CONSTANT, lRollingHistogram.getMaximum(), "Evicted samples shouldn't be the maximum");
+        Assertions.isNear(ProfilerBenchmark.CONSTANT, lRollingHistogram.getMean(), 1.0e-6, "Evicted samples shouldn't be averaged");
+        // Allocate a FrameProfiler, and feed it a known sequence of frames.
+        final FrameProfiler lFrameProfiler = new FrameProfiler(ProfilerBenchmark.FRAMES);
+        for(int i = 0; i < ProfilerBenchmark.FRAMES; i++) {
+            lFrameProfiler.count(FrameProfiler.Counter.BODIES, i);
+            lFrameProfiler.endFrame();
+        }
+        // Assert that every frame was committed.
+        Assertions.isEqual(ProfilerBenchmark.FRAMES, lFrameProfiler.getFrames(), "Every frame should be counted");
+        Assertions.isEqual(ProfilerBenchmark.FRAMES - 1, lFrameProfiler.getHistogram(FrameProfiler.Counter.BODIES).getMaximum(), "The last count should be committed");
+        Assertions.isEqual(ProfilerBenchmark.FRAMES, lFrameProfiler.getHistogram(FrameProfiler.Stage.FRAME).getCount(), "Every Stage should be committed with every frame");
+        // Assert that the dumps describe every metric.
+        Assertions.isEqual(1 + FrameProfiler.Stage.values().length + FrameProfiler.Counter.values().length, lFrameProfiler.toCSV().split("\n").length, "The CSV should have a header and a row per metric");
+        Assertions.isTrue(lFrameProfiler.toJSON().startsWith("{\"frames\":" + ProfilerBenchmark.FRAMES + ","), "The JSON should lead with the number of frames.");
+        Assertions.isTrue(lFrameProfiler.toJSON().contains("\"bodies\":{\"unit\":\"count\",\"samples\":" + ProfilerBenchmark.FRAMES + ","), "The JSON should describe every Counter.");
+    }
+
+}
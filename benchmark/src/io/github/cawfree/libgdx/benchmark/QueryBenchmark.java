@@ -0,0 +1,143 @@
+package io.github.cawfree.libgdx.benchmark;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+import io.github.cawfree.libgdx.simulation.CollisionLayers;
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+import io.github.cawfree.libgdx.simulation.RayQuery;
+import io.github.cawfree.libgdx.simulation.SpatialQuery;
+import io.github.cawfree.libgdx.simulation.TriggerVolume;
+
+/** Exercises the SpatialQuery. A box is dropped through a TriggerVolume onto the Floor, which must report it entering and then exiting; once it has landed, overlaps around the box must find it and nothing else, and spheres and boxes swept down onto it must hit its top, while those swept away from it must miss. The TriggerVolume is then moved onto the box, which must enter it, and the box is retired, which must exit it. Finally the cost of a sweep is measured. Runs headless; the first argument optionally overrides the number of timed sweeps. */
+public final class QueryBenchmark {
+
+    /* Static Declarations. */
+    private static final int     DEFAULT_SWEEPS     = 100000;
+    private static final int     DROP_STEPS         = 240;
+    private static final float   DROP_HEIGHT        = 6.0f;
+    private static final float   TRIGGER_HEIGHT     = 3.0f;
+    private static final float   REST_HEIGHT        = 1.0f;
+    private static final float   SWEEP_HEIGHT       = 5.0f;
+    private static final float   CAST_RADIUS        = 0.25f;
+    private static final float   TOLERANCE_FRACTION = 0.01f;
+    private static final float   TOLERANCE_POINT    = 0.1f;
+    private static final float   MINIMUM_NORMAL     = 0.9f;
+
+    /** Entry point. */
+    public static final void main(final String[] pArguments) {
+        // Load the natives; there's no Application to do it for us.
+        GdxNativesLoader.load();
+        // Define the number of timed sweeps.
+        final int               lSweeps            = pArguments.length > 0 ? Integer.parseInt(pArguments[0]) : QueryBenchmark.DEFAULT_SWEEPS;
+        // Allocate a quiet simulation; nothing may spawn but the box.
+        final PhysicsSimulation lPhysicsSimulation = new PhysicsSimulation(true);
+        // Allocate the region of the TriggerVolume; it's a slab across the Floor, one unit tall. (The CollisionShape is ours to dispose.)
+        final btBoxShape        lTriggerShape      = new btBoxShape(new Vector3(1.0f, 0.5f, 1.0f));
+        final Matrix4           lTransform         = new Matrix4();
+        try {
+            // Build the primitives, and place the Floor.
+            lPhysicsSimulation.registerPrimitives().compile();
+            lPhysicsSimulation.setSpawnInterval(0.0f);
+            // Allocate the SpatialQuery, and hang the TriggerVolume above the Floor.
+            final SpatialQuery  lSpatialQuery  = new SpatialQuery(lPhysicsSimulation);
+            final TriggerVolume lTriggerVolume = lSpatialQuery.createTrigger(lTriggerShape, lTransform.setToTranslation(0.0f, QueryBenchmark.TRIGGER_HEIGHT, 0.0f), CollisionLayers.LAYER_DYNAMIC);
+            try {
+                // Drop the box through the TriggerVolume.
+                final PhysicsEntity lBox    = lPhysicsSimulation.spawn(PhysicsSimulation.KEY_OBJECT_BOX, lTransform.setToTranslation(0.0f, QueryBenchmark.DROP_HEIGHT, 0.0f));
+                final int           lHandle = lBox.getHandle();
+                // Declare the steps on which the box entered and exited.
+                int lEntered = -1;
+                int lExited  = -1;
+                // Let the box fall.
+                for(int i = 0; i < QueryBenchmark.DROP_STEPS; i++) {
+                    // Step the simulation, and refresh the TriggerVolume.
+                    lPhysicsSimulation.step();
+                    lPhysicsSimulation.getContactEventBuffer().clear();
+                    lSpatialQuery.update();
+                    // Record the first transitions of the box.
+                    lEntered = lEntered < 0 && lTriggerVolume.getEntered().contains(lHandle) ? i : lEntered;
+                    lExited  = lExited  < 0 && lTriggerVolume.getExited().contains(lHandle)  ? i : lExited;
+                }
+                // Print the transitions.
+                System.out.println(String.format("trigger[fall]: entered at step %d, exited at step %d", lEntered, lExited));
+                // Assert that the box passed through the TriggerVolume.
+                Assertions.isTrue(lEntered >= 0, "The falling box should enter the trigger.");
+                Assertions.isTrue(lExited > lEntered, "The falling box should exit the trigger after entering it.");
+                Assertions.isTrue(!lTriggerVolume.contains(lHandle), "The landed box should be outside of the trigger.");
+                // Find where the box landed.
+                final Vector3 lPosition = lBox.getBody().getWorldTransform().getTranslation(new Vector3());
+                Assertions.isNear(QueryBenchmark.REST_HEIGHT, lPosition.y, QueryBenchmark.TOLERANCE_POINT, "The box should rest on the Floor.");
+                // Look around the box, and far away from it.
+                final int[] lHandles = new int[8];
+                final int   lNear    = lSpatialQuery.overlap(new Vector3(-0.25f, 0.75f, -0.25f).add(lPosition.x, 0.0f, lPosition.z), new Vector3(0.25f, 1.25f, 0.25f).add(lPosition.x, 0.0f, lPosition.z), lHandles);
+                Assertions.isEqual(1L, lNear, "The overlap around the box should find only the box.");
+                Assertions.isEqual(lHandle, lHandles[0], "The overlap around the box should find the box.");
+                Assertions.isEqual(0L, lSpatialQuery.overlap(new Vector3(20.0f, 20.0f, 20.0f), new Vector3(21.0f, 21.0f, 21.0f), lHandles), "The overlap far from the pile should find nothing.");
+                // Pack a sweep down onto the box, and one up and away from it.
+                final float[] lCasts     = new float[2 * RayQuery.STRIDE_RAY];
+                final int[]   lHits      = new int[2];
+                final float[] lFractions = new float[2];
+                final float[] lPoints    = new float[2 * RayQuery.STRIDE_VECTOR];
+                final float[] lNormals   = new float[2 * RayQuery.STRIDE_VECTOR];
+                RayQuery.pack(lCasts, 0, new Vector3(lPosition.x, QueryBenchmark.SWEEP_HEIGHT, lPosition.z), new Vector3(lPosition.x, -QueryBenchmark.SWEEP_HEIGHT, lPosition.z));
+                RayQuery.pack(lCasts, 1, new Vector3(lPosition.x, QueryBenchmark.SWEEP_HEIGHT, lPosition.z), new Vector3(lPosition.x, 2.0f * QueryBenchmark.SWEEP_HEIGHT, lPosition.z));
+                // The shapes first touch the box when their centres are a radius above its top.
+                final float lTop      = lPosition.y + 0.5f;
+                final float lFraction = (QueryBenchmark.SWEEP_HEIGHT - (lTop + QueryBenchmark.CAST_RADIUS)) / (2.0f * QueryBenchmark.SWEEP_HEIGHT);
+                // Sweep a sphere, and then a box.
+                for(int i = 0; i < 2; i++) {
+                    // Sweep the shape.
+                    final int lCount = i == 0 ? lSpatialQuery.sphereCast(QueryBenchmark.CAST_RADIUS, lCasts, 2, lHits, lFractions, lPoints, lNormals) : lSpatialQuery.boxCast(new Vector3(QueryBenchmark.CAST_RADIUS, QueryBenchmark.CAST_RADIUS, QueryBenchmark.CAST_RADIUS), lCasts, 2, lHits, lFractions, lPoints, lNormals);
+                    final String lName  = i == 0 ? "sphere" : "box";
+                    // Print the hit.
+                    System.out.println(String.format("%sCast: hits=%d, handle=%d, fraction=%.4f (expected %.4f), point.y=%.3f, normal.y=%.3f", lName, lCount, lHits[0], lFractions[0], lFraction, lPoints[1], lNormals[1]));
+                    // Assert that only the sweep down hit, and that it hit the top of the box.
+                    Assertions.isEqual(1L, lCount, "Only the " + lName + " swept down should hit.");
+                    Assertions.isEqual(lHandle, lHits[0], "The " + lName + " swept down should hit the box.");
+                    Assertions.isNear(lFraction, lFractions[0], QueryBenchmark.TOLERANCE_FRACTION, "The " + lName + " swept down should stop on top of the box.");
+                    Assertions.isNear(lTop, lPoints[1], QueryBenchmark.TOLERANCE_POINT, "The " + lName + " swept down should touch the top of the box.");
+                    Assertions.isTrue(lNormals[1] > QueryBenchmark.MINIMUM_NORMAL, "The " + lName + " swept down should hit a face pointing up.");
+                    Assertions.isEqual(RayQuery.HANDLE_NONE, lHits[1], "The " + lName + " swept away should miss.");
+                }
+                // Move the TriggerVolume onto the box; the broadphase finds the overlap during the next step.
+                lTriggerVolume.setTransform(lTransform.setToTranslation(lPosition));
+                lPhysicsSimulation.step();
+                lPhysicsSimulation.getContactEventBuffer().clear();
+                lSpatialQuery.update();
+                // Assert that the box entered the TriggerVolume.
+                Assertions.isTrue(lTriggerVolume.getEntered().contains(lHandle), "The box should enter the trigger that moved onto it.");
+                Assertions.isTrue(lTriggerVolume.contains(lHandle), "The box should be inside of the trigger that moved onto it.");
+                // Retire the box.
+                lPhysicsSimulation.retire(lBox);
+                lPhysicsSimulation.step();
+                lPhysicsSimulation.getContactEventBuffer().clear();
+                lSpatialQuery.update();
+                // Assert that the box exited the TriggerVolume.
+                Assertions.isTrue(lTriggerVolume.getExited().contains(lHandle), "The retired box should exit the trigger.");
+                Assertions.isTrue(!lTriggerVolume.contains(lHandle), "The retired box should no longer be inside of the trigger.");
+                // Time the sweeps onto the Floor.
+                final long lStart = System.nanoTime();
+                for(int i = 0; i < lSweeps; i++) {
+                    lSpatialQuery.sphereCast(QueryBenchmark.CAST_RADIUS, lCasts, 1, lHits, lFractions, lPoints, lNormals);
+                }
+                final long lElapsed = System.nanoTime() - lStart;
+                // Print the cost.
+                System.out.println(String.format("sphereCast: %d sweeps, %.2fus per sweep", lSweeps, lElapsed / 1000.0 / Math.max(1, lSweeps)));
+            }
+            finally {
+                // Release the TriggerVolume and the Callbacks before the DynamicsWorld.
+                lSpatialQuery.dispose();
+            }
+        }
+        finally {
+            // Dispose of the simulation, and then the TriggerVolume's region.
+            lPhysicsSimulation.dispose();
+            lTriggerShape.dispose();
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package io.github.cawfree.libgdx.benchmark;
+
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import java.io.File;
+import java.io.IOException;
+
+import io.github.cawfree.libgdx.profile.RollingHistogram;
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+import io.github.cawfree.libgdx.simulation.ReplayLog;
+
+/** Replays a recorded session headlessly, as fast as it can be stepped, and checks that it ends where it was recorded. The first argument is the path of a ReplayLog, such as one saved by PhysicsWorld; the simulation only registers the primitives, so sessions which spawned other Builders report them as skipped. Without an argument, the standard SpawnWorkload is recorded from its seed first, and then replayed into a fresh simulation. Every window of steps is summarized, followed by whether the replay matched; a replay which diverges beyond the tolerance, or whose picks no longer hit what they hit when recorded, fails. */
+public final class ReplayBenchmark {
+
+    /* Static Declarations. */
+    private static final int   WINDOW          = 300;
+    private static final float TOLERANCE       = 1.0e-4f;
+    private static final long  NANOS_PER_MICRO = 1000L;
+
+    /** Entry point. */
+    public static final void main(final String[] pArguments) throws IOException {
+        // Load the natives; there's no Application to do it for us.
+        GdxNativesLoader.load();
+        // Allocate the log.
+        final ReplayLog lReplayLog = new ReplayLog();
+        // Has a session been provided?
+        if(pArguments.length > 0) {
+            // Load the session.
+            if(!lReplayLog.load(new File(pArguments[0]))) {
+                throw new IllegalStateException("The replay couldn't be loaded.");
+            }
+        }
+        else {
+            // Record the standard workload.
+            ReplayBenchmark.record(lReplayLog);
+        }
+        // Allocate the replaying simulation.
+        final PhysicsSimulation lPhysicsSimulation = new PhysicsSimulation(true).registerPrimitives();
+        lPhysicsSimulation.compile();
+        lPhysicsSimulation.setAutoSync(false);
+        // Allocate the histograms.
+        final RollingHistogram lStep   = new RollingHistogram(ReplayBenchmark.WINDOW);
+        final RollingHistogram lBodies = new RollingHistogram(ReplayBenchmark.WINDOW);
+        // Print the header.
+        System.out.println(String.format("%8s %10s %10s %10s", "steps", "bodies", "step", "step99"));
+        try {
+            // Fetch the start time.
+            final long lStart = System.nanoTime();
+            // Replay the session.
+            final int  lSteps = lReplayLog.replay(lPhysicsSimulation, new ReplayLog.Listener() { @Override public final void onStep(final PhysicsSimulation pPhysicsSimulation, final int pStep, final long pNanos) {
+                // Record the step.
+                lStep.record(pNanos / ReplayBenchmark.NANOS_PER_MICRO);
+                lBodies.record(pPhysicsSimulation.getLiveBodies());
+                // Has a window finished?
+                if((pStep + 1) % ReplayBenchmark.WINDOW == 0) {
+                    // Summarize the window.
+                    System.out.println(String.format("%8d %10.1f %10.1f %10d", pStep + 1, lBodies.getMean(), lStep.getMean(), lStep.getQuantile(0.99f)));
+                }
+            } });
+            // Report the replay.
+            System.out.println(String.format("replayed %d steps in %dms; %d spawns skipped, %d picks mismatched", lSteps, (System.nanoTime() - lStart) / (ReplayBenchmark.NANOS_PER_MICRO * 1000L), lReplayLog.getSkipped(), lReplayLog.getMismatches()));
+            // Check where the session ended.
+            final boolean lIsMatch = lReplayLog.verify(lPhysicsSimulation, ReplayBenchmark.TOLERANCE);
+            System.out.println(String.format("%s; worst deviation %g", lIsMatch ? "matched" : "diverged", lReplayLog.getDeviation()));
+            // Assert that the replay reproduced the session.
+            Assertions.isTrue(lIsMatch, "The replay should end within " + ReplayBenchmark.TOLERANCE + " of where it was recorded, but deviated by " + lReplayLog.getDeviation() + ".");
+            Assertions.isEqual(0L, lReplayLog.getMismatches(), "Every replayed pick should hit what it hit when recorded");
+            // Was the session recorded from the primitives alone?
+            if(pArguments.length == 0) {
+                // Assert that nothing was skipped.
+                Assertions.isEqual(0L, lReplayLog.getSkipped(), "Every recorded spawn should be replayed");
+            }
+        }
+        finally {
+            // Dispose of the simulation.
+            lPhysicsSimulation.dispose();
+        }
+    }
+
+    /** Records the standard workload into the log, from its seed. */
+    private static final void record(final ReplayLog pReplayLog) {
+        // Allocate the recorded simulation. (Nothing renders it, so bodies are never retired for resting.)
+        final PhysicsSimulation lPhysicsSimulation = new PhysicsSimulation(true).registerPrimitives();
+        lPhysicsSimulation.setRestTimeout(0.0f);
+        lPhysicsSimulation.setSpawnInterval(0.0f);
+        lPhysicsSimulation.setSeed(SpawnWorkload.DEFAULT_SEED);
+        lPhysicsSimulation.compile();
+        lPhysicsSimulation.setAutoSync(false);
+        try {
+            // Start recording.
+            pReplayLog.begin(lPhysicsSimulation);
+            // Iterate the steps.
+            for(int i = 0; i < SpawnWorkload.DEFAULT_WARMUP + SpawnWorkload.DEFAULT_STEPS; i++) {
+                // Is a spawn due?
+                if(i % SpawnWorkload.DEFAULT_SPAWN_PERIOD == 0) {
+                    // Spawn a primitive.
+                    lPhysicsSimulation.spawn();
+                }
+                // Step the simulation.
+                lPhysicsSimulation.step();
+                lPhysicsSimulation.getContactEventBuffer().clear();
+            }
+            // Record where the session ended.
+            pReplayLog.end();
+        }
+        finally {
+            // Dispose of the simulation.
+            lPhysicsSimulation.dispose();
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package io.github.cawfree.libgdx.benchmark;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import java.nio.ByteBuffer;
+
+import io.github.cawfree.libgdx.net.LoopbackTransport;
+import io.github.cawfree.libgdx.net.ReplicatedState;
+import io.github.cawfree.libgdx.net.StateClient;
+import io.github.cawfree.libgdx.net.StateCodec;
+import io.github.cawfree.libgdx.net.StateServer;
+import io.github.cawfree.libgdx.profile.RollingHistogram;
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+
+/** Measures the cost of replicating a growing scene to a thin client. An authoritative headless simulation spawns primitives onto the Floor from a fixed seed, and publishes to a StateClient over a LoopbackTransport after every step. Every window of steps is summarized: the bodies, the bytes of each delta against what a full state would have cost, and the time to encode and decode. After every step, the client's state, decoded from deltas, must equal a full state captured from the simulation; and so must the full state once it has been encoded and decoded. Runs headless; the first argument optionally overrides the maximum number of bodies. */
+public final class ReplicationBenchmark {
+
+    /* Static Declarations. */
+    private static final int  WINDOW           = 300;
+    private static final int  SPAWN_PERIOD     = 2;
+    private static final int  DEFAULT_BODIES   = 1024;
+    private static final long NANOS_PER_MICRO  = 1000L;
+
+    /** Entry point. */
+    public static final void main(final String[] pArguments) {
+        // Load the natives; there's no Application to do it for us.
+        GdxNativesLoader.load();
+        // Fetch the maximum number of bodies.
+        final int lMaximumBodies = pArguments.length > 0 ? Integer.parseInt(pArguments[0]) : ReplicationBenchmark.DEFAULT_BODIES;
+        // Allocate the authoritative simulation. (Nothing renders it, so bodies are never retired for resting.)
+        final PhysicsSimulation lPhysicsSimulation = new PhysicsSimulation(true).registerPrimitives();
+        lPhysicsSimulation.setMaximumBodies(lMaximumBodies);
+        lPhysicsSimulation.setRestTimeout(0.0f);
+        lPhysicsSimulation.compile();
+        lPhysicsSimulation.setAutoSync(false);
+        // Connect a client.
+        final LoopbackTransport[] lLoopbackTransports = LoopbackTransport.pair();
+        final StateServer         lStateServer        = new StateServer(lPhysicsSimulation);
+        final StateClient         lStateClient        = new StateClient(lLoopbackTransports[1]);
+        lStateServer.addClient(lLoopbackTransports[0]);
+        // Allocate the histograms.
+        final RollingHistogram lBytes  = new RollingHistogram(ReplicationBenchmark.WINDOW);
+        final RollingHistogram lFull   = new RollingHistogram(ReplicationBenchmark.WINDOW);
+        final RollingHistogram lEncode = new RollingHistogram(ReplicationBenchmark.WINDOW);
+        final RollingHistogram lDecode = new RollingHistogram(ReplicationBenchmark.WINDOW);
+        final RollingHistogram lBodies = new RollingHistogram(ReplicationBenchmark.WINDOW);
+        // Allocate the scratch used to price a full state.
+        final ReplicatedState  lState   = new ReplicatedState();
+        final ReplicatedState  lDecoded = new ReplicatedState();
+        ByteBuffer             lScratch = ByteBuffer.allocate(4096);
+        // Print the header.
+        System.out.println(String.format("%8s %10s %10s %10s %10s %10s", "bodies", "bytes", "full", "ratio", "encode", "decode"));
+        try {
+            // Fix the scene.
+            MathUtils.random.setSeed(SpawnWorkload.DEFAULT_SEED);
+            // Compute the steps; enough to spawn the maximum number of bodies, rounded up to whole windows, plus one window for the pile to settle. (Bodies which fall from the Floor are retired, so the scene may never actually fill.)
+            final int lSteps = (lMaximumBodies * ReplicationBenchmark.SPAWN_PERIOD / ReplicationBenchmark.WINDOW + 2) * ReplicationBenchmark.WINDOW;
+            // Iterate the steps.
+            for(int i = 0; i < lSteps; i++) {
+                // Is a spawn due?
+                if(i % ReplicationBenchmark.SPAWN_PERIOD == 0) {
+                    // Spawn a primitive.
+                    lPhysicsSimulation.spawn();
+                }
+                // Step the simulation.
+                lPhysicsSimulation.step();
+                lPhysicsSimulation.getContactEventBuffer().clear();
+                // Replicate the step.
+                lStateServer.publish();
+                lStateClient.poll();
+                // Price the same state, sent in full.
+                lState.capture(lPhysicsSimulation, lStateServer.getTick());
+                if(lScratch.capacity() < StateCodec.getMaximumSize(lState, null)) {
+                    lScratch = ByteBuffer.allocate(StateCodec.getMaximumSize(lState, null));
+                }
+                lScratch.clear();
+                StateCodec.encode(lState, null, lScratch);
+                // Record the step.
+                lBytes.record(lStateServer.getBytes());
+                lFull.record(lScratch.position());
+                lEncode.record(lStateServer.getEncodeNanos() / ReplicationBenchmark.NANOS_PER_MICRO);
+                lDecode.record(lStateClient.getDecodeNanos() / ReplicationBenchmark.NANOS_PER_MICRO);
+                lBodies.record(lPhysicsSimulation.getLiveBodies());
+                // Assert that the deltas reproduced the full state.
+                ReplicationBenchmark.verify(lState, lStateClient.getState(), "The client's state");
+                // Assert that the full state survives encoding.
+                lScratch.flip();
+                StateCodec.decode(lScratch, null, lDecoded);
+                ReplicationBenchmark.verify(lState, lDecoded, "The decoded full state");
+                // Has a window finished?
+                if((i + 1) % ReplicationBenchmark.WINDOW == 0) {
+                    // Summarize the window.
+                    System.out.println(String.format("%8.1f %10.1f %10.1f %10.3f %10.1f %10.1f", lBodies.getMean(), lBytes.getMean(), lFull.getMean(), lBytes.getMean() / Math.max(1.0, lFull.getMean()), lEncode.getMean(), lDecode.getMean()));
+                }
+            }
+        }
+        finally {
+            // Dispose of the simulation.
+            lPhysicsSimulation.dispose();
+        }
+    }
+
+    /** Asserts that a decoded state holds exactly the Entities of the full state, with the same fields. */
+    private static final void verify(final ReplicatedState pExpected, final ReplicatedState pActual, final String pName) {
+        // Has a state been received at all?
+        Assertions.isTrue(pActual != null, pName + " should have been received.");
+        // Assert that the state is current.
+        Assertions.isEqual(pExpected.getTick(), pActual.getTick(), pName + " should be of the latest tick");
+        // Iterate the Entities of the full state.
+        for(int i = pExpected.getPresent().nextSetBit(0); i >= 0; i = pExpected.getPresent().nextSetBit(i + 1)) {
+            // Assert that the Entity was decoded as it was captured.
+            Assertions.isTrue(pActual.isPresent(i) && pActual.getBuilder(i) == pExpected.getBuilder(i) && pActual.getPosition(i, 0) == pExpected.getPosition(i, 0) && pActual.getPosition(i, 1) == pExpected.getPosition(i, 1) && pActual.getPosition(i, 2) == pExpected.getPosition(i, 2) && pActual.getRotation(i) == pExpected.getRotation(i) && pActual.isSleeping(i) == pExpected.isSleeping(i), pName + " should match the full state for handle " + i + ".");
+        }
+        // Iterate the Entities of the decoded state.
+        for(int i = pActual.getPresent().nextSetBit(0); i >= 0; i = pActual.getPresent().nextSetBit(i + 1)) {
+            // Assert that the Entity hasn't outlived its removal.
+            Assertions.isTrue(pExpected.isPresent(i), pName + " should have removed handle " + i + ".");
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package io.github.cawfree.libgdx.benchmark;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+import io.github.cawfree.libgdx.simulation.SolverGovernor;
+import io.github.cawfree.libgdx.simulation.SolverProfile;
+import io.github.cawfree.libgdx.simulation.WorldConfiguration;
+
+/** Compares the SolverProfiles. Each profile is run on the standard SpawnWorkload to measure the cost of a step, and then has to hold up a tower of boxes stacked on the Floor; how far the top of the tower drifts and sinks, and how fast its boxes are still moving at the end, show how stable the profile is. The tower must settle under every profile, and must stand under every profile that uses split impulse. Finally the workload is repeated under a SolverGovernor, to show where an adaptive solver settles for a given budget. Runs headless; the first argument optionally overrides the number of recorded steps, and the second the governor's budget in microseconds. */
+public final class SolverBenchmark {
+
+    /* Static Declarations. */
+    private static final int   TOWER_HEIGHT     = 12;
+    private static final int   TOWER_STEPS      = 600;
+    private static final float TOWER_BASE       = 1.0f;
+    private static final float TOLERANCE_HEIGHT = 0.25f;
+    private static final float TOLERANCE_SPEED  = 0.1f;
+    private static final long  DEFAULT_BUDGET   = 250L;
+    private static final long  NANOS_PER_MICRO  = 1000L;
+
+    /** Entry point. */
+    public static final void main(final String[] pArguments) {
+        // Load the natives; there's no Application to do it for us.
+        GdxNativesLoader.load();
+        // Define the workload.
+        final SpawnWorkload lSpawnWorkload = pArguments.length > 0 ? new SpawnWorkload(SpawnWorkload.DEFAULT_SEED, Integer.parseInt(pArguments[0]), SpawnWorkload.DEFAULT_WARMUP, SpawnWorkload.DEFAULT_SPAWN_PERIOD) : new SpawnWorkload();
+        // Define the budget of the adaptive run.
+        final long          lBudget        = (pArguments.length > 1 ? Long.parseLong(pArguments[1]) : SolverBenchmark.DEFAULT_BUDGET) * SolverBenchmark.NANOS_PER_MICRO;
+        // Print the header.
+        System.out.println(SpawnWorkload.header() + String.format(" %8s %8s %8s %8s %8s", "drift", "sink", "speed", "asleep", "stands"));
+        // Iterate the SolverProfiles.
+        for(final SolverProfile lSolverProfile : SolverProfile.values()) {
+            // Measure the cost of the profile.
+            final SpawnWorkload.Result lResult = lSpawnWorkload.run(new PhysicsSimulation(true, new WorldConfiguration().setSolverProfile(lSolverProfile)));
+            // Measure the stability of the profile, and print both.
+            System.out.println(SpawnWorkload.format(lSolverProfile.toString(), lResult) + SolverBenchmark.tower(lSolverProfile));
+        }
+        // Allocate a simulation whose solver adapts to the budget.
+        final PhysicsSimulation lPhysicsSimulation = new PhysicsSimulation(true, new WorldConfiguration().setSolverProfile(SolverProfile.ACCURATE));
+        final SolverGovernor    lSolverGovernor    = new SolverGovernor(lBudget, SolverProfile.ACCURATE);
+        lPhysicsSimulation.setSolverGovernor(lSolverGovernor);
+        // Run the workload.
+        final SpawnWorkload.Result lResult = lSpawnWorkload.run(lPhysicsSimulation);
+        // Print where the governor settled.
+        System.out.println(SpawnWorkload.format("ADAPTIVE[budget=" + (lBudget / SolverBenchmark.NANOS_PER_MICRO) + "us, settled=" + lPhysicsSimulation.getSolverProfile() + ", downgrades=" + lSolverGovernor.getDowngrades() + ", upgrades=" + lSolverGovernor.getUpgrades() + "]", lResult));
+    }
+
+    /** Stacks a tower of boxes on the Floor, lets it stand, and formats how well it held up. */
+    private static final String tower(final SolverProfile pSolverProfile) {
+        // Allocate a quiet simulation; nothing may spawn but the tower.
+        final PhysicsSimulation   lPhysicsSimulation = new PhysicsSimulation(true, new WorldConfiguration().setSolverProfile(pSolverProfile));
+        final Array<PhysicsEntity> lTower            = new Array<PhysicsEntity>();
+        final Matrix4             lTransform         = new Matrix4();
+        final Vector3             lPosition          = new Vector3();
+        try {
+            // Build the primitives, and place the Floor.
+            lPhysicsSimulation.registerPrimitives().compile();
+            lPhysicsSimulation.setSpawnInterval(0.0f);
+            // Stack the boxes, each resting on the last. (The Floor's surface is at 0.5, and a box is one unit tall.)
+            for(int i = 0; i < SolverBenchmark.TOWER_HEIGHT; i++) {
+                lTower.add(lPhysicsSimulation.spawn(PhysicsSimulation.KEY_OBJECT_BOX, lTransform.setToTranslation(0.0f, SolverBenchmark.TOWER_BASE + i, 0.0f)));
+            }
+            // Let the tower stand.
+            for(int i = 0; i < SolverBenchmark.TOWER_STEPS; i++) {
+                lPhysicsSimulation.step();
+                lPhysicsSimulation.getContactEventBuffer().clear();
+            }
+            // Measure the top of the tower against where it started.
+            lTower.peek().getBody().getWorldTransform().getTranslation(lPosition);
+            final float lDrift = (float)Math.sqrt(lPosition.x * lPosition.x + lPosition.z * lPosition.z);
+            final float lSink  = (SolverBenchmark.TOWER_BASE + SolverBenchmark.TOWER_HEIGHT - 1) - lPosition.y;
+            // Find the fastest box, and count those that have come to rest.
+            float lSpeed    = 0.0f;
+            int   lSleeping = 0;
+            for(final PhysicsEntity lPhysicsEntity : lTower) {
+                lSpeed     = Math.max(lSpeed, lPhysicsEntity.getBody().getLinearVelocity().len());
+                lSleeping += lPhysicsEntity.getBody().isActive() ? 0 : 1;
+            }
+            // Format the row.
+            final String lRow = String.format(" %8.3f %8.3f %8.3f %8d %8s", lDrift, lSink, lSpeed, lSleeping, Math.abs(lSink) < SolverBenchmark.TOLERANCE_HEIGHT);
+            // Assert that the tower has come to rest.
+            Assertions.isTrue(lSpeed < SolverBenchmark.TOLERANCE_SPEED, "The tower should settle under " + pSolverProfile + ":" + lRow);
+            // Is penetration recovery kept from adding energy to the tower?
+            if(pSolverProfile.isSplitImpulse()) {
+                // Assert that the tower still stands.
+                Assertions.isTrue(Math.abs(lSink) < SolverBenchmark.TOLERANCE_HEIGHT, "The tower should stand under " + pSolverProfile + ":" + lRow);
+            }
+            // Return the row.
+            return lRow;
+        }
+        finally {
+            // Dispose of the simulation.
+            lPhysicsSimulation.dispose();
+        }
+    }
+
+}
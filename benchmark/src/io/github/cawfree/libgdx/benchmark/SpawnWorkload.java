@@ -0,0 +1,148 @@
+package io.github.cawfree.libgdx.benchmark;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import io.github.cawfree.libgdx.profile.RollingHistogram;
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+
+/** The standard benchmark workload. Primitives are spawned onto the Floor at a fixed rate from a fixed seed, and the simulation is stepped at the fixed timestep whilst the cost of each step is recorded; so different configurations of the same build see exactly the same scene. Runs headless. */
+public final class SpawnWorkload {
+
+    /** Summarizes a single run. Durations are in microseconds. */
+    public static final class Result {
+        /* Member Variables. */
+        private final RollingHistogram mStep;
+        private final RollingHistogram mBroadphase;
+        private final RollingHistogram mPairs;
+        private final RollingHistogram mRejected;
+        private final RollingHistogram mBodies;
+        /** Constructor. */
+        private Result(final int pSteps) {
+            // Initialize Member Variables.
+            this.mStep       = new RollingHistogram(pSteps);
+            this.mBroadphase = new RollingHistogram(pSteps);
+            this.mPairs      = new RollingHistogram(pSteps);
+            this.mRejected   = new RollingHistogram(pSteps);
+            this.mBodies     = new RollingHistogram(pSteps);
+        }
+        /* Getters. */
+        public final RollingHistogram       getStep() { return this.mStep;       }
+        public final RollingHistogram getBroadphase() { return this.mBroadphase; }
+        public final RollingHistogram      getPairs() { return this.mPairs;      }
+        public final RollingHistogram   getRejected() { return this.mRejected;   }
+        public final RollingHistogram     getBodies() { return this.mBodies;     }
+    }
+
+    /* Static Declarations. */
+    public  static final long DEFAULT_SEED         = 0x5EEDL;
+    public  static final int  DEFAULT_STEPS        = 3600;
+    public  static final int  DEFAULT_WARMUP       = 600;
+    public  static final int  DEFAULT_SPAWN_PERIOD = 4;
+    private static final long NANOS_PER_MICRO      = 1000L;
+
+    /* Member Variables. */
+    private final long mSeed;
+    private final int  mSteps;
+    private final int  mWarmup;
+    private final int  mSpawnPeriod;
+
+    /** Constructor. An Entity is spawned every SpawnPeriod steps; steps within the Warmup fill the scene, and aren't recorded. */
+    public SpawnWorkload(final long pSeed, final int pSteps, final int pWarmup, final int pSpawnPeriod) {
+        // Initialize Member Variables.
+        this.mSeed        = pSeed;
+        this.mSteps       = pSteps;
+        this.mWarmup      = pWarmup;
+        this.mSpawnPeriod = pSpawnPeriod;
+    }
+
+    /** Constructor. Uses the default workload. */
+    public SpawnWorkload() {
+        // Use the defaults.
+        this(SpawnWorkload.DEFAULT_SEED, SpawnWorkload.DEFAULT_STEPS, SpawnWorkload.DEFAULT_WARMUP, SpawnWorkload.DEFAULT_SPAWN_PERIOD);
+    }
+
+    /** Runs the workload on a fresh, uncompiled simulation, which is disposed of afterwards. The primitives are registered unless the caller has already registered them, so that their layers may be configured beforehand. */
+    public final Result run(final PhysicsSimulation pPhysicsSimulation) {
+        // Allocate the Result.
+        final Result lResult = new Result(this.getSteps());
+        try {
+            // Fix the scene.
+            MathUtils.random.setSeed(this.getSeed());
+            // Have the primitives been registered?
+            if(pPhysicsSimulation.getConstructors().size == 0) {
+                // Register the primitives.
+                pPhysicsSimulation.registerPrimitives();
+            }
+            // Build the primitives, and place the Floor.
+            pPhysicsSimulation.compile();
+            // Nothing reads the renderable transforms.
+            pPhysicsSimulation.setAutoSync(false);
+            // Iterate the steps.
+            for(int i = -this.getWarmup(); i < this.getSteps(); i++) {
+                // Is a spawn due?
+                if(i % this.getSpawnPeriod() == 0) {
+                    // Spawn a primitive.
+                    pPhysicsSimulation.spawn();
+                }
+                // Fetch the start time.
+                final long lStart = System.nanoTime();
+                // Run the broadphase over the motion of the last step. (The step's own pass then finds nothing left to do, so this isolates its cost.)
+                pPhysicsSimulation.getDynamicsWorld().updateAabbs();
+                pPhysicsSimulation.getDynamicsWorld().computeOverlappingPairs();
+                // Fetch the time the broadphase finished.
+                final long lBroadphase = System.nanoTime();
+                // Step the simulation.
+                pPhysicsSimulation.step();
+                // Fetch the end time.
+                final long lEnd = System.nanoTime();
+                // Consume the contact events, so that the buffer never saturates.
+                pPhysicsSimulation.getContactEventBuffer().clear();
+                // Are we past the warmup?
+                if(i >= 0) {
+                    // Record the step.
+                    lResult.getStep().record((lEnd - lStart) / SpawnWorkload.NANOS_PER_MICRO);
+                    lResult.getBroadphase().record((lBroadphase - lStart) / SpawnWorkload.NANOS_PER_MICRO);
+                    lResult.getPairs().record(pPhysicsSimulation.getDynamicsWorld().getPairCache().getNumOverlappingPairs());
+                    lResult.getRejected().record(pPhysicsSimulation.getStatistics().getRejectedPairs());
+                    lResult.getBodies().record(pPhysicsSimulation.getLiveBodies());
+                }
+            }
+        }
+        finally {
+            // Dispose of the simulation.
+            pPhysicsSimulation.dispose();
+        }
+        // Return the Result.
+        return lResult;
+    }
+
+    /** Formats a row of the summary table. */
+    public static final String format(final String pName, final Result pResult) {
+        // Format the row.
+        return String.format("%-72s %8.1f %8d %8.1f %8d %8.1f %8d %8.1f %8.1f", pName, pResult.getStep().getMean(), pResult.getStep().getQuantile(0.99f), pResult.getBroadphase().getMean(), pResult.getBroadphase().getQuantile(0.99f), pResult.getPairs().getMean(), pResult.getPairs().getMaximum(), pResult.getRejected().getMean(), pResult.getBodies().getMean());
+    }
+
+    /** Returns the header of the summary table. */
+    public static final String header() {
+        // Format the header.
+        return String.format("%-72s %8s %8s %8s %8s %8s %8s %8s %8s", "configuration", "step", "step99", "broad", "broad99", "pairs", "pairsMax", "rejected", "bodies");
+    }
+
+    /* Getters. */
+    public final long getSeed() {
+        return this.mSeed;
+    }
+
+    public final int getSteps() {
+        return this.mSteps;
+    }
+
+    public final int getWarmup() {
+        return this.mWarmup;
+    }
+
+    public final int getSpawnPeriod() {
+        return this.mSpawnPeriod;
+    }
+
+}
@@ -0,0 +1,96 @@
+package io.github.cawfree.libgdx.benchmark;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+import io.github.cawfree.libgdx.simulation.SyncMode;
+
+/** Compares reading simulated Transforms back through MotionState upcalls against reading them in bulk, on the standard SpawnWorkload. The step time includes the read back, since both happen within an update. Each SyncMode then traces a smaller pile with the renderable state published after every step; every renderable Transform must match its Body's, and both modes must end with the same scene, since reading the state back mustn't change it. Runs headless; the first argument optionally overrides the number of recorded steps. */
+public final class SyncBenchmark {
+
+    /* Static Declarations. */
+    private static final int   TRACE_STEPS  = 600;
+    private static final int   SPAWN_PERIOD = 4;
+    private static final float TOLERANCE    = 1.0e-4f;
+
+    /** Entry point. */
+    public static final void main(final String[] pArguments) {
+        // Load the natives; there's no Application to do it for us.
+        GdxNativesLoader.load();
+        // Define the workload.
+        final SpawnWorkload lSpawnWorkload = pArguments.length > 0 ? new SpawnWorkload(SpawnWorkload.DEFAULT_SEED, Integer.parseInt(pArguments[0]), SpawnWorkload.DEFAULT_WARMUP, SpawnWorkload.DEFAULT_SPAWN_PERIOD) : new SpawnWorkload();
+        // Print the header.
+        System.out.println(SpawnWorkload.header());
+        // Iterate the SyncModes.
+        for(final SyncMode lSyncMode : SyncMode.values()) {
+            // Allocate the simulation.
+            final PhysicsSimulation lPhysicsSimulation = new PhysicsSimulation(true);
+            lPhysicsSimulation.setSyncMode(lSyncMode);
+            // Run the workload, and print the result.
+            System.out.println(SpawnWorkload.format(lSyncMode.toString(), lSpawnWorkload.run(lPhysicsSimulation)));
+        }
+        // Trace the scene under each SyncMode.
+        final float[] lMotionState = SyncBenchmark.trace(SyncMode.MOTION_STATE);
+        final float[] lBulk        = SyncBenchmark.trace(SyncMode.BULK);
+        // Assert that both modes produced the same scene.
+        Assertions.isEqual(lMotionState.length, lBulk.length, "Both SyncModes should end with the same number of bodies");
+        for(int i = 0; i < lBulk.length; i++) {
+            Assertions.isNear(lMotionState[i], lBulk[i], SyncBenchmark.TOLERANCE, "Both SyncModes should end with the same scene");
+        }
+    }
+
+    /** Simulates a pile with the renderable state published after every step, and asserts that every renderable Transform matches its Body's. Returns the final renderable Transforms, in the order of the Instances. */
+    private static final float[] trace(final SyncMode pSyncMode) {
+        // Allocate the simulation.
+        final PhysicsSimulation lPhysicsSimulation = new PhysicsSimulation(true).registerPrimitives();
+        final Matrix4           lTransform         = new Matrix4();
+        try {
+            // Fix the scene.
+            MathUtils.random.setSeed(SpawnWorkload.DEFAULT_SEED);
+            // Build the primitives, and place the Floor.
+            lPhysicsSimulation.compile();
+            lPhysicsSimulation.setSpawnInterval(0.0f);
+            lPhysicsSimulation.setSyncMode(pSyncMode);
+            // Declare the worst deviation of a renderable Transform from its Body.
+            float lDeviation = 0.0f;
+            // Iterate the steps.
+            for(int i = 0; i < SyncBenchmark.TRACE_STEPS; i++) {
+                // Is a spawn due?
+                if(i % SyncBenchmark.SPAWN_PERIOD == 0) {
+                    // Spawn a primitive.
+                    lPhysicsSimulation.spawn();
+                }
+                // Step the simulation, and publish the result.
+                lPhysicsSimulation.step();
+                lPhysicsSimulation.getContactEventBuffer().clear();
+                // Iterate the Instances.
+                for(int j = 0; j < lPhysicsSimulation.getInstances().size; j++) {
+                    // Fetch where Bullet has placed the Body.
+                    lPhysicsSimulation.getInstances().get(j).getBody().getWorldTransform(lTransform);
+                    // Compare it with the renderable Transform.
+                    for(int k = 0; k < 16; k++) {
+                        lDeviation = Math.max(lDeviation, Math.abs(lTransform.val[k] - lPhysicsSimulation.getInstances().get(j).transform.val[k]));
+                    }
+                }
+            }
+            // Print the trace.
+            System.out.println(String.format("%s: %d bodies, worst deviation %g", pSyncMode, lPhysicsSimulation.getLiveBodies(), lDeviation));
+            // Assert that the renderable state kept up with the Bodies.
+            Assertions.isNear(0.0f, lDeviation, SyncBenchmark.TOLERANCE, "Every renderable Transform should match its Body under " + pSyncMode);
+            // Copy out the final renderable Transforms.
+            final float[] lTransforms = new float[lPhysicsSimulation.getInstances().size * 16];
+            for(int i = 0; i < lPhysicsSimulation.getInstances().size; i++) {
+                System.arraycopy(lPhysicsSimulation.getInstances().get(i).transform.val, 0, lTransforms, i * 16, 16);
+            }
+            // Return the Transforms.
+            return lTransforms;
+        }
+        finally {
+            // Dispose of the simulation.
+            lPhysicsSimulation.dispose();
+        }
+    }
+
+}
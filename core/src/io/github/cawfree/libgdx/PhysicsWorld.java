@@ -1,14 +1,14 @@
 package io.github.cawfree.libgdx;
 
+import com.badlogic.ashley.core.PooledEngine;
 import com.badlogic.gdx.ApplicationListener;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.assets.AssetManager;
-import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.Mesh;
 import com.badlogic.gdx.graphics.PerspectiveCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
@@ -17,36 +17,37 @@ import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.graphics.g3d.ModelBatch;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
-import com.badlogic.gdx.graphics.g3d.model.Node;
 import com.badlogic.gdx.graphics.g3d.utils.CameraInputController;
-import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
-import com.badlogic.gdx.math.Intersector;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.math.collision.Ray;
-import com.badlogic.gdx.physics.bullet.Bullet;
 import com.badlogic.gdx.physics.bullet.DebugDrawer;
-import com.badlogic.gdx.physics.bullet.collision.ClosestRayResultCallback;
-import com.badlogic.gdx.physics.bullet.collision.Collision;
-import com.badlogic.gdx.physics.bullet.collision.ContactListener;
-import com.badlogic.gdx.physics.bullet.collision.btBroadphaseInterface;
-import com.badlogic.gdx.physics.bullet.collision.btCollisionConfiguration;
-import com.badlogic.gdx.physics.bullet.collision.btCollisionDispatcher;
-import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
-import com.badlogic.gdx.physics.bullet.collision.btDbvtBroadphase;
-import com.badlogic.gdx.physics.bullet.collision.btDefaultCollisionConfiguration;
-import com.badlogic.gdx.physics.bullet.collision.btDispatcher;
-import com.badlogic.gdx.physics.bullet.dynamics.btConstraintSolver;
-import com.badlogic.gdx.physics.bullet.dynamics.btDiscreteDynamicsWorld;
-import com.badlogic.gdx.physics.bullet.dynamics.btDynamicsWorld;
-import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
-import com.badlogic.gdx.physics.bullet.dynamics.btSequentialImpulseConstraintSolver;
 import com.badlogic.gdx.physics.bullet.linearmath.btIDebugDraw;
-import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.ArrayMap;
-
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.io.IOException;
+
+import io.github.cawfree.libgdx.ecs.CullSystem;
+import io.github.cawfree.libgdx.ecs.HighlightSystem;
+import io.github.cawfree.libgdx.ecs.ParallelSystem;
+import io.github.cawfree.libgdx.ecs.RenderSystem;
+import io.github.cawfree.libgdx.ecs.StepSystem;
+import io.github.cawfree.libgdx.ecs.SyncSystem;
+import io.github.cawfree.libgdx.ecs.TransformStore;
+import io.github.cawfree.libgdx.entity.CollisionGeometry;
+import io.github.cawfree.libgdx.entity.HullCache;
 import io.github.cawfree.libgdx.entity.PhysicsEntity;
+import io.github.cawfree.libgdx.loader.ProgressiveLoader;
+import io.github.cawfree.libgdx.profile.FrameProfiler;
+import io.github.cawfree.libgdx.render.FrozenCache;
+import io.github.cawfree.libgdx.render.LevelOfDetail;
+import io.github.cawfree.libgdx.simulation.NativeRegistry;
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+import io.github.cawfree.libgdx.simulation.PhysicsThread;
+import io.github.cawfree.libgdx.simulation.RayQuery;
+import io.github.cawfree.libgdx.simulation.ReplayLog;
+import io.github.cawfree.libgdx.simulation.SolverProfile;
+import io.github.cawfree.libgdx.simulation.StepController;
+import io.github.cawfree.libgdx.simulation.WorldCheckpoint;
 
 /**
  * @url https://xoppa.github.io/blog/using-the-libgdx-3d-physics-bullet-wrapper-part2/
@@ -56,28 +57,35 @@ import io.github.cawfree.libgdx.entity.PhysicsEntity;
 public final class PhysicsWorld implements ApplicationListener, InputProcessor {
 
     /* Configurations. */
-    private static final boolean RENDER_DEBUG = false;
-
-    /* Static Declarations. */
-    private static final short GROUND_FLAG        = (1 << 8);
-    private static final short OBJECT_FLAG        = (1 << 9);
-    private static final float FRAMES_PER_SECOND  = 60.0f;
-    private static final float DELAY_RESPAWN_MS   = 1.5f;
+    private static final boolean RENDER_DEBUG     = false;
+    private static final boolean PHYSICS_THREADED = false;
+    private static final int     LOADER_THREADS   = 2;
+    private static final float   FREEZE_TIMEOUT   = 3.0f;
+    private static final boolean REPLAY_RECORD    = false;
+    private static final long    REPLAY_SEED      = 0x5EEDL;
+    private static final long    STEP_BUDGET      = 8000000L;
+    private static final float   PHYSICS_RATE     = 30.0f;
+    private static final float   THREAD_RATE      = 60.0f;
+    private static final String  TAG              = "PhysicsWorld";
 
     /* Object Definitions. */
-    public  static final String KEY_OBJECT_GROUND   = "ground";
-    public  static final String KEY_OBJECT_SPHERE   = "sphere";
-    public  static final String KEY_OBJECT_BOX      = "box";
-    public  static final String KEY_OBJECT_CONE     = "cone";
-    public  static final String KEY_OBJECT_CYLINDER = "cylinder";
-    public  static final String KEY_OBJECT_CAPSULE  = "capsule";
-    public  static final String KEY_OBJECT_SHIP     = "ship";
-    public  static final String KEY_OBJECT_SPINNER  = "spinner";
+    public  static final String KEY_OBJECT_GROUND   = PhysicsSimulation.KEY_OBJECT_GROUND;
+    public  static final String KEY_OBJECT_SPHERE   = PhysicsSimulation.KEY_OBJECT_SPHERE;
+    public  static final String KEY_OBJECT_BOX      = PhysicsSimulation.KEY_OBJECT_BOX;
+    public  static final String KEY_OBJECT_CONE     = PhysicsSimulation.KEY_OBJECT_CONE;
+    public  static final String KEY_OBJECT_CYLINDER = PhysicsSimulation.KEY_OBJECT_CYLINDER;
+    public  static final String KEY_OBJECT_CAPSULE  = PhysicsSimulation.KEY_OBJECT_CAPSULE;
+    public  static final String KEY_OBJECT_SHIP     = PhysicsSimulation.KEY_OBJECT_SHIP;
+    public  static final String KEY_OBJECT_SPINNER  = PhysicsSimulation.KEY_OBJECT_SPINNER;
 
     /* Asset Definitions. */
     private static final String PATH_ASSET_SHIP     = "ship/ship.g3db";
     private static final String PATH_ASSET_SPINNER  = "fidget/fidget_spinner.g3db";
     private static final String PATH_ASSET_LOGO     = "texture/badlogic.jpg";
+    private static final String PATH_CACHE_HULLS    = "cache/hulls";
+    private static final String PATH_PROFILE        = "profile/frames";
+    private static final String PATH_CHECKPOINT     = "cache/checkpoint.bin";
+    private static final String PATH_REPLAY         = "profile/replay.bin";
 
     /* Member Variables. */
     private PerspectiveCamera                       mPerspectiveCamera;
@@ -85,144 +93,132 @@ public final class PhysicsWorld implements ApplicationListener, InputProcessor {
     private ModelBatch                              mModelBatch;
     private SpriteBatch                             mSpriteBatch;
     private Environment                             mEnvironment;
-    private Model                                   mModel;
-    private Array<PhysicsEntity>                    mInstances;
-    private ArrayMap<String, PhysicsEntity.Builder> mConstructors;
-    private float                                   mSpawnTimer;
     private AssetManager                            mAssetManager;
     private DebugDrawer                             mDebugDrawer;
-
-    /* Bullet Physics Dependencies. */
-    private btCollisionConfiguration mCollisionConfig;
-    private btDispatcher             mDispatcher;
-    private btBroadphaseInterface    mBroadphaseInterface;
-    private btDynamicsWorld          mDynamicsWorld;
-    private btConstraintSolver       mConstraintsSolver;
-    private ClosestRayResultCallback mClosestRayResultCallback;
-
-    private Texture                  mTexture;
+    private PhysicsSimulation                       mSimulation;
+    private LevelOfDetail                           mLevelOfDetail;
+    private PhysicsThread                           mPhysicsThread;
+    private RayQuery                                mRayQuery;
+    private ProgressiveLoader                       mLoader;
+    private FrameProfiler                           mProfiler;
+    private FrozenCache                             mFrozenCache;
+    private WorldCheckpoint                         mCheckpoint;
+    private ReplayLog                               mReplayLog;
+    private Texture                                 mTexture;
+
+    /* Systems. */
+    private PooledEngine                            mEngine;
+    private HighlightSystem                         mHighlightSystem;
+    private CullSystem                              mCullSystem;
+    private RenderSystem                            mRenderSystem;
+    private ParallelSystem                          mParallelSystem;
+
+    /* Picking. */
+    private float[]                                 mPickRays;
+    private int[]                                   mPickHandles;
+    private float[]                                 mPickFractions;
+    private float[]                                 mPickPoints;
+    private float[]                                 mPickNormals;
+    private Vector3                                 mPickTarget;
+    private volatile int                            mPicked;
 
     /** Constructor. */
     public PhysicsWorld() { }
 
     /** Called when the 3D scene first undergoes construction. */
     @Override public final void create () {
-        // Assert that we want to use Bullet Physics.
-        Bullet.init();
+        // Fetch the time that startup began.
+        final long lStartTime = TimeUtils.nanoTime();
         // Initialize Member Variables.
-        this.mModelBatch   = new ModelBatch();
-        this.mSpriteBatch  = new SpriteBatch();
-        this.mEnvironment  = new Environment();
-        this.mAssetManager = new AssetManager();
-        this.mInstances    = new Array<PhysicsEntity>();
-        this.mConstructors = new ArrayMap<String, PhysicsEntity.Builder>(String.class, PhysicsEntity.Builder.class);
-        this.mDebugDrawer  = new DebugDrawer();
+        this.mModelBatch    = new ModelBatch();
+        this.mSpriteBatch   = new SpriteBatch();
+        this.mEnvironment   = new Environment();
+        this.mAssetManager  = new AssetManager();
+        this.mSimulation    = new PhysicsSimulation(false);
+        this.mLoader        = new ProgressiveLoader(this.getAssetManager(), this.getSimulation(), PhysicsWorld.LOADER_THREADS, lStartTime);
+        this.mLevelOfDetail = new LevelOfDetail();
+        this.mProfiler      = new FrameProfiler();
+        this.mFrozenCache   = new FrozenCache();
+        this.mDebugDrawer   = NativeRegistry.track(new DebugDrawer());
         // Configure the DebugDrawer.
         this.getDebugDrawer().setDebugMode(btIDebugDraw.DebugDrawModes.DBG_MAX_DEBUG_DRAW_MODE);
         // Initialize the Environment.
         this.getEnvironment().set(new ColorAttribute(ColorAttribute.AmbientLight, 0.4f, 0.4f, 0.4f, 1f));
         this.getEnvironment().add(new DirectionalLight().set(0.8f, 0.8f, 0.8f, -1f, -0.8f, -0.2f));
-        // Configure the AssetManager.
+        // Configure the AssetManager. (Assets are streamed in by the ProgressiveLoader, a little each frame.)
         this.getAssetManager().load(PhysicsWorld.PATH_ASSET_SHIP,    Model.class);
         this.getAssetManager().load(PhysicsWorld.PATH_ASSET_SPINNER, Model.class);
         // Fetch the Texture.
         this.mTexture         = new Texture(PhysicsWorld.PATH_ASSET_LOGO);
-        // Allocate the CollisionConfig; defines how to handle collisions within the scene.
-        this.mCollisionConfig = new btDefaultCollisionConfiguration();
-        // Allocate a CollisionDispatcher; this propagates collision events across the scene. We maintain a reference to ensure we may manually dispose of it later.
-        this.mDispatcher = new btCollisionDispatcher(this.getCollisionConfig());
-        // Allocate a BroadphaseInterface.
-        this.mBroadphaseInterface = new btDbvtBroadphase();
-        // Allocate the ConstraintSolver.
-        this.mConstraintsSolver = new btSequentialImpulseConstraintSolver();
-        // Declare the DynamicsWorld based upon the declared components.
-        this.mDynamicsWorld = new btDiscreteDynamicsWorld(this.getDispatcher(), this.getBroadphaseInterface(), this.getConstraintSolver(), this.getCollisionConfig());
-        // Allocate the ClosestRayResultCallback.
-        this.mClosestRayResultCallback = new ClosestRayResultCallback(Vector3.Zero, Vector3.Z);
-        // Configure the direction of Gravity in this world.
-        this.getDynamicsWorld().setGravity(new Vector3(0, -9.81f, 0));
-//        this.getDynamicsWorld().setGravity(new Vector3(0, 0.0f, 0));
-        // Register this class as the ContactListener. For some reason, there's some `static` style configuration going on.
-        new ContactListener() { @Override public final boolean onContactAdded(final int pUserValue0, final int pPartId0, final int pIndex0, final boolean pIsMatch0, final int pUserValue1, final int pPartId1, final int pIndex1, final boolean pIsMatch1) {
-            // Use this class' implementation.
-            return PhysicsWorld.this.onContactAdded(pUserValue0, pPartId0, pIndex0, pIsMatch0, pUserValue1, pPartId1, pIndex1, pIsMatch1);
-        } };
-        // Update the Assets.
-        this.getAssetManager().update();
-        // Wait until all Assets have loaded.
-        this.getAssetManager().finishLoading();
-
-        // Fetch the Spinner Model, and remove the transforms that were generated from the Blender model. (This ensures consistency between the physics object and the graphical instances.)
-        final Model lModel = PhysicsEntity.unblend(this.getAssetManager().get(PhysicsWorld.PATH_ASSET_SPINNER, Model.class));
-        // Declare the ModelBuilder.
-        final ModelBuilder lModelBuilder = new ModelBuilder();
-        // Assert that we're beginning to build the Model.
-        lModelBuilder.begin();
-        // Initialize Builder Mapping.
-        this.getConstructors().put(PhysicsWorld.KEY_OBJECT_GROUND,   (new PhysicsEntity.Builder.Cube(PhysicsWorld.KEY_OBJECT_GROUND, new Vector3(2.5f, 0.5f, 2.5f), Color.FOREST, 0.0f)).build(lModelBuilder));
-        this.getConstructors().put(PhysicsWorld.KEY_OBJECT_SPHERE,   (new PhysicsEntity.Builder.Sphere(PhysicsWorld.KEY_OBJECT_SPHERE, 1f, 30, Color.CHARTREUSE, 1.0f).build(lModelBuilder)));
-        this.getConstructors().put(PhysicsWorld.KEY_OBJECT_BOX,      (new PhysicsEntity.Builder.Cube(PhysicsWorld.KEY_OBJECT_BOX, new Vector3(0.5f, 0.5f, 0.5f), Color.CORAL, 1.0f)).build(lModelBuilder));
-        this.getConstructors().put(PhysicsWorld.KEY_OBJECT_CONE,     (new PhysicsEntity.Builder.Cone(PhysicsWorld.KEY_OBJECT_CONE, 0.5f, 2.5f, 10, Color.FIREBRICK, 1.0f).build(lModelBuilder)));
-        this.getConstructors().put(PhysicsWorld.KEY_OBJECT_CAPSULE,  (new PhysicsEntity.Builder.Capsule(PhysicsWorld.KEY_OBJECT_CAPSULE, 0.5f, 1.0f, 10, Color.GOLDENROD, 1.0f)).build(lModelBuilder));
-        this.getConstructors().put(PhysicsWorld.KEY_OBJECT_CYLINDER, (new PhysicsEntity.Builder.Cylinder(PhysicsWorld.KEY_OBJECT_CYLINDER, new Vector3(0.5f, 1.0f, 0.5f), 10, Color.SALMON, 1.0f)).build(lModelBuilder));
-        this.getConstructors().put(PhysicsWorld.KEY_OBJECT_SHIP,     (new PhysicsEntity.Builder.Generic(PhysicsWorld.KEY_OBJECT_SHIP, this.getAssetManager().get(PhysicsWorld.PATH_ASSET_SHIP, Model.class), true, 1.0f).build(lModelBuilder)));
-        this.getConstructors().put(PhysicsWorld.KEY_OBJECT_SPINNER,  (new PhysicsEntity.Builder.Generic(PhysicsWorld.KEY_OBJECT_SPINNER, lModel, true, 1.0f).build(lModelBuilder)));
-        // Build the Model. (This is a complete physical representation of the objects in our scene.)
-        this.setModel(lModelBuilder.end());
-        // Allocate the Floor.
-        final PhysicsEntity lFloorObject = this.getConstructors().get(PhysicsWorld.KEY_OBJECT_GROUND).build(this.getModel());
-        // Define the Collision Flags.
-        lFloorObject.getBody().setCollisionFlags(lFloorObject.getBody().getCollisionFlags() | btCollisionObject.CollisionFlags.CF_KINEMATIC_OBJECT);
-        // Register the Floor as a 3D physics instance.
-        this.getInstances().add(lFloorObject);
-        // Register the Floor as a rigid mBody; it's a persistent entity.
-        this.getDynamicsWorld().addRigidBody(lFloorObject.getBody());
-        // Assign the DynamicsWorld the DebugDrawer.
-        this.getDynamicsWorld().setDebugDrawer(this.getDebugDrawer());
-        // Configure the Floor's Callbacks.
-        lFloorObject.getBody().setContactCallbackFlag(PhysicsWorld.GROUND_FLAG);
-        lFloorObject.getBody().setContactCallbackFilter(0);
-        lFloorObject.getBody().setActivationState(Collision.DISABLE_DEACTIVATION);
-    }
-
-    /** Called when Contact has been detected. */
-    public final boolean onContactAdded(final int pUserValue0, final int pPartId0, final int pIndex0, final boolean pIsMatch0, final int pUserValue1, final int pPartId1, final int pIndex1, final boolean pIsMatch1) {
-        // Are we matching on 0?
-        if(pIsMatch0) {
-            // Update the Color.
-            ((ColorAttribute)this.getInstances().get(pUserValue0).materials.get(0).get(ColorAttribute.Diffuse)).color.set(Color.WHITE);
+
+        // Allocate the HullCache; this lets us skip building the hulls of assets we've seen before. (It's shared by the loader's workers.)
+        final HullCache lHullCache = new HullCache(Gdx.files.local(PhysicsWorld.PATH_CACHE_HULLS).file());
+        // Bake Entities that have slept for a while into static geometry, so that the pile stops costing solver time.
+        this.getSimulation().setFreezeTimeout(PhysicsWorld.FREEZE_TIMEOUT);
+        // Is the simulation stepped on its own thread?
+        if(PhysicsWorld.PHYSICS_THREADED) {
+            // Step at the thread's rate; it no longer competes with rendering for the frame.
+            this.getSimulation().setTimeStep(1.0f / PhysicsWorld.THREAD_RATE);
         }
-        // Are we matching on 1?
-        if (pIsMatch1) {
-            // Update the Color.
-            ((ColorAttribute)this.getInstances().get(pUserValue1).materials.get(0).get(ColorAttribute.Diffuse)).color.set(Color.WHITE);
+        else {
+            // Step the simulation at its own rate, independent of the display's.
+            this.getSimulation().setTimeStep(1.0f / PhysicsWorld.PHYSICS_RATE);
+            // Catch up on slow frames with extra steps, but only as many as half a frame affords; beyond that, slow the scene down rather than let it spiral.
+            this.getSimulation().setStepController(new StepController(PhysicsWorld.STEP_BUDGET, StepController.Policy.SLOW));
         }
-        // Assert that we've handled the Contact.
-        return true;
-    }
-
-    /** Spawns a random shape within the 3D scene. */
-    private final PhysicsEntity onSpawn(final Model pModel) {
-        // Determine the index of the random item to generate. (Offset by 1 so we don't duplicate the floor.)
-        final int lIndex = (1 + MathUtils.random(this.getConstructors().size - 2));
-        // Allocate a new PhysicsEntity.
-        final PhysicsEntity lPhysicsEntity = this.getConstructors().values[lIndex].build(pModel);
-        // Rotate the entity.
-        lPhysicsEntity.transform.setFromEulerAngles(MathUtils.random(360f), MathUtils.random(360f), MathUtils.random(360f));
-        // Configure a random position for the Object.
-        lPhysicsEntity.transform.trn(MathUtils.random(-2.5f, 2.5f), 9f, MathUtils.random(-2.5f, 2.5f));
-        lPhysicsEntity.getBody().proceedToTransform(lPhysicsEntity.transform);
-        lPhysicsEntity.getBody().setUserValue(this.getInstances().size);
-        lPhysicsEntity.getBody().setCollisionFlags(lPhysicsEntity.getBody().getCollisionFlags() | btCollisionObject.CollisionFlags.CF_CUSTOM_MATERIAL_CALLBACK);
-        // Register the PhysicsEntity as an Instance.
-        this.getInstances().add(lPhysicsEntity);
-        // Add the PhysicsEntity's mBody as a Rigid Body.
-        this.getDynamicsWorld().addRigidBody(lPhysicsEntity.getBody());
-        // Configure the Callbacks; we want to detect collisions with the Floor.
-        lPhysicsEntity.getBody().setContactCallbackFlag(PhysicsWorld.OBJECT_FLAG);
-        lPhysicsEntity.getBody().setContactCallbackFilter(PhysicsWorld.GROUND_FLAG);
-        // Return the PhysicsEntity.
-        return lPhysicsEntity;
+        // Render between steps, so that motion stays smooth however the simulation's steps fall between frames.
+        this.getSimulation().setInterpolated(true);
+        // The primitives don't depend upon any assets, so make them spawnable straight away; this also places the Floor.
+        this.getSimulation().registerPrimitives();
+        this.getLoader().compile();
+        // Are we recording the session, so that it may be replayed headlessly?
+        if(PhysicsWorld.REPLAY_RECORD) {
+            // Make spawns deterministic, and record everything that drives the simulation from here on.
+            this.getSimulation().setSeed(PhysicsWorld.REPLAY_SEED);
+            this.mReplayLog = new ReplayLog();
+            this.getReplayLog().begin(this.getSimulation());
+        }
+        // Build the Ship's hull once its Model has loaded.
+        this.getLoader().add(new String[] { PhysicsWorld.PATH_ASSET_SHIP }, new ProgressiveLoader.Task() { @Override public final PhysicsEntity.Builder<?> build(final AssetManager pAssetManager) {
+            // Allocate the Builder.
+            return new PhysicsEntity.Builder.Generic(PhysicsWorld.KEY_OBJECT_SHIP, pAssetManager.get(PhysicsWorld.PATH_ASSET_SHIP, Model.class), true, 1.0f, lHullCache);
+        } });
+        // Decompose the Spinner once its Model has loaded; a single hull would fill in its concave arms.
+        this.getLoader().add(new String[] { PhysicsWorld.PATH_ASSET_SPINNER }, new ProgressiveLoader.Task() { @Override public final PhysicsEntity.Builder<?> build(final AssetManager pAssetManager) {
+            // Fetch the Spinner Model, and remove the transforms that were generated from the Blender model. (This ensures consistency between the physics object and the graphical instances.)
+            final Model lModel = PhysicsEntity.unblend(pAssetManager.get(PhysicsWorld.PATH_ASSET_SPINNER, Model.class));
+            // Allocate the Builder.
+            return new PhysicsEntity.Builder.Generic(PhysicsWorld.KEY_OBJECT_SPINNER, lModel, CollisionGeometry.Mode.DECOMPOSED, true, 1.0f, lHullCache);
+        } });
+        // Allocate the RayQuery, and the buffers that picks are written to.
+        this.mRayQuery      = new RayQuery(this.getSimulation());
+        this.mPickRays      = new float[RayQuery.STRIDE_RAY];
+        this.mPickHandles   = new int[1];
+        this.mPickFractions = new float[1];
+        this.mPickPoints    = new float[RayQuery.STRIDE_VECTOR];
+        this.mPickNormals   = new float[RayQuery.STRIDE_VECTOR];
+        this.mPickTarget    = new Vector3();
+        this.mPicked        = RayQuery.HANDLE_NONE;
+        // Assign the DynamicsWorld the DebugDrawer.
+        this.getSimulation().getDynamicsWorld().setDebugDrawer(this.getDebugDrawer());
+        // Allocate the WorldCheckpoint; the scene is saved whenever the application is paused, so that it may be resumed if the process is killed.
+        this.mCheckpoint    = new WorldCheckpoint();
+        // Allocate the PhysicsThread. When it isn't started, Commands are executed immediately on the render thread. (When threaded, it's started once loading has finished, since Builders are registered on the render thread.)
+        this.mPhysicsThread = new PhysicsThread(this.getSimulation());
+        // Allocate the Engine, and the packed state that its systems share.
+        final TransformStore lTransformStore = new TransformStore();
+        final StepSystem     lStepSystem     = new StepSystem(this.getSimulation(), this.getPhysicsThread(), lTransformStore, this.getProfiler());
+        this.mEngine          = new PooledEngine();
+        this.mHighlightSystem = new HighlightSystem(lStepSystem, Color.WHITE);
+        this.mCullSystem      = new CullSystem(lTransformStore);
+        this.mRenderSystem    = new RenderSystem(lStepSystem, lTransformStore, this.getLevelOfDetail(), this.getProfiler(), this.getModelBatch(), this.getEnvironment(), this.getFrozenCache());
+        // Culling only touches the TransformStore, and highlighting only gathers contacts until its commit, so they're run side by side.
+        this.mParallelSystem  = new ParallelSystem(CullSystem.PRIORITY, this.getCullSystem(), this.getHighlightSystem());
+        // Register the systems; they're run in order of priority. (Step, Sync, Cull and Highlight, then Render.)
+        this.getEngine().addSystem(lStepSystem);
+        this.getEngine().addSystem(new SyncSystem(lStepSystem, lTransformStore));
+        this.getEngine().addSystem(this.getParallelSystem());
+        this.getEngine().addSystem(this.getRenderSystem());
     }
 
     /** Creates a PerspectiveCamera for the Scene. */
@@ -244,79 +240,108 @@ public final class PhysicsWorld implements ApplicationListener, InputProcessor {
 
     /** Handle rendering. */
     @Override public final void render () {
-        // Compute how much to elapse the simulation by.
-        final float lStep = this.getSimulationStep();
-        // Update the simulation.
-        this.getDynamicsWorld().stepSimulation(lStep, 5, 1.0f / PhysicsWorld.FRAMES_PER_SECOND);
+        // Are we still loading, and has loading just finished?
+        if(!this.getLoader().isInteractive() && this.getLoader().update()) {
+            // Every Builder has been registered, so resume the scene from when the application was last paused. (Unless we're recording; a restored scene can't be replayed.)
+            if(this.getReplayLog() == null) {
+                this.onRestoreCheckpoint();
+            }
+            // Are we stepping physics on its own thread?
+            if(PhysicsWorld.PHYSICS_THREADED) {
+                // Start stepping physics on its own thread.
+                this.getPhysicsThread().start();
+            }
+        }
+        // Fetch the most recent pick.
+        final int lPicked = this.mPicked;
+        // Has an Entity been picked?
+        if(lPicked != RayQuery.HANDLE_NONE) {
+            // Consume the pick.
+            this.mPicked = RayQuery.HANDLE_NONE;
+            // Highlight the Entity.
+            this.getHighlightSystem().highlight(lPicked);
+        }
         // Update the CameraController.
         this.getCameraController().update();
         // Assert the Background Color.
         Gdx.gl.glClearColor(0.3f, 0.3f, 0.3f, 1.f);
         // Clear the screen in preparation for re-rendering.
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+        // Step, sync, cull, highlight and draw the scene.
+        this.getEngine().update(Gdx.graphics.getDeltaTime());
 
-        /** @Cawfree: Spawn timing operation. */
-        if ((mSpawnTimer -= lStep) < 0) {
-            this.onSpawn(this.getModel());
-            mSpawnTimer = PhysicsWorld.DELAY_RESPAWN_MS;
-        }
-
-        // Begin Rendering the Model Batch. (Batch drawing greatly increases the speed of rendering.)
-        this.getModelBatch().begin(this.getPerspectiveCamera());
-        // Render the Instances.
-        this.getModelBatch().render(this.getInstances(), this.getEnvironment());
-        // Assert that we've finished rendering using the ModelBatch.
-        this.getModelBatch().end();
-
-        // Perform Debug Rendering?
-        if(PhysicsWorld.RENDER_DEBUG) {
+        // Perform Debug Rendering? (The DynamicsWorld may only be drawn when it isn't being stepped elsewhere.)
+        if(PhysicsWorld.RENDER_DEBUG && !this.getPhysicsThread().isRunning()) {
+            // Time the Debug pass.
+            this.getProfiler().begin(FrameProfiler.Stage.DEBUG);
             // Prepare Debug Drawing.
             this.getDebugDrawer().begin(this.getPerspectiveCamera());
             // Render the Debugging Information.
-            this.getDynamicsWorld().debugDrawWorld();
+            this.getSimulation().getDynamicsWorld().debugDrawWorld();
             // Finish Debug Drawing.
             this.getDebugDrawer().end();
+            this.getProfiler().end(FrameProfiler.Stage.DEBUG);
         }
 
+        // Time the Sprite pass.
+        this.getProfiler().begin(FrameProfiler.Stage.SPRITES);
         // Begin rendering Sprites.
         this.getSpriteBatch().begin();
         // Draw the Texture.
         this.getSpriteBatch().draw(this.getTexture(), 0, 0);
         // Finish ending Sprites.
         this.getSpriteBatch().end();
+        this.getProfiler().end(FrameProfiler.Stage.SPRITES);
+        // Record the frame.
+        this.getLoader().onFrameRendered();
+        this.getProfiler().endFrame();
     }
 
     private static final float RAY_DISTANCE_MAX = 50.0f;
 
     /** Handle when the screen is pressed down on. */
     @Override public final boolean touchDown(final int pScreenX, final int pScreenY, final int pPointer, final int pButton) {
-        // Allocate the Ray.
+        // Fetch the Ray. (The Camera reuses its Ray between calls.)
         final Ray lRay = this.getPerspectiveCamera().getPickRay(pScreenX, pScreenY);
-        // Define calculation dependencies.
-        final Vector3 lFromRay = new Vector3();
-        final Vector3 lToRay   = new Vector3();
-        // Define the Origin of the FromRay.
-        lFromRay.set(lRay.origin);
-        // Define the Destination of the ToRay.
-        lToRay.set(lRay.direction).scl(PhysicsWorld.RAY_DISTANCE_MAX).add(lFromRay);
-        // Re-initiailize the ClosestRayResultCallback, since it is re-used.
-        this.getClosestRayResultCallback().setCollisionObject(null);
-        this.getClosestRayResultCallback().setClosestHitFraction(1f);
-        // Update the Ray Params.
-        this.getClosestRayResultCallback().setRayFromWorld(lFromRay);
-        this.getClosestRayResultCallback().setRayToWorld(lToRay);
-        // Perform the RayTest.
-        this.getDynamicsWorld().rayTest(lFromRay, lToRay, this.getClosestRayResultCallback());
-        // Has the Ray hit an Object?
-        if(this.getClosestRayResultCallback().hasHit()) {
-            // Fetch the CollisionObject.
-            final btCollisionObject lCollisionObject = this.getClosestRayResultCallback().getCollisionObject();
-            System.out.println("Found collision.");
+        // Define the far end of the Ray.
+        this.mPickTarget.set(lRay.direction).scl(PhysicsWorld.RAY_DISTANCE_MAX).add(lRay.origin);
+        // Is the simulation stepped on this thread?
+        if(!this.getPhysicsThread().isRunning()) {
+            // Pack the Ray.
+            RayQuery.pack(this.mPickRays, 0, lRay.origin, this.mPickTarget);
+            // Pick immediately.
+            this.onPick(this.mPickRays);
+        }
+        else {
+            // Pack the Ray into its own buffer, since it's read on the physics thread.
+            final float[] lRays = new float[RayQuery.STRIDE_RAY];
+            RayQuery.pack(lRays, 0, lRay.origin, this.mPickTarget);
+            // Perform the pick between steps.
+            this.getPhysicsThread().post(new PhysicsThread.Command() { @Override public final void execute(final PhysicsSimulation pPhysicsSimulation) {
+                // Use this class' implementation.
+                PhysicsWorld.this.onPick(lRays);
+            } });
         }
         // Consume the Event.
         return true;
     }
 
+    /** Casts the packed Ray into the simulation, and publishes the Entity it hits. Must be called on the thread which steps the simulation. */
+    private final void onPick(final float[] pRays) {
+        // Find the nearest Entity along the Ray.
+        final int lHandle = this.getRayQuery().closest(pRays, 1, this.mPickHandles, this.mPickFractions, this.mPickPoints, this.mPickNormals) > 0 ? this.mPickHandles[0] : RayQuery.HANDLE_NONE;
+        // Are we recording the session?
+        if(this.getReplayLog() != null) {
+            // Record the pick, and what it hit.
+            this.getReplayLog().onPick(pRays, lHandle);
+        }
+        // Has an Entity been hit?
+        if(lHandle != RayQuery.HANDLE_NONE) {
+            // Publish the pick; it's highlighted by the render thread.
+            this.mPicked = lHandle;
+        }
+    }
+
 //    /** Performs a raycast operation on the scene. */
 //    public final PhysicsEntity cast(final Ray pRay) {
 //        // Define the Distance.
@@ -356,65 +381,159 @@ public final class PhysicsWorld implements ApplicationListener, InputProcessor {
 //        return lPhysicsEntity;
 //    }
 
+    /** Handle when a key is pressed. */
+    @Override public final boolean keyDown(final int pKeyCode) {
+        // Has a dump of the profile been requested?
+        if(pKeyCode == Input.Keys.P) {
+            // Dump the Profile.
+            this.onDumpProfile();
+            // Consume the Event.
+            return true;
+        }
+        // Has a change of SolverProfile been requested?
+        if(pKeyCode == Input.Keys.S) {
+            // Is the simulation stepped on this thread?
+            if(!this.getPhysicsThread().isRunning()) {
+                // Cycle the SolverProfile immediately.
+                PhysicsWorld.onCycleSolverProfile(this.getSimulation());
+            }
+            else {
+                // Cycle the SolverProfile between steps.
+                this.getPhysicsThread().post(new PhysicsThread.Command() { @Override public final void execute(final PhysicsSimulation pPhysicsSimulation) {
+                    // Use this class' implementation.
+                    PhysicsWorld.onCycleSolverProfile(pPhysicsSimulation);
+                } });
+            }
+            // Consume the Event.
+            return true;
+        }
+        // Ignore the Event.
+        return false;
+    }
+
     /** Handle when the screen is resized. (Useful for changes in screen orientation on Android.) */
     @Override public final void resize(final int pWidth, final int pHeight) {
         // Reassign the PerspectiveCamera.
         this.setPerpectiveCamera(PhysicsWorld.getPerspectiveCamera(pWidth, pHeight));
         // Update the CameraController.
         this.setCameraController(new CameraInputController(this.getPerspectiveCamera()));
+        // Look through the PerspectiveCamera.
+        this.getCullSystem().setCamera(this.getPerspectiveCamera());
+        this.getRenderSystem().setCamera(this.getPerspectiveCamera());
         // Configure Input Multiplexing.
         Gdx.input.setInputProcessor(new InputMultiplexer(this, this.getCameraController()));
     }
 
-    /** Handles destruction of the 3D scene. */
-    @Override public final void dispose () {
-        // Iterate the Instances.
-        for(final PhysicsEntity lPhysicsEntity : this.getInstances()) {
-            // Dispose of the PhysicsEntity.
-            lPhysicsEntity.dispose();
-        }
+    /** Moves the simulation onto the next SolverProfile, wrapping from the most accurate back to the cheapest. Must be called on the thread which steps the simulation. */
+    private static final void onCycleSolverProfile(final PhysicsSimulation pPhysicsSimulation) {
+        // Fetch the next SolverProfile.
+        final SolverProfile lSolverProfile = SolverProfile.values()[(pPhysicsSimulation.getSolverProfile().ordinal() + 1) % SolverProfile.values().length];
+        // Apply the SolverProfile.
+        pPhysicsSimulation.setSolverProfile(lSolverProfile);
+        // Report the change.
+        Gdx.app.log(PhysicsWorld.TAG, "Solver: " + lSolverProfile);
+    }
 
-        // Iterate the Constructors.
-        for(final PhysicsEntity.Builder lConstructor : this.getConstructors().values()) {
-            // Dispose of the Builder.
-            lConstructor.dispose();
+    /** Writes the frame profile to local storage, as both CSV and JSON. */
+    private final void onDumpProfile() {
+        // Dump the Profile.
+        this.getProfiler().dump(Gdx.files.local(PhysicsWorld.PATH_PROFILE + ".csv"));
+        this.getProfiler().dump(Gdx.files.local(PhysicsWorld.PATH_PROFILE + ".json"));
+    }
+
+    /** Saves the scene to local storage, between steps. */
+    private final void onSaveCheckpoint() {
+        // Capture the scene on the thread which steps it.
+        this.getPhysicsThread().post(new PhysicsThread.Command() { @Override public final void execute(final PhysicsSimulation pPhysicsSimulation) {
+            // Capture the Entities.
+            PhysicsWorld.this.getCheckpoint().capture(pPhysicsSimulation);
+            try {
+                // Write the checkpoint.
+                PhysicsWorld.this.getCheckpoint().save(Gdx.files.local(PhysicsWorld.PATH_CHECKPOINT).file());
+            }
+            catch(final IOException pIOException) {
+                // The scene simply starts afresh next time.
+                Gdx.app.error(PhysicsWorld.TAG, "Failed to save the checkpoint.", pIOException);
+            }
+        } });
+    }
+
+    /** Restores the scene saved by the last pause, if there is one. Must be called before the PhysicsThread is started. */
+    private final void onRestoreCheckpoint() {
+        try {
+            // Load the checkpoint; is there a scene to resume?
+            if(this.getCheckpoint().load(Gdx.files.local(PhysicsWorld.PATH_CHECKPOINT).file())) {
+                // Fetch the start time.
+                final long lStart    = System.nanoTime();
+                // Restore the scene.
+                final int  lRestored = this.getCheckpoint().restore(this.getSimulation());
+                // Report the restore.
+                Gdx.app.log(PhysicsWorld.TAG, "Restored " + lRestored + " bodies in " + ((System.nanoTime() - lStart) / 1000000L) + "ms.");
+            }
+        }
+        catch(final IOException pIOException) {
+            // Start afresh.
+            Gdx.app.error(PhysicsWorld.TAG, "Failed to load the checkpoint.", pIOException);
         }
+    }
 
-        // Empty the Constructors.
-        this.getInstances().clear();
-        this.getConstructors().clear();
+    /** Ends the recording, and writes it to local storage. Must be called once the PhysicsThread has stopped. */
+    private final void onSaveReplay() {
+        // Record the final state.
+        this.getReplayLog().end();
+        try {
+            // Write the log.
+            this.getReplayLog().save(Gdx.files.local(PhysicsWorld.PATH_REPLAY).file());
+        }
+        catch(final IOException pIOException) {
+            // Report the failure.
+            Gdx.app.error(PhysicsWorld.TAG, "Failed to save the replay.", pIOException);
+        }
+    }
 
+    /** Handles destruction of the 3D scene. */
+    @Override public final void dispose () {
+        // Keep the profile of the session.
+        this.onDumpProfile();
+        // Stop stepping the Simulation.
+        this.getPhysicsThread().dispose();
+        // The application was closed rather than killed, so the next launch starts afresh.
+        Gdx.files.local(PhysicsWorld.PATH_CHECKPOINT).delete();
+        // Were we recording the session?
+        if(this.getReplayLog() != null) {
+            // Keep the session, along with where it ended.
+            this.onSaveReplay();
+        }
+        // Stop loading; any Builders that were never registered are released.
+        this.getLoader().dispose();
+        // Stop the systems' workers.
+        this.getParallelSystem().dispose();
+        // Release the RayQuery before the DynamicsWorld it casts into.
+        this.getRayQuery().dispose();
+        // Dispose of the Simulation.
+        this.getSimulation().dispose();
+        // Dispose of the DebugDrawer, now that no DynamicsWorld refers to it.
+        NativeRegistry.dispose(this.getDebugDrawer());
         // Dispose of dependencies.
-        this.getDynamicsWorld().dispose();
-        this.getConstraintSolver().dispose();
-        this.getBroadphaseInterface().dispose();
-        this.getDispatcher().dispose();
-        this.getCollisionConfig().dispose();
-        this.getConstraintSolver().dispose();
+        this.getFrozenCache().dispose();
         this.getModelBatch().dispose();
         this.getTexture().dispose();
         this.getSpriteBatch().dispose();
         this.getAssetManager().dispose();
-        this.getClosestRayResultCallback().dispose();
+        // Report any native objects which outlived the scene.
+        NativeRegistry.reportLeaks();
     }
 
     /* Unused Overrides. */
-    @Override public final boolean      keyDown(final int pKeyCode) { return false; }
     @Override public final boolean        keyUp(final int pKeyCode) { return false; }
     @Override public final boolean     keyTyped(final char pCharacter) { return false; }
     @Override public final boolean      touchUp(final int pScreenX, final int pScreenY, final int pPointer, final int pButton) { return false; }
     @Override public final boolean touchDragged(final int pScreenX, final int pScreenY, final int pPointer) { return false; }
     @Override public final boolean   mouseMoved(final int pScreenX, final int pScreenY) { return false; }
     @Override public final boolean     scrolled(final int pAmount) { return false; }
-    @Override public final void           pause() { }
+    @Override public final void           pause() { this.onSaveCheckpoint(); }
     @Override public final void          resume() { }
 
-    /** Computes the elapsed time in the scene; render either the animation step or the time that has elapsed to ensure smooth display. */
-    private final float getSimulationStep() {
-        // Return the minimum step to apply, between either the Frames Per Second or the time that's elapsed.
-        return Math.min(1.0f / PhysicsWorld.FRAMES_PER_SECOND, Gdx.graphics.getDeltaTime());
-    }
-
     /* Getters. */
     private final void setCameraController(final CameraInputController pCameraInputController) {
         this.mCameraController = pCameraInputController;
@@ -424,10 +543,6 @@ public final class PhysicsWorld implements ApplicationListener, InputProcessor {
         return this.mCameraController;
     }
 
-    private final ArrayMap<String, PhysicsEntity.Builder> getConstructors() {
-        return this.mConstructors;
-    }
-
     private final Environment getEnvironment() {
         return this.mEnvironment;
     }
@@ -440,36 +555,16 @@ public final class PhysicsWorld implements ApplicationListener, InputProcessor {
         return this.mPerspectiveCamera;
     }
 
-    private final btCollisionConfiguration getCollisionConfig() {
-        return this.mCollisionConfig;
+    private final PhysicsSimulation getSimulation() {
+        return this.mSimulation;
     }
 
-    private final Array<PhysicsEntity> getInstances() {
-        return this.mInstances;
+    private final PhysicsThread getPhysicsThread() {
+        return this.mPhysicsThread;
     }
 
-    private final btDispatcher getDispatcher() {
-        return this.mDispatcher;
-    }
-
-    private final btBroadphaseInterface getBroadphaseInterface() {
-        return this.mBroadphaseInterface;
-    }
-
-    private final btConstraintSolver getConstraintSolver() {
-        return this.mConstraintsSolver;
-    }
-
-    private final btDynamicsWorld getDynamicsWorld() {
-        return this.mDynamicsWorld;
-    }
-
-    private final void setModel(final Model pModel) {
-        this.mModel = pModel;
-    }
-
-    private final Model getModel() {
-        return this.mModel;
+    private final LevelOfDetail getLevelOfDetail() {
+        return this.mLevelOfDetail;
     }
 
     private final ModelBatch getModelBatch() {
@@ -492,8 +587,49 @@ public final class PhysicsWorld implements ApplicationListener, InputProcessor {
         return this.mDebugDrawer;
     }
 
-    private final ClosestRayResultCallback getClosestRayResultCallback() {
-        return this.mClosestRayResultCallback;
+    private final RayQuery getRayQuery() {
+        return this.mRayQuery;
+    }
+
+    private final ProgressiveLoader getLoader() {
+        return this.mLoader;
+    }
+
+    private final FrameProfiler getProfiler() {
+        return this.mProfiler;
+    }
+
+    private final FrozenCache getFrozenCache() {
+        return this.mFrozenCache;
+    }
+
+    private final WorldCheckpoint getCheckpoint() {
+        return this.mCheckpoint;
+    }
+
+    /** Returns the ReplayLog that the session is recorded into; null unless recording. */
+    private final ReplayLog getReplayLog() {
+        return this.mReplayLog;
+    }
+
+    private final PooledEngine getEngine() {
+        return this.mEngine;
+    }
+
+    private final HighlightSystem getHighlightSystem() {
+        return this.mHighlightSystem;
+    }
+
+    private final CullSystem getCullSystem() {
+        return this.mCullSystem;
+    }
+
+    private final RenderSystem getRenderSystem() {
+        return this.mRenderSystem;
+    }
+
+    private final ParallelSystem getParallelSystem() {
+        return this.mParallelSystem;
     }
 
 }
\ No newline at end of file
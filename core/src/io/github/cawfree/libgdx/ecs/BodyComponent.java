@@ -0,0 +1,51 @@
+package io.github.cawfree.libgdx.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+
+/** Ties an Entity to the simulated Body of a PhysicsEntity. The Body itself is owned by the PhysicsSimulation; the Component only refers to it. */
+public final class BodyComponent implements Component, Pool.Poolable {
+
+    /* Member Variables. */
+    private PhysicsEntity mPhysicsEntity;
+    private int           mGeneration;
+
+    /** Constructor. */
+    public BodyComponent() {
+        // Initialize Member Variables.
+        this.mPhysicsEntity = null;
+        this.mGeneration    = 0;
+    }
+
+    /** Forgets the PhysicsEntity, so that the Component may be reused. */
+    @Override public final void reset() {
+        // Release the reference.
+        this.mPhysicsEntity = null;
+        this.mGeneration    = 0;
+    }
+
+    /* Getters. */
+    /** Assigns the PhysicsEntity, in the generation that it was published in. */
+    public final BodyComponent setPhysicsEntity(final PhysicsEntity pPhysicsEntity, final int pGeneration) {
+        this.mPhysicsEntity = pPhysicsEntity;
+        this.mGeneration    = pGeneration;
+        return this;
+    }
+
+    public final PhysicsEntity getPhysicsEntity() {
+        return this.mPhysicsEntity;
+    }
+
+    /** Determines whether the PhysicsEntity has been recycled since it was assigned, given the generation it's now published in; if so, the Entity no longer describes it. */
+    public final boolean isStale(final int pGeneration) {
+        return pGeneration != this.mGeneration;
+    }
+
+    /** Returns the handle of the Body within the simulation. */
+    public final int getHandle() {
+        return this.getPhysicsEntity().getHandle();
+    }
+
+}
@@ -0,0 +1,75 @@
+package io.github.cawfree.libgdx.ecs;
+
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.utils.Bits;
+
+/** Marks the slots of the TransformStore whose AABB lies within the Camera's frustum. Only the packed store is read, and only its visibility is written, so the pass touches no Components and may run alongside other systems. Requires no GL context. */
+public final class CullSystem extends EntitySystem {
+
+    /* Static Declarations. */
+    public  static final int PRIORITY = 2;
+
+    /* Member Variables. */
+    private final TransformStore mTransformStore;
+    private       Camera         mCamera;
+    private       int            mVisibleCount;
+    private       int            mCulledCount;
+
+    /** Constructor. */
+    public CullSystem(final TransformStore pTransformStore) {
+        // Implement the Parent.
+        super(CullSystem.PRIORITY);
+        // Initialize Member Variables.
+        this.mTransformStore = pTransformStore;
+        this.mCamera         = null;
+        this.mVisibleCount   = 0;
+        this.mCulledCount    = 0;
+    }
+
+    /** Tests every occupied slot against the frustum. */
+    @Override public final void update(final float pDeltaTime) {
+        // Fetch the slots.
+        final Bits lOccupied = this.getTransformStore().getOccupied();
+        final Bits lVisible  = this.getTransformStore().getVisible();
+        // Reset the counters.
+        this.mVisibleCount = 0;
+        this.mCulledCount  = 0;
+        // Iterate the occupied slots.
+        for(int i = lOccupied.nextSetBit(0); i >= 0; i = lOccupied.nextSetBit(i + 1)) {
+            // Is the slot on screen? (Nothing is, until there's a Camera to look through.)
+            if(this.getCamera() != null && this.getTransformStore().isInFrustum(i, this.getCamera().frustum)) {
+                // Mark the slot.
+                lVisible.set(i);
+                this.mVisibleCount++;
+            }
+            else {
+                // Clear the slot.
+                lVisible.clear(i);
+                this.mCulledCount++;
+            }
+        }
+    }
+
+    /* Getters. */
+    private final TransformStore getTransformStore() {
+        return this.mTransformStore;
+    }
+
+    public final void setCamera(final Camera pCamera) {
+        this.mCamera = pCamera;
+    }
+
+    public final Camera getCamera() {
+        return this.mCamera;
+    }
+
+    public final int getVisibleCount() {
+        return this.mVisibleCount;
+    }
+
+    public final int getCulledCount() {
+        return this.mCulledCount;
+    }
+
+}
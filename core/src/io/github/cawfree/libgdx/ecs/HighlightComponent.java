@@ -0,0 +1,47 @@
+package io.github.cawfree.libgdx.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Pool;
+
+/** Requests that an Entity be drawn in a highlight Color, because it has been struck or picked. The request is recorded here by whichever system noticed it, and is only applied to the Material by the RenderSystem. */
+public final class HighlightComponent implements Component, Pool.Poolable {
+
+    /* Member Variables. */
+    private final Color   mColor;
+    private       boolean mApplied;
+
+    /** Constructor. */
+    public HighlightComponent() {
+        // Initialize Member Variables.
+        this.mColor   = new Color(Color.WHITE);
+        this.mApplied = false;
+    }
+
+    /** Clears the request, so that the Component may be reused. */
+    @Override public final void reset() {
+        // Restore the defaults.
+        this.mColor.set(Color.WHITE);
+        this.mApplied = false;
+    }
+
+    /* Getters. */
+    public final HighlightComponent setColor(final Color pColor) {
+        this.mColor.set(pColor);
+        this.mApplied = false;
+        return this;
+    }
+
+    public final Color getColor() {
+        return this.mColor;
+    }
+
+    public final void setApplied(final boolean pIsApplied) {
+        this.mApplied = pIsApplied;
+    }
+
+    public final boolean isApplied() {
+        return this.mApplied;
+    }
+
+}
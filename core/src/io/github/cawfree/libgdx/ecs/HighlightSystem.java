@@ -0,0 +1,122 @@
+package io.github.cawfree.libgdx.ecs;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.IntArray;
+
+import io.github.cawfree.libgdx.simulation.ContactEventBuffer;
+
+/** Drains the contacts reported by the simulation, and attaches a HighlightComponent to each matched Entity that has just been struck. Materials are never touched here; the RenderSystem applies the highlight. An update only gathers the struck handles, so it may run on a worker alongside systems which read the TransformStore; the Components are attached by commit(), on the thread which updates the Engine. (A ParallelSystem commits its children itself; otherwise, commit() must be called after every update.) */
+public final class HighlightSystem extends EntitySystem implements ContactEventBuffer.Listener, ParallelSystem.Committable {
+
+    /* Static Declarations. */
+    public  static final int                                PRIORITY  = 2;
+    private static final ComponentMapper<HighlightComponent> HIGHLIGHT = ComponentMapper.getFor(HighlightComponent.class);
+
+    /* Member Variables. */
+    private final StepSystem   mStepSystem;
+    private final Color        mColor;
+    private final IntArray     mRequests;
+    private       PooledEngine mPooledEngine;
+    private       int          mHighlights;
+
+    /** Constructor. */
+    public HighlightSystem(final StepSystem pStepSystem, final Color pColor) {
+        // Implement the Parent.
+        super(HighlightSystem.PRIORITY);
+        // Initialize Member Variables.
+        this.mStepSystem = pStepSystem;
+        this.mColor      = new Color(pColor);
+        this.mRequests   = new IntArray();
+        this.mHighlights = 0;
+    }
+
+    /** Called when the System is added to the Engine. HighlightComponents are drawn from the Engine's pools, so it must be a PooledEngine. */
+    @Override public final void addedToEngine(final Engine pEngine) {
+        // Is the Engine pooled?
+        if(!(pEngine instanceof PooledEngine)) {
+            // Assert that the Engine is unsupported.
+            throw new IllegalStateException("The " + HighlightSystem.class.getSimpleName() + " requires a " + PooledEngine.class.getSimpleName() + ".");
+        }
+        // Track the Engine.
+        this.mPooledEngine = (PooledEngine)pEngine;
+    }
+
+    /** Called when the System is removed from the Engine. */
+    @Override public final void removedFromEngine(final Engine pEngine) {
+        // Forget the Engine.
+        this.mPooledEngine = null;
+    }
+
+    /** Gathers the contacts that were reported since the last update. Nothing is written to the Engine. */
+    @Override public final void update(final float pDeltaTime) {
+        // Drain the contacts.
+        this.getStepSystem().getSimulation().getContactEventBuffer().drain(this);
+    }
+
+    /** Called for each contact event drained from the simulation. */
+    @Override public final void onContactEvent(final int pType, final int pHandle0, final int pHandle1, final boolean pIsMatch0, final boolean pIsMatch1) {
+        // Have the objects only just come into contact?
+        if(pType == ContactEventBuffer.EVENT_BEGIN) {
+            // Are we matching on 0?
+            if(pIsMatch0) {
+                // Highlight the Entity.
+                this.highlight(pHandle0);
+            }
+            // Are we matching on 1?
+            if(pIsMatch1) {
+                // Highlight the Entity.
+                this.highlight(pHandle1);
+            }
+        }
+    }
+
+    /** Requests that the Entity with the specified handle is highlighted by the next commit. Must be called on the thread which updates the Engine, or by this System's own update. */
+    public final void highlight(final int pHandle) {
+        // Buffer the request.
+        this.getRequests().add(pHandle);
+    }
+
+    /** Attaches a HighlightComponent for every buffered request. Handles which weren't live as of the last StepSystem update are ignored. Must be called on the thread which updates the Engine, whilst no other system is running. */
+    @Override public final void commit() {
+        // Reset the counter.
+        this.mHighlights = 0;
+        // Iterate the requests.
+        for(int i = 0; i < this.getRequests().size; i++) {
+            // Resolve the Entity.
+            final Entity lEntity = this.getStepSystem().getEntity(this.getRequests().get(i));
+            // Is the Entity live, and not yet highlighted? (An Entity may be struck several times in a single update.)
+            if(lEntity != null && !HighlightSystem.HIGHLIGHT.has(lEntity)) {
+                // Attach the request.
+                lEntity.add(this.getPooledEngine().createComponent(HighlightComponent.class).setColor(this.mColor));
+                // Count the highlight.
+                this.mHighlights++;
+            }
+        }
+        // Forget the requests.
+        this.getRequests().clear();
+    }
+
+    /* Getters. */
+    private final StepSystem getStepSystem() {
+        return this.mStepSystem;
+    }
+
+    private final IntArray getRequests() {
+        return this.mRequests;
+    }
+
+    private final PooledEngine getPooledEngine() {
+        return this.mPooledEngine;
+    }
+
+    /** Returns the number of Entities highlighted by the last commit. */
+    public final int getHighlights() {
+        return this.mHighlights;
+    }
+
+}
@@ -0,0 +1,151 @@
+package io.github.cawfree.libgdx.ecs;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/** Updates a group of systems concurrently, as a single step of the Engine. The first child runs on the calling thread, and the rest on a pool of workers; the update returns once every child has finished. The children must not share mutable state: each must write only to data that no other child reads or writes. Neither the Engine nor its Entities are thread-safe, so no child may add or remove Components or Entities whilst it's updated; a child which needs to do so implements Committable, and applies its changes once the whole group has finished, on the calling thread. */
+public final class ParallelSystem extends EntitySystem implements Disposable {
+
+    /** Implemented by children which change the Engine. */
+    public interface Committable {
+        /** Applies the changes gathered by the last update. Called on the thread which updates the Engine, once every child has finished. */
+        void commit();
+    }
+
+    /* Member Variables. */
+    private final Array<EntitySystem>   mChildren;
+    private final Array<Callable<Void>> mTasks;
+    private final Array<Future<Void>>   mFutures;
+    private final ExecutorService       mExecutorService;
+    private       float                 mDeltaTime;
+
+    /** Constructor. The Children belong to the group, and must not be added to the Engine themselves. */
+    public ParallelSystem(final int pPriority, final EntitySystem ... pChildren) {
+        // Implement the Parent.
+        super(pPriority);
+        // Initialize Member Variables.
+        this.mChildren        = new Array<EntitySystem>(pChildren);
+        this.mTasks           = new Array<Callable<Void>>(pChildren.length);
+        this.mFutures         = new Array<Future<Void>>(pChildren.length);
+        this.mDeltaTime       = 0.0f;
+        // Allocate a worker for every child but the first, which is run by the caller.
+        this.mExecutorService = pChildren.length > 1 ? Executors.newFixedThreadPool(pChildren.length - 1, new ThreadFactory() { private int mCount = 0; @Override public final Thread newThread(final Runnable pRunnable) {
+            // Allocate a named daemon Thread, so that the workers can't keep the process alive.
+            final Thread lThread = new Thread(pRunnable, "systems-" + (this.mCount++));
+            lThread.setDaemon(true);
+            // Return the Thread.
+            return lThread;
+        } }) : null;
+        // Iterate the children.
+        for(final EntitySystem lEntitySystem : pChildren) {
+            // Wrap the child in a reusable task.
+            this.mTasks.add(new Callable<Void>() { @Override public final Void call() {
+                // Is the child enabled?
+                if(lEntitySystem.checkProcessing()) {
+                    // Update the child.
+                    lEntitySystem.update(ParallelSystem.this.mDeltaTime);
+                }
+                // Assert that we've finished.
+                return null;
+            } });
+        }
+    }
+
+    /** Called when the group is added to the Engine. The children are introduced to the Engine directly, since they're never added to it themselves. */
+    @Override public final void addedToEngine(final Engine pEngine) {
+        // Iterate the children.
+        for(final EntitySystem lEntitySystem : this.getChildren()) {
+            // Introduce the child.
+            lEntitySystem.addedToEngine(pEngine);
+        }
+    }
+
+    /** Called when the group is removed from the Engine. */
+    @Override public final void removedFromEngine(final Engine pEngine) {
+        // Iterate the children.
+        for(final EntitySystem lEntitySystem : this.getChildren()) {
+            // Release the child.
+            lEntitySystem.removedFromEngine(pEngine);
+        }
+    }
+
+    /** Updates every child, waits for them to finish, and then commits their changes. */
+    @Override public final void update(final float pDeltaTime) {
+        // Publish the DeltaTime. (Submitting the tasks makes it visible to the workers.)
+        this.mDeltaTime = pDeltaTime;
+        // Hand every child but the first to the workers.
+        for(int i = 1; i < this.mTasks.size; i++) {
+            this.mFutures.add(this.getExecutorService().submit(this.mTasks.get(i)));
+        }
+        // Declare the first failure.
+        IllegalStateException lFailure = null;
+        try {
+            // Run the first child here.
+            if(this.mTasks.size > 0) {
+                this.mTasks.get(0).call();
+            }
+        }
+        catch(final Exception pException) {
+            // Remember the failure of the first child.
+            lFailure = new IllegalStateException("A system failed to update.", pException);
+        }
+        // Wait for every worker, even if a child has failed, so that none is left running into the next update.
+        for(int i = 0; i < this.mFutures.size; i++) {
+            try {
+                // Wait for the child.
+                this.mFutures.get(i).get();
+            }
+            catch(final InterruptedException pInterruptedException) {
+                // Preserve the interrupt.
+                Thread.currentThread().interrupt();
+            }
+            catch(final ExecutionException pExecutionException) {
+                // Remember the failure of the child.
+                lFailure = lFailure != null ? lFailure : new IllegalStateException("A system failed to update.", pExecutionException.getCause());
+            }
+        }
+        // Forget the Futures.
+        this.mFutures.clear();
+        // Did a child fail?
+        if(lFailure != null) {
+            // Propagate the failure.
+            throw lFailure;
+        }
+        // Iterate the children; nothing else is running, so they may now change the Engine.
+        for(final EntitySystem lEntitySystem : this.getChildren()) {
+            // Does the child have changes to apply?
+            if(lEntitySystem instanceof Committable && lEntitySystem.checkProcessing()) {
+                // Apply the changes.
+                ((Committable)lEntitySystem).commit();
+            }
+        }
+    }
+
+    /** Stops the workers. */
+    @Override public final void dispose() {
+        // Are there any workers?
+        if(this.getExecutorService() != null) {
+            // Stop accepting work.
+            this.getExecutorService().shutdown();
+        }
+    }
+
+    /* Getters. */
+    public final Array<EntitySystem> getChildren() {
+        return this.mChildren;
+    }
+
+    private final ExecutorService getExecutorService() {
+        return this.mExecutorService;
+    }
+
+}
@@ -0,0 +1,36 @@
+package io.github.cawfree.libgdx.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+
+/** Marks an Entity as drawable, and holds the ModelInstance that's submitted to the ModelBatch. Only the render thread may touch the instance. */
+public final class RenderComponent implements Component, Pool.Poolable {
+
+    /* Member Variables. */
+    private PhysicsEntity mInstance;
+
+    /** Constructor. */
+    public RenderComponent() {
+        // Initialize Member Variables.
+        this.mInstance = null;
+    }
+
+    /** Forgets the instance, so that the Component may be reused. */
+    @Override public final void reset() {
+        // Release the reference.
+        this.mInstance = null;
+    }
+
+    /* Getters. */
+    public final RenderComponent setInstance(final PhysicsEntity pInstance) {
+        this.mInstance = pInstance;
+        return this;
+    }
+
+    public final PhysicsEntity getInstance() {
+        return this.mInstance;
+    }
+
+}
@@ -0,0 +1,162 @@
+package io.github.cawfree.libgdx.ecs;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.utils.Array;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+import io.github.cawfree.libgdx.profile.FrameProfiler;
+import io.github.cawfree.libgdx.render.FrozenCache;
+import io.github.cawfree.libgdx.render.LevelOfDetail;
+
+/** Draws the Entities that survived the cull. Pending highlights are applied to their Materials first; then the visible Instances are gathered, their levels of detail are selected, and they're submitted to the ModelBatch alongside the frozen geometry. Without a ModelBatch, nothing is drawn, but the levels are still selected and counted; this lets the system run headless. Runs last, on the render thread. */
+public final class RenderSystem extends EntitySystem {
+
+    /* Static Declarations. */
+    public  static final int                                PRIORITY  = 3;
+    private static final ComponentMapper<TransformComponent> TRANSFORM = ComponentMapper.getFor(TransformComponent.class);
+    private static final ComponentMapper<RenderComponent>    RENDER    = ComponentMapper.getFor(RenderComponent.class);
+    private static final ComponentMapper<HighlightComponent> HIGHLIGHT = ComponentMapper.getFor(HighlightComponent.class);
+
+    /* Member Variables. */
+    private final StepSystem             mStepSystem;
+    private final TransformStore         mTransformStore;
+    private final LevelOfDetail          mLevelOfDetail;
+    private final FrameProfiler          mProfiler;
+    private final ModelBatch             mModelBatch;
+    private final Environment            mEnvironment;
+    private final FrozenCache            mFrozenCache;
+    private final Array<PhysicsEntity>   mVisible;
+    private       ImmutableArray<Entity> mRenderables;
+    private       ImmutableArray<Entity> mHighlights;
+    private       Camera                 mCamera;
+
+    /** Constructor. The ModelBatch, Environment and FrozenCache are only used for drawing; when the ModelBatch is null, so may the others be. */
+    public RenderSystem(final StepSystem pStepSystem, final TransformStore pTransformStore, final LevelOfDetail pLevelOfDetail, final FrameProfiler pProfiler, final ModelBatch pModelBatch, final Environment pEnvironment, final FrozenCache pFrozenCache) {
+        // Implement the Parent.
+        super(RenderSystem.PRIORITY);
+        // Initialize Member Variables.
+        this.mStepSystem     = pStepSystem;
+        this.mTransformStore = pTransformStore;
+        this.mLevelOfDetail  = pLevelOfDetail;
+        this.mProfiler       = pProfiler;
+        this.mModelBatch     = pModelBatch;
+        this.mEnvironment    = pEnvironment;
+        this.mFrozenCache    = pFrozenCache;
+        this.mVisible        = new Array<PhysicsEntity>(false, 64);
+        this.mCamera         = null;
+    }
+
+    /** Called when the System is added to the Engine. */
+    @SuppressWarnings("unchecked") @Override public final void addedToEngine(final Engine pEngine) {
+        // Fetch the Families.
+        this.mRenderables = pEngine.getEntitiesFor(Family.all(RenderComponent.class, TransformComponent.class).get());
+        this.mHighlights  = pEngine.getEntitiesFor(Family.all(RenderComponent.class, HighlightComponent.class).get());
+    }
+
+    /** Called when the System is removed from the Engine. */
+    @Override public final void removedFromEngine(final Engine pEngine) {
+        // Forget the Families.
+        this.mRenderables = null;
+        this.mHighlights  = null;
+    }
+
+    /** Applies highlights, and draws the visible Entities. */
+    @Override public final void update(final float pDeltaTime) {
+        // Iterate the highlighted Entities.
+        for(int i = 0; i < this.mHighlights.size(); i++) {
+            // Fetch the HighlightComponent.
+            final HighlightComponent lHighlightComponent = RenderSystem.HIGHLIGHT.get(this.mHighlights.get(i));
+            // Has the highlight yet to reach the Material?
+            if(!lHighlightComponent.isApplied()) {
+                // Update the Color.
+                RenderSystem.RENDER.get(this.mHighlights.get(i)).getInstance().setDiffuse(lHighlightComponent.getColor());
+                lHighlightComponent.setApplied(true);
+            }
+        }
+        // Is there a Camera to look through?
+        if(this.getCamera() == null) {
+            return;
+        }
+        // Time the Model pass.
+        this.getProfiler().begin(FrameProfiler.Stage.MODELS);
+        // Gather the Instances which passed the cull.
+        this.getVisible().clear();
+        for(int i = 0; i < this.mRenderables.size(); i++) {
+            // Fetch the Entity.
+            final Entity lEntity = this.mRenderables.get(i);
+            // Is the Entity on screen?
+            if(this.getTransformStore().isVisible(RenderSystem.TRANSFORM.get(lEntity).getSlot())) {
+                // Submit the Instance.
+                this.getVisible().add(RenderSystem.RENDER.get(lEntity).getInstance());
+            }
+        }
+        // Draw distant Instances with coarser meshes.
+        this.getLevelOfDetail().select(this.getCamera(), this.getVisible());
+        this.getProfiler().count(FrameProfiler.Counter.VERTICES, this.getLevelOfDetail().getVertices());
+        // Are we drawing?
+        if(this.getModelBatch() != null) {
+            // Rebuild the frozen geometry if it has changed.
+            this.getFrozenCache().update(this.getStepSystem().getFrozen(), this.getStepSystem().getFrozenGeneration());
+            // Begin Rendering the Model Batch. (Batch drawing greatly increases the speed of rendering.)
+            this.getModelBatch().begin(this.getCamera());
+            // Render the visible Instances.
+            this.getModelBatch().render(this.getVisible(), this.getEnvironment());
+            // Render the frozen geometry in a single pass.
+            this.getModelBatch().render(this.getFrozenCache(), this.getEnvironment());
+            // Assert that we've finished rendering using the ModelBatch.
+            this.getModelBatch().end();
+        }
+        this.getProfiler().end(FrameProfiler.Stage.MODELS);
+    }
+
+    /* Getters. */
+    private final StepSystem getStepSystem() {
+        return this.mStepSystem;
+    }
+
+    private final TransformStore getTransformStore() {
+        return this.mTransformStore;
+    }
+
+    private final LevelOfDetail getLevelOfDetail() {
+        return this.mLevelOfDetail;
+    }
+
+    private final FrameProfiler getProfiler() {
+        return this.mProfiler;
+    }
+
+    private final ModelBatch getModelBatch() {
+        return this.mModelBatch;
+    }
+
+    private final Environment getEnvironment() {
+        return this.mEnvironment;
+    }
+
+    private final FrozenCache getFrozenCache() {
+        return this.mFrozenCache;
+    }
+
+    /** Returns the Instances drawn by the last update. */
+    public final Array<PhysicsEntity> getVisible() {
+        return this.mVisible;
+    }
+
+    public final void setCamera(final Camera pCamera) {
+        this.mCamera = pCamera;
+    }
+
+    public final Camera getCamera() {
+        return this.mCamera;
+    }
+
+}
@@ -0,0 +1,217 @@
+package io.github.cawfree.libgdx.ecs;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+import io.github.cawfree.libgdx.profile.FrameProfiler;
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+import io.github.cawfree.libgdx.simulation.PhysicsThread;
+import io.github.cawfree.libgdx.simulation.TransformSnapshot;
+
+/** Advances the simulation, and mirrors its live Instances into the Engine. When the PhysicsThread is running, the latest published TransformSnapshot is acquired instead of stepping. Each live PhysicsEntity is given an Entity carrying a Body, Transform and Render Component; Entities whose Instances have been retired, recycled or frozen are removed. Runs first, on the render thread. */
+public final class StepSystem extends EntitySystem {
+
+    /* Static Declarations. */
+    public  static final int                           PRIORITY = 0;
+    private static final ComponentMapper<BodyComponent> BODY     = ComponentMapper.getFor(BodyComponent.class);
+
+    /* Member Variables. */
+    private final PhysicsSimulation mSimulation;
+    private final PhysicsThread     mPhysicsThread;
+    private final TransformStore    mTransformStore;
+    private final FrameProfiler     mProfiler;
+    private final Bits              mMirrored;
+    private final Bits              mLive;
+    private       Entity[]          mEntities;
+    private       PooledEngine      mPooledEngine;
+    private       TransformSnapshot mSnapshot;
+
+    /** Constructor. */
+    public StepSystem(final PhysicsSimulation pPhysicsSimulation, final PhysicsThread pPhysicsThread, final TransformStore pTransformStore, final FrameProfiler pProfiler) {
+        // Implement the Parent.
+        super(StepSystem.PRIORITY);
+        // Initialize Member Variables.
+        this.mSimulation     = pPhysicsSimulation;
+        this.mPhysicsThread  = pPhysicsThread;
+        this.mTransformStore = pTransformStore;
+        this.mProfiler       = pProfiler;
+        this.mMirrored       = new Bits(64);
+        this.mLive           = new Bits(64);
+        this.mEntities       = new Entity[64];
+    }
+
+    /** Called when the System is added to the Engine. Entities are drawn from the Engine's pools, so it must be a PooledEngine. Must happen before the PhysicsThread is started. */
+    @Override public final void addedToEngine(final Engine pEngine) {
+        // Is the Engine pooled?
+        if(!(pEngine instanceof PooledEngine)) {
+            // Assert that the Engine is unsupported.
+            throw new IllegalStateException("The " + StepSystem.class.getSimpleName() + " requires a " + PooledEngine.class.getSimpleName() + ".");
+        }
+        // Track the Engine.
+        this.mPooledEngine = (PooledEngine)pEngine;
+        // The SyncSystem publishes the simulated state, so the simulation mustn't do it for us.
+        this.getSimulation().setAutoSync(false);
+    }
+
+    /** Called when the System is removed from the Engine. */
+    @Override public final void removedFromEngine(final Engine pEngine) {
+        // Release every mirrored Entity.
+        for(int i = this.mMirrored.nextSetBit(0); i >= 0; i = this.mMirrored.nextSetBit(i + 1)) {
+            this.onRemove(i);
+        }
+        // Hand publishing back to the simulation.
+        this.getSimulation().setAutoSync(true);
+        // Forget the Engine.
+        this.mPooledEngine = null;
+    }
+
+    /** Steps the simulation, and mirrors the Instances that resulted. */
+    @Override public final void update(final float pDeltaTime) {
+        // Is physics being stepped on its own thread?
+        if(this.getPhysicsThread().isRunning()) {
+            // Fetch the latest published state.
+            this.mSnapshot = this.getPhysicsThread().acquire();
+            // Record the cost of the most recently published step.
+            this.getProfiler().record(this.getSnapshot().getStatistics());
+        }
+        else {
+            // Forget any snapshot left over from the PhysicsThread.
+            this.mSnapshot = null;
+            // Update the simulation.
+            this.getSimulation().update(pDeltaTime);
+            // Record the cost of the update.
+            this.getProfiler().record(this.getSimulation().getStatistics());
+        }
+        // Fetch the Instances.
+        final Array<PhysicsEntity> lInstances = this.getInstances();
+        // Forget which handles were live.
+        this.mLive.clear();
+        // Iterate the Instances.
+        for(int i = 0; i < lInstances.size; i++) {
+            // Fetch the PhysicsEntity.
+            final PhysicsEntity lPhysicsEntity = lInstances.get(i);
+            // Mark the handle as live.
+            this.mLive.set(lPhysicsEntity.getHandle());
+            // Has the Instance been recycled since it was mirrored? (It may be retired and respawned within a single step.)
+            if(this.mMirrored.get(lPhysicsEntity.getHandle()) && StepSystem.BODY.get(this.mEntities[lPhysicsEntity.getHandle()]).isStale(this.getGeneration(lPhysicsEntity))) {
+                // Forget the Entity that described its previous life.
+                this.onRemove(lPhysicsEntity.getHandle());
+            }
+            // Has the Instance only just appeared?
+            if(!this.mMirrored.get(lPhysicsEntity.getHandle())) {
+                // Mirror the Instance.
+                this.onAdd(lPhysicsEntity);
+            }
+        }
+        // Iterate the mirrored handles.
+        for(int i = this.mMirrored.nextSetBit(0); i >= 0; i = this.mMirrored.nextSetBit(i + 1)) {
+            // Has the Instance left the scene?
+            if(!this.mLive.get(i)) {
+                // Remove its Entity.
+                this.onRemove(i);
+            }
+        }
+    }
+
+    /** Creates the Entity which represents a PhysicsEntity. */
+    private final void onAdd(final PhysicsEntity pPhysicsEntity) {
+        // Fetch the handle.
+        final int    lHandle = pPhysicsEntity.getHandle();
+        // Allocate the Entity.
+        final Entity lEntity = this.getPooledEngine().createEntity();
+        lEntity.add(this.getPooledEngine().createComponent(BodyComponent.class).setPhysicsEntity(pPhysicsEntity, this.getGeneration(pPhysicsEntity)));
+        lEntity.add(this.getPooledEngine().createComponent(TransformComponent.class).setSlot(lHandle));
+        lEntity.add(this.getPooledEngine().createComponent(RenderComponent.class).setInstance(pPhysicsEntity));
+        // Claim the Entity's slot.
+        this.getTransformStore().occupy(lHandle);
+        // Track the Entity.
+        this.ensureCapacity(lHandle + 1);
+        this.mEntities[lHandle] = lEntity;
+        this.mMirrored.set(lHandle);
+        // Register the Entity.
+        this.getPooledEngine().addEntity(lEntity);
+    }
+
+    /** Removes the Entity which represents a handle. */
+    private final void onRemove(final int pHandle) {
+        // Remove the Entity; its Components are returned to the pools.
+        this.getPooledEngine().removeEntity(this.mEntities[pHandle]);
+        // Release the slot.
+        this.getTransformStore().release(pHandle);
+        // Forget the Entity.
+        this.mEntities[pHandle] = null;
+        this.mMirrored.clear(pHandle);
+    }
+
+    /** Grows the handle lookup to fit the specified number of handles. */
+    private final void ensureCapacity(final int pHandles) {
+        // Do we already have enough room?
+        if(pHandles <= this.mEntities.length) {
+            return;
+        }
+        // Grow the lookup.
+        final Entity[] lEntities = new Entity[Math.max(pHandles, this.mEntities.length << 1)];
+        System.arraycopy(this.mEntities, 0, lEntities, 0, this.mEntities.length);
+        // Assign the lookup.
+        this.mEntities = lEntities;
+    }
+
+    /** Returns the Entity which represents a handle, if its Instance was live as of the last update. */
+    public final Entity getEntity(final int pHandle) {
+        // Is the Handle within range?
+        return (pHandle >= 0 && pHandle < this.mEntities.length) ? this.mEntities[pHandle] : null;
+    }
+
+    /** Returns the Instances that were mirrored by the last update; either published by the PhysicsThread, or live in the simulation. */
+    public final Array<PhysicsEntity> getInstances() {
+        return this.getSnapshot() != null ? this.getSnapshot().getInstances() : this.getSimulation().getInstances();
+    }
+
+    /** Returns the generation of a mirrored PhysicsEntity as of the last update; the PhysicsThread's Entities are read from the snapshot, since it may be recycling them. */
+    private final int getGeneration(final PhysicsEntity pPhysicsEntity) {
+        return this.getSnapshot() != null ? this.getSnapshot().getGeneration(pPhysicsEntity.getHandle()) : pPhysicsEntity.getGeneration();
+    }
+
+    /** Returns the frozen Entities as of the last update. */
+    public final Array<PhysicsEntity> getFrozen() {
+        return this.getSnapshot() != null ? this.getSnapshot().getFrozen() : this.getSimulation().getFrozenPile().getEntities();
+    }
+
+    /** Returns the generation of the frozen Entities as of the last update. */
+    public final long getFrozenGeneration() {
+        return this.getSnapshot() != null ? this.getSnapshot().getFrozenGeneration() : this.getSimulation().getFrozenPile().getGeneration();
+    }
+
+    /* Getters. */
+    public final PhysicsSimulation getSimulation() {
+        return this.mSimulation;
+    }
+
+    public final PhysicsThread getPhysicsThread() {
+        return this.mPhysicsThread;
+    }
+
+    /** Returns the snapshot acquired by the last update; null unless the PhysicsThread is running. */
+    public final TransformSnapshot getSnapshot() {
+        return this.mSnapshot;
+    }
+
+    private final TransformStore getTransformStore() {
+        return this.mTransformStore;
+    }
+
+    private final FrameProfiler getProfiler() {
+        return this.mProfiler;
+    }
+
+    private final PooledEngine getPooledEngine() {
+        return this.mPooledEngine;
+    }
+
+}
@@ -0,0 +1,64 @@
+package io.github.cawfree.libgdx.ecs;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+
+/** Publishes the simulated state of every Entity. The Instances that moved are first caught up, either from the simulation or from the snapshot that the StepSystem acquired, and interpolated between steps when it's enabled; then the Transform and AABB of each Entity is packed into the TransformStore, for the systems that follow. Runs on the render thread, after the StepSystem. */
+public final class SyncSystem extends IteratingSystem {
+
+    /* Static Declarations. */
+    public  static final int                                PRIORITY  = 1;
+    private static final ComponentMapper<BodyComponent>      BODY      = ComponentMapper.getFor(BodyComponent.class);
+    private static final ComponentMapper<TransformComponent> TRANSFORM = ComponentMapper.getFor(TransformComponent.class);
+
+    /* Member Variables. */
+    private final StepSystem     mStepSystem;
+    private final TransformStore mTransformStore;
+
+    /** Constructor. */
+    @SuppressWarnings("unchecked") public SyncSystem(final StepSystem pStepSystem, final TransformStore pTransformStore) {
+        // Implement the Parent.
+        super(Family.all(BodyComponent.class, TransformComponent.class).get(), SyncSystem.PRIORITY);
+        // Initialize Member Variables.
+        this.mStepSystem     = pStepSystem;
+        this.mTransformStore = pTransformStore;
+    }
+
+    /** Catches up the Instances, and then packs each of them. */
+    @Override public final void update(final float pDeltaTime) {
+        // Was a snapshot published by the PhysicsThread?
+        if(this.getStepSystem().getSnapshot() != null) {
+            // Move the Instances to their published Transforms, blending them between steps.
+            this.getStepSystem().getSnapshot().apply(this.getStepSystem().getSimulation().isInterpolated());
+        }
+        else {
+            // Copy the Instances that moved during the step, and blend them between steps.
+            this.getStepSystem().getSimulation().sync();
+            this.getStepSystem().getSimulation().interpolate();
+        }
+        // Pack the Entities.
+        super.update(pDeltaTime);
+    }
+
+    /** Packs the renderable Transform and Bounds of an Entity. */
+    @Override protected final void processEntity(final Entity pEntity, final float pDeltaTime) {
+        // Fetch the PhysicsEntity.
+        final PhysicsEntity lPhysicsEntity = SyncSystem.BODY.get(pEntity).getPhysicsEntity();
+        // Pack its state.
+        this.getTransformStore().write(SyncSystem.TRANSFORM.get(pEntity).getSlot(), lPhysicsEntity.transform, lPhysicsEntity.getBounds());
+    }
+
+    /* Getters. */
+    private final StepSystem getStepSystem() {
+        return this.mStepSystem;
+    }
+
+    private final TransformStore getTransformStore() {
+        return this.mTransformStore;
+    }
+
+}
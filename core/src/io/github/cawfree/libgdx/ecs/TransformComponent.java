@@ -0,0 +1,34 @@
+package io.github.cawfree.libgdx.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+/** Locates an Entity's Transform and AABB within the TransformStore. The data itself is packed in the store, rather than held here, so that it can be swept contiguously. */
+public final class TransformComponent implements Component, Pool.Poolable {
+
+    /* Member Variables. */
+    private int mSlot;
+
+    /** Constructor. */
+    public TransformComponent() {
+        // Initialize Member Variables.
+        this.mSlot = -1;
+    }
+
+    /** Forgets the slot, so that the Component may be reused. */
+    @Override public final void reset() {
+        // Release the slot.
+        this.mSlot = -1;
+    }
+
+    /* Getters. */
+    public final TransformComponent setSlot(final int pSlot) {
+        this.mSlot = pSlot;
+        return this;
+    }
+
+    public final int getSlot() {
+        return this.mSlot;
+    }
+
+}
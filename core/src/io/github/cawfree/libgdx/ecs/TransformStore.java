@@ -0,0 +1,108 @@
+package io.github.cawfree.libgdx.ecs;
+
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Bits;
+
+/** The packed spatial state of the scene. Each slot holds a Transform and an AABB in consecutive floats, laid out like a TransformSnapshot, so that systems which sweep every Entity walk a single array rather than chasing Component references. A slot is the handle of the PhysicsEntity that occupies it. */
+public final class TransformStore {
+
+    /* Static Declarations. */
+    public  static final int STRIDE           = 22;
+    public  static final int OFFSET_MINIMUM   = 16;
+    public  static final int OFFSET_MAXIMUM   = 19;
+
+    /* Member Variables. */
+    private       float[] mData;
+    private final Bits    mOccupied;
+    private final Bits    mVisible;
+
+    /** Constructor. */
+    public TransformStore() {
+        // Initialize Member Variables.
+        this.mData     = new float[64 * TransformStore.STRIDE];
+        this.mOccupied = new Bits(64);
+        this.mVisible  = new Bits(64);
+    }
+
+    /** Claims a slot for an Entity. Must be called on the thread which updates the Engine. */
+    public final void occupy(final int pSlot) {
+        // Make room for the slot.
+        this.ensureCapacity(pSlot + 1);
+        // Mark the slot.
+        this.getOccupied().set(pSlot);
+    }
+
+    /** Releases a slot. It's no longer swept, and is no longer visible. */
+    public final void release(final int pSlot) {
+        // Clear the slot.
+        this.getOccupied().clear(pSlot);
+        this.getVisible().clear(pSlot);
+    }
+
+    /** Packs a Transform and AABB into a slot. */
+    public final void write(final int pSlot, final Matrix4 pTransform, final BoundingBox pBounds) {
+        // Compute the offset of the slot.
+        final int lOffset = pSlot * TransformStore.STRIDE;
+        // Copy the Transform.
+        System.arraycopy(pTransform.val, 0, this.mData, lOffset, 16);
+        // Copy the AABB.
+        this.mData[lOffset + TransformStore.OFFSET_MINIMUM    ] = pBounds.min.x;
+        this.mData[lOffset + TransformStore.OFFSET_MINIMUM + 1] = pBounds.min.y;
+        this.mData[lOffset + TransformStore.OFFSET_MINIMUM + 2] = pBounds.min.z;
+        this.mData[lOffset + TransformStore.OFFSET_MAXIMUM    ] = pBounds.max.x;
+        this.mData[lOffset + TransformStore.OFFSET_MAXIMUM + 1] = pBounds.max.y;
+        this.mData[lOffset + TransformStore.OFFSET_MAXIMUM + 2] = pBounds.max.z;
+    }
+
+    /** Copies the Transform of a slot into a Matrix4, and returns it. */
+    public final Matrix4 getTransform(final int pSlot, final Matrix4 pTransform) {
+        // Copy the Transform.
+        System.arraycopy(this.mData, pSlot * TransformStore.STRIDE, pTransform.val, 0, 16);
+        // Return the Transform.
+        return pTransform;
+    }
+
+    /** Determines whether the AABB of a slot intersects a Frustum. */
+    public final boolean isInFrustum(final int pSlot, final Frustum pFrustum) {
+        // Compute the offsets of the AABB.
+        final int lMinimum = pSlot * TransformStore.STRIDE + TransformStore.OFFSET_MINIMUM;
+        final int lMaximum = pSlot * TransformStore.STRIDE + TransformStore.OFFSET_MAXIMUM;
+        // Compute the centre of the AABB.
+        final float lX = (this.mData[lMinimum    ] + this.mData[lMaximum    ]) * 0.5f;
+        final float lY = (this.mData[lMinimum + 1] + this.mData[lMaximum + 1]) * 0.5f;
+        final float lZ = (this.mData[lMinimum + 2] + this.mData[lMaximum + 2]) * 0.5f;
+        // Test the centre and half-extents against the Frustum.
+        return pFrustum.boundsInFrustum(lX, lY, lZ, this.mData[lMaximum] - lX, this.mData[lMaximum + 1] - lY, this.mData[lMaximum + 2] - lZ);
+    }
+
+    /** Grows the slot buffer to fit the specified number of slots. */
+    private final void ensureCapacity(final int pSlots) {
+        // Do we already have enough room?
+        if(pSlots * TransformStore.STRIDE <= this.mData.length) {
+            return;
+        }
+        // Grow the buffer.
+        final float[] lData = new float[Math.max(pSlots, (this.mData.length / TransformStore.STRIDE) << 1) * TransformStore.STRIDE];
+        System.arraycopy(this.mData, 0, lData, 0, this.mData.length);
+        // Assign the buffer.
+        this.mData = lData;
+    }
+
+    /* Getters. */
+    /** Returns the slots which are occupied by an Entity. */
+    public final Bits getOccupied() {
+        return this.mOccupied;
+    }
+
+    /** Returns the slots which passed the last cull. */
+    public final Bits getVisible() {
+        return this.mVisible;
+    }
+
+    public final boolean isVisible(final int pSlot) {
+        return this.getVisible().get(pSlot);
+    }
+
+}
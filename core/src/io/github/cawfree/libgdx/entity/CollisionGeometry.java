@@ -0,0 +1,184 @@
+package io.github.cawfree.libgdx.entity;
+
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.physics.bullet.collision.btBvhTriangleMeshShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btCompoundShape;
+import com.badlogic.gdx.physics.bullet.collision.btConvexHullShape;
+import com.badlogic.gdx.physics.bullet.collision.btIndexedMesh;
+import com.badlogic.gdx.physics.bullet.collision.btOptimizedBvh;
+import com.badlogic.gdx.physics.bullet.collision.btTriangleIndexVertexArray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+import io.github.cawfree.libgdx.simulation.NativeRegistry;
+
+/** The collision shape of an arbitrary Model, together with the native resources it depends upon. gdx-bullet doesn't dispose of the children of a shape when the shape itself is disposed, so they're tracked here and released afterwards. Every Mesh of the Model contributes, placed by its Node. */
+public final class CollisionGeometry implements Disposable {
+
+    /** Defines how the triangles of a Model are approximated. */
+    public enum Mode {
+        /** A single convex hull about every vertex; the cheapest to collide, but concave regions are filled in. */
+        HULL,
+        /** The exact triangles, held in a bounding volume hierarchy. Triangle meshes have no volume, so they may only be used by static bodies. */
+        MESH,
+        /** A compound of convex hulls, each about a nearly-convex piece of the Model; follows concave contours, and may be simulated dynamically. */
+        DECOMPOSED
+    }
+
+    /* Static Declarations. */
+    private static final int MAXIMUM_VERTICES = 0xFFFF;
+    private static final int SIZE_POSITION    = 12;
+
+    /** Builds the CollisionGeometry of a Model. The expensive parts are read from the HullCache, when one is provided, if they've been built before. This may be called from any thread; the Model isn't modified. */
+    public static final CollisionGeometry create(final Model pModel, final Mode pMode, final boolean pIsOptimized, final HullCache pHullCache) {
+        // Flatten the Model's triangles.
+        final ModelTriangles lModelTriangles = ModelTriangles.of(pModel);
+        // Is there any geometry to collide with?
+        if(lModelTriangles.getTriangleCount() == 0) {
+            // Assert that the Model can't be collided with.
+            throw new IllegalStateException("The Model doesn't contain any triangles to build a collision shape from.");
+        }
+        // Allocate the CollisionGeometry.
+        final CollisionGeometry lCollisionGeometry = new CollisionGeometry(pMode);
+        // Handle the Mode.
+        switch(pMode) {
+            case HULL       : lCollisionGeometry.onHull(lModelTriangles, pIsOptimized, pHullCache);      break;
+            case MESH       : lCollisionGeometry.onMesh(lModelTriangles, pHullCache);                    break;
+            case DECOMPOSED : lCollisionGeometry.onDecompose(lModelTriangles, pIsOptimized, pHullCache); break;
+        }
+        // Account for the shape.
+        NativeRegistry.track(lCollisionGeometry.getShape());
+        // Return the CollisionGeometry.
+        return lCollisionGeometry;
+    }
+
+    /* Member Variables. */
+    private final Mode                       mMode;
+    private final Array<btCollisionShape>    mChildren;
+    private       btCollisionShape           mShape;
+    private       btTriangleIndexVertexArray mMeshInterface;
+    private       btIndexedMesh              mIndexedMesh;
+    private       FloatBuffer                mVertices;
+    private       ShortBuffer                mIndices;
+    private       ByteBuffer                 mBvh;
+
+    /** Constructor. */
+    private CollisionGeometry(final Mode pMode) {
+        // Initialize Member Variables.
+        this.mMode     = pMode;
+        this.mChildren = new Array<btCollisionShape>();
+    }
+
+    /** Wraps every vertex of the Model in a single hull. */
+    private final void onHull(final ModelTriangles pModelTriangles, final boolean pIsOptimized, final HullCache pHullCache) {
+        // Build the hull, reading it from the cache when we can.
+        this.mShape = pHullCache != null ? pHullCache.obtain(pModelTriangles.getPositions(), pIsOptimized) : PhysicsEntity.createConvexHullShape(pModelTriangles.getPositions(), pIsOptimized);
+    }
+
+    /** Places the Model's triangles in a bounding volume hierarchy. Building the hierarchy is the expensive part, so it's deserialized from the cache when we can. */
+    private final void onMesh(final ModelTriangles pModelTriangles, final HullCache pHullCache) {
+        // Are there too many vertices to index with shorts?
+        if(pModelTriangles.getVertexCount() > CollisionGeometry.MAXIMUM_VERTICES) {
+            // Assert that the Model is too detailed.
+            throw new IllegalStateException("A " + Mode.MESH + " collision shape supports at most " + CollisionGeometry.MAXIMUM_VERTICES + " vertices; the Model has " + pModelTriangles.getVertexCount() + ".");
+        }
+        // Copy the triangles into direct buffers; Bullet reads them in place for as long as the shape exists.
+        this.mVertices = BufferUtils.newFloatBuffer(pModelTriangles.getPositions().length);
+        this.mIndices  = BufferUtils.newShortBuffer(pModelTriangles.getIndices().length);
+        this.mVertices.put(pModelTriangles.getPositions()).flip();
+        for(final int lIndex : pModelTriangles.getIndices()) {
+            this.mIndices.put((short)lIndex);
+        }
+        this.mIndices.flip();
+        // Describe the triangles to Bullet.
+        this.mIndexedMesh   = NativeRegistry.track(new btIndexedMesh(this.mVertices, CollisionGeometry.SIZE_POSITION, pModelTriangles.getVertexCount(), 0, this.mIndices, 0, pModelTriangles.getIndices().length));
+        this.mMeshInterface = NativeRegistry.track(new btTriangleIndexVertexArray());
+        this.mMeshInterface.addIndexedMesh(this.mIndexedMesh);
+        // Attempt to read the hierarchy from the cache.
+        this.mBvh           = pHullCache != null ? pHullCache.readBvh(pModelTriangles) : null;
+        // Was the hierarchy cached?
+        if(this.mBvh != null) {
+            // Allocate the shape, without building a hierarchy.
+            final btBvhTriangleMeshShape lBvhTriangleMeshShape = new btBvhTriangleMeshShape(this.mMeshInterface, true, false);
+            // Deserialize the hierarchy in place, and hand it to the shape. (The shape doesn't own it; it lives in our buffer.)
+            lBvhTriangleMeshShape.setOptimizedBvh(btOptimizedBvh.deSerializeInPlace(BufferUtils.getUnsafeBufferAddress(this.mBvh), this.mBvh.remaining(), false));
+            // Assign the Shape.
+            this.mShape = lBvhTriangleMeshShape;
+        }
+        else {
+            // Allocate the shape, building the hierarchy.
+            final btBvhTriangleMeshShape lBvhTriangleMeshShape = new btBvhTriangleMeshShape(this.mMeshInterface, true, true);
+            // Are we caching hierarchies?
+            if(pHullCache != null) {
+                // Persist the hierarchy for next time.
+                pHullCache.writeBvh(pModelTriangles, lBvhTriangleMeshShape.getOptimizedBvh());
+            }
+            // Assign the Shape.
+            this.mShape = lBvhTriangleMeshShape;
+        }
+    }
+
+    /** Approximates the Model by a compound of convex hulls. Decomposing is the expensive part, so the hulls of the pieces are read from the cache when we can. */
+    private final void onDecompose(final ModelTriangles pModelTriangles, final boolean pIsOptimized, final HullCache pHullCache) {
+        // Fetch the points of each piece's hull.
+        final Array<float[]>  lPieces        = pHullCache != null ? pHullCache.decompose(pModelTriangles, pIsOptimized) : ConvexDecomposition.decompose(pModelTriangles);
+        // Allocate the CompoundShape. (The pieces are already placed in the Model's space.)
+        final btCompoundShape lCompoundShape = new btCompoundShape(true, lPieces.size);
+        final Matrix4         lTransform     = new Matrix4();
+        // Iterate the pieces.
+        for(final float[] lPoints : lPieces) {
+            // Build the hull of the piece. (Cached pieces have already been optimized.)
+            final btConvexHullShape lConvexHullShape = PhysicsEntity.createConvexHullShape(lPoints, pIsOptimized && pHullCache == null);
+            // Track the child, so that it can be disposed of.
+            this.mChildren.add(NativeRegistry.track(lConvexHullShape));
+            // Add the child to the CompoundShape.
+            lCompoundShape.addChildShape(lTransform, lConvexHullShape);
+        }
+        // Assign the Shape.
+        this.mShape = lCompoundShape;
+    }
+
+    /** Disposes of the shape, and then everything that it depends upon. */
+    @Override public final void dispose() {
+        // Dispose of the shape first, since it refers to the rest.
+        NativeRegistry.dispose(this.getShape());
+        // Dispose of the children.
+        for(final btCollisionShape lChild : this.mChildren) {
+            NativeRegistry.dispose(lChild);
+        }
+        this.mChildren.clear();
+        // Was the Model held as a triangle mesh?
+        if(this.mMeshInterface != null) {
+            // Dispose of the mesh description.
+            NativeRegistry.dispose(this.mMeshInterface);
+            NativeRegistry.dispose(this.mIndexedMesh);
+        }
+        // Was the hierarchy deserialized into our own memory?
+        if(this.mBvh != null) {
+            // Release the hierarchy.
+            BufferUtils.disposeUnsafeByteBuffer(this.mBvh);
+        }
+    }
+
+    /* Getters. */
+    public final btCollisionShape getShape() {
+        return this.mShape;
+    }
+
+    public final Mode getMode() {
+        return this.mMode;
+    }
+
+    /** Returns the number of convex pieces that the Model was decomposed into; zero unless DECOMPOSED. */
+    public final int getPieces() {
+        return this.mChildren.size;
+    }
+
+}
@@ -0,0 +1,227 @@
+package io.github.cawfree.libgdx.entity;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntSet;
+
+/** An approximate convex decomposition of a triangle soup. The triangles are split recursively, across the longest axis of their centroids, until each cluster is close to convex or the depth limit is reached; each cluster then becomes one convex piece. A cluster's concavity is estimated against its 26-sided bounding polytope, as the furthest that any triangle must look along its outward normal before it leaves the polytope; a convex surface faces straight out of it, whilst the floor of a pocket looks across it. Triangles are expected to be wound counter-clockwise, as they are for rendering. gdx-bullet doesn't expose HACD, so this stands in for it; it's pure Java, deterministic and safe to run off the render thread. */
+public final class ConvexDecomposition {
+
+    /* Static Declarations. */
+    public  static final int     DEFAULT_DEPTH     = 4;
+    public  static final float   DEFAULT_CONCAVITY = 0.05f;
+    private static final int     MINIMUM_TRIANGLES = 4;
+    private static final float[] DIRECTIONS        = ConvexDecomposition.directions();
+
+    /** Prevent instantiation of this class. */
+    private ConvexDecomposition() {}
+
+    /** Decomposes the triangles into at most 2^Depth convex pieces. A cluster stops splitting once its concavity falls beneath the Concavity, as a fraction of the cluster's diagonal. Each piece is returned as its points, packed as consecutive x, y, z. */
+    public static final Array<float[]> decompose(final ModelTriangles pModelTriangles, final int pDepth, final float pConcavity) {
+        // Allocate the pieces.
+        final Array<float[]> lPieces    = new Array<float[]>();
+        // Start with every triangle.
+        final IntArray       lTriangles = new IntArray(pModelTriangles.getTriangleCount());
+        for(int i = 0; i < pModelTriangles.getTriangleCount(); i++) {
+            lTriangles.add(i);
+        }
+        // Is there anything to decompose?
+        if(lTriangles.size > 0) {
+            // Split the triangles.
+            ConvexDecomposition.onSplit(pModelTriangles, lTriangles, pDepth, pConcavity, lPieces);
+        }
+        // Return the pieces.
+        return lPieces;
+    }
+
+    /** Decomposes the triangles using the default depth and concavity. */
+    public static final Array<float[]> decompose(final ModelTriangles pModelTriangles) {
+        // Use the defaults.
+        return ConvexDecomposition.decompose(pModelTriangles, ConvexDecomposition.DEFAULT_DEPTH, ConvexDecomposition.DEFAULT_CONCAVITY);
+    }
+
+    /** Either emits a cluster as a piece, or splits it in two and recurses. */
+    private static final void onSplit(final ModelTriangles pModelTriangles, final IntArray pTriangles, final int pDepth, final float pConcavity, final Array<float[]> pPieces) {
+        // Fetch the points of the cluster.
+        final float[] lPoints = ConvexDecomposition.points(pModelTriangles, pTriangles);
+        // Is the cluster small enough, or convex enough, to keep?
+        if(pDepth <= 0 || pTriangles.size < ConvexDecomposition.MINIMUM_TRIANGLES || ConvexDecomposition.concavity(pModelTriangles, pTriangles, lPoints) <= pConcavity * ConvexDecomposition.diagonal(lPoints)) {
+            // Emit the piece.
+            pPieces.add(lPoints);
+            return;
+        }
+        // Compute the bounds of the triangles' centroids.
+        final float[] lMinimum = new float[] {  Float.MAX_VALUE,  Float.MAX_VALUE,  Float.MAX_VALUE };
+        final float[] lMaximum = new float[] { -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE };
+        final float[] lSum     = new float[3];
+        for(int i = 0; i < pTriangles.size; i++) {
+            // Iterate the axes.
+            for(int j = 0; j < 3; j++) {
+                // Fetch the centroid's component.
+                final float lCentroid = ConvexDecomposition.centroid(pModelTriangles, pTriangles.get(i), j);
+                // Accumulate the bounds.
+                lMinimum[j] = Math.min(lMinimum[j], lCentroid);
+                lMaximum[j] = Math.max(lMaximum[j], lCentroid);
+                lSum[j]    += lCentroid;
+            }
+        }
+        // Select the longest axis.
+        int lAxis = 0;
+        for(int j = 1; j < 3; j++) {
+            if(lMaximum[j] - lMinimum[j] > lMaximum[lAxis] - lMinimum[lAxis]) {
+                lAxis = j;
+            }
+        }
+        // Split at the mean centroid.
+        final float    lSplit = lSum[lAxis] / pTriangles.size;
+        final IntArray lLower = new IntArray();
+        final IntArray lUpper = new IntArray();
+        for(int i = 0; i < pTriangles.size; i++) {
+            // Assign the triangle to a side.
+            (ConvexDecomposition.centroid(pModelTriangles, pTriangles.get(i), lAxis) < lSplit ? lLower : lUpper).add(pTriangles.get(i));
+        }
+        // Did the split fail to separate anything?
+        if(lLower.size == 0 || lUpper.size == 0) {
+            // Emit the piece.
+            pPieces.add(lPoints);
+            return;
+        }
+        // Recurse into either side.
+        ConvexDecomposition.onSplit(pModelTriangles, lLower, pDepth - 1, pConcavity, pPieces);
+        ConvexDecomposition.onSplit(pModelTriangles, lUpper, pDepth - 1, pConcavity, pPieces);
+    }
+
+    /** Returns the unique vertices of a cluster of triangles. */
+    private static final float[] points(final ModelTriangles pModelTriangles, final IntArray pTriangles) {
+        // Allocate the buffers.
+        final IntSet     lVertices = new IntSet();
+        final FloatArray lPoints   = new FloatArray();
+        // Iterate the corners.
+        for(int i = 0; i < pTriangles.size; i++) {
+            for(int j = 0; j < 3; j++) {
+                // Fetch the vertex.
+                final int lVertex = pModelTriangles.getIndices()[pTriangles.get(i) * 3 + j];
+                // Is this the first time we've seen the vertex?
+                if(lVertices.add(lVertex)) {
+                    // Append the point.
+                    lPoints.addAll(pModelTriangles.getPositions(), lVertex * 3, 3);
+                }
+            }
+        }
+        // Return the points.
+        return lPoints.toArray();
+    }
+
+    /** Returns a component of a triangle's centroid. */
+    private static final float centroid(final ModelTriangles pModelTriangles, final int pTriangle, final int pAxis) {
+        // Fetch the soup.
+        final int[]   lIndices   = pModelTriangles.getIndices();
+        final float[] lPositions = pModelTriangles.getPositions();
+        // Average the corners.
+        return (lPositions[lIndices[pTriangle * 3] * 3 + pAxis] + lPositions[lIndices[pTriangle * 3 + 1] * 3 + pAxis] + lPositions[lIndices[pTriangle * 3 + 2] * 3 + pAxis]) / 3.0f;
+    }
+
+    /** Estimates the concavity of a cluster of triangles; the furthest any triangle's centroid lies from the bounding polytope of the Points, along the triangle's normal. */
+    private static final float concavity(final ModelTriangles pModelTriangles, final IntArray pTriangles, final float[] pPoints) {
+        // Compute the support of the points along each direction.
+        final int     lDirections = ConvexDecomposition.DIRECTIONS.length / 3;
+        final float[] lSupport    = new float[lDirections];
+        java.util.Arrays.fill(lSupport, -Float.MAX_VALUE);
+        for(int i = 0; i < pPoints.length; i += 3) {
+            for(int j = 0; j < lDirections; j++) {
+                lSupport[j] = Math.max(lSupport[j], ConvexDecomposition.dot(j, pPoints, i));
+            }
+        }
+        // Allocate the buffers.
+        final int[]   lIndices   = pModelTriangles.getIndices();
+        final float[] lPositions = pModelTriangles.getPositions();
+        final float[] lTriangle  = new float[6];
+        // Find the most concealed triangle.
+        float lConcavity = 0.0f;
+        for(int i = 0; i < pTriangles.size; i++) {
+            // Fetch the corners of the triangle.
+            final int lA = lIndices[pTriangles.get(i) * 3] * 3;
+            final int lB = lIndices[pTriangles.get(i) * 3 + 1] * 3;
+            final int lC = lIndices[pTriangles.get(i) * 3 + 2] * 3;
+            // Compute the normal; the cross product of two of the edges.
+            final float lUX = lPositions[lB] - lPositions[lA], lUY = lPositions[lB + 1] - lPositions[lA + 1], lUZ = lPositions[lB + 2] - lPositions[lA + 2];
+            final float lVX = lPositions[lC] - lPositions[lA], lVY = lPositions[lC + 1] - lPositions[lA + 1], lVZ = lPositions[lC + 2] - lPositions[lA + 2];
+            final float lNX = lUY * lVZ - lUZ * lVY, lNY = lUZ * lVX - lUX * lVZ, lNZ = lUX * lVY - lUY * lVX;
+            final float lLength = (float)Math.sqrt(lNX * lNX + lNY * lNY + lNZ * lNZ);
+            // Is the triangle degenerate?
+            if(lLength <= 0.0f) {
+                continue;
+            }
+            // Buffer the centroid and the unit normal.
+            lTriangle[0] = (lPositions[lA]     + lPositions[lB]     + lPositions[lC])     / 3.0f;
+            lTriangle[1] = (lPositions[lA + 1] + lPositions[lB + 1] + lPositions[lC + 1]) / 3.0f;
+            lTriangle[2] = (lPositions[lA + 2] + lPositions[lB + 2] + lPositions[lC + 2]) / 3.0f;
+            lTriangle[3] = lNX / lLength;
+            lTriangle[4] = lNY / lLength;
+            lTriangle[5] = lNZ / lLength;
+            // Find where the ray along the normal leaves the polytope; the nearest of the faces that it heads towards.
+            float lDistance = Float.MAX_VALUE;
+            for(int j = 0; j < lDirections; j++) {
+                // Fetch how directly the ray heads towards the face.
+                final float lApproach = ConvexDecomposition.dot(j, lTriangle, 3);
+                // Does the ray head towards the face at all?
+                if(lApproach > 0.0f) {
+                    lDistance = Math.min(lDistance, (lSupport[j] - ConvexDecomposition.dot(j, lTriangle, 0)) / lApproach);
+                }
+            }
+            // Track the furthest.
+            lConcavity = Math.max(lConcavity, lDistance);
+        }
+        // Return the concavity.
+        return lConcavity;
+    }
+
+    /** Returns the length of the diagonal of the points' axis-aligned bounds. */
+    private static final float diagonal(final float[] pPoints) {
+        // Accumulate the extent of each axis.
+        float lLength = 0.0f;
+        for(int j = 0; j < 3; j++) {
+            float lMinimum =  Float.MAX_VALUE;
+            float lMaximum = -Float.MAX_VALUE;
+            for(int i = j; i < pPoints.length; i += 3) {
+                lMinimum = Math.min(lMinimum, pPoints[i]);
+                lMaximum = Math.max(lMaximum, pPoints[i]);
+            }
+            lLength += (lMaximum - lMinimum) * (lMaximum - lMinimum);
+        }
+        // Return the diagonal.
+        return (float)Math.sqrt(lLength);
+    }
+
+    /** Projects a point onto one of the directions. */
+    private static final float dot(final int pDirection, final float[] pPoints, final int pOffset) {
+        // Compute the dot product.
+        return ConvexDecomposition.DIRECTIONS[pDirection * 3] * pPoints[pOffset] + ConvexDecomposition.DIRECTIONS[pDirection * 3 + 1] * pPoints[pOffset + 1] + ConvexDecomposition.DIRECTIONS[pDirection * 3 + 2] * pPoints[pOffset + 2];
+    }
+
+    /** Generates the 26 unit directions towards the faces, edges and corners of a cube. */
+    private static final float[] directions() {
+        // Allocate the directions.
+        final FloatArray lDirections = new FloatArray();
+        // Iterate the neighbours of the origin.
+        for(int x = -1; x <= 1; x++) {
+            for(int y = -1; y <= 1; y++) {
+                for(int z = -1; z <= 1; z++) {
+                    // Ignore the origin itself.
+                    if(x == 0 && y == 0 && z == 0) {
+                        continue;
+                    }
+                    // Normalize the direction.
+                    final float lLength = (float)Math.sqrt(x * x + y * y + z * z);
+                    lDirections.add(x / lLength);
+                    lDirections.add(y / lLength);
+                    lDirections.add(z / lLength);
+                }
+            }
+        }
+        // Return the directions.
+        return lDirections.toArray();
+    }
+
+}
@@ -0,0 +1,474 @@
+package io.github.cawfree.libgdx.entity;
+
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.physics.bullet.collision.btConvexHullShape;
+import com.badlogic.gdx.physics.bullet.collision.btOptimizedBvh;
+import com.badlogic.gdx.physics.bullet.linearmath.LinearMathJNI;
+import com.badlogic.gdx.physics.bullet.linearmath.btVector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** A content-addressed, on-disk cache of collision geometry. Hulls are keyed by a hash of the source vertices, the vertex size and the optimization flag, and are stored as a compact little-endian file which is memory-mapped straight into the btConvexHullShape on load; so known assets never rebuild their hull. Convex decompositions are stored the same way, one hull per piece, and the bounding volume hierarchies of triangle meshes are stored in Bullet's own in-place layout; these are far more expensive to build than a single hull. Distinct assets may be obtained from different threads at once. */
+public final class HullCache {
+
+    /* Static Declarations. */
+    private static final int    MAGIC          = 0x48554C4C;
+    private static final int    MAGIC_PARTS    = 0x50525453;
+    private static final int    MAGIC_BVH      = 0x42564820;
+    private static final int    VERSION        = 1;
+    private static final int    SIZE_HEADER    = 12;
+    private static final int    SIZE_POINT     = 12;
+    private static final int    SIZE_BTVECTOR3 = 16;
+    private static final int    SIZE_ALIGNMENT = 16;
+    static  final        long   FNV_OFFSET     = 0xCBF29CE484222325L;
+    private static final long   FNV_PRIME      = 0x100000001B3L;
+    private static final String PREFIX_FILE    = "hull-";
+    private static final String PREFIX_PARTS   = "parts-";
+    private static final String PREFIX_BVH     = "bvh-";
+    private static final String SUFFIX_FILE    = ".bin";
+    private static final String SUFFIX_PARTIAL = ".tmp";
+
+    /* Member Variables. */
+    private final File          mDirectory;
+    private final AtomicInteger mHits;
+    private final AtomicInteger mMisses;
+
+    /** Constructor. The Directory is created on the first miss. */
+    public HullCache(final File pDirectory) {
+        // Initialize Member Variables.
+        this.mDirectory = pDirectory;
+        this.mHits      = new AtomicInteger(0);
+        this.mMisses    = new AtomicInteger(0);
+    }
+
+    /** Returns the hull of the Mesh; this is read from the cache when possible, and otherwise built and then written to the cache. */
+    public final btConvexHullShape obtain(final Mesh pMesh, final boolean pIsOptimized) {
+        // Locate the entry for the Mesh.
+        final File              lFile            = new File(this.getDirectory(), HullCache.PREFIX_FILE + Long.toHexString(HullCache.hash(pMesh, pIsOptimized)) + HullCache.SUFFIX_FILE);
+        // Attempt to load the hull.
+        final btConvexHullShape lConvexHullShape = HullCache.read(lFile);
+        // Was the hull cached?
+        if(lConvexHullShape != null) {
+            // Count the hit.
+            this.mHits.incrementAndGet();
+            // Return the ConvexHullShape.
+            return lConvexHullShape;
+        }
+        // Count the miss.
+        this.mMisses.incrementAndGet();
+        // Build the hull.
+        final btConvexHullShape lBuiltShape = PhysicsEntity.createConvexHullShape(pMesh, pIsOptimized);
+        // Persist the hull for next time.
+        this.write(lFile, HullCache.points(lBuiltShape));
+        // Return the ConvexHullShape.
+        return lBuiltShape;
+    }
+
+    /** Returns the hull of a set of points, packed as consecutive x, y, z; this is read from the cache when possible, and otherwise built and then written to the cache. */
+    public final btConvexHullShape obtain(final float[] pPoints, final boolean pIsOptimized) {
+        // Locate the entry for the points.
+        final File              lFile            = new File(this.getDirectory(), HullCache.PREFIX_FILE + Long.toHexString(HullCache.hash(pPoints, pIsOptimized)) + HullCache.SUFFIX_FILE);
+        // Attempt to load the hull.
+        final btConvexHullShape lConvexHullShape = HullCache.read(lFile);
+        // Was the hull cached?
+        if(lConvexHullShape != null) {
+            // Count the hit.
+            this.mHits.incrementAndGet();
+            // Return the ConvexHullShape.
+            return lConvexHullShape;
+        }
+        // Count the miss.
+        this.mMisses.incrementAndGet();
+        // Build the hull.
+        final btConvexHullShape lBuiltShape = PhysicsEntity.createConvexHullShape(pPoints, pIsOptimized);
+        // Persist the hull for next time.
+        this.write(lFile, HullCache.points(lBuiltShape));
+        // Return the ConvexHullShape.
+        return lBuiltShape;
+    }
+
+    /** Returns the convex decomposition of a Model's triangles, as the points of each piece's hull; these are read from the cache when possible, and otherwise decomposed and then written to the cache. When optimized, each hull has already been reduced, so the points may be handed straight to a btConvexHullShape. */
+    public final Array<float[]> decompose(final ModelTriangles pModelTriangles, final boolean pIsOptimized) {
+        // Compute the key of the decomposition; this depends upon how the triangles are split, as well as the triangles themselves.
+        long lHash = HullCache.mix(pModelTriangles.hash(), pIsOptimized ? 1 : 0);
+        lHash      = HullCache.mix(lHash, ConvexDecomposition.DEFAULT_DEPTH);
+        lHash      = HullCache.mix(lHash, Float.floatToRawIntBits(ConvexDecomposition.DEFAULT_CONCAVITY));
+        // Locate the entry for the decomposition.
+        final File           lFile   = new File(this.getDirectory(), HullCache.PREFIX_PARTS + Long.toHexString(lHash) + HullCache.SUFFIX_FILE);
+        // Attempt to load the pieces.
+        final Array<float[]> lPieces = HullCache.readPieces(lFile);
+        // Was the decomposition cached?
+        if(lPieces != null) {
+            // Count the hit.
+            this.mHits.incrementAndGet();
+            // Return the pieces.
+            return lPieces;
+        }
+        // Count the miss.
+        this.mMisses.incrementAndGet();
+        // Decompose the triangles.
+        final Array<float[]> lDecomposition = ConvexDecomposition.decompose(pModelTriangles);
+        // Count the points of every piece's hull, so that the entry can be sized.
+        int lSize = HullCache.SIZE_HEADER;
+        // Iterate the pieces.
+        for(int i = 0; i < lDecomposition.size; i++) {
+            // Build the hull of the piece.
+            final btConvexHullShape lConvexHullShape = PhysicsEntity.createConvexHullShape(lDecomposition.get(i), pIsOptimized);
+            // Replace the piece with the points of its hull.
+            lDecomposition.set(i, HullCache.points(lConvexHullShape));
+            // Dispose of the hull; the caller builds its own from the points.
+            lConvexHullShape.dispose();
+            // Accumulate the size of the piece.
+            lSize += 4 + lDecomposition.get(i).length * 4;
+        }
+        // Allocate the entry.
+        final ByteBuffer lByteBuffer = ByteBuffer.allocate(lSize).order(ByteOrder.LITTLE_ENDIAN);
+        // Write the header.
+        lByteBuffer.putInt(HullCache.MAGIC_PARTS).putInt(HullCache.VERSION).putInt(lDecomposition.size);
+        // Iterate the pieces.
+        for(final float[] lPoints : lDecomposition) {
+            // Write the number of points, followed by the points.
+            lByteBuffer.putInt(lPoints.length / 3);
+            lByteBuffer.asFloatBuffer().put(lPoints);
+            lByteBuffer.position(lByteBuffer.position() + lPoints.length * 4);
+        }
+        // Persist the decomposition for next time.
+        this.publish(lFile, (ByteBuffer)lByteBuffer.flip());
+        // Return the pieces.
+        return lDecomposition;
+    }
+
+    /** Reads the cached bounding volume hierarchy of a Model's triangles into a new unsafe buffer, positioned at the 16-byte aligned start of the hierarchy; this may be deserialized in place with btOptimizedBvh.deSerializeInPlace. The buffer must outlive the hierarchy, and be released using BufferUtils.disposeUnsafeByteBuffer. Returns null on a miss, in which case the hierarchy should be built and then written back with writeBvh. */
+    public final ByteBuffer readBvh(final ModelTriangles pModelTriangles) {
+        // Locate the entry for the hierarchy.
+        final File       lFile       = this.getBvhFile(pModelTriangles);
+        // Attempt to load the hierarchy.
+        final ByteBuffer lByteBuffer = HullCache.readBvh(lFile);
+        // Was the hierarchy cached?
+        if(lByteBuffer != null) {
+            // Count the hit.
+            this.mHits.incrementAndGet();
+        }
+        else {
+            // Count the miss.
+            this.mMisses.incrementAndGet();
+        }
+        // Return the hierarchy.
+        return lByteBuffer;
+    }
+
+    /** Writes the bounding volume hierarchy built over a Model's triangles to the cache. Failures are ignored; the hierarchy is simply rebuilt next time. */
+    public final void writeBvh(final ModelTriangles pModelTriangles, final btOptimizedBvh pOptimizedBvh) {
+        // Fetch the size of the serialized hierarchy.
+        final int        lSize    = (int)pOptimizedBvh.calculateSerializeBufferSize();
+        // Bullet serializes into aligned native memory, so pad the buffer enough to align it.
+        final ByteBuffer lUnsafe  = BufferUtils.newUnsafeByteBuffer(lSize + HullCache.SIZE_ALIGNMENT);
+        try {
+            // Align the buffer.
+            HullCache.align(lUnsafe);
+            // Serialize the hierarchy, in the native byte order.
+            if(!pOptimizedBvh.serialize(BufferUtils.getUnsafeBufferAddress(lUnsafe), lSize, false)) {
+                return;
+            }
+            // Allocate the entry. (The hierarchy is only meaningful to machines of the same byte order, which the header records.)
+            final ByteBuffer lByteBuffer = ByteBuffer.allocate(HullCache.SIZE_HEADER + 4 + lSize).order(ByteOrder.LITTLE_ENDIAN);
+            // Write the header.
+            lByteBuffer.putInt(HullCache.MAGIC_BVH).putInt(HullCache.VERSION).putInt(ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? 1 : 0).putInt(lSize);
+            // Copy the hierarchy.
+            lUnsafe.limit(lUnsafe.position() + lSize);
+            lByteBuffer.put(lUnsafe);
+            // Persist the hierarchy for next time.
+            this.publish(this.getBvhFile(pModelTriangles), (ByteBuffer)lByteBuffer.flip());
+        }
+        finally {
+            // Release the serialization buffer.
+            BufferUtils.disposeUnsafeByteBuffer(lUnsafe);
+        }
+    }
+
+    /** Locates the entry for the bounding volume hierarchy of a Model's triangles. */
+    private final File getBvhFile(final ModelTriangles pModelTriangles) {
+        // Key the hierarchy by the triangles.
+        return new File(this.getDirectory(), HullCache.PREFIX_BVH + Long.toHexString(pModelTriangles.hash()) + HullCache.SUFFIX_FILE);
+    }
+
+    /** Computes the key of a Mesh; a 64-bit FNV-1a hash of the raw vertex data, the vertex size and the optimization flag. */
+    private static final long hash(final Mesh pMesh, final boolean pIsOptimized) {
+        // Fetch the vertices.
+        final FloatBuffer lVertices = pMesh.getVerticesBuffer();
+        // Compute the number of floats that make up the vertices.
+        final int         lFloats   = pMesh.getNumVertices() * pMesh.getVertexSize() / 4;
+        // Seed the hash with the layout.
+        long lHash = HullCache.mix(HullCache.FNV_OFFSET, pMesh.getVertexSize());
+        lHash      = HullCache.mix(lHash, pMesh.getNumVertices());
+        lHash      = HullCache.mix(lHash, pIsOptimized ? 1 : 0);
+        // Iterate the floats. (Absolute reads leave the buffer's position untouched.)
+        for(int i = 0; i < lFloats; i++) {
+            // Accumulate the raw bits of the float.
+            lHash = HullCache.mix(lHash, Float.floatToRawIntBits(lVertices.get(i)));
+        }
+        // Return the hash.
+        return lHash;
+    }
+
+    /** Computes the key of a set of points; a 64-bit FNV-1a hash of the points and the optimization flag. */
+    private static final long hash(final float[] pPoints, final boolean pIsOptimized) {
+        // Seed the hash with the layout.
+        long lHash = HullCache.mix(HullCache.FNV_OFFSET, pPoints.length);
+        lHash      = HullCache.mix(lHash, pIsOptimized ? 1 : 0);
+        // Iterate the floats.
+        for(final float lPoint : pPoints) {
+            // Accumulate the raw bits of the float.
+            lHash = HullCache.mix(lHash, Float.floatToRawIntBits(lPoint));
+        }
+        // Return the hash.
+        return lHash;
+    }
+
+    /** Folds the four bytes of a value into an FNV-1a hash. */
+    static final long mix(long pHash, final int pValue) {
+        // Iterate the bytes.
+        for(int i = 0; i < 32; i += 8) {
+            // Accumulate the byte.
+            pHash = (pHash ^ ((pValue >>> i) & 0xFF)) * HullCache.FNV_PRIME;
+        }
+        // Return the hash.
+        return pHash;
+    }
+
+    /** Maps a cached hull into a ConvexHullShape. Returns null when there's no valid entry. */
+    private static final btConvexHullShape read(final File pFile) {
+        // Is there an entry?
+        if(!pFile.isFile()) {
+            return null;
+        }
+        try {
+            // Open the entry.
+            final RandomAccessFile lRandomAccessFile = new RandomAccessFile(pFile, "r");
+            try {
+                // Map the entry. (The mapping remains valid once the file has been closed.)
+                final ByteBuffer lByteBuffer = lRandomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, lRandomAccessFile.length()).order(ByteOrder.LITTLE_ENDIAN);
+                // Is the entry too small to contain a header?
+                if(lByteBuffer.capacity() < HullCache.SIZE_HEADER) {
+                    return null;
+                }
+                // Fetch the number of points.
+                final int lPoints = lByteBuffer.getInt(8);
+                // Is the entry malformed, or from a different version?
+                if(lByteBuffer.getInt(0) != HullCache.MAGIC || lByteBuffer.getInt(4) != HullCache.VERSION || lPoints <= 0 || lByteBuffer.capacity() != HullCache.SIZE_HEADER + lPoints * HullCache.SIZE_POINT) {
+                    return null;
+                }
+                // Skip the header.
+                lByteBuffer.position(HullCache.SIZE_HEADER);
+                // View the points as floats.
+                      FloatBuffer lFloatBuffer = lByteBuffer.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+                // Bullet reads the points straight from memory, so they must be in the native order.
+                if(ByteOrder.nativeOrder() != ByteOrder.LITTLE_ENDIAN) {
+                    // Copy the points into a native buffer.
+                    final FloatBuffer lNativeBuffer = BufferUtils.newFloatBuffer(lPoints * 3);
+                    lNativeBuffer.put(lFloatBuffer).flip();
+                    lFloatBuffer = lNativeBuffer;
+                }
+                // Allocate the ConvexHullShape. (The points are copied by Bullet.)
+                return new btConvexHullShape(lFloatBuffer, lPoints, HullCache.SIZE_POINT);
+            }
+            finally {
+                // Close the entry.
+                lRandomAccessFile.close();
+            }
+        }
+        catch(final IOException pIOException) {
+            // Treat an unreadable entry as a miss.
+            return null;
+        }
+    }
+
+    /** Maps a cached decomposition into the points of each piece. Returns null when there's no valid entry. */
+    private static final Array<float[]> readPieces(final File pFile) {
+        // Is there an entry?
+        if(!pFile.isFile()) {
+            return null;
+        }
+        try {
+            // Open the entry.
+            final RandomAccessFile lRandomAccessFile = new RandomAccessFile(pFile, "r");
+            try {
+                // Map the entry.
+                final ByteBuffer lByteBuffer = lRandomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, lRandomAccessFile.length()).order(ByteOrder.LITTLE_ENDIAN);
+                // Is the entry malformed, or from a different version?
+                if(lByteBuffer.capacity() < HullCache.SIZE_HEADER || lByteBuffer.getInt(0) != HullCache.MAGIC_PARTS || lByteBuffer.getInt(4) != HullCache.VERSION || lByteBuffer.getInt(8) <= 0) {
+                    return null;
+                }
+                // Allocate the pieces.
+                final Array<float[]> lPieces = new Array<float[]>(lByteBuffer.getInt(8));
+                // Skip the header.
+                lByteBuffer.position(HullCache.SIZE_HEADER);
+                // Iterate the pieces.
+                for(int i = 0; i < lByteBuffer.getInt(8); i++) {
+                    // Fetch the number of points; is the piece truncated?
+                    if(lByteBuffer.remaining() < 4 || lByteBuffer.getInt(lByteBuffer.position()) <= 0 || lByteBuffer.remaining() < 4 + lByteBuffer.getInt(lByteBuffer.position()) * HullCache.SIZE_POINT) {
+                        return null;
+                    }
+                    // Read the points.
+                    final float[] lPoints = new float[lByteBuffer.getInt() * 3];
+                    lByteBuffer.asFloatBuffer().get(lPoints);
+                    lByteBuffer.position(lByteBuffer.position() + lPoints.length * 4);
+                    // Buffer the piece.
+                    lPieces.add(lPoints);
+                }
+                // Was there anything left over?
+                if(lByteBuffer.hasRemaining()) {
+                    return null;
+                }
+                // Return the pieces.
+                return lPieces;
+            }
+            finally {
+                // Close the entry.
+                lRandomAccessFile.close();
+            }
+        }
+        catch(final IOException pIOException) {
+            // Treat an unreadable entry as a miss.
+            return null;
+        }
+    }
+
+    /** Copies a cached bounding volume hierarchy into aligned native memory. Returns null when there's no valid entry, or it was written by a machine of a different byte order. */
+    private static final ByteBuffer readBvh(final File pFile) {
+        // Is there an entry?
+        if(!pFile.isFile()) {
+            return null;
+        }
+        try {
+            // Open the entry.
+            final RandomAccessFile lRandomAccessFile = new RandomAccessFile(pFile, "r");
+            try {
+                // Map the entry.
+                final ByteBuffer lByteBuffer = lRandomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, lRandomAccessFile.length()).order(ByteOrder.LITTLE_ENDIAN);
+                // Is the entry malformed, from a different version, or of a different byte order?
+                if(lByteBuffer.capacity() < HullCache.SIZE_HEADER + 4 || lByteBuffer.getInt(0) != HullCache.MAGIC_BVH || lByteBuffer.getInt(4) != HullCache.VERSION || lByteBuffer.getInt(8) != (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? 1 : 0) || lByteBuffer.capacity() != HullCache.SIZE_HEADER + 4 + lByteBuffer.getInt(12)) {
+                    return null;
+                }
+                // Allocate the native copy; Bullet fixes up the hierarchy's pointers in place, so it can't live in the mapping.
+                final ByteBuffer lUnsafe = BufferUtils.newUnsafeByteBuffer(lByteBuffer.getInt(12) + HullCache.SIZE_ALIGNMENT);
+                // Align the copy.
+                HullCache.align(lUnsafe);
+                // Copy the hierarchy.
+                lByteBuffer.position(HullCache.SIZE_HEADER + 4);
+                lUnsafe.mark();
+                lUnsafe.put(lByteBuffer);
+                // Rewind to the start of the hierarchy.
+                lUnsafe.reset();
+                lUnsafe.limit(lUnsafe.position() + lByteBuffer.getInt(12));
+                // Return the copy.
+                return lUnsafe;
+            }
+            finally {
+                // Close the entry.
+                lRandomAccessFile.close();
+            }
+        }
+        catch(final IOException pIOException) {
+            // Treat an unreadable entry as a miss.
+            return null;
+        }
+    }
+
+    /** Positions an unsafe buffer at its first 16-byte aligned address. */
+    private static final void align(final ByteBuffer pByteBuffer) {
+        // Fetch the address of the buffer.
+        final long lAddress = BufferUtils.getUnsafeBufferAddress(pByteBuffer);
+        // Skip to the next boundary.
+        pByteBuffer.position((int)((HullCache.SIZE_ALIGNMENT - (lAddress % HullCache.SIZE_ALIGNMENT)) % HullCache.SIZE_ALIGNMENT));
+    }
+
+    /** Reads the points of a ConvexHullShape, packed as consecutive x, y, z. */
+    private static final float[] points(final btConvexHullShape pConvexHullShape) {
+        // Allocate the points.
+        final float[] lPoints  = new float[pConvexHullShape.getNumPoints() * 3];
+        // Fetch the address of the points. (Accessors which return a Vector3 share a static instance, which isn't safe to use off the main thread.)
+        final long    lAddress = btVector3.getCPtr(pConvexHullShape.getUnscaledPoints());
+        // Iterate the points.
+        for(int i = 0; i < lPoints.length / 3; i++) {
+            // Compute the address of the point; btVector3s are padded to four floats.
+            final long lPoint = lAddress + (long)i * HullCache.SIZE_BTVECTOR3;
+            // Read the point.
+            lPoints[i * 3]     = LinearMathJNI.btVector3_getX(lPoint, null);
+            lPoints[i * 3 + 1] = LinearMathJNI.btVector3_getY(lPoint, null);
+            lPoints[i * 3 + 2] = LinearMathJNI.btVector3_getZ(lPoint, null);
+        }
+        // Return the points.
+        return lPoints;
+    }
+
+    /** Writes the points of a hull to the cache. */
+    private final void write(final File pFile, final float[] pPoints) {
+        // Allocate the entry.
+        final ByteBuffer lByteBuffer = ByteBuffer.allocate(HullCache.SIZE_HEADER + pPoints.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        // Write the header.
+        lByteBuffer.putInt(HullCache.MAGIC).putInt(HullCache.VERSION).putInt(pPoints.length / 3);
+        // Write the points.
+        lByteBuffer.asFloatBuffer().put(pPoints);
+        // Prepare the entry for writing.
+        lByteBuffer.position(0);
+        // Publish the entry.
+        this.publish(pFile, lByteBuffer);
+    }
+
+    /** Writes an entry to the cache. Failures are ignored; the entry is simply rebuilt next time. */
+    private final void publish(final File pFile, final ByteBuffer pByteBuffer) {
+        // Write to a partial file first, so that an interrupted write can't leave a truncated entry behind.
+        final File lPartial = new File(pFile.getPath() + HullCache.SUFFIX_PARTIAL);
+        try {
+            // Ensure the Directory exists.
+            this.getDirectory().mkdirs();
+            // Open the partial file.
+            final FileOutputStream lFileOutputStream = new FileOutputStream(lPartial);
+            try {
+                // Write the entry.
+                while(pByteBuffer.hasRemaining()) {
+                    lFileOutputStream.getChannel().write(pByteBuffer);
+                }
+            }
+            finally {
+                // Close the partial file.
+                lFileOutputStream.close();
+            }
+            // Publish the entry.
+            if(!lPartial.renameTo(pFile)) {
+                // Replace the existing entry, and try again.
+                pFile.delete();
+                lPartial.renameTo(pFile);
+            }
+        }
+        catch(final IOException pIOException) {
+            // Discard the partial entry.
+            lPartial.delete();
+        }
+    }
+
+    /* Getters. */
+    private final File getDirectory() {
+        return this.mDirectory;
+    }
+
+    public final int getHits() {
+        return this.mHits.get();
+    }
+
+    public final int getMisses() {
+        return this.mMisses.get();
+    }
+
+}
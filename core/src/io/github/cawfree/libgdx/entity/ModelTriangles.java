@@ -0,0 +1,149 @@
+package io.github.cawfree.libgdx.entity;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+/** The triangles of every NodePart in a Model, flattened into a single indexed soup in the Model's space. Each Node's local translation, rotation and scale are applied, so the soup matches what's rendered; the Model itself isn't modified, which makes this safe to build off the render thread. Only triangle lists are read. */
+public final class ModelTriangles {
+
+    /* Member Variables. */
+    private final float[] mPositions;
+    private final int[]   mIndices;
+
+    /** Constructor. */
+    private ModelTriangles(final float[] pPositions, final int[] pIndices) {
+        // Initialize Member Variables.
+        this.mPositions = pPositions;
+        this.mIndices   = pIndices;
+    }
+
+    /** Reads the triangles of a Model. */
+    public static final ModelTriangles of(final Model pModel) {
+        // Allocate the buffers.
+        final FloatArray lPositions = new FloatArray();
+        final IntArray   lIndices   = new IntArray();
+        // Iterate the root Nodes.
+        for(final Node lNode : pModel.nodes) {
+            // Accumulate the Node's hierarchy.
+            ModelTriangles.onAccumulate(lNode, new Matrix4(), lPositions, lIndices);
+        }
+        // Return the triangles.
+        return new ModelTriangles(lPositions.toArray(), lIndices.toArray());
+    }
+
+    /** Appends the triangles of a Node and its children. The Parent is the transform of the Node's parent, in the Model's space. */
+    private static final void onAccumulate(final Node pNode, final Matrix4 pParent, final FloatArray pPositions, final IntArray pIndices) {
+        // Compute the Node's transform from its local components. (The Node's globalTransform may be stale.)
+        final Matrix4 lTransform = new Matrix4(pNode.inheritTransform ? pParent : new Matrix4()).mul(new Matrix4().set(pNode.translation, pNode.rotation, pNode.scale));
+        // Iterate the NodeParts.
+        for(final NodePart lNodePart : pNode.parts) {
+            // Accumulate the MeshPart.
+            ModelTriangles.onAccumulate(lNodePart.meshPart, lTransform, pPositions, pIndices);
+        }
+        // Iterate the children.
+        for(final Node lChild : pNode.getChildren()) {
+            // Accumulate the child.
+            ModelTriangles.onAccumulate(lChild, lTransform, pPositions, pIndices);
+        }
+    }
+
+    /** Appends the triangles of a MeshPart, transformed into the Model's space. Each referenced vertex is appended once. */
+    private static final void onAccumulate(final MeshPart pMeshPart, final Matrix4 pTransform, final FloatArray pPositions, final IntArray pIndices) {
+        // Only triangle lists describe a surface we can collide with.
+        if(pMeshPart.primitiveType != GL20.GL_TRIANGLES) {
+            return;
+        }
+        // Fetch the Mesh.
+        final Mesh            lMesh            = pMeshPart.mesh;
+        // Fetch where positions live within each vertex.
+        final VertexAttribute lVertexAttribute = lMesh.getVertexAttribute(VertexAttributes.Usage.Position);
+        // Is the Mesh positioned at all?
+        if(lVertexAttribute == null) {
+            return;
+        }
+        // Fetch the layout of the vertices, in floats.
+        final int             lStride          = lMesh.getVertexSize() / 4;
+        final int             lOffset          = lVertexAttribute.offset / 4;
+        // Fetch the buffers. (Absolute reads leave their positions untouched.)
+        final FloatBuffer     lVertices        = lMesh.getVerticesBuffer();
+        final ShortBuffer     lMeshIndices     = lMesh.getNumIndices() > 0 ? lMesh.getIndicesBuffer() : null;
+        // Maps the Mesh's vertices onto the soup's.
+        final IntIntMap       lRemap           = new IntIntMap();
+        final Vector3         lVector3         = new Vector3();
+        // Iterate the MeshPart's corners.
+        for(int i = pMeshPart.offset; i < pMeshPart.offset + pMeshPart.size; i++) {
+            // Fetch the index of the vertex. (Indices are unsigned.)
+            final int lVertex = lMeshIndices != null ? (lMeshIndices.get(i) & 0xFFFF) : i;
+            // Fetch the vertex's index within the soup.
+                  int lIndex  = lRemap.get(lVertex, -1);
+            // Has the vertex yet to be appended?
+            if(lIndex < 0) {
+                // Read the position, and transform it into the Model's space.
+                lVector3.set(lVertices.get(lVertex * lStride + lOffset), lVertices.get(lVertex * lStride + lOffset + 1), lVertices.get(lVertex * lStride + lOffset + 2)).mul(pTransform);
+                // Append the position.
+                lIndex = pPositions.size / 3;
+                pPositions.add(lVector3.x);
+                pPositions.add(lVector3.y);
+                pPositions.add(lVector3.z);
+                // Remember the vertex.
+                lRemap.put(lVertex, lIndex);
+            }
+            // Append the corner.
+            pIndices.add(lIndex);
+        }
+        // Discard any incomplete triangle.
+        pIndices.size -= pIndices.size % 3;
+    }
+
+    /** Computes a 64-bit FNV-1a hash of the soup, for content-addressed caching. */
+    public final long hash() {
+        // Seed the hash with the layout.
+        long lHash = HullCache.mix(HullCache.mix(HullCache.FNV_OFFSET, this.getVertexCount()), this.getTriangleCount());
+        // Iterate the positions.
+        for(final float lPosition : this.getPositions()) {
+            // Accumulate the raw bits of the position.
+            lHash = HullCache.mix(lHash, Float.floatToRawIntBits(lPosition));
+        }
+        // Iterate the indices.
+        for(final int lIndex : this.getIndices()) {
+            // Accumulate the index.
+            lHash = HullCache.mix(lHash, lIndex);
+        }
+        // Return the hash.
+        return lHash;
+    }
+
+    /* Getters. */
+    /** Returns the positions of the vertices, packed as consecutive x, y, z. */
+    public final float[] getPositions() {
+        return this.mPositions;
+    }
+
+    /** Returns the vertex indices of the triangles, three per triangle. */
+    public final int[] getIndices() {
+        return this.mIndices;
+    }
+
+    public final int getVertexCount() {
+        return this.mPositions.length / 3;
+    }
+
+    public final int getTriangleCount() {
+        return this.mIndices.length / 3;
+    }
+
+}
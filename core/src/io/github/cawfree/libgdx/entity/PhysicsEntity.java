@@ -8,13 +8,19 @@ import com.badlogic.gdx.graphics.g3d.Material;
 import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
 import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.graphics.g3d.utils.MeshBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.MeshPartBuilder;
 import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
 import com.badlogic.gdx.math.Intersector;
 import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.physics.bullet.collision.Collision;
 import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
 import com.badlogic.gdx.physics.bullet.collision.btCapsuleShape;
 import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
@@ -25,10 +31,22 @@ import com.badlogic.gdx.physics.bullet.collision.btShapeHull;
 import com.badlogic.gdx.physics.bullet.collision.btSphereShape;
 import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
 import com.badlogic.gdx.physics.bullet.linearmath.btMotionState;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.Pool;
+
+import java.nio.FloatBuffer;
+
+import io.github.cawfree.libgdx.simulation.CollisionLayers;
+import io.github.cawfree.libgdx.simulation.NativeRegistry;
 
 /** Tracks the physical implementation of an Entity. */
-public class PhysicsEntity extends ModelInstance implements Disposable {
+public class PhysicsEntity extends ModelInstance implements Pool.Poolable, Disposable {
+
+    /* Static Declarations. */
+    /** Guards gdx-bullet's process-wide map of CollisionObjects; held whilst any CollisionObject is constructed or disposed of. */
+    public  static final Object LOCK_REGISTRY = new Object();
 
     /** Removes the applied global transforms to a Model produced by Blender. (This may not be valid for all files.) */
     public static final Model unblend(final Model pModel) {
@@ -45,10 +63,40 @@ public class PhysicsEntity extends ModelInstance implements Disposable {
 
     /** Creates the fastest kind of arbitrary shape from a model, by defining the smallest number of vertices that enclose the vertices. */
     public static final btConvexHullShape createConvexHullShape(final Model pModel, final boolean pIsOptimized) {
-        // Fetch the Mesh.
-        final Mesh              lMesh            = pModel.meshes.get(0);
+        // Build the hull of the first Mesh.
+        return PhysicsEntity.createConvexHullShape(pModel.meshes.get(0), pIsOptimized);
+    }
+
+    /** Creates the convex hull of a Model, reading it from the HullCache when one is provided. */
+    public static final btConvexHullShape createConvexHullShape(final Model pModel, final boolean pIsOptimized, final HullCache pHullCache) {
+        // Are we caching hulls?
+        if(pHullCache != null) {
+            // Fetch the hull from the cache.
+            return pHullCache.obtain(pModel.meshes.get(0), pIsOptimized);
+        }
+        // Build the hull.
+        return PhysicsEntity.createConvexHullShape(pModel, pIsOptimized);
+    }
+
+    /** Creates the convex hull of a Mesh. When optimized, the hull is reduced to the smallest set of points that enclose the vertices. */
+    public static final btConvexHullShape createConvexHullShape(final Mesh pMesh, final boolean pIsOptimized) {
+        // Build the hull of the vertices.
+        return PhysicsEntity.createConvexHullShape(pMesh.getVerticesBuffer(), pMesh.getNumVertices(), pMesh.getVertexSize(), pIsOptimized);
+    }
+
+    /** Creates the convex hull of a set of points, packed as consecutive x, y, z. */
+    public static final btConvexHullShape createConvexHullShape(final float[] pPoints, final boolean pIsOptimized) {
+        // Copy the points into a direct buffer, which Bullet can read from.
+        final FloatBuffer lFloatBuffer = BufferUtils.newFloatBuffer(pPoints.length);
+        lFloatBuffer.put(pPoints).flip();
+        // Build the hull of the points.
+        return PhysicsEntity.createConvexHullShape(lFloatBuffer, pPoints.length / 3, 12, pIsOptimized);
+    }
+
+    /** Creates the convex hull of the Count points held in a direct buffer; each point begins a Stride of bytes. When optimized, the hull is reduced to the smallest set of points that enclose the vertices. */
+    public static final btConvexHullShape createConvexHullShape(final FloatBuffer pFloatBuffer, final int pCount, final int pStride, final boolean pIsOptimized) {
         // Allocate the ConvexHullShape.
-        final btConvexHullShape lConvexHullShape = new btConvexHullShape(lMesh.getVerticesBuffer(), lMesh.getNumVertices(), lMesh.getVertexSize());
+        final btConvexHullShape lConvexHullShape = new btConvexHullShape(pFloatBuffer, pCount, pStride);
         // Are we not performing the optimization step?
         if(!pIsOptimized) {
             // Return the ConvexHullShape.
@@ -70,193 +118,307 @@ public class PhysicsEntity extends ModelInstance implements Disposable {
     /** Applies the Factory pattern for constructing PhysicsEntities. */
     public static class Builder <T extends btCollisionShape> implements Disposable {
 
-        /** Generic Model Builder. Note, that this applies physics wrapping the Object in a bounding box; this doesn't follow the contours of the mesh. */
+        /** Generic Model Builder. The collision shape is built from the triangles of every Mesh in the Model, placed by their Nodes; either as a single convex hull, an exact triangle mesh for static geometry, or a compound of convex pieces which follows the contours of a concave Model. */
         public static final class Generic extends Builder<btCollisionShape> {
             /* Member Variables. */
-            private final Model   mModel;
+            private final Model             mModel;
+            private final CollisionGeometry mCollisionGeometry;
+            private final int[]             mLevelVertices;
             /** Constructor. */
             public Generic(final String pNode, final Model pModel, final boolean pIsOptimized, final float pMass) {
+                // Build the hull without a cache.
+                this(pNode, pModel, pIsOptimized, pMass, null);
+            }
+            /** Constructor. The hull is read from the HullCache if it has been built before. */
+            public Generic(final String pNode, final Model pModel, final boolean pIsOptimized, final float pMass, final HullCache pHullCache) {
+                // Wrap the Model in a single hull.
+                this(pNode, pModel, CollisionGeometry.Mode.HULL, pIsOptimized, pMass, pHullCache);
+            }
+            /** Constructor. The expensive parts of the CollisionGeometry are read from the HullCache, when one is provided, if they've been built before. */
+            public Generic(final String pNode, final Model pModel, final CollisionGeometry.Mode pMode, final boolean pIsOptimized, final float pMass, final HullCache pHullCache) {
+                // Build the CollisionGeometry.
+                this(pNode, pModel, Generic.geometry(pModel, pMode, pIsOptimized, pMass, pHullCache), pMass);
+            }
+            /** Constructor. */
+            private Generic(final String pNode, final Model pModel, final CollisionGeometry pCollisionGeometry, final float pMass) {
                 // Initialize the Parent.
-                super(pNode, PhysicsEntity.createConvexHullShape(pModel, pIsOptimized), pMass); /** TODO: Update Scale/Offset. */
+                super(pNode, pCollisionGeometry.getShape(), pMass);
                 // Initialize Member Variables.
-                this.mModel  = pModel;
+                this.mModel             = pModel;
+                this.mCollisionGeometry = pCollisionGeometry;
+                this.mLevelVertices     = new int[] { 0 };
+                // Count the vertices of the Model; it's always rendered in full.
+                for(final Mesh lMesh : pModel.meshes) {
+                    this.mLevelVertices[0] += lMesh.getNumVertices();
+                }
+            }
+            /** Builds the CollisionGeometry of a Model, once the Mode has been checked against the Mass. */
+            private static final CollisionGeometry geometry(final Model pModel, final CollisionGeometry.Mode pMode, final boolean pIsOptimized, final float pMass, final HullCache pHullCache) {
+                // Triangle meshes have no volume, so Bullet can't simulate them dynamically.
+                if(pMode == CollisionGeometry.Mode.MESH && pMass > 0f) {
+                    // Assert that the mesh must be static.
+                    throw new IllegalStateException("A " + pMode + " collision shape may only be used by massless bodies; use " + CollisionGeometry.Mode.DECOMPOSED + " for dynamic concave Models.");
+                }
+                // Build the CollisionGeometry.
+                return CollisionGeometry.create(pModel, pMode, pIsOptimized, pHullCache);
             }
             /** Define collision model construction. */
             @Override public final Builder build(final ModelBuilder pModelBuilder) {
                 // Implement the Parent.
                 super.build(pModelBuilder);
-                // Update the ModelBuilder.
-                pModelBuilder.node(this.getNode(), this.getModel());
+                // Copy the Model's Nodes. (Its Meshes belong to whoever loaded it; unlike ModelBuilder.node(String, Model), this leaves them out of the built Model's disposables, so disposing it can't free them twice. Adding the Nodes themselves would reparent them, and take them from the loaded Model.)
+                final Node lNode = pModelBuilder.node();
+                lNode.id = this.getNode();
+                // Iterate the Model's Nodes.
+                for(final Node lSource : this.getModel().nodes) {
+                    // Attach a copy of the Node.
+                    lNode.addChild(lSource.copy());
+                }
                 // Return the Reference.
                 return this;
             }
+            /** Define the disposal operation. */
+            @Override public final void dispose() {
+                // Dispose of the ConstructionInfo.
+                NativeRegistry.dispose(this.getConstructionInfo());
+                // Dispose of the shape, along with everything it depends upon.
+                this.getCollisionGeometry().dispose();
+            }
+            /** Returns the number of vertices of the Model; a Generic has a single level of detail. */
+            @Override public final int[] getLevelVertices() {
+                // Return the count.
+                return this.mLevelVertices;
+            }
             /* Getters. */
-            private final Model    getModel() { return this.mModel;  }
+            private final Model                         getModel() { return this.mModel;             }
+            public  final CollisionGeometry getCollisionGeometry() { return this.mCollisionGeometry; }
+        }
+
+        /** A Builder whose render mesh is generated by the ModelBuilder. Each level of detail is emitted as a separate NodePart of the Entity's Node; the levels share a single Material, and only the selected level is enabled. Level zero is the most detailed. */
+        public static abstract class Primitive <T extends btCollisionShape> extends Builder<T> {
+            /* Static Declarations. */
+            public  static final int    MAXIMUM_LEVELS     = 3;
+            private static final int    MINIMUM_DIVISIONS  = 4;
+            private static final long   ATTRIBUTES         = VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal;
+            private static final String SUFFIX_LEVEL       = "#";
+            /** Returns the number of divisions used by a level; each level halves the divisions of the last, down to a minimum. */
+            protected static final int divisions(final int pDivisions, final int pLevel) {
+                // Halve the divisions, without dropping below the minimum. (Meshes which are already coarser are left alone.)
+                return Math.min(pDivisions, Math.max(Primitive.MINIMUM_DIVISIONS, pDivisions >> pLevel));
+            }
+            /** Returns the number of distinct levels that can be generated from a number of divisions. */
+            protected static final int levels(final int pDivisions) {
+                // Count the levels which are coarser than the last.
+                int lLevels = 1;
+                while(lLevels < Primitive.MAXIMUM_LEVELS && Primitive.divisions(pDivisions, lLevels) < Primitive.divisions(pDivisions, lLevels - 1)) {
+                    lLevels++;
+                }
+                // Return the levels.
+                return lLevels;
+            }
+            /* Member Variables. */
+            private final Color mColor;
+            private final int   mLevels;
+            private       int[] mLevelVertices;
+            /** Constructor. */
+            public Primitive(final String pNode, final T pCollisionShape, final Color pColor, final float pMass, final int pLevels) {
+                // Implement the Parent.
+                super(pNode, pCollisionShape, pMass);
+                // Initialize Member Variables.
+                this.mColor         = pColor;
+                this.mLevels        = pLevels;
+                this.mLevelVertices = null;
+            }
+            /** Emits the render mesh of a level. */
+            protected abstract void onGeometry(final MeshPartBuilder pMeshPartBuilder, final int pLevel);
+            /** Define collision model construction. */
+            @Override public final Builder build(final ModelBuilder pModelBuilder) {
+                // Implement the Parent.
+                super.build(pModelBuilder);
+                // Share a single Material between the levels, so that the Entity's Color applies to all of them.
+                final Material lMaterial = new Material(ColorAttribute.createDiffuse(this.getColor()));
+                // Iterate the levels.
+                for(int i = 0; i < this.getLevels(); i++) {
+                    // Emit the level as its own NodePart.
+                    this.onGeometry(pModelBuilder.part(i == 0 ? this.getNode() : this.getNode() + Primitive.SUFFIX_LEVEL + i, GL20.GL_TRIANGLES, Primitive.ATTRIBUTES, lMaterial), i);
+                }
+                // Return the reference.
+                return this;
+            }
+            /** Declares a geometry-free Node with a NodePart for each level, so that levels may be selected without a GL context. */
+            @Override public final void proxy(final Model pModel) {
+                // Implement the Parent.
+                super.proxy(pModel);
+                // Fetch the Node.
+                final Node lNode = pModel.nodes.peek();
+                // Declare the remaining levels, sharing the Material.
+                for(int i = 1; i < this.getLevels(); i++) {
+                    lNode.parts.add(new NodePart(new MeshPart(), lNode.parts.first().material));
+                }
+            }
+            /** Returns the number of vertices of each level. These are counted by generating each level without uploading it, so they're available without a GL context. */
+            @Override public synchronized final int[] getLevelVertices() {
+                // Have the levels yet to be counted?
+                if(this.mLevelVertices == null) {
+                    // Allocate the counts.
+                    final int[] lLevelVertices = new int[this.getLevels()];
+                    // Iterate the levels.
+                    for(int i = 0; i < lLevelVertices.length; i++) {
+                        // Generate the level. (The MeshBuilder is never ended, so no Mesh is created.)
+                        final MeshBuilder lMeshBuilder = new MeshBuilder();
+                        lMeshBuilder.begin(Primitive.ATTRIBUTES, GL20.GL_TRIANGLES);
+                        lMeshBuilder.part(this.getNode(), GL20.GL_TRIANGLES);
+                        this.onGeometry(lMeshBuilder, i);
+                        // Count the vertices.
+                        lLevelVertices[i] = lMeshBuilder.getNumVertices();
+                    }
+                    // Assign the counts.
+                    this.mLevelVertices = lLevelVertices;
+                }
+                // Return the counts.
+                return this.mLevelVertices;
+            }
+            /* Getters. */
+            protected final Color getColor() {
+                return this.mColor;
+            }
+            public final int getLevels() {
+                return this.mLevels;
+            }
         }
 
         /** Cylinder Builder. */
-        public static class Cylinder extends Builder<btCylinderShape> {
+        public static class Cylinder extends Primitive<btCylinderShape> {
             /* Member Variables. */
             private final Vector3 mVector3;
-            private final Color   mColor;
             private final int     mDivisions;
             /** Constructor. */
             public Cylinder(final String pNode, final Vector3 pVector3, final int pDivisions, final Color pColor, final float pMass) {
                 // Initialize the Parent.
-                super(pNode, new btCylinderShape(pVector3), pMass);
+                super(pNode, NativeRegistry.track(new btCylinderShape(pVector3)), pColor, pMass, Primitive.levels(pDivisions));
                 // Initialize Member Variables.
                 this.mVector3   = pVector3;
-                this.mColor     = pColor;
                 this.mDivisions = pDivisions;
             }
-            /** Define collision model construction. */
-            @Override public final Builder build(final ModelBuilder pModelBuilder) {
-                // Implement the Parent.
-                super.build(pModelBuilder);
-                // Update the ModelBuilder.
-                pModelBuilder.part(this.getNode(), GL20.GL_TRIANGLES, VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal, new Material(ColorAttribute.createDiffuse(this.getColor()))).cylinder(this.getVector3().x * 2, this.getVector3().y * 2, this.getVector3().z * 2, this.getDivisions());
-                // Return the Reference.
-                return this;
+            /** Define the render mesh of a level. */
+            @Override protected final void onGeometry(final MeshPartBuilder pMeshPartBuilder, final int pLevel) {
+                // Emit the Cylinder.
+                pMeshPartBuilder.cylinder(this.getVector3().x * 2, this.getVector3().y * 2, this.getVector3().z * 2, Primitive.divisions(this.getDivisions(), pLevel));
             }
             /* Getters. */
             private final Vector3   getVector3() { return this.mVector3;   }
-            private final Color       getColor() { return this.mColor;     }
             private final int     getDivisions() { return this.mDivisions; }
         }
 
         /** Capsule Builder. */
-        public static class Capsule extends Builder<btCapsuleShape> {
+        public static class Capsule extends Primitive<btCapsuleShape> {
             /* Member Variables. */
             private final float mRadius;
             private final float mHeight;
             private final int   mDivisions;
-            private final Color mColor;
             /** Constructor. */
             public Capsule(final String pNode, final float pRadius, final float pHeight, final int pDivisions, final Color pColor, final float pMass) {
                 // Implement the Parent.
-                super(pNode, new btCapsuleShape(pRadius, pHeight), pMass);
+                super(pNode, NativeRegistry.track(new btCapsuleShape(pRadius, pHeight)), pColor, pMass, Primitive.levels(pDivisions));
                 // Initialize Member Variables.
                 this.mRadius    = pRadius;
                 this.mHeight    = pHeight;
                 this.mDivisions = pDivisions;
-                this.mColor     = pColor;
             }
-            /** Define collision model construction. */
-            @Override public final Builder build(final ModelBuilder pModelBuilder) {
-                // Implement the Parent.
-                super.build(pModelBuilder);
-                // Update the ModelBuilder.
-                pModelBuilder.part(this.getNode(), GL20.GL_TRIANGLES, VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal, new Material(ColorAttribute.createDiffuse(this.getColor()))).capsule(this.getRadius(), this.getHeight() * 2, this.getDivisions());
-                // Return the reference.
-                return this;
+            /** Define the render mesh of a level. */
+            @Override protected final void onGeometry(final MeshPartBuilder pMeshPartBuilder, final int pLevel) {
+                // Emit the Capsule.
+                pMeshPartBuilder.capsule(this.getRadius(), this.getHeight() * 2, Primitive.divisions(this.getDivisions(), pLevel));
             }
             /* Getters. */
             private final float    getRadius() { return this.mRadius;    }
             private final float    getHeight() { return this.mHeight;    }
-            private final Color     getColor() { return this.mColor;     }
             private final int   getDivisions() { return this.mDivisions; }
         }
 
         /** Cone Builder. */
-        public static class Cone extends Builder<btConeShape> {
+        public static class Cone extends Primitive<btConeShape> {
             /* Member Variables. */
             private final float mRadius;
             private final float mHeight;
             private final int   mDivisions;
-            private final Color mColor;
             /** Constructor. */
             public Cone(final String pNode, final float pRadius, final float pHeight, final int pDivisions, final Color pColor, final float pMass) {
                 // Implement the Parent.
-                super(pNode, new btConeShape(pRadius, pHeight), pMass);
+                super(pNode, NativeRegistry.track(new btConeShape(pRadius, pHeight)), pColor, pMass, Primitive.levels(pDivisions));
                 // Initialize Member Variables.
                 this.mRadius    = pRadius;
                 this.mHeight    = pHeight;
                 this.mDivisions = pDivisions;
-                this.mColor     = pColor;
             }
-            /** Define collision model construction. */
-            @Override public final Builder build(final ModelBuilder pModelBuilder) {
-                // Implement the Parent.
-                super.build(pModelBuilder);
-                // Prepare the Builder.
-                pModelBuilder.part(this.getNode(), GL20.GL_TRIANGLES, VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal, new Material(ColorAttribute.createDiffuse(this.getColor()))).cone(this.getRadius() * 2, this.getHeight(), this.getRadius() * 2, this.getDivisions());
-                // Return the reference.
-                return this;
+            /** Define the render mesh of a level. */
+            @Override protected final void onGeometry(final MeshPartBuilder pMeshPartBuilder, final int pLevel) {
+                // Emit the Cone.
+                pMeshPartBuilder.cone(this.getRadius() * 2, this.getHeight(), this.getRadius() * 2, Primitive.divisions(this.getDivisions(), pLevel));
             }
             /* Getters. */
             private final float    getRadius() { return this.mRadius;    }
             private final float    getHeight() { return this.mHeight;    }
-            private final Color     getColor() { return this.mColor;     }
             private final int   getDivisions() { return this.mDivisions; }
         }
 
         /** Sphere Builder. */
-        public static class Sphere extends Builder<btSphereShape> {
+        public static class Sphere extends Primitive<btSphereShape> {
             /* Member Variables. */
             private final float mRadius;
-            private final Color mColor;
             private final int   mDivisions;
             /** Constructor. */
             public Sphere(final String pNode, final float pRadius, final int pDivisions, final Color pColor, final float pMass) {
                 // Buffer the Characteristics.
-                super(pNode, new btSphereShape(pRadius), pMass);
+                super(pNode, NativeRegistry.track(new btSphereShape(pRadius)), pColor, pMass, Primitive.levels(pDivisions));
                 // Initialize Member Variables.
                 this.mRadius    = pRadius;
                 this.mDivisions = pDivisions;
-                this.mColor     = pColor;
             }
-            /** Define collision model construction. */
-            @Override public final Builder build(final ModelBuilder pModelBuilder) {
-                // Implement the Parent.
-                super.build(pModelBuilder);
-                // Prepare the Builder.
-                pModelBuilder.part(this.getNode(), GL20.GL_TRIANGLES, VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal, new Material(ColorAttribute.createDiffuse(this.getColor()))).sphere((this.getRadius() * 2), (this.getRadius() * 2), (this.getRadius() * 2), this.getDivisions(), this.getDivisions());
-                // Return the reference.
-                return this;
+            /** Define the render mesh of a level. */
+            @Override protected final void onGeometry(final MeshPartBuilder pMeshPartBuilder, final int pLevel) {
+                // Emit the Sphere.
+                pMeshPartBuilder.sphere((this.getRadius() * 2), (this.getRadius() * 2), (this.getRadius() * 2), Primitive.divisions(this.getDivisions(), pLevel), Primitive.divisions(this.getDivisions(), pLevel));
             }
             /* Getters. */
             private final float    getRadius() { return this.mRadius;    }
-            private final Color     getColor() { return this.mColor;     }
             private final int   getDivisions() { return this.mDivisions; }
         }
 
-        /** Cube Builder. */
-        public static class Cube extends Builder<btBoxShape> {
+        /** Cube Builder. A box can't be simplified, so it has a single level. */
+        public static class Cube extends Primitive<btBoxShape> {
             /* Member Variables. */
             private final Vector3 mDim;
-            private final Color   mColor;
             /**  Constructor. */
             public Cube(final String pNode, final Vector3 pDim, final Color pColor, final float pMass) {
                 // Buffer the characteristics.
-                super(pNode, new btBoxShape(pDim), pMass);
+                super(pNode, NativeRegistry.track(new btBoxShape(pDim)), pColor, pMass, 1);
                 // Initialize Member Variables.
-                this.mDim   = pDim;
-                this.mColor = pColor;
+                this.mDim = pDim;
             }
-            /** Define collision model construction. */
-            @Override public final Builder build(final ModelBuilder pModelBuilder) {
-                // Implement the Parent.
-                super.build(pModelBuilder);
-                // Prepare the Builder.
-                pModelBuilder.part(this.getNode(), GL20.GL_TRIANGLES, VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal, new Material(ColorAttribute.createDiffuse(this.getColor()))).box((this.getDim().x * 2), (this.getDim().y * 2), (this.getDim().z * 2));
-                // Return the reference.
-                return this;
+            /** Define the render mesh of a level. */
+            @Override protected final void onGeometry(final MeshPartBuilder pMeshPartBuilder, final int pLevel) {
+                // Emit the Box.
+                pMeshPartBuilder.box((this.getDim().x * 2), (this.getDim().y * 2), (this.getDim().z * 2));
             }
             /* Getters. */
             private final Vector3   getDim() { return this.mDim;   }
-            private final Color   getColor() { return this.mColor; }
         }
 
+        /* Static Declarations. */
+        private static final int[] LEVEL_VERTICES_NONE = new int[] { 0 };
+
         /* Member Variables. */
         private final String                                  mNode;
         private final T                                       mCollisionShape;
         private final btRigidBody.btRigidBodyConstructionInfo mConstructionInfo;
+        private       String                                  mLayer;
 
         /**  Constructor. */
         public Builder(final String pNode, final T pCollisionShape, final float pMass) {
             // Initialize Member Variables.
-            this.mNode           = pNode;
-            this.mCollisionShape = pCollisionShape;
+            this.mNode              = pNode;
+            this.mCollisionShape    = pCollisionShape;
             // Declare the LocalInertia.
             final Vector3 lLocalInertia = new Vector3(0.0f, 0.0f, 0.0f);
             // Is there a valid mass?
@@ -265,7 +427,17 @@ public class PhysicsEntity extends ModelInstance implements Disposable {
                 pCollisionShape.calculateLocalInertia(pMass, lLocalInertia);
             }
             // Assign the ConstructionInfo for this style of Object.
-            this.mConstructionInfo = new btRigidBody.btRigidBodyConstructionInfo(pMass, null, pCollisionShape, lLocalInertia);
+            this.mConstructionInfo = NativeRegistry.track(new btRigidBody.btRigidBodyConstructionInfo(pMass, null, pCollisionShape, lLocalInertia));
+            // Massless Bodies never move, so they default to the static layer.
+            this.mLayer            = pMass > 0f ? CollisionLayers.LAYER_DYNAMIC : CollisionLayers.LAYER_STATIC;
+        }
+
+        /** Defines the collision layer that the Builder's Entities are added to. The layer must be declared by the simulation's CollisionLayers before the Entities are spawned. */
+        public final Builder<T> setLayer(final String pLayer) {
+            // Assign the Layer.
+            this.mLayer = pLayer;
+            // Return the reference.
+            return this;
         }
 
         /** Configures the ModelBuilder for the Entity. */
@@ -276,17 +448,38 @@ public class PhysicsEntity extends ModelInstance implements Disposable {
             return this;
         }
 
+        /** Declares a geometry-free Node for the Entity; this allows PhysicsEntities to be instantiated without a GL context. */
+        public void proxy(final Model pModel) {
+            // Allocate the Node.
+            final Node lNode = new Node();
+            // Update using the id.
+            lNode.id = this.getNode();
+            // Attach an empty part, so that the instance carries a Material.
+            lNode.parts.add(new NodePart(new MeshPart(), new Material(ColorAttribute.createDiffuse(Color.WHITE))));
+            // Register the Node with the Model.
+            pModel.nodes.add(lNode);
+        }
+
         /**  Define the disposal operation. */
-        @Override public final void dispose() {
+        @Override public void dispose() {
             // Dispose of dependencies.
-            this.getCollisionShape().dispose();
-            this.getConstructionInfo().dispose();
+            NativeRegistry.dispose(this.getCollisionShape());
+            NativeRegistry.dispose(this.getConstructionInfo());
         }
 
-        /** Creates a PhysicsEntity based on the configuration of the Constructor. */
+        /** Creates a PhysicsEntity based on the configuration of the Constructor. This may be called from any thread; the Builder itself is never modified. */
         public final PhysicsEntity build(final Model pModel) {
-            // Allocate a PhysicsEntity.
-            return new PhysicsEntity(pModel, this.getNode(), this.getConstructionInfo());
+            // gdx-bullet registers every wrapped CollisionObject in a process-wide map, which isn't thread-safe.
+            synchronized(PhysicsEntity.LOCK_REGISTRY) {
+                // Allocate a PhysicsEntity.
+                return new PhysicsEntity(pModel, this.getNode(), this.getConstructionInfo(), this.getLevelVertices());
+            }
+        }
+
+        /** Returns the number of vertices rendered at each level of detail; the Entity's Node has no geometry of its own, so there's a single, empty level. */
+        public int[] getLevelVertices() {
+            // Return the counts.
+            return Builder.LEVEL_VERTICES_NONE;
         }
 
         /* Getters. */
@@ -298,45 +491,295 @@ public class PhysicsEntity extends ModelInstance implements Disposable {
             return this.mCollisionShape;
         }
 
-        private btRigidBody.btRigidBodyConstructionInfo getConstructionInfo() {
+        public final String getLayer() {
+            return this.mLayer;
+        }
+
+        protected final btRigidBody.btRigidBodyConstructionInfo getConstructionInfo() {
             return this.mConstructionInfo;
         }
 
     }
 
     /* Member Variables. */
+    private final String        mNode;
     private final btRigidBody   mBody;
     private final btMotionState mMotionState;
+    private final Matrix4       mWorldTransform;
+    private final Matrix4       mPreviousTransform;
+    private final BoundingBox   mBounds;
+    private final Color         mDiffuse;
+    private final int[]         mLevelVertices;
+    private       int           mHandle;
+    private       float         mRestTime;
+    private       int           mLevel;
+    private       int           mGeneration;
+    private       int           mRestored;
 
-    /** Builder. */
+    /** Builder. The Entity has a single level of detail. */
     public PhysicsEntity(final Model pModel, final String pNode, final btRigidBody.btRigidBodyConstructionInfo pConstructionInfo) {
+        // Assume a single level, of unknown size.
+        this(pModel, pNode, pConstructionInfo, new int[] { 0 });
+    }
+
+    /** Builder. The LevelVertices are the number of vertices rendered at each level of detail; when there are several, the Node carries a NodePart for each of them. */
+    public PhysicsEntity(final Model pModel, final String pNode, final btRigidBody.btRigidBodyConstructionInfo pConstructionInfo, final int[] pLevelVertices) {
         // Implement the Parent.
         super(pModel, pNode);
         // Initialize Member Variables.
-        this.mMotionState = new btMotionState() {
+        this.mNode              = pNode;
+        this.mWorldTransform    = new Matrix4();
+        this.mPreviousTransform = new Matrix4();
+        this.mBounds            = new BoundingBox();
+        this.mDiffuse           = new Color(Color.WHITE);
+        this.mLevelVertices     = pLevelVertices;
+        this.mHandle            = -1;
+        this.mRestTime          = 0.0f;
+        this.mLevel             = 0;
+        this.mGeneration        = 0;
+        this.mRestored          = 0;
+        this.mMotionState = NativeRegistry.track(new btMotionState() {
             /** Returns the World Transform for this Entity. */
-            @Override public final void getWorldTransform(final Matrix4 worldTrans) { worldTrans.set(PhysicsEntity.this.transform); }
+            @Override public final void getWorldTransform(final Matrix4 worldTrans) { worldTrans.set(PhysicsEntity.this.getWorldTransform()); }
             /** Applies the World Transform for this Entity. */
-            @Override public final void setWorldTransform(final Matrix4 worldTrans) { PhysicsEntity.this.transform.set(worldTrans); }
-        };
+            @Override public final void setWorldTransform(final Matrix4 worldTrans) { PhysicsEntity.this.getPreviousTransform().set(PhysicsEntity.this.getWorldTransform()); PhysicsEntity.this.getWorldTransform().set(worldTrans); }
+        });
         // Allocate the Body.
-        this.mBody        = new btRigidBody(pConstructionInfo);
+        this.mBody        = NativeRegistry.track(new btRigidBody(pConstructionInfo));
         // Define the MotionState.
         this.getBody().setMotionState(this.getMotionState());
+        // Remember the original Color, so that it may be restored when the Entity is recycled.
+        this.getDiffuse(this.mDiffuse);
+        // Only render the most detailed level.
+        this.onLevel(0);
+    }
+
+    /** Returns the simulated state of the Entity to its freshly constructed state, so that it may be reused. The Body must have been removed from the DynamicsWorld. This runs on the thread which steps the simulation, so the renderable state is left to the render thread; it's restored when the Entity is next published under its new generation. */
+    @Override public final void reset() {
+        // Clear the motion of the Body.
+        this.getBody().setLinearVelocity(Vector3.Zero);
+        this.getBody().setAngularVelocity(Vector3.Zero);
+        this.getBody().clearForces();
+        // Wake the Body, so that it is simulated once it is re-added.
+        this.getBody().forceActivationState(Collision.ACTIVE_TAG);
+        this.getBody().setDeactivationTime(0.0f);
+        // Reset the simulated Transforms.
+        this.getWorldTransform().idt();
+        this.getPreviousTransform().idt();
+        // Reset the RestTime. (The level of detail is left alone; it belongs to the render thread, which reselects it every frame.)
+        this.mRestTime = 0.0f;
+        // Mark the Entity as recycled.
+        this.mGeneration++;
+    }
+
+    /** Returns the renderable Transform and Color to their freshly constructed state, unless they've already been restored for the specified generation; so an Entity recycled since it was last drawn doesn't carry over its previous life. Must be called from the render thread, with the generation that was published alongside the Entity. */
+    public final void restore(final int pGeneration) {
+        // Has the Entity already been restored for this life?
+        if(this.mRestored == pGeneration) {
+            return;
+        }
+        // Reset the renderable Transform.
+        this.transform.idt();
+        // Restore the original Color.
+        this.setDiffuse(this.mDiffuse);
+        // Remember the life that was restored.
+        this.mRestored = pGeneration;
+    }
+
+    /** Selects the level of detail that the Entity is rendered at; zero is the most detailed. Must be called from the render thread. */
+    public final void setLevel(final int pLevel) {
+        // Has the level changed?
+        if(this.mLevel != pLevel) {
+            // Select the level.
+            this.onLevel(pLevel);
+        }
+    }
+
+    /** Enables the NodePart of the selected level, and disables the rest. */
+    private final void onLevel(final int pLevel) {
+        // Fetch the NodeParts of the Entity's Node.
+        final Array<NodePart> lNodeParts = this.nodes.get(0).parts;
+        // Does the Node carry a NodePart for each level?
+        if(this.getLevels() > 1 && lNodeParts.size == this.getLevels()) {
+            // Iterate the NodeParts.
+            for(int i = 0; i < lNodeParts.size; i++) {
+                // Only render the selected level.
+                lNodeParts.get(i).enabled = (i == pLevel);
+            }
+        }
+        // Track the level.
+        this.mLevel = pLevel;
+    }
+
+    /** Fetches the diffuse Color of the Entity, if it has one. */
+    public final Color getDiffuse(final Color pColor) {
+        // Does the Entity carry a Material?
+        if(this.materials.size > 0) {
+            // Fetch the ColorAttribute.
+            final ColorAttribute lColorAttribute = (ColorAttribute)this.materials.get(0).get(ColorAttribute.Diffuse);
+            // Is there a diffuse component to read?
+            if(lColorAttribute != null) {
+                // Copy the Color.
+                pColor.set(lColorAttribute.color);
+            }
+        }
+        // Return the Color.
+        return pColor;
+    }
+
+    /** Assigns the diffuse Color of the Entity, if it has one. */
+    public final void setDiffuse(final Color pColor) {
+        // Does the Entity carry a Material?
+        if(this.materials.size > 0) {
+            // Fetch the ColorAttribute.
+            final ColorAttribute lColorAttribute = (ColorAttribute)this.materials.get(0).get(ColorAttribute.Diffuse);
+            // Is there a diffuse component to update?
+            if(lColorAttribute != null) {
+                // Update the Color.
+                lColorAttribute.color.set(pColor);
+            }
+        }
     }
 
     /** Define the disposal operations. */
     @Override public final void dispose () {
-        // Dispose of the dependencies.
-        this.getBody().dispose();
-        this.getMotionState().dispose();
+        // Disposal unregisters the Body from gdx-bullet's process-wide map.
+        synchronized(PhysicsEntity.LOCK_REGISTRY) {
+            // Dispose of the dependencies.
+            NativeRegistry.dispose(this.getBody());
+            NativeRegistry.dispose(this.getMotionState());
+        }
+    }
+
+    /** Detaches the MotionState, so that stepping the Body never calls back into Java. gdx-bullet hands MotionStates their Matrix4 from a shared static pool, which makes the upcall unsafe when several DynamicsWorlds are stepped concurrently. Once detached, the simulated Transform must be pulled explicitly. */
+    public final void detach() {
+        // Remove the MotionState.
+        this.getBody().setMotionState(null);
+    }
+
+    /** Restores the MotionState, so that Bullet publishes the Body's Transform as it steps. The Body is moved to the simulated Transform. */
+    public final void attach() {
+        // Restore the MotionState.
+        this.getBody().setMotionState(this.getMotionState());
+    }
+
+    /** Copies the Body's Transform into the simulated Transform. This is only required once the MotionState has been detached. */
+    public final void pull() {
+        // Remember where the Body was.
+        this.getPreviousTransform().set(this.getWorldTransform());
+        // Read the Transform into our own Matrix4.
+        this.getBody().getWorldTransform(this.getWorldTransform());
+    }
+
+    /** Forgets where the Body was before its last step; this must be called whenever the Entity is placed, so that it isn't interpolated from its old position. */
+    public final void snap() {
+        // The Entity hasn't moved.
+        this.getPreviousTransform().set(this.getWorldTransform());
+    }
+
+    /** Accumulates the time the Body has spent deactivated; returns the total. Any activity resets the count. */
+    public final float rest(final float pDeltaTime) {
+        // Is the Body still being simulated?
+        if(this.getBody().isActive()) {
+            // Reset the RestTime.
+            this.mRestTime = 0.0f;
+        }
+        else {
+            // Accumulate the RestTime.
+            this.mRestTime += pDeltaTime;
+        }
+        // Return the RestTime.
+        return this.mRestTime;
+    }
+
+    /** Copies the simulated state of the Entity into its renderable state. Must not be called whilst the Body is being stepped on another thread. */
+    public final void sync(final Vector3 pMinimum, final Vector3 pMaximum) {
+        // Restore the renderable state, if the Entity has been recycled since it was last synchronized.
+        this.restore(this.getGeneration());
+        // Update the renderable Transform.
+        this.transform.set(this.getWorldTransform());
+        // Fetch the AABB of the Body, in world space.
+        this.getBody().getAabb(pMinimum, pMaximum);
+        // Update the Bounds.
+        this.getBounds().set(pMinimum, pMaximum);
+    }
+
+    /** Blends the renderable Transform between where the Body was before its last step and where it is now; an Alpha of zero is the previous Transform, and one is the simulated Transform. The Bounds are left alone. Must not be called whilst the Body is being stepped on another thread. */
+    public final void interpolate(final float pAlpha, final Vector3 pFrom, final Vector3 pTo, final Quaternion pFromRotation, final Quaternion pToRotation) {
+        // Fetch the translations.
+        this.getPreviousTransform().getTranslation(pFrom);
+        this.getWorldTransform().getTranslation(pTo);
+        // Fetch the rotations.
+        this.getPreviousTransform().getRotation(pFromRotation, true);
+        this.getWorldTransform().getRotation(pToRotation, true);
+        // Update the renderable Transform. (Bodies are rigid, so there's no scale to preserve.)
+        this.transform.set(pFrom.lerp(pTo, pAlpha), pFromRotation.slerp(pToRotation, pAlpha));
     }
 
     /* Getters. */
+    public final String getNode() {
+        return this.mNode;
+    }
+
     public final btRigidBody getBody() {
         return this.mBody;
     }
 
+    /** Returns the Transform owned by the simulation. The inherited `transform` is owned by the renderer. */
+    public final Matrix4 getWorldTransform() {
+        return this.mWorldTransform;
+    }
+
+    /** Returns the simulated Transform as it was before the Body's last step. */
+    public final Matrix4 getPreviousTransform() {
+        return this.mPreviousTransform;
+    }
+
+    public final int getLevel() {
+        return this.mLevel;
+    }
+
+    public final int getLevels() {
+        return this.mLevelVertices.length;
+    }
+
+    /** Returns the number of vertices rendered at the current level of detail. */
+    public final int getVertices() {
+        return this.mLevelVertices[this.getLevel()];
+    }
+
+    /** Returns the number of vertices rendered at a level of detail. */
+    public final int getVertices(final int pLevel) {
+        return this.mLevelVertices[pLevel];
+    }
+
+    /** Returns the world-space bounds of the Entity, as of the last sync. */
+    public final BoundingBox getBounds() {
+        return this.mBounds;
+    }
+
+    public final void setHandle(final int pHandle) {
+        this.mHandle = pHandle;
+    }
+
+    public final int getHandle() {
+        return this.mHandle;
+    }
+
+    /** Assigns the time the Body has spent deactivated; this is for callers who restore an Entity's state, such as a WorldCheckpoint. */
+    public final void setRestTime(final float pRestTime) {
+        this.mRestTime = pRestTime;
+    }
+
+    public final float getRestTime() {
+        return this.mRestTime;
+    }
+
+    /** Returns the number of times the Entity has been recycled. Owned by the thread which steps the simulation; the render thread should read the generation published alongside the Entity in a TransformSnapshot. */
+    public final int getGeneration() {
+        return this.mGeneration;
+    }
+
     private final btMotionState getMotionState() {
         return this.mMotionState;
     }
@@ -0,0 +1,53 @@
+package io.github.cawfree.libgdx.entity;
+
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/** Recycles the PhysicsEntities of a single Builder, so that spawning reuses existing ModelInstances and native Bodies instead of reallocating them. */
+public final class PhysicsEntityPool extends Pool<PhysicsEntity> {
+
+    /* Member Variables. */
+    private final PhysicsEntity.Builder<?> mBuilder;
+    private final Model                    mModel;
+
+    /** Constructor. */
+    public PhysicsEntityPool(final PhysicsEntity.Builder<?> pBuilder, final Model pModel, final int pInitialCapacity) {
+        // Implement the Parent.
+        super(pInitialCapacity);
+        // Initialize Member Variables.
+        this.mBuilder = pBuilder;
+        this.mModel   = pModel;
+    }
+
+    /** Pre-constructs PhysicsEntities, so that the first spawns don't allocate. */
+    public final PhysicsEntityPool prefill(final int pCount) {
+        // Allocate a buffer for the constructed Entities.
+        final Array<PhysicsEntity> lPhysicsEntities = new Array<PhysicsEntity>(pCount);
+        // Construct the Entities.
+        for(int i = this.getFree(); i < pCount; i++) {
+            // Allocate a new PhysicsEntity.
+            lPhysicsEntities.add(this.obtain());
+        }
+        // Hand the Entities back to the Pool.
+        this.freeAll(lPhysicsEntities);
+        // Return the reference.
+        return this;
+    }
+
+    /** Allocates a new PhysicsEntity when the Pool has been exhausted. */
+    @Override protected final PhysicsEntity newObject() {
+        // Build the PhysicsEntity.
+        return this.getBuilder().build(this.getModel());
+    }
+
+    /* Getters. */
+    public final PhysicsEntity.Builder<?> getBuilder() {
+        return this.mBuilder;
+    }
+
+    private final Model getModel() {
+        return this.mModel;
+    }
+
+}
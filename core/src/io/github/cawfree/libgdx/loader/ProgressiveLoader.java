@@ -0,0 +1,264 @@
+package io.github.cawfree.libgdx.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Callable;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+
+/** Brings a scene up progressively. Assets are streamed in a few milliseconds per frame, the Builders which depend upon them are constructed on a worker pool, and each Builder is compiled into the simulation as soon as it's ready; so the first frame is drawn immediately, and shapes become spawnable one by one. Records the time to first frame and the time to interactive. Must be driven from the render thread. */
+public final class ProgressiveLoader implements Disposable {
+
+    /** Produces a Builder once its assets have loaded. Called on a worker thread; it mustn't touch GL. */
+    public interface Task {
+        /** Creates the Builder. */
+        PhysicsEntity.Builder<?> build(final AssetManager pAssetManager);
+    }
+
+    /** Tracks the progress of a single Task. */
+    private static final class Job {
+        /* Member Variables. */
+        private final String[]                         mDependencies;
+        private final Task                             mTask;
+        private       Future<PhysicsEntity.Builder<?>> mFuture;
+        private       boolean                          mRegistered;
+        /** Constructor. */
+        private Job(final String[] pDependencies, final Task pTask) {
+            // Initialize Member Variables.
+            this.mDependencies = pDependencies;
+            this.mTask         = pTask;
+            this.mFuture       = null;
+            this.mRegistered   = false;
+        }
+    }
+
+    /* Static Declarations. */
+    private static final String TAG              = "ProgressiveLoader";
+    private static final int    BUDGET_UPDATE_MS = 8;
+    private static final long   TIMEOUT_DISPOSE  = 5L;
+    private static final long   NANOS_PER_MS     = 1000000L;
+
+    /* Member Variables. */
+    private final AssetManager      mAssetManager;
+    private final PhysicsSimulation mSimulation;
+    private final ExecutorService   mExecutorService;
+    private final Array<Job>        mJobs;
+    private final long              mStartTime;
+    private       long              mSpawnableTime;
+    private       long              mFirstFrameTime;
+    private       long              mInteractiveTime;
+
+    /** Constructor. The start time is the moment that startup began, as reported by TimeUtils.nanoTime(). */
+    public ProgressiveLoader(final AssetManager pAssetManager, final PhysicsSimulation pPhysicsSimulation, final int pThreads, final long pStartTime) {
+        // Initialize Member Variables.
+        this.mAssetManager    = pAssetManager;
+        this.mSimulation      = pPhysicsSimulation;
+        this.mJobs            = new Array<Job>();
+        this.mStartTime       = pStartTime;
+        this.mSpawnableTime   = -1L;
+        this.mFirstFrameTime  = -1L;
+        this.mInteractiveTime = -1L;
+        this.mExecutorService = Executors.newFixedThreadPool(pThreads, new ThreadFactory() { private int mCount = 0; @Override public final Thread newThread(final Runnable pRunnable) {
+            // Allocate a named daemon Thread, so that loading can't keep the process alive.
+            final Thread lThread = new Thread(pRunnable, "loader-" + (this.mCount++));
+            lThread.setDaemon(true);
+            // Return the Thread.
+            return lThread;
+        } });
+    }
+
+    /** Schedules a Task, to be run once each of its asset dependencies has loaded. */
+    public final ProgressiveLoader add(final String[] pDependencies, final Task pTask) {
+        // Track the Job.
+        this.getJobs().add(new Job(pDependencies, pTask));
+        // Return the reference.
+        return this;
+    }
+
+    /** Compiles any registered Builders into the simulation. */
+    public final void compile() {
+        // Compile the Builders.
+        this.getSimulation().compile();
+        // Is this the first time anything has become spawnable?
+        if(this.mSpawnableTime < 0L && this.getSimulation().getPools().size > 0) {
+            // Record the time.
+            this.mSpawnableTime = TimeUtils.nanoTime();
+        }
+    }
+
+    /** Advances loading by a single frame. Returns true once every Task has been compiled into the simulation. */
+    public final boolean update() {
+        // Have we already finished?
+        if(this.isInteractive()) {
+            return true;
+        }
+        // Stream the assets for a bounded amount of time.
+        final boolean lIsLoaded     = this.getAssetManager().update(ProgressiveLoader.BUDGET_UPDATE_MS);
+        // Declare whether any Builders became available.
+              boolean lIsRegistered = false;
+        // Declare whether every Job has finished.
+              boolean lIsFinished   = true;
+        // Iterate the Jobs.
+        for(final Job lJob : this.getJobs()) {
+            // Has the Job not been started, and are its assets available?
+            if(lJob.mFuture == null && this.isLoaded(lJob.mDependencies)) {
+                // Build the Builder on the worker pool.
+                lJob.mFuture = this.getExecutorService().submit(ProgressiveLoader.onCreateCallable(lJob.mTask, this.getAssetManager()));
+            }
+            // Has the Builder been built, but not registered?
+            if(lJob.mFuture != null && !lJob.mRegistered && lJob.mFuture.isDone()) {
+                // Register the Builder.
+                this.getSimulation().register(ProgressiveLoader.get(lJob.mFuture));
+                // Assert that the Builder was registered.
+                lJob.mRegistered = true;
+                lIsRegistered    = true;
+            }
+            // Accumulate whether the Jobs have finished.
+            lIsFinished &= lJob.mRegistered;
+        }
+        // Have new Builders become available?
+        if(lIsRegistered) {
+            // Make them spawnable.
+            this.compile();
+        }
+        // Is loading complete?
+        if(lIsLoaded && lIsFinished) {
+            // Record the time.
+            this.mInteractiveTime = TimeUtils.nanoTime();
+            // Release the workers.
+            this.getExecutorService().shutdown();
+            // Report the timings.
+            Gdx.app.log(ProgressiveLoader.TAG, "Time to first spawnable: " + this.getTimeToSpawnable() + "ms, time to first frame: " + this.getTimeToFirstFrame() + "ms, time to interactive: " + this.getTimeToInteractive() + "ms.");
+        }
+        // Return whether we've finished.
+        return this.isInteractive();
+    }
+
+    /** Called at the end of every rendered frame. */
+    public final void onFrameRendered() {
+        // Is this the first frame?
+        if(this.mFirstFrameTime < 0L) {
+            // Record the time.
+            this.mFirstFrameTime = TimeUtils.nanoTime();
+        }
+    }
+
+    /** Determines whether every one of the specified assets has loaded. */
+    private final boolean isLoaded(final String[] pDependencies) {
+        // Iterate the Dependencies.
+        for(final String lDependency : pDependencies) {
+            // Is the Dependency still loading?
+            if(!this.getAssetManager().isLoaded(lDependency)) {
+                // Assert that we're still waiting.
+                return false;
+            }
+        }
+        // Assert that everything has loaded.
+        return true;
+    }
+
+    /** Wraps a Task so that it can be run on the worker pool. */
+    private static final Callable<PhysicsEntity.Builder<?>> onCreateCallable(final Task pTask, final AssetManager pAssetManager) {
+        // Allocate the Callable.
+        return new Callable<PhysicsEntity.Builder<?>>() { @Override public final PhysicsEntity.Builder<?> call() {
+            // Run the Task.
+            return pTask.build(pAssetManager);
+        } };
+    }
+
+    /** Fetches the Builder produced by a completed Future. */
+    private static final PhysicsEntity.Builder<?> get(final Future<PhysicsEntity.Builder<?>> pFuture) {
+        try {
+            // Fetch the Builder.
+            return pFuture.get();
+        }
+        catch(final InterruptedException pInterruptedException) {
+            // Propagate the interruption.
+            throw new IllegalStateException("Interrupted whilst loading.", pInterruptedException);
+        }
+        catch(final ExecutionException pExecutionException) {
+            // Propagate the failure of the Task.
+            throw new IllegalStateException("A Builder failed to load.", pExecutionException.getCause());
+        }
+    }
+
+    /** Converts a timestamp into milliseconds since startup; or -1, if it hasn't happened yet. */
+    private final long elapsed(final long pTime) {
+        // Has the event occurred?
+        return pTime < 0L ? -1L : (pTime - this.mStartTime) / ProgressiveLoader.NANOS_PER_MS;
+    }
+
+    /** Stops the workers. Builders which were built but never registered are disposed of. */
+    @Override public final void dispose() {
+        // Stop accepting work.
+        this.getExecutorService().shutdown();
+        try {
+            // Allow any hull that is being built to finish.
+            this.getExecutorService().awaitTermination(ProgressiveLoader.TIMEOUT_DISPOSE, TimeUnit.SECONDS);
+        }
+        catch(final InterruptedException pInterruptedException) {
+            // Preserve the interrupt.
+            Thread.currentThread().interrupt();
+        }
+        // Iterate the Jobs.
+        for(final Job lJob : this.getJobs()) {
+            // Was the Builder built, but never handed to the simulation?
+            if(lJob.mFuture != null && !lJob.mRegistered && lJob.mFuture.isDone()) {
+                try {
+                    // Dispose of the Builder.
+                    lJob.mFuture.get().dispose();
+                }
+                catch(final Exception pException) {
+                    // The Task failed; there's nothing to release.
+                }
+            }
+        }
+        // Forget the Jobs.
+        this.getJobs().clear();
+    }
+
+    /* Getters. */
+    private final AssetManager getAssetManager() {
+        return this.mAssetManager;
+    }
+
+    private final PhysicsSimulation getSimulation() {
+        return this.mSimulation;
+    }
+
+    private final ExecutorService getExecutorService() {
+        return this.mExecutorService;
+    }
+
+    private final Array<Job> getJobs() {
+        return this.mJobs;
+    }
+
+    public final boolean isInteractive() {
+        return this.mInteractiveTime >= 0L;
+    }
+
+    public final long getTimeToSpawnable() {
+        return this.elapsed(this.mSpawnableTime);
+    }
+
+    public final long getTimeToFirstFrame() {
+        return this.elapsed(this.mFirstFrameTime);
+    }
+
+    public final long getTimeToInteractive() {
+        return this.elapsed(this.mInteractiveTime);
+    }
+
+}
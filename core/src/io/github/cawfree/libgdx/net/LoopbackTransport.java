@@ -0,0 +1,104 @@
+package io.github.cawfree.libgdx.net;
+
+import com.badlogic.gdx.utils.Pool;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/** An in-memory StateTransport, which connects two ends within the same process. Packets are copied into pooled buffers as they're sent, which the receiving end hands back once it has read them; the ends may live on different threads. This is intended for tests and benchmarks, where the cost of replication should be measured without the noise of a network. */
+public final class LoopbackTransport implements StateTransport {
+
+    /** Creates a connected pair of ends; whatever one sends, the other receives. */
+    public static final LoopbackTransport[] pair() {
+        // Allocate the queues for each direction; one carries packets, and the other returns their buffers.
+        final ConcurrentLinkedQueue<ByteBuffer> lForward          = new ConcurrentLinkedQueue<ByteBuffer>();
+        final ConcurrentLinkedQueue<ByteBuffer> lForwardRecycled  = new ConcurrentLinkedQueue<ByteBuffer>();
+        final ConcurrentLinkedQueue<ByteBuffer> lBackward         = new ConcurrentLinkedQueue<ByteBuffer>();
+        final ConcurrentLinkedQueue<ByteBuffer> lBackwardRecycled = new ConcurrentLinkedQueue<ByteBuffer>();
+        // Allocate the ends.
+        return new LoopbackTransport[] { new LoopbackTransport(lForward, lForwardRecycled, lBackward, lBackwardRecycled), new LoopbackTransport(lBackward, lBackwardRecycled, lForward, lForwardRecycled) };
+    }
+
+    /* Member Variables. */
+    private final ConcurrentLinkedQueue<ByteBuffer> mOutbound;
+    private final ConcurrentLinkedQueue<ByteBuffer> mOutboundRecycled;
+    private final ConcurrentLinkedQueue<ByteBuffer> mInbound;
+    private final ConcurrentLinkedQueue<ByteBuffer> mInboundRecycled;
+    private final Pool<ByteBuffer>                  mPool;
+    private       long                              mBytesSent;
+    private       long                              mPacketsSent;
+
+    /** Constructor. */
+    private LoopbackTransport(final ConcurrentLinkedQueue<ByteBuffer> pOutbound, final ConcurrentLinkedQueue<ByteBuffer> pOutboundRecycled, final ConcurrentLinkedQueue<ByteBuffer> pInbound, final ConcurrentLinkedQueue<ByteBuffer> pInboundRecycled) {
+        // Initialize Member Variables.
+        this.mOutbound         = pOutbound;
+        this.mOutboundRecycled = pOutboundRecycled;
+        this.mInbound          = pInbound;
+        this.mInboundRecycled  = pInboundRecycled;
+        this.mBytesSent        = 0L;
+        this.mPacketsSent      = 0L;
+        this.mPool             = new Pool<ByteBuffer>() { @Override protected final ByteBuffer newObject() {
+            // Allocate an empty buffer; it's grown to fit the first packet copied into it.
+            return ByteBuffer.allocate(0);
+        } };
+    }
+
+    /** Copies the packet into a pooled buffer, and queues it for the other end. */
+    @Override public final boolean send(final ByteBuffer pPacket) {
+        // Reclaim the buffers that the other end has finished with.
+        ByteBuffer lRecycled = this.mOutboundRecycled.poll();
+        while(lRecycled != null) {
+            this.mPool.free(lRecycled);
+            lRecycled = this.mOutboundRecycled.poll();
+        }
+        // Fetch a buffer which can hold the packet.
+        ByteBuffer lBuffer = this.mPool.obtain();
+        if(lBuffer.capacity() < pPacket.remaining()) {
+            // Replace the buffer with a larger one.
+            lBuffer = ByteBuffer.allocate(Math.max(pPacket.remaining(), lBuffer.capacity() << 1));
+        }
+        // Copy the packet, without disturbing the caller's buffer.
+        lBuffer.clear();
+        lBuffer.put(pPacket.duplicate());
+        lBuffer.flip();
+        // Count the packet.
+        this.mBytesSent += lBuffer.remaining();
+        this.mPacketsSent++;
+        // Deliver the packet.
+        this.mOutbound.add(lBuffer);
+        // Assert that the packet was sent.
+        return true;
+    }
+
+    /** Copies the oldest pending packet into the caller's buffer. */
+    @Override public final boolean receive(final ByteBuffer pPacket) {
+        // Fetch the oldest packet.
+        final ByteBuffer lBuffer = this.mInbound.poll();
+        // Is anything pending?
+        if(lBuffer == null) {
+            return false;
+        }
+        // Can the packet be held?
+        final boolean lIsFits = lBuffer.remaining() <= pPacket.remaining();
+        if(lIsFits) {
+            // Copy the packet, and prepare it for reading.
+            pPacket.put(lBuffer);
+            pPacket.flip();
+        }
+        // Return the buffer to the end that sent it.
+        this.mInboundRecycled.add(lBuffer);
+        // Were we able to deliver the packet?
+        return lIsFits || this.receive(pPacket);
+    }
+
+    /* Getters. */
+    /** Returns the number of bytes sent from this end. */
+    public final long getBytesSent() {
+        return this.mBytesSent;
+    }
+
+    public final long getPacketsSent() {
+        return this.mPacketsSent;
+    }
+
+}
@@ -0,0 +1,249 @@
+package io.github.cawfree.libgdx.net;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+
+/** The quantized state of a scene at a single tick, as it's replicated. For every live Entity, indexed by handle, it holds the index of its Builder, its position quantized to 16 bits per axis, its rotation packed as the smallest three components of its Quaternion, and whether it's asleep. Two states compare equal per Entity exactly when a client couldn't tell them apart, so deltas are taken between quantized values. */
+public final class ReplicatedState {
+
+    /* Static Declarations. */
+    public  static final float POSITION_SCALE    = 256.0f;
+    private static final int   BITS_COMPONENT    = 10;
+    private static final int   MASK_COMPONENT    = (1 << ReplicatedState.BITS_COMPONENT) - 1;
+    private static final float RANGE_COMPONENT   = (float)(1.0 / Math.sqrt(2.0));
+    private static final float SCALE_COMPONENT   = ReplicatedState.MASK_COMPONENT / (2.0f * ReplicatedState.RANGE_COMPONENT);
+
+    /* Member Variables. */
+    private final Bits       mPresent;
+    private final Vector3    mPosition;
+    private final Quaternion mRotation;
+    private       int        mTick;
+    private       int[]      mBuilders;
+    private       short[]    mPositions;
+    private       int[]      mRotations;
+    private       boolean[]  mSleeping;
+
+    /** Constructor. */
+    public ReplicatedState() {
+        // Initialize Member Variables.
+        this.mPresent   = new Bits(64);
+        this.mPosition  = new Vector3();
+        this.mRotation  = new Quaternion();
+        this.mTick      = -1;
+        this.mBuilders  = new int[64];
+        this.mPositions = new short[64 * 3];
+        this.mRotations = new int[64];
+        this.mSleeping  = new boolean[64];
+    }
+
+    /** Quantizes the live Instances of a simulation. Must be called on the thread which steps it. */
+    public final void capture(final PhysicsSimulation pPhysicsSimulation, final int pTick) {
+        // Forget the previous state.
+        this.clear(pTick);
+        // Fetch the Instances.
+        final Array<PhysicsEntity> lInstances = pPhysicsSimulation.getInstances();
+        // Iterate the Instances.
+        for(int i = 0; i < lInstances.size; i++) {
+            // Fetch the PhysicsEntity.
+            final PhysicsEntity lPhysicsEntity = lInstances.get(i);
+            // Decompose the simulated Transform.
+            lPhysicsEntity.getWorldTransform().getTranslation(this.mPosition);
+            lPhysicsEntity.getWorldTransform().getRotation(this.mRotation, true);
+            // Store the Entity. (The Builders are few, so they're found by a linear search.)
+            this.set(lPhysicsEntity.getHandle(), pPhysicsSimulation.getConstructors().indexOfKey(lPhysicsEntity.getNode()), ReplicatedState.quantize(this.mPosition.x), ReplicatedState.quantize(this.mPosition.y), ReplicatedState.quantize(this.mPosition.z), ReplicatedState.pack(this.mRotation), lPhysicsEntity.getRestTime() > 0.0f);
+        }
+    }
+
+    /** Empties the state, and assigns its tick. */
+    public final void clear(final int pTick) {
+        // Forget every Entity.
+        this.mPresent.clear();
+        // Assign the Tick.
+        this.mTick = pTick;
+    }
+
+    /** Copies another state into this one. */
+    public final void set(final ReplicatedState pReplicatedState) {
+        // Forget the previous state.
+        this.clear(pReplicatedState.getTick());
+        // Iterate the Entities of the other state.
+        for(int i = pReplicatedState.getPresent().nextSetBit(0); i >= 0; i = pReplicatedState.getPresent().nextSetBit(i + 1)) {
+            // Copy the Entity.
+            this.set(i, pReplicatedState.getBuilder(i), pReplicatedState.getPosition(i, 0), pReplicatedState.getPosition(i, 1), pReplicatedState.getPosition(i, 2), pReplicatedState.getRotation(i), pReplicatedState.isSleeping(i));
+        }
+    }
+
+    /** Stores the quantized state of an Entity. */
+    public final void set(final int pHandle, final int pBuilder, final short pX, final short pY, final short pZ, final int pRotation, final boolean pIsSleeping) {
+        // Make room for the Entity.
+        this.ensureCapacity(pHandle + 1);
+        // Store the state.
+        this.mBuilders[pHandle]          = pBuilder;
+        this.mPositions[pHandle * 3    ] = pX;
+        this.mPositions[pHandle * 3 + 1] = pY;
+        this.mPositions[pHandle * 3 + 2] = pZ;
+        this.mRotations[pHandle]         = pRotation;
+        this.mSleeping[pHandle]          = pIsSleeping;
+        // Mark the Entity.
+        this.mPresent.set(pHandle);
+    }
+
+    /** Removes an Entity. */
+    public final void remove(final int pHandle) {
+        this.mPresent.clear(pHandle);
+    }
+
+    /** Writes the dequantized Transform of an Entity into a Matrix4, and returns it. */
+    public final Matrix4 getTransform(final int pHandle, final Matrix4 pTransform) {
+        // Unpack the Rotation.
+        ReplicatedState.unpack(this.getRotation(pHandle), this.mRotation);
+        // Compose the Transform.
+        return pTransform.set(ReplicatedState.dequantize(this.getPosition(pHandle, 0)), ReplicatedState.dequantize(this.getPosition(pHandle, 1)), ReplicatedState.dequantize(this.getPosition(pHandle, 2)), this.mRotation.x, this.mRotation.y, this.mRotation.z, this.mRotation.w);
+    }
+
+    /** Grows the arrays to fit the specified number of handles. */
+    private final void ensureCapacity(final int pHandles) {
+        // Do we already have enough room?
+        if(pHandles <= this.mBuilders.length) {
+            return;
+        }
+        // Compute the new capacity.
+        final int lCapacity = Math.max(pHandles, this.mBuilders.length << 1);
+        // Grow the arrays.
+        final int[]     lBuilders  = new int[lCapacity];
+        final short[]   lPositions = new short[lCapacity * 3];
+        final int[]     lRotations = new int[lCapacity];
+        final boolean[] lSleeping  = new boolean[lCapacity];
+        System.arraycopy(this.mBuilders,  0, lBuilders,  0, this.mBuilders.length);
+        System.arraycopy(this.mPositions, 0, lPositions, 0, this.mPositions.length);
+        System.arraycopy(this.mRotations, 0, lRotations, 0, this.mRotations.length);
+        System.arraycopy(this.mSleeping,  0, lSleeping,  0, this.mSleeping.length);
+        // Assign the arrays.
+        this.mBuilders  = lBuilders;
+        this.mPositions = lPositions;
+        this.mRotations = lRotations;
+        this.mSleeping  = lSleeping;
+    }
+
+    /** Quantizes a coordinate into 16 bits. Coordinates beyond the range of a short are clamped. */
+    public static final short quantize(final float pCoordinate) {
+        // Scale, round and clamp the Coordinate.
+        return (short)MathUtils.clamp(Math.round(pCoordinate * ReplicatedState.POSITION_SCALE), Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+
+    /** Restores a quantized coordinate. */
+    public static final float dequantize(final short pCoordinate) {
+        return pCoordinate / ReplicatedState.POSITION_SCALE;
+    }
+
+    /** Packs a unit Quaternion into 32 bits. The largest component is dropped, and flipped to be positive, since it can be recovered from the others; its index takes two bits, and each of the others takes ten. */
+    public static final int pack(final Quaternion pQuaternion) {
+        // Find the largest component.
+        final float lX = Math.abs(pQuaternion.x), lY = Math.abs(pQuaternion.y), lZ = Math.abs(pQuaternion.z), lW = Math.abs(pQuaternion.w);
+        final int   lLargest = (lX >= lY && lX >= lZ && lX >= lW) ? 0 : (lY >= lZ && lY >= lW) ? 1 : (lZ >= lW) ? 2 : 3;
+        // Fetch the sign which makes the largest component positive; q and -q are the same rotation.
+        final float lSign    = ReplicatedState.component(pQuaternion, lLargest) < 0.0f ? -1.0f : 1.0f;
+        // Declare the packed value, beginning with the index of the dropped component.
+        int lPacked = lLargest;
+        // Iterate the remaining components.
+        for(int i = 0; i < 4; i++) {
+            // Is this the dropped component?
+            if(i == lLargest) {
+                continue;
+            }
+            // Quantize the component, which lies within +/- 1/sqrt(2).
+            final int lComponent = MathUtils.clamp(Math.round((ReplicatedState.component(pQuaternion, i) * lSign + ReplicatedState.RANGE_COMPONENT) * ReplicatedState.SCALE_COMPONENT), 0, ReplicatedState.MASK_COMPONENT);
+            // Append the component.
+            lPacked = (lPacked << ReplicatedState.BITS_COMPONENT) | lComponent;
+        }
+        // Return the packed Quaternion.
+        return lPacked;
+    }
+
+    /** Unpacks a Quaternion packed by pack(), and returns it. */
+    public static final Quaternion unpack(final int pPacked, final Quaternion pQuaternion) {
+        // Fetch the index of the dropped component.
+        final int lLargest = (pPacked >>> (ReplicatedState.BITS_COMPONENT * 3)) & 0x3;
+        // Declare the sum of the squares of the stored components.
+        float lSum = 0.0f;
+        // Iterate the stored components, from the last written.
+        for(int i = 3, lShift = 0; i >= 0; i--) {
+            // Is this the dropped component?
+            if(i == lLargest) {
+                continue;
+            }
+            // Restore the component.
+            final float lComponent = ((pPacked >>> lShift) & ReplicatedState.MASK_COMPONENT) / ReplicatedState.SCALE_COMPONENT - ReplicatedState.RANGE_COMPONENT;
+            ReplicatedState.component(pQuaternion, i, lComponent);
+            lSum   += lComponent * lComponent;
+            lShift += ReplicatedState.BITS_COMPONENT;
+        }
+        // Recover the dropped component from the unit length.
+        ReplicatedState.component(pQuaternion, lLargest, (float)Math.sqrt(Math.max(0.0f, 1.0f - lSum)));
+        // Return the Quaternion.
+        return pQuaternion;
+    }
+
+    /** Returns a component of a Quaternion by index, in the order x, y, z, w. */
+    private static final float component(final Quaternion pQuaternion, final int pIndex) {
+        switch(pIndex) {
+            case 0  : return pQuaternion.x;
+            case 1  : return pQuaternion.y;
+            case 2  : return pQuaternion.z;
+            default : return pQuaternion.w;
+        }
+    }
+
+    /** Assigns a component of a Quaternion by index, in the order x, y, z, w. */
+    private static final void component(final Quaternion pQuaternion, final int pIndex, final float pValue) {
+        switch(pIndex) {
+            case 0  : pQuaternion.x = pValue; break;
+            case 1  : pQuaternion.y = pValue; break;
+            case 2  : pQuaternion.z = pValue; break;
+            default : pQuaternion.w = pValue; break;
+        }
+    }
+
+    /* Getters. */
+    final void setTick(final int pTick) {
+        this.mTick = pTick;
+    }
+
+    public final int getTick() {
+        return this.mTick;
+    }
+
+    /** Returns the handles of the Entities within the state. */
+    public final Bits getPresent() {
+        return this.mPresent;
+    }
+
+    public final boolean isPresent(final int pHandle) {
+        return this.getPresent().get(pHandle);
+    }
+
+    public final int getBuilder(final int pHandle) {
+        return this.mBuilders[pHandle];
+    }
+
+    /** Returns a quantized coordinate of an Entity's position; the Axis is 0, 1 or 2 for x, y or z. */
+    public final short getPosition(final int pHandle, final int pAxis) {
+        return this.mPositions[pHandle * 3 + pAxis];
+    }
+
+    public final int getRotation(final int pHandle) {
+        return this.mRotations[pHandle];
+    }
+
+    public final boolean isSleeping(final int pHandle) {
+        return this.mSleeping[pHandle];
+    }
+
+}
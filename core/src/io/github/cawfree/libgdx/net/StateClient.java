@@ -0,0 +1,118 @@
+package io.github.cawfree.libgdx.net;
+
+import java.nio.ByteBuffer;
+
+/** Receives the states replicated by a StateServer. Each state packet is applied to the baseline it was encoded against, which is kept in a ring of recently received states, and is then acknowledged, so that the server may encode against it in turn. Packets whose baseline has been forgotten, or which are older than the latest state, are skipped. The client never simulates; it only exposes the latest state, for a renderer to place its Instances from. A StateClient must only be used on a single thread. */
+public final class StateClient {
+
+    /* Static Declarations. */
+    public  static final int DEFAULT_CAPACITY = (1 << 16);
+
+    /* Member Variables. */
+    private final StateTransport    mStateTransport;
+    private final ReplicatedState[] mHistory;
+    private final ByteBuffer        mPacket;
+    private final ByteBuffer        mAck;
+    private       ReplicatedState   mState;
+    private       long              mDecodeNanos;
+    private       int               mSkipped;
+
+    /** Constructor. The History should match the server's, and the Capacity is the largest packet that may be received. */
+    public StateClient(final StateTransport pStateTransport, final int pHistory, final int pCapacity) {
+        // Initialize Member Variables.
+        this.mStateTransport = pStateTransport;
+        this.mHistory        = new ReplicatedState[pHistory];
+        this.mPacket         = ByteBuffer.allocate(pCapacity);
+        this.mAck            = ByteBuffer.allocate(StateCodec.SIZE_ACK);
+        this.mState          = null;
+        this.mDecodeNanos    = 0L;
+        this.mSkipped        = 0;
+        // Allocate the History.
+        for(int i = 0; i < pHistory; i++) {
+            this.mHistory[i] = new ReplicatedState();
+        }
+    }
+
+    /** Constructor. Uses the server's default History, and the default Capacity. */
+    public StateClient(final StateTransport pStateTransport) {
+        // Use the defaults.
+        this(pStateTransport, StateServer.DEFAULT_HISTORY, StateClient.DEFAULT_CAPACITY);
+    }
+
+    /** Applies every state packet that has arrived. Returns the number of packets applied. */
+    public final int poll() {
+        // Fetch the start time.
+        final long lStart   = System.nanoTime();
+        // Declare the number of packets applied.
+        int        lApplied = 0;
+        // Whilst there are packets.
+        this.mPacket.clear();
+        while(this.getStateTransport().receive(this.mPacket)) {
+            // Apply the packet.
+            if(StateCodec.getType(this.mPacket) == StateCodec.TYPE_STATE && this.onReceiveState()) {
+                // Count the packet.
+                lApplied++;
+            }
+            // Prepare for the next packet.
+            this.mPacket.clear();
+        }
+        // Record the cost of the poll.
+        this.mDecodeNanos = System.nanoTime() - lStart;
+        // Return the number of packets applied.
+        return lApplied;
+    }
+
+    /** Applies a state packet, and acknowledges it. Returns false if it was skipped. */
+    private final boolean onReceiveState() {
+        // Read the Ticks.
+        final int lTick         = StateCodec.getTick(this.mPacket);
+        final int lBaselineTick = StateCodec.getBaseline(this.mPacket);
+        // Is the packet older than what we've got?
+        if(this.getState() != null && lTick <= this.getState().getTick()) {
+            // Skip the packet.
+            this.mSkipped++;
+            return false;
+        }
+        // Fetch the Baseline.
+        final ReplicatedState lBaseline = lBaselineTick == StateCodec.BASELINE_NONE ? null : this.mHistory[lBaselineTick % this.mHistory.length];
+        // Has the Baseline been forgotten?
+        if(lBaseline != null && lBaseline.getTick() != lBaselineTick) {
+            // Skip the packet; the server will fall back to a full state once the acknowledgements stop.
+            this.mSkipped++;
+            return false;
+        }
+        // Decode the state into its slot. (The server never encodes against a state as old as the ring, so the slot isn't the Baseline's.)
+        final ReplicatedState lState = this.mHistory[lTick % this.mHistory.length];
+        StateCodec.decode(this.mPacket, lBaseline, lState);
+        // Publish the state.
+        this.mState = lState;
+        // Acknowledge the state.
+        this.mAck.clear();
+        StateCodec.encodeAck(lTick, this.mAck);
+        this.mAck.flip();
+        this.getStateTransport().send(this.mAck);
+        // Assert that the packet was applied.
+        return true;
+    }
+
+    /* Getters. */
+    private final StateTransport getStateTransport() {
+        return this.mStateTransport;
+    }
+
+    /** Returns the latest state received; null until the first has arrived. */
+    public final ReplicatedState getState() {
+        return this.mState;
+    }
+
+    /** Returns the time taken by the most recent poll. */
+    public final long getDecodeNanos() {
+        return this.mDecodeNanos;
+    }
+
+    /** Returns the number of packets skipped, since they were stale or couldn't be decoded. */
+    public final int getSkipped() {
+        return this.mSkipped;
+    }
+
+}
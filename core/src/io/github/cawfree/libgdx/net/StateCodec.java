@@ -0,0 +1,186 @@
+package io.github.cawfree.libgdx.net;
+
+import com.badlogic.gdx.utils.Bits;
+
+import java.nio.ByteBuffer;
+
+/** Encodes ReplicatedStates into packets, as deltas against a baseline that the receiver already holds. A state packet lists the tick, the baseline tick (or BASELINE_NONE for a full state), a record for every Entity which is new or whose quantized state has changed, and the handles of the Entities which have gone. Each record carries a mask of the fields that follow; an Entity that hasn't changed since the baseline, such as one that's asleep, costs nothing. Handles must fit within an unsigned short, and Builder indices within a byte. */
+public final class StateCodec {
+
+    /* Packet Types. */
+    public  static final byte TYPE_STATE    = 1;
+    public  static final byte TYPE_ACK      = 2;
+
+    /* Static Declarations. */
+    public  static final int  BASELINE_NONE = -1;
+    public  static final int  SIZE_HEADER   = 1 + 4 + 4 + 2 + 2;
+    public  static final int  SIZE_RECORD   = 2 + 1 + 1 + 3 * 2 + 4;
+    public  static final int  SIZE_REMOVAL  = 2;
+    public  static final int  SIZE_ACK      = 1 + 4;
+    private static final int  MASK_BUILDER  = (1 << 0);
+    private static final int  MASK_POSITION = (1 << 1);
+    private static final int  MASK_ROTATION = (1 << 2);
+    private static final int  FLAG_SLEEPING = (1 << 3);
+
+    /** Prevent instantiation of this class. */
+    private StateCodec() {}
+
+    /** Returns the largest packet that encoding the State against the Baseline could produce. */
+    public static final int getMaximumSize(final ReplicatedState pState, final ReplicatedState pBaseline) {
+        // Allow a record for every Entity of the State, and a removal for every Entity of the Baseline.
+        return StateCodec.SIZE_HEADER + pState.getPresent().length() * StateCodec.SIZE_RECORD + (pBaseline != null ? pBaseline.getPresent().length() * StateCodec.SIZE_REMOVAL : 0);
+    }
+
+    /** Writes the State into the Packet, from its position, as a delta against the Baseline; when the Baseline is null, the whole State is written. Returns the number of records written. */
+    public static final int encode(final ReplicatedState pState, final ReplicatedState pBaseline, final ByteBuffer pPacket) {
+        // Write the header.
+        pPacket.put(StateCodec.TYPE_STATE);
+        pPacket.putInt(pState.getTick());
+        pPacket.putInt(pBaseline != null ? pBaseline.getTick() : StateCodec.BASELINE_NONE);
+        // Reserve the number of records.
+        final int  lCountPosition = pPacket.position();
+        pPacket.putShort((short)0);
+        // Declare the number of records.
+        int lRecords = 0;
+        // Iterate the Entities.
+        final Bits lPresent = pState.getPresent();
+        for(int i = lPresent.nextSetBit(0); i >= 0; i = lPresent.nextSetBit(i + 1)) {
+            // Was the Entity known to the receiver?
+            final boolean lIsKnown = pBaseline != null && pBaseline.isPresent(i);
+            // Work out which fields have changed.
+            int lMask = pState.isSleeping(i) ? StateCodec.FLAG_SLEEPING : 0;
+            if(!lIsKnown || pBaseline.getBuilder(i) != pState.getBuilder(i)) {
+                lMask |= StateCodec.MASK_BUILDER;
+            }
+            if(!lIsKnown || pBaseline.getPosition(i, 0) != pState.getPosition(i, 0) || pBaseline.getPosition(i, 1) != pState.getPosition(i, 1) || pBaseline.getPosition(i, 2) != pState.getPosition(i, 2)) {
+                lMask |= StateCodec.MASK_POSITION;
+            }
+            if(!lIsKnown || pBaseline.getRotation(i) != pState.getRotation(i)) {
+                lMask |= StateCodec.MASK_ROTATION;
+            }
+            // Is the Entity unchanged? (This is what omits the bodies which are asleep.)
+            if(lIsKnown && (lMask & ~StateCodec.FLAG_SLEEPING) == 0 && pBaseline.isSleeping(i) == pState.isSleeping(i)) {
+                continue;
+            }
+            // Write the record.
+            pPacket.putShort((short)i);
+            pPacket.put((byte)lMask);
+            if((lMask & StateCodec.MASK_BUILDER) != 0) {
+                pPacket.put((byte)pState.getBuilder(i));
+            }
+            if((lMask & StateCodec.MASK_POSITION) != 0) {
+                pPacket.putShort(pState.getPosition(i, 0));
+                pPacket.putShort(pState.getPosition(i, 1));
+                pPacket.putShort(pState.getPosition(i, 2));
+            }
+            if((lMask & StateCodec.MASK_ROTATION) != 0) {
+                pPacket.putInt(pState.getRotation(i));
+            }
+            // Count the record.
+            lRecords++;
+        }
+        // Fill in the number of records.
+        pPacket.putShort(lCountPosition, (short)lRecords);
+        // Reserve the number of removals.
+        final int lRemovalPosition = pPacket.position();
+        pPacket.putShort((short)0);
+        // Declare the number of removals.
+        int lRemovals = 0;
+        // Is there a Baseline to have removed Entities from?
+        if(pBaseline != null) {
+            // Iterate the Entities of the Baseline.
+            for(int i = pBaseline.getPresent().nextSetBit(0); i >= 0; i = pBaseline.getPresent().nextSetBit(i + 1)) {
+                // Has the Entity gone?
+                if(!lPresent.get(i)) {
+                    // Write the removal.
+                    pPacket.putShort((short)i);
+                    lRemovals++;
+                }
+            }
+        }
+        // Fill in the number of removals.
+        pPacket.putShort(lRemovalPosition, (short)lRemovals);
+        // Return the number of records.
+        return lRecords;
+    }
+
+    /** Reads the tick of a state packet, without consuming it. */
+    public static final int getTick(final ByteBuffer pPacket) {
+        return pPacket.getInt(pPacket.position() + 1);
+    }
+
+    /** Reads the baseline tick of a state packet, without consuming it. */
+    public static final int getBaseline(final ByteBuffer pPacket) {
+        return pPacket.getInt(pPacket.position() + 5);
+    }
+
+    /** Reads the type of a packet, without consuming it. */
+    public static final byte getType(final ByteBuffer pPacket) {
+        return pPacket.get(pPacket.position());
+    }
+
+    /** Reads a state packet into the Result, by applying it to the Baseline it was encoded against; the Baseline must be null exactly when the packet holds a full state. */
+    public static final void decode(final ByteBuffer pPacket, final ReplicatedState pBaseline, final ReplicatedState pResult) {
+        // Skip the type.
+        pPacket.get();
+        // Read the Ticks.
+        final int lTick = pPacket.getInt();
+        pPacket.getInt();
+        // Start from the Baseline, or from nothing.
+        if(pBaseline != null) {
+            pResult.set(pBaseline);
+        }
+        else {
+            pResult.clear(lTick);
+        }
+        pResult.setTick(lTick);
+        // Read the records.
+        final int lRecords = pPacket.getShort() & 0xFFFF;
+        for(int i = 0; i < lRecords; i++) {
+            // Read the Handle and Mask.
+            final int lHandle = pPacket.getShort() & 0xFFFF;
+            final int lMask   = pPacket.get() & 0xFF;
+            // Read the fields which changed, and keep the rest.
+            final boolean lIsKnown  = pResult.isPresent(lHandle);
+            final int     lBuilder  = (lMask & StateCodec.MASK_BUILDER) != 0 ? (pPacket.get() & 0xFF) : pResult.getBuilder(lHandle);
+            final short   lX;
+            final short   lY;
+            final short   lZ;
+            if((lMask & StateCodec.MASK_POSITION) != 0) {
+                lX = pPacket.getShort();
+                lY = pPacket.getShort();
+                lZ = pPacket.getShort();
+            }
+            else {
+                lX = lIsKnown ? pResult.getPosition(lHandle, 0) : 0;
+                lY = lIsKnown ? pResult.getPosition(lHandle, 1) : 0;
+                lZ = lIsKnown ? pResult.getPosition(lHandle, 2) : 0;
+            }
+            final int     lRotation = (lMask & StateCodec.MASK_ROTATION) != 0 ? pPacket.getInt() : pResult.getRotation(lHandle);
+            // Store the Entity.
+            pResult.set(lHandle, lBuilder, lX, lY, lZ, lRotation, (lMask & StateCodec.FLAG_SLEEPING) != 0);
+        }
+        // Read the removals.
+        final int lRemovals = pPacket.getShort() & 0xFFFF;
+        for(int i = 0; i < lRemovals; i++) {
+            // Remove the Entity.
+            pResult.remove(pPacket.getShort() & 0xFFFF);
+        }
+    }
+
+    /** Writes an acknowledgement of the specified tick into the Packet, from its position. */
+    public static final void encodeAck(final int pTick, final ByteBuffer pPacket) {
+        // Write the acknowledgement.
+        pPacket.put(StateCodec.TYPE_ACK);
+        pPacket.putInt(pTick);
+    }
+
+    /** Reads the tick acknowledged by a packet. */
+    public static final int decodeAck(final ByteBuffer pPacket) {
+        // Skip the type.
+        pPacket.get();
+        // Read the Tick.
+        return pPacket.getInt();
+    }
+
+}
@@ -0,0 +1,180 @@
+package io.github.cawfree.libgdx.net;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.nio.ByteBuffer;
+
+import io.github.cawfree.libgdx.simulation.PhysicsSimulation;
+
+/** Replicates an authoritative PhysicsSimulation to thin clients, which only render. Each publish quantizes the scene into a ring of recent ReplicatedStates, and sends every client a delta against the last state it acknowledged; when that state has fallen out of the ring, or nothing has been acknowledged yet, the client is sent a full state. The simulation is typically headless. A StateServer must only be used on the thread which steps its simulation. */
+public final class StateServer {
+
+    /** A client, and what it has acknowledged. */
+    private static final class Connection {
+        /* Member Variables. */
+        private final StateTransport mStateTransport;
+        private       int            mAcknowledged;
+        /** Constructor. */
+        private Connection(final StateTransport pStateTransport) {
+            // Initialize Member Variables.
+            this.mStateTransport = pStateTransport;
+            this.mAcknowledged   = StateCodec.BASELINE_NONE;
+        }
+    }
+
+    /* Static Declarations. */
+    public  static final int DEFAULT_HISTORY = 32;
+
+    /* Member Variables. */
+    private final PhysicsSimulation  mSimulation;
+    private final ReplicatedState[]  mHistory;
+    private final Array<Connection>  mConnections;
+    private final ByteBuffer         mAck;
+    private       ByteBuffer         mPacket;
+    private       int                mTick;
+    private       long               mEncodeNanos;
+    private       int                mBytes;
+    private       int                mRecords;
+
+    /** Constructor. The History is the number of recent states that clients may acknowledge. */
+    public StateServer(final PhysicsSimulation pPhysicsSimulation, final int pHistory) {
+        // Initialize Member Variables.
+        this.mSimulation  = pPhysicsSimulation;
+        this.mHistory     = new ReplicatedState[pHistory];
+        this.mConnections = new Array<Connection>();
+        this.mAck         = ByteBuffer.allocate(StateCodec.SIZE_ACK);
+        this.mPacket      = ByteBuffer.allocate(4096);
+        this.mTick        = StateCodec.BASELINE_NONE;
+        this.mEncodeNanos = 0L;
+        this.mBytes       = 0;
+        this.mRecords     = 0;
+        // Allocate the History.
+        for(int i = 0; i < pHistory; i++) {
+            this.mHistory[i] = new ReplicatedState();
+        }
+    }
+
+    /** Constructor. Uses the default History. */
+    public StateServer(final PhysicsSimulation pPhysicsSimulation) {
+        // Use the default History.
+        this(pPhysicsSimulation, StateServer.DEFAULT_HISTORY);
+    }
+
+    /** Begins replicating to the client at the other end of the StateTransport. It's sent a full state by the next publish. */
+    public final void addClient(final StateTransport pStateTransport) {
+        // Track the client.
+        this.getConnections().add(new Connection(pStateTransport));
+    }
+
+    /** Stops replicating to the client at the other end of the StateTransport. */
+    public final void removeClient(final StateTransport pStateTransport) {
+        // Iterate the Connections.
+        for(int i = 0; i < this.getConnections().size; i++) {
+            // Is this the client?
+            if(this.getConnections().get(i).mStateTransport == pStateTransport) {
+                // Forget the client.
+                this.getConnections().removeIndex(i);
+                return;
+            }
+        }
+    }
+
+    /** Captures the current state of the simulation, and sends it to every client. Should be called after each step. */
+    public final void publish() {
+        // Fetch the start time.
+        final long            lStart = System.nanoTime();
+        // Capture the state under the next Tick.
+        final ReplicatedState lState = this.mHistory[++this.mTick % this.mHistory.length];
+        lState.capture(this.getSimulation(), this.mTick);
+        // Reset the counters.
+        this.mBytes   = 0;
+        this.mRecords = 0;
+        // Iterate the Connections.
+        for(int i = 0; i < this.getConnections().size; i++) {
+            // Fetch the Connection.
+            final Connection      lConnection = this.getConnections().get(i);
+            // Catch up on what the client has acknowledged.
+            this.onReceiveAcks(lConnection);
+            // Fetch the Baseline; null if the client has to be sent everything.
+            final ReplicatedState lBaseline   = this.getBaseline(lConnection.mAcknowledged);
+            // Make room for the packet.
+            this.ensureCapacity(StateCodec.getMaximumSize(lState, lBaseline));
+            // Encode the packet.
+            this.mPacket.clear();
+            this.mRecords += StateCodec.encode(lState, lBaseline, this.mPacket);
+            this.mPacket.flip();
+            // Send the packet.
+            this.mBytes   += this.mPacket.remaining();
+            lConnection.mStateTransport.send(this.mPacket);
+        }
+        // Record the cost of the publish.
+        this.mEncodeNanos = System.nanoTime() - lStart;
+    }
+
+    /** Reads every acknowledgement that a client has sent, and keeps the latest. */
+    private final void onReceiveAcks(final Connection pConnection) {
+        // Whilst there are acknowledgements.
+        this.mAck.clear();
+        while(pConnection.mStateTransport.receive(this.mAck)) {
+            // Is this an acknowledgement?
+            if(StateCodec.getType(this.mAck) == StateCodec.TYPE_ACK) {
+                // Keep the most recent Tick. (Acknowledgements may overtake one another.)
+                pConnection.mAcknowledged = Math.max(pConnection.mAcknowledged, StateCodec.decodeAck(this.mAck));
+            }
+            // Prepare for the next acknowledgement.
+            this.mAck.clear();
+        }
+    }
+
+    /** Returns the state of the specified Tick, if it's still held; otherwise null. */
+    private final ReplicatedState getBaseline(final int pTick) {
+        // Has the Tick been acknowledged, and is it recent enough to still be held?
+        if(pTick == StateCodec.BASELINE_NONE || this.mTick - pTick >= this.mHistory.length) {
+            return null;
+        }
+        // Fetch the state.
+        final ReplicatedState lState = this.mHistory[pTick % this.mHistory.length];
+        // Return the state, if it hasn't been overwritten.
+        return lState.getTick() == pTick ? lState : null;
+    }
+
+    /** Grows the packet buffer to fit the specified number of bytes. */
+    private final void ensureCapacity(final int pBytes) {
+        // Do we already have enough room?
+        if(pBytes <= this.mPacket.capacity()) {
+            return;
+        }
+        // Grow the buffer.
+        this.mPacket = ByteBuffer.allocate(Math.max(pBytes, this.mPacket.capacity() << 1));
+    }
+
+    /* Getters. */
+    public final PhysicsSimulation getSimulation() {
+        return this.mSimulation;
+    }
+
+    private final Array<Connection> getConnections() {
+        return this.mConnections;
+    }
+
+    /** Returns the Tick of the most recent publish. */
+    public final int getTick() {
+        return this.mTick;
+    }
+
+    /** Returns the time taken to capture and encode the most recent publish, for every client. */
+    public final long getEncodeNanos() {
+        return this.mEncodeNanos;
+    }
+
+    /** Returns the number of bytes sent by the most recent publish, across every client. */
+    public final int getBytes() {
+        return this.mBytes;
+    }
+
+    /** Returns the number of Entity records sent by the most recent publish, across every client. */
+    public final int getRecords() {
+        return this.mRecords;
+    }
+
+}
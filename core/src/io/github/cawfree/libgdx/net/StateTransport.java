@@ -0,0 +1,14 @@
+package io.github.cawfree.libgdx.net;
+
+import java.nio.ByteBuffer;
+
+/** Carries replication packets between a StateServer and a single StateClient. Packets are delivered whole and in order, or not at all; a transport may drop packets, since the receiver acknowledges every state it applies and the sender falls back to an older baseline, or to a full state, when it has to. Each end of a transport must only be used by a single thread. */
+public interface StateTransport {
+
+    /** Sends the bytes between the position and the limit of the Packet, which is left unchanged. Returns false if the packet was dropped. */
+    boolean send(final ByteBuffer pPacket);
+
+    /** Copies the next received packet into the Packet, from its position, and flips it for reading. Returns false, leaving the Packet untouched, when nothing is pending. Packets larger than the Packet's remaining space are discarded. */
+    boolean receive(final ByteBuffer pPacket);
+
+}
@@ -0,0 +1,283 @@
+package io.github.cawfree.libgdx.profile;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import io.github.cawfree.libgdx.simulation.NativeRegistry;
+import io.github.cawfree.libgdx.simulation.SimulationStatistics;
+
+/** Records where each frame's time goes. The duration of every Stage and the value of every Counter are accumulated over a frame, and then committed to a RollingHistogram when the frame ends; so the tails of recent frames (p50, p99, max) can be queried from code, or dumped as CSV or JSON to compare builds and devices. Durations are recorded in microseconds. A FrameProfiler must only be used from a single thread. */
+public final class FrameProfiler {
+
+    /** The timed parts of a frame. */
+    public enum Stage {
+        /** The time between the end of one frame and the end of the next. */
+        FRAME,
+        /** Stepping the DynamicsWorld, and scanning the contacts it produced. */
+        STEP,
+        /** Spawning new Entities. */
+        SPAWN,
+        /** Culling and rendering the Instances through the ModelBatch. */
+        MODELS,
+        /** Drawing the DynamicsWorld's debug geometry. */
+        DEBUG,
+        /** Rendering through the SpriteBatch. */
+        SPRITES
+    }
+
+    /** The per-frame counts. */
+    public enum Counter {
+        /** Live bodies, including the Floor. */
+        BODIES,
+        /** Bodies that are being simulated. */
+        ACTIVE,
+        /** Bodies that have been put to sleep. */
+        SLEEPING,
+        /** Entities baked into static geometry. */
+        FROZEN,
+        /** Touching contact points. */
+        CONTACTS,
+        /** Overlapping pairs handed to the narrowphase. */
+        PAIRS,
+        /** Candidate pairs rejected by the collision layers; only counted whilst the pairs are audited. */
+        REJECTED,
+        /** Entities spawned during the frame. */
+        SPAWNS,
+        /** Vertices submitted through the ModelBatch, once the levels of detail have been selected. */
+        VERTICES,
+        /** Fixed steps taken by the most recent simulation update. */
+        SUBSTEPS,
+        /** Simulation updates during the frame which owed more steps than they could take. */
+        OVERRUNS,
+        /** Simulated time dropped during the frame, in microseconds. */
+        DROPPED,
+        /** Estimated native memory held by the objects in the NativeRegistry, in kilobytes. */
+        NATIVE
+    }
+
+    /* Static Declarations. */
+    public  static final int    DEFAULT_WINDOW  = 600;
+    private static final long   NANOS_PER_MICRO = 1000L;
+    private static final float  MICROS_PER_SEC  = 1000000.0f;
+    private static final long   BYTES_PER_KILO  = 1024L;
+    private static final String SUFFIX_JSON     = "json";
+    private static final String UNIT_STAGE      = "us";
+    private static final String UNIT_COUNTER    = "count";
+
+    /* Member Variables. */
+    private final RollingHistogram[] mStages;
+    private final RollingHistogram[] mCounters;
+    private final long[]             mStarts;
+    private final long[]             mDurations;
+    private final long[]             mCounts;
+    private       long               mFrameTime;
+    private       long               mSpawns;
+    private       long               mOverruns;
+    private       float              mDropped;
+    private       long               mFrames;
+
+    /** Constructor. The Window is the number of recent frames that each histogram retains. */
+    public FrameProfiler(final int pWindow) {
+        // Initialize Member Variables.
+        this.mStages    = new RollingHistogram[Stage.values().length];
+        this.mCounters  = new RollingHistogram[Counter.values().length];
+        this.mStarts    = new long[Stage.values().length];
+        this.mDurations = new long[Stage.values().length];
+        this.mCounts    = new long[Counter.values().length];
+        this.mFrameTime = -1L;
+        this.mSpawns    = -1L;
+        this.mOverruns  = -1L;
+        this.mDropped   = -1.0f;
+        this.mFrames    = 0L;
+        // Allocate the Histograms.
+        for(int i = 0; i < this.mStages.length; i++) {
+            this.mStages[i] = new RollingHistogram(pWindow);
+        }
+        for(int i = 0; i < this.mCounters.length; i++) {
+            this.mCounters[i] = new RollingHistogram(pWindow);
+        }
+    }
+
+    /** Constructor. Retains the most recent DEFAULT_WINDOW frames. */
+    public FrameProfiler() {
+        // Use the default Window.
+        this(FrameProfiler.DEFAULT_WINDOW);
+    }
+
+    /** Marks the start of a Stage. */
+    public final void begin(final Stage pStage) {
+        // Record the start time.
+        this.mStarts[pStage.ordinal()] = System.nanoTime();
+    }
+
+    /** Marks the end of a Stage. A Stage may be entered several times within a frame; its durations are summed. */
+    public final void end(final Stage pStage) {
+        // Accumulate the time since the Stage began.
+        this.mDurations[pStage.ordinal()] += System.nanoTime() - this.mStarts[pStage.ordinal()];
+    }
+
+    /** Adds a duration that was measured elsewhere to a Stage. */
+    public final void record(final Stage pStage, final long pNanos) {
+        // Accumulate the duration.
+        this.mDurations[pStage.ordinal()] += pNanos;
+    }
+
+    /** Assigns the value of a Counter for this frame. */
+    public final void count(final Counter pCounter, final long pValue) {
+        // Assign the Count.
+        this.mCounts[pCounter.ordinal()] = pValue;
+    }
+
+    /** Records the cost and population of a simulation update. When the simulation is stepped on another thread, these are the statistics of the most recently published step. */
+    public final void record(final SimulationStatistics pSimulationStatistics) {
+        // Accumulate the physics Stages.
+        this.record(Stage.STEP,  pSimulationStatistics.getStepNanos());
+        this.record(Stage.SPAWN, pSimulationStatistics.getSpawnNanos());
+        // Assign the population.
+        this.count(Counter.BODIES,   pSimulationStatistics.getBodies());
+        this.count(Counter.ACTIVE,   pSimulationStatistics.getActiveBodies());
+        this.count(Counter.SLEEPING, pSimulationStatistics.getSleepingBodies());
+        this.count(Counter.FROZEN,   pSimulationStatistics.getFrozenBodies());
+        this.count(Counter.CONTACTS, pSimulationStatistics.getContacts());
+        this.count(Counter.PAIRS,    pSimulationStatistics.getPairs());
+        this.count(Counter.REJECTED, pSimulationStatistics.getRejectedPairs());
+        // Count the Spawns since the last record; the statistics hold a running total.
+        this.count(Counter.SPAWNS, this.mSpawns < 0L ? 0L : pSimulationStatistics.getSpawns() - this.mSpawns);
+        this.mSpawns = pSimulationStatistics.getSpawns();
+        // Assign the steps, and count the losses since the last record.
+        this.count(Counter.SUBSTEPS, pSimulationStatistics.getSubSteps());
+        this.count(Counter.OVERRUNS, this.mOverruns < 0L   ? 0L : pSimulationStatistics.getOverruns() - this.mOverruns);
+        this.count(Counter.DROPPED,  this.mDropped  < 0.0f ? 0L : (long)((pSimulationStatistics.getDroppedTime() - this.mDropped) * FrameProfiler.MICROS_PER_SEC));
+        this.mOverruns = pSimulationStatistics.getOverruns();
+        this.mDropped  = pSimulationStatistics.getDroppedTime();
+        // Assign the native footprint.
+        this.count(Counter.NATIVE, NativeRegistry.getBytes() / FrameProfiler.BYTES_PER_KILO);
+    }
+
+    /** Commits the frame to the histograms, and prepares for the next. */
+    public final void endFrame() {
+        // Fetch the current time.
+        final long lTime = System.nanoTime();
+        // Is there a previous frame to measure against?
+        if(this.mFrameTime >= 0L) {
+            // Record the length of the frame.
+            this.record(Stage.FRAME, lTime - this.mFrameTime);
+        }
+        // Remember when this frame ended.
+        this.mFrameTime = lTime;
+        // Iterate the Stages.
+        for(int i = 0; i < this.mStages.length; i++) {
+            // Commit the duration.
+            this.mStages[i].record(this.mDurations[i] / FrameProfiler.NANOS_PER_MICRO);
+            // Reset the duration.
+            this.mDurations[i] = 0L;
+        }
+        // Iterate the Counters.
+        for(int i = 0; i < this.mCounters.length; i++) {
+            // Commit the Count. (Counts persist until they're next assigned.)
+            this.mCounters[i].record(this.mCounts[i]);
+        }
+        // Spawns and losses are per-frame, so they don't persist.
+        this.mCounts[Counter.SPAWNS.ordinal()]   = 0L;
+        this.mCounts[Counter.OVERRUNS.ordinal()] = 0L;
+        this.mCounts[Counter.DROPPED.ordinal()]  = 0L;
+        // Count the frame.
+        this.mFrames++;
+    }
+
+    /** Formats the histograms as CSV; one row per Stage and Counter. */
+    public final String toCSV() {
+        // Allocate the StringBuilder.
+        final StringBuilder lStringBuilder = new StringBuilder();
+        // Write the header.
+        lStringBuilder.append("metric,unit,samples,mean,p50,p90,p99,max\n");
+        // Iterate the Stages.
+        for(final Stage lStage : Stage.values()) {
+            // Write the row.
+            FrameProfiler.onWriteCSV(lStringBuilder, lStage.name().toLowerCase(), FrameProfiler.UNIT_STAGE, this.getHistogram(lStage));
+        }
+        // Iterate the Counters.
+        for(final Counter lCounter : Counter.values()) {
+            // Write the row.
+            FrameProfiler.onWriteCSV(lStringBuilder, lCounter.name().toLowerCase(), FrameProfiler.UNIT_COUNTER, this.getHistogram(lCounter));
+        }
+        // Return the CSV.
+        return lStringBuilder.toString();
+    }
+
+    /** Formats the histograms as a JSON object, keyed by metric. */
+    public final String toJSON() {
+        // Allocate the StringBuilder.
+        final StringBuilder lStringBuilder = new StringBuilder();
+        // Open the object.
+        lStringBuilder.append("{\"frames\":").append(this.getFrames()).append(",\"metrics\":{");
+        // Iterate the Stages.
+        for(final Stage lStage : Stage.values()) {
+            // Write the metric.
+            FrameProfiler.onWriteJSON(lStringBuilder, lStage.name().toLowerCase(), FrameProfiler.UNIT_STAGE, this.getHistogram(lStage), lStage.ordinal() == 0);
+        }
+        // Iterate the Counters.
+        for(final Counter lCounter : Counter.values()) {
+            // Write the metric.
+            FrameProfiler.onWriteJSON(lStringBuilder, lCounter.name().toLowerCase(), FrameProfiler.UNIT_COUNTER, this.getHistogram(lCounter), false);
+        }
+        // Close the object.
+        lStringBuilder.append("}}\n");
+        // Return the JSON.
+        return lStringBuilder.toString();
+    }
+
+    /** Writes the histograms to a file; as JSON if the file has a .json extension, and CSV otherwise. */
+    public final void dump(final FileHandle pFileHandle) {
+        // Write the formatted histograms.
+        pFileHandle.writeString(FrameProfiler.SUFFIX_JSON.equalsIgnoreCase(pFileHandle.extension()) ? this.toJSON() : this.toCSV(), false);
+    }
+
+    /** Appends a CSV row. */
+    private static final void onWriteCSV(final StringBuilder pStringBuilder, final String pName, final String pUnit, final RollingHistogram pRollingHistogram) {
+        // Write the row.
+        pStringBuilder.append(pName).append(',').append(pUnit).append(',').append(pRollingHistogram.getCount()).append(',').append((float)pRollingHistogram.getMean()).append(',')
+                      .append(pRollingHistogram.getQuantile(0.5f)).append(',').append(pRollingHistogram.getQuantile(0.9f)).append(',').append(pRollingHistogram.getQuantile(0.99f)).append(',')
+                      .append(pRollingHistogram.getMaximum()).append('\n');
+    }
+
+    /** Appends a JSON member. */
+    private static final void onWriteJSON(final StringBuilder pStringBuilder, final String pName, final String pUnit, final RollingHistogram pRollingHistogram, final boolean pIsFirst) {
+        // Separate the member from the last.
+        if(!pIsFirst) {
+            pStringBuilder.append(',');
+        }
+        // Write the member.
+        pStringBuilder.append('"').append(pName).append("\":{\"unit\":\"").append(pUnit).append("\",\"samples\":").append(pRollingHistogram.getCount())
+                      .append(",\"mean\":").append((float)pRollingHistogram.getMean()).append(",\"p50\":").append(pRollingHistogram.getQuantile(0.5f))
+                      .append(",\"p90\":").append(pRollingHistogram.getQuantile(0.9f)).append(",\"p99\":").append(pRollingHistogram.getQuantile(0.99f))
+                      .append(",\"max\":").append(pRollingHistogram.getMaximum()).append('}');
+    }
+
+    /** Forgets every recorded frame. */
+    public final void clear() {
+        // Empty the Histograms.
+        for(final RollingHistogram lRollingHistogram : this.mStages) {
+            lRollingHistogram.clear();
+        }
+        for(final RollingHistogram lRollingHistogram : this.mCounters) {
+            lRollingHistogram.clear();
+        }
+        // Restart the frame clock.
+        this.mFrameTime = -1L;
+        this.mFrames    = 0L;
+    }
+
+    /* Getters. */
+    public final RollingHistogram getHistogram(final Stage pStage) {
+        return this.mStages[pStage.ordinal()];
+    }
+
+    public final RollingHistogram getHistogram(final Counter pCounter) {
+        return this.mCounters[pCounter.ordinal()];
+    }
+
+    public final long getFrames() {
+        return this.mFrames;
+    }
+
+}
@@ -0,0 +1,149 @@
+package io.github.cawfree.libgdx.profile;
+
+import java.util.Arrays;
+
+/** A histogram of the most recent samples of a non-negative value. Samples are kept in a fixed ring, and counted into log-linear buckets (32 per power of two, so quantiles are accurate to within about 3%); recording a sample evicts the oldest in constant time, and nothing is allocated after construction. */
+public final class RollingHistogram {
+
+    /* Static Declarations. */
+    private static final int  BITS_SUB_BUCKET  = 5;
+    private static final int  SIZE_SUB_BUCKET  = (1 << RollingHistogram.BITS_SUB_BUCKET);
+    private static final int  SIZE_LINEAR      = (RollingHistogram.SIZE_SUB_BUCKET << 1);
+    private static final int  MAXIMUM_SHIFT    = 25;
+    private static final int  BUCKETS          = RollingHistogram.SIZE_LINEAR + RollingHistogram.MAXIMUM_SHIFT * RollingHistogram.SIZE_SUB_BUCKET;
+    private static final long MAXIMUM_VALUE    = (1L << 31) - 1L;
+
+    /* Member Variables. */
+    private final long[] mSamples;
+    private final int[]  mBuckets;
+    private       int    mHead;
+    private       int    mCount;
+    private       long   mSum;
+
+    /** Constructor. The Window is the number of samples that are retained. */
+    public RollingHistogram(final int pWindow) {
+        // Initialize Member Variables.
+        this.mSamples = new long[pWindow];
+        this.mBuckets = new int[RollingHistogram.BUCKETS];
+        this.mHead    = 0;
+        this.mCount   = 0;
+        this.mSum     = 0L;
+    }
+
+    /** Records a sample. Values beyond 2^31 - 1 are clamped. */
+    public final void record(final long pValue) {
+        // Clamp the Value into the range of the buckets.
+        final long lValue = Math.max(0L, Math.min(pValue, RollingHistogram.MAXIMUM_VALUE));
+        // Is the window full?
+        if(this.mCount == this.mSamples.length) {
+            // Evict the oldest sample.
+            final long lOldest = this.mSamples[this.mHead];
+            this.mBuckets[RollingHistogram.bucket(lOldest)]--;
+            this.mSum -= lOldest;
+        }
+        else {
+            // Grow the window.
+            this.mCount++;
+        }
+        // Store the sample.
+        this.mSamples[this.mHead] = lValue;
+        this.mBuckets[RollingHistogram.bucket(lValue)]++;
+        this.mSum += lValue;
+        // Advance the Head.
+        this.mHead = (this.mHead + 1) % this.mSamples.length;
+    }
+
+    /** Returns the value beneath which the specified fraction of the samples lie, to the precision of the buckets; never more than the maximum. */
+    public final long getQuantile(final float pQuantile) {
+        // Are there any samples?
+        if(this.mCount == 0) {
+            return 0L;
+        }
+        // Compute the rank of the sample we're searching for.
+        final int lRank = Math.max(1, (int)Math.ceil(pQuantile * this.mCount));
+        // Declare the running total.
+        int lTotal = 0;
+        // Iterate the buckets.
+        for(int i = 0; i < RollingHistogram.BUCKETS; i++) {
+            // Accumulate the bucket.
+            lTotal += this.mBuckets[i];
+            // Does the bucket contain the sample?
+            if(lTotal >= lRank) {
+                // Return the upper bound of the bucket; the true maximum is tighter for the highest samples.
+                return Math.min(RollingHistogram.upper(i), this.getMaximum());
+            }
+        }
+        // Return the maximum.
+        return this.getMaximum();
+    }
+
+    /** Returns the largest sample within the window. */
+    public final long getMaximum() {
+        // Declare the Maximum.
+        long lMaximum = 0L;
+        // Iterate the samples. (The window is small, and this is only called when the histogram is queried.)
+        for(int i = 0; i < this.mCount; i++) {
+            // Track the largest sample.
+            lMaximum = Math.max(lMaximum, this.mSamples[i]);
+        }
+        // Return the Maximum.
+        return lMaximum;
+    }
+
+    /** Returns the mean of the samples within the window. */
+    public final double getMean() {
+        // Are there any samples?
+        return this.mCount == 0 ? 0.0 : ((double)this.mSum / this.mCount);
+    }
+
+    /** Returns the most recently recorded sample. */
+    public final long getLatest() {
+        // Is there a sample?
+        return this.mCount == 0 ? 0L : this.mSamples[(this.mHead + this.mSamples.length - 1) % this.mSamples.length];
+    }
+
+    /** Forgets every sample. */
+    public final void clear() {
+        // Empty the buckets.
+        Arrays.fill(this.mBuckets, 0);
+        // Reset the window.
+        this.mHead  = 0;
+        this.mCount = 0;
+        this.mSum   = 0L;
+    }
+
+    /** Computes the bucket of a value. Values below 64 have a bucket each; beyond that, each power of two is split into 32 buckets. */
+    private static final int bucket(final long pValue) {
+        // Is the Value within the linear range?
+        if(pValue < RollingHistogram.SIZE_LINEAR) {
+            return (int)pValue;
+        }
+        // Compute how far the Value must be shifted to leave its top bits.
+        final int lShift = (63 - Long.numberOfLeadingZeros(pValue)) - RollingHistogram.BITS_SUB_BUCKET;
+        // Return the bucket.
+        return RollingHistogram.SIZE_LINEAR + (lShift - 1) * RollingHistogram.SIZE_SUB_BUCKET + (int)((pValue >> lShift) - RollingHistogram.SIZE_SUB_BUCKET);
+    }
+
+    /** Returns the largest value which falls into a bucket. */
+    private static final long upper(final int pBucket) {
+        // Is the bucket within the linear range?
+        if(pBucket < RollingHistogram.SIZE_LINEAR) {
+            return pBucket;
+        }
+        // Recover the shift and the top bits of the bucket.
+        final int  lShift    = (pBucket - RollingHistogram.SIZE_LINEAR) / RollingHistogram.SIZE_SUB_BUCKET + 1;
+        final long lMantissa = (pBucket - RollingHistogram.SIZE_LINEAR) % RollingHistogram.SIZE_SUB_BUCKET + RollingHistogram.SIZE_SUB_BUCKET;
+        // Return the upper bound.
+        return ((lMantissa + 1L) << lShift) - 1L;
+    }
+
+    /* Getters. */
+    public final int getCount() {
+        return this.mCount;
+    }
+
+    public final int getWindow() {
+        return this.mSamples.length;
+    }
+
+}
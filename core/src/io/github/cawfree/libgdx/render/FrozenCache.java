@@ -0,0 +1,65 @@
+package io.github.cawfree.libgdx.render;
+
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.graphics.g3d.ModelCache;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.Pool;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+
+/** Merges the meshes of frozen Entities into a single static render chunk. The chunk is only rebuilt when the FrozenPile's generation changes, so however many Entities have been frozen, they cost a handful of draw calls. Requires a GL context. */
+public final class FrozenCache implements RenderableProvider, Disposable {
+
+    /* Member Variables. */
+    private final ModelCache mModelCache;
+    private       long       mGeneration;
+    private       int        mEntities;
+
+    /** Constructor. */
+    public FrozenCache() {
+        // Initialize Member Variables.
+        this.mModelCache = new ModelCache();
+        this.mGeneration = -1L;
+        this.mEntities   = 0;
+    }
+
+    /** Rebuilds the chunk if the frozen Entities have changed. Each Entity is merged at its renderable Transform. */
+    public final void update(final Array<PhysicsEntity> pFrozen, final long pGeneration) {
+        // Has the pile changed?
+        if(this.mGeneration == pGeneration) {
+            return;
+        }
+        // Merge the Entities.
+        this.getModelCache().begin();
+        this.getModelCache().add(pFrozen);
+        this.getModelCache().end();
+        // Remember what we've built.
+        this.mGeneration = pGeneration;
+        this.mEntities   = pFrozen.size;
+    }
+
+    /** Supplies the merged Renderables. */
+    @Override public final void getRenderables(final Array<Renderable> pRenderables, final Pool<Renderable> pPool) {
+        // Delegate to the ModelCache.
+        this.getModelCache().getRenderables(pRenderables, pPool);
+    }
+
+    /** Releases the merged meshes. */
+    @Override public final void dispose() {
+        // Dispose of dependencies.
+        this.getModelCache().dispose();
+    }
+
+    /* Getters. */
+    private final ModelCache getModelCache() {
+        return this.mModelCache;
+    }
+
+    /** Returns the number of Entities in the chunk. */
+    public final int getEntities() {
+        return this.mEntities;
+    }
+
+}
@@ -0,0 +1,142 @@
+package io.github.cawfree.libgdx.render;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+
+/** Selects the level of detail that each PhysicsEntity is rendered at. An Entity's screen-space size is estimated from the radius of its synced bounds and its distance from the Camera, as a fraction of the viewport's height; each threshold that it falls beneath moves it one level coarser. To keep Entities from popping back and forth whilst they hover about a threshold, an Entity only changes level once it has moved past the threshold by the hysteresis. Requires no GL context; the vertices that are submitted, and what they would have been at full detail, are counted so that the savings can be measured headlessly. */
+public final class LevelOfDetail {
+
+    /* Static Declarations. */
+    public  static final float[] DEFAULT_THRESHOLDS = new float[] { 0.15f, 0.05f };
+    public  static final float   DEFAULT_HYSTERESIS = 0.2f;
+
+    /* Member Variables. */
+    private final float[] mThresholds;
+    private final float   mHysteresis;
+    private final int[]   mSelections;
+    private final Vector3 mCenter;
+    private final Vector3 mDimensions;
+    private       long    mVertices;
+    private       long    mFullVertices;
+    private       int     mTransitions;
+
+    /** Constructor. The Thresholds are screen-space sizes, as fractions of the viewport's height, in descending order; an Entity smaller than the first is drawn at level one, smaller than the second at level two, and so on. The Hysteresis is the fraction by which a threshold must be passed before the level changes. */
+    public LevelOfDetail(final float[] pThresholds, final float pHysteresis) {
+        // Initialize Member Variables.
+        this.mThresholds   = pThresholds;
+        this.mHysteresis   = pHysteresis;
+        this.mSelections   = new int[pThresholds.length + 1];
+        this.mCenter       = new Vector3();
+        this.mDimensions   = new Vector3();
+        this.mVertices     = 0L;
+        this.mFullVertices = 0L;
+        this.mTransitions  = 0;
+    }
+
+    /** Constructor. Uses the default thresholds and hysteresis. */
+    public LevelOfDetail() {
+        // Use the defaults.
+        this(LevelOfDetail.DEFAULT_THRESHOLDS, LevelOfDetail.DEFAULT_HYSTERESIS);
+    }
+
+    /** Selects the level of every Instance that's about to be rendered, and counts what they'll cost. Must be called from the render thread, after the Instances have been synced. */
+    public final void select(final Camera pCamera, final Array<PhysicsEntity> pInstances) {
+        // Reset the counters.
+        java.util.Arrays.fill(this.mSelections, 0);
+        this.mVertices     = 0L;
+        this.mFullVertices = 0L;
+        this.mTransitions  = 0;
+        // Iterate the Instances.
+        for(int i = 0; i < pInstances.size; i++) {
+            // Fetch the PhysicsEntity.
+            final PhysicsEntity lPhysicsEntity = pInstances.get(i);
+            // Does the Entity have more than one level to choose from?
+            if(lPhysicsEntity.getLevels() > 1) {
+                // Fetch the current level.
+                final int lLevel = lPhysicsEntity.getLevel();
+                // Select the level that suits the Entity's size on screen.
+                lPhysicsEntity.setLevel(Math.min(this.getLevel(lLevel, this.getScreenSize(pCamera, lPhysicsEntity)), lPhysicsEntity.getLevels() - 1));
+                // Count whether the Entity changed level.
+                this.mTransitions += lLevel != lPhysicsEntity.getLevel() ? 1 : 0;
+            }
+            // Count the selection.
+            this.mSelections[Math.min(lPhysicsEntity.getLevel(), this.mSelections.length - 1)]++;
+            // Count the vertices that are submitted, and those that would be at full detail.
+            this.mVertices     += lPhysicsEntity.getVertices();
+            this.mFullVertices += lPhysicsEntity.getVertices(0);
+        }
+    }
+
+    /** Estimates the height of an Entity on screen, as a fraction of the viewport's height. */
+    public final float getScreenSize(final Camera pCamera, final PhysicsEntity pPhysicsEntity) {
+        // Fetch the bounding sphere of the Entity.
+        pPhysicsEntity.getBounds().getCenter(this.mCenter);
+        final float lRadius   = pPhysicsEntity.getBounds().getDimensions(this.mDimensions).len() * 0.5f;
+        // Is the Camera orthographic? (The size doesn't depend upon the distance.)
+        if(pCamera instanceof OrthographicCamera) {
+            // Compare the diameter with the height of the view.
+            return (2.0f * lRadius) / (pCamera.viewportHeight * ((OrthographicCamera)pCamera).zoom);
+        }
+        // Fetch the distance to the Entity.
+        final float lDistance = pCamera.position.dst(this.mCenter);
+        // Is the Camera inside the Entity's bounds?
+        if(lDistance <= lRadius) {
+            // The Entity fills the screen.
+            return Float.MAX_VALUE;
+        }
+        // Fetch the vertical field of view. (Any other Camera is treated as having a right-angled view.)
+        final float lFieldOfView = pCamera instanceof PerspectiveCamera ? ((PerspectiveCamera)pCamera).fieldOfView : 90.0f;
+        // Project the sphere onto the near plane, relative to the height of the view.
+        return lRadius / (lDistance * (float)Math.tan(lFieldOfView * 0.5f * MathUtils.degreesToRadians));
+    }
+
+    /** Moves from the current level towards the level that suits a screen-space size, only crossing those thresholds which have been passed by the hysteresis. */
+    private final int getLevel(final int pLevel, final float pScreenSize) {
+        // Start from the current level.
+        int lLevel = Math.min(pLevel, this.mThresholds.length);
+        // Has the Entity grown clearly past the threshold of its level?
+        while(lLevel > 0 && pScreenSize > this.mThresholds[lLevel - 1] * (1.0f + this.mHysteresis)) {
+            // Move to a more detailed level.
+            lLevel--;
+        }
+        // Has the Entity shrunk clearly beneath the threshold of the next level?
+        while(lLevel < this.mThresholds.length && pScreenSize < this.mThresholds[lLevel] * (1.0f - this.mHysteresis)) {
+            // Move to a coarser level.
+            lLevel++;
+        }
+        // Return the level.
+        return lLevel;
+    }
+
+    /* Getters. */
+    /** Returns the number of Instances drawn at a level during the last selection. */
+    public final int getSelections(final int pLevel) {
+        return this.mSelections[pLevel];
+    }
+
+    /** Returns the number of vertices submitted during the last selection. */
+    public final long getVertices() {
+        return this.mVertices;
+    }
+
+    /** Returns the number of vertices that the last selection would have submitted if every Instance was drawn at full detail. */
+    public final long getFullVertices() {
+        return this.mFullVertices;
+    }
+
+    /** Returns the number of Instances that changed level during the last selection. */
+    public final int getTransitions() {
+        return this.mTransitions;
+    }
+
+    public final int getLevels() {
+        return this.mSelections.length;
+    }
+
+}
@@ -0,0 +1,132 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/** Names the collision layers of a world, and which of them may touch. Each layer owns one bit of a body's broadphase collision group, and the symmetric "collides with" matrix becomes its collision mask; so pairs of layers that never interact are rejected by the broadphase, before they cost a narrowphase test. Every world starts with a static and a dynamic layer. A new layer collides with every layer, itself included, until told otherwise. Layers must be declared before the bodies that use them are added. */
+public final class CollisionLayers {
+
+    /* Static Declarations. */
+    public  static final String LAYER_STATIC   = "static";
+    public  static final String LAYER_DYNAMIC  = "dynamic";
+    public  static final int    MAXIMUM_LAYERS = 16;
+
+    /* Member Variables. */
+    private final ObjectIntMap<String> mIndices;
+    private final Array<String>        mNames;
+    private final short[]              mMasks;
+
+    /** Constructor. */
+    public CollisionLayers() {
+        // Initialize Member Variables.
+        this.mIndices = new ObjectIntMap<String>();
+        this.mNames   = new Array<String>();
+        this.mMasks   = new short[CollisionLayers.MAXIMUM_LAYERS];
+        // Declare the default layers. (Static bodies never move, so they needn't be tested against each other.)
+        this.define(CollisionLayers.LAYER_STATIC).define(CollisionLayers.LAYER_DYNAMIC).setCollides(CollisionLayers.LAYER_STATIC, CollisionLayers.LAYER_STATIC, false);
+    }
+
+    /** Declares a layer, which collides with every layer. Declaring an existing layer has no effect. */
+    public final CollisionLayers define(final String pLayer) {
+        // Has the layer already been declared?
+        if(this.mIndices.containsKey(pLayer)) {
+            // Return the reference.
+            return this;
+        }
+        // Is there a bit left for the layer?
+        if(this.getLayers().size >= CollisionLayers.MAXIMUM_LAYERS) {
+            // Assert that the layer can't be represented.
+            throw new IllegalStateException("Broadphase collision groups support at most " + CollisionLayers.MAXIMUM_LAYERS + " layers; can't declare \"" + pLayer + "\".");
+        }
+        // Fetch the index of the new layer.
+        final int lIndex = this.getLayers().size;
+        // Register the layer.
+        this.mIndices.put(pLayer, lIndex);
+        this.mNames.add(pLayer);
+        // Collide the new layer with itself and every existing layer, in both directions.
+        for(int i = 0; i <= lIndex; i++) {
+            this.mMasks[i]      |= (short)(1 << lIndex);
+            this.mMasks[lIndex] |= (short)(1 << i);
+        }
+        // Return the reference.
+        return this;
+    }
+
+    /** Defines whether two layers collide; the matrix is symmetric, so the order of the layers doesn't matter. */
+    public final CollisionLayers setCollides(final String pLayer, final String pOther, final boolean pIsCollides) {
+        // Fetch the indices of the layers.
+        final int lIndex = this.getIndex(pLayer);
+        final int lOther = this.getIndex(pOther);
+        // Should the layers collide?
+        if(pIsCollides) {
+            // Set the bits in both masks.
+            this.mMasks[lIndex] |= (short)(1 << lOther);
+            this.mMasks[lOther] |= (short)(1 << lIndex);
+        }
+        else {
+            // Clear the bits in both masks.
+            this.mMasks[lIndex] &= (short)~(1 << lOther);
+            this.mMasks[lOther] &= (short)~(1 << lIndex);
+        }
+        // Return the reference.
+        return this;
+    }
+
+    /** Determines whether two layers collide. */
+    public final boolean isCollides(final String pLayer, final String pOther) {
+        // Test the mask of either layer.
+        return (this.getMask(pLayer) & this.getGroup(pOther)) != 0;
+    }
+
+    /** Returns the broadphase collision group of a layer. */
+    public final short getGroup(final String pLayer) {
+        // Each layer owns a single bit.
+        return (short)(1 << this.getIndex(pLayer));
+    }
+
+    /** Returns the broadphase collision mask of a layer; the groups of every layer that it collides with. */
+    public final short getMask(final String pLayer) {
+        // Fetch the mask.
+        return this.mMasks[this.getIndex(pLayer)];
+    }
+
+    /** Returns the index of a layer, which must have been declared. */
+    private final int getIndex(final String pLayer) {
+        // Fetch the index.
+        final int lIndex = this.mIndices.get(pLayer, -1);
+        // Has the layer been declared?
+        if(lIndex < 0) {
+            // Assert that the layer is unknown.
+            throw new IllegalStateException("Undeclared collision layer \"" + pLayer + "\".");
+        }
+        // Return the index.
+        return lIndex;
+    }
+
+    /* Getters. */
+    /** Returns the names of the declared layers, in the order of their bits. */
+    public final Array<String> getLayers() {
+        return this.mNames;
+    }
+
+    @Override public final String toString() {
+        // Allocate the StringBuilder.
+        final StringBuilder lStringBuilder = new StringBuilder();
+        // Iterate the layers.
+        for(int i = 0; i < this.getLayers().size; i++) {
+            // Describe the layers that this one collides with.
+            lStringBuilder.append(i == 0 ? "" : ", ").append(this.getLayers().get(i)).append("->[");
+            for(int j = 0, k = 0; j < this.getLayers().size; j++) {
+                // Does the layer collide with this one?
+                if((this.mMasks[i] & (1 << j)) != 0) {
+                    // List the layer.
+                    lStringBuilder.append(k++ == 0 ? "" : " ").append(this.getLayers().get(j));
+                }
+            }
+            lStringBuilder.append(']');
+        }
+        // Return the description.
+        return lStringBuilder.toString();
+    }
+
+}
@@ -0,0 +1,110 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/** A preallocated ring of contact events, stored as primitives. There may be a single producer (the simulation) and a single consumer (game code), which are allowed to live on different threads. */
+public final class ContactEventBuffer {
+
+    /** Receives drained contact events. */
+    public interface Listener {
+        /** Called for each drained event. The Match flags describe which of the two Entities passed the contact callback filter. A handle of FrozenPile.HANDLE_PILE stands for the FrozenPile, which never matches. */
+        void onContactEvent(final int pType, final int pHandle0, final int pHandle1, final boolean pIsMatch0, final boolean pIsMatch1);
+    }
+
+    /* Event Types. */
+    public  static final int EVENT_BEGIN   = 0;
+    public  static final int EVENT_PERSIST = 1;
+    public  static final int EVENT_END     = 2;
+
+    /* Static Declarations. */
+    private static final int STRIDE        = 4;
+    private static final int MATCH_0       = (1 << 0);
+    private static final int MATCH_1       = (1 << 1);
+
+    /* Member Variables. */
+    private final int[]        mEvents;
+    private final int          mMask;
+    private volatile int       mHead;
+    private volatile int       mTail;
+    private volatile int       mDropped;
+
+    /** Constructor. The capacity is rounded up to the next power of two. */
+    public ContactEventBuffer(final int pCapacity) {
+        // Compute the Capacity.
+        final int lCapacity = MathUtils.nextPowerOfTwo(pCapacity);
+        // Initialize Member Variables.
+        this.mEvents  = new int[lCapacity * ContactEventBuffer.STRIDE];
+        this.mMask    = lCapacity - 1;
+        this.mHead    = 0;
+        this.mTail    = 0;
+        this.mDropped = 0;
+    }
+
+    /** Appends an event. Returns false, and counts the event as dropped, when the consumer has fallen behind. */
+    public final boolean write(final int pType, final int pHandle0, final int pHandle1, final boolean pIsMatch0, final boolean pIsMatch1) {
+        // Fetch the write position.
+        final int lTail = this.mTail;
+        // Is the buffer full?
+        if(lTail - this.mHead > this.getMask()) {
+            // Count the dropped event.
+            this.mDropped++;
+            // Assert that the event was not stored.
+            return false;
+        }
+        // Compute the offset of the event.
+        final int lOffset = (lTail & this.getMask()) * ContactEventBuffer.STRIDE;
+        // Write the event.
+        this.mEvents[lOffset    ] = pType;
+        this.mEvents[lOffset + 1] = pHandle0;
+        this.mEvents[lOffset + 2] = pHandle1;
+        this.mEvents[lOffset + 3] = (pIsMatch0 ? ContactEventBuffer.MATCH_0 : 0) | (pIsMatch1 ? ContactEventBuffer.MATCH_1 : 0);
+        // Publish the event.
+        this.mTail = lTail + 1;
+        // Assert that the event was stored.
+        return true;
+    }
+
+    /** Delivers every pending event to the Listener, in order. Returns the number of events drained. */
+    public final int drain(final Listener pListener) {
+        // Fetch the bounds of the pending events.
+        final int lHead = this.mHead;
+        final int lTail = this.mTail;
+        // Iterate the pending events.
+        for(int i = lHead; i != lTail; i++) {
+            // Compute the offset of the event.
+            final int lOffset = (i & this.getMask()) * ContactEventBuffer.STRIDE;
+            // Fetch the Flags.
+            final int lFlags  = this.mEvents[lOffset + 3];
+            // Deliver the event.
+            pListener.onContactEvent(this.mEvents[lOffset], this.mEvents[lOffset + 1], this.mEvents[lOffset + 2], (lFlags & ContactEventBuffer.MATCH_0) != 0, (lFlags & ContactEventBuffer.MATCH_1) != 0);
+        }
+        // Release the drained events.
+        this.mHead = lTail;
+        // Return the number of drained events.
+        return lTail - lHead;
+    }
+
+    /** Discards all pending events. Must only be called by the consumer. */
+    public final void clear() {
+        // Catch up with the producer.
+        this.mHead = this.mTail;
+    }
+
+    /* Getters. */
+    private final int getMask() {
+        return this.mMask;
+    }
+
+    public final int getCapacity() {
+        return this.getMask() + 1;
+    }
+
+    public final int getPending() {
+        return this.mTail - this.mHead;
+    }
+
+    public final int getDropped() {
+        return this.mDropped;
+    }
+
+}
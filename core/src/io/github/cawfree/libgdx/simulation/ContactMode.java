@@ -0,0 +1,9 @@
+package io.github.cawfree.libgdx.simulation;
+
+/** Defines how a PhysicsSimulation reports contacts. */
+public enum ContactMode {
+    /** Contacts are reported through a ContactListener; a JNI upcall for every new contact point, each written to the ContactEventBuffer as it arrives. */
+    LISTENER,
+    /** The persistent manifolds are scanned once per step, and contacts are written to a ContactEventBuffer for game code to drain. */
+    MANIFOLD
+}
@@ -0,0 +1,239 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.physics.bullet.collision.CollisionJNI;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btDispatcher;
+import com.badlogic.gdx.physics.bullet.collision.btPersistentManifold;
+import com.badlogic.gdx.utils.Array;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+
+import java.util.Arrays;
+
+/** Scans the Dispatcher's persistent manifolds once per step, and classifies touching pairs into begin, persist and end events. Pairs are tracked per body, however many manifolds their shapes produce, and per generation, so an Entity that is recycled between scans ends its old contacts and begins new ones. This replaces a JNI upcall per contact point with a handful of downcalls per manifold. Bodies are resolved through their native UserIndex rather than gdx-bullet's process-wide wrapper map, so scans are safe to run on several simulations at once. */
+public final class ContactTracker {
+
+    /** A reusable, non-owning view onto a native manifold; this avoids allocating a wrapper for every manifold we visit. */
+    private static final class ManifoldView extends btPersistentManifold {
+        /** Constructor. */
+        private ManifoldView() {
+            // Implement the Parent.
+            super(0, false);
+        }
+        /** Points the view at a native manifold. */
+        private final ManifoldView wrap(final long pCPtr) {
+            // Reassign the pointer.
+            this.reset(pCPtr, false);
+            // Return the reference.
+            return this;
+        }
+    }
+
+    /* Static Declarations. */
+    private static final int  DEFAULT_CAPACITY = 64;
+    private static final int  BITS_HANDLE      = 22;
+    private static final long MASK_HANDLE      = (1L << ContactTracker.BITS_HANDLE) - 1L;
+    private static final long MASK_GENERATION  = 0xFFL;
+    private static final int  SHIFT_MATCH      = 30;
+    private static final long MASK_SIDE        = 0x7FFFFFFFL;
+    private static final int  KEY_PILE         = (int)(FrozenPile.HANDLE_PILE & ContactTracker.MASK_HANDLE);
+
+    /* Member Variables. */
+    private final ManifoldView mManifoldView;
+    private       long[]       mCurrent;
+    private       int          mCurrentCount;
+    private       long[]       mPrevious;
+    private       int          mPreviousCount;
+    private       int          mContacts;
+
+    /** Constructor. */
+    public ContactTracker() {
+        // Initialize Member Variables.
+        this.mManifoldView  = new ManifoldView();
+        this.mCurrent       = new long[ContactTracker.DEFAULT_CAPACITY];
+        this.mCurrentCount  = 0;
+        this.mPrevious      = new long[ContactTracker.DEFAULT_CAPACITY];
+        this.mPreviousCount = 0;
+        this.mContacts      = 0;
+    }
+
+    /** Determines whether the first object's callback filter accepts the second; this mirrors the filtering that gdx-bullet applies before calling a ContactListener. */
+    private static final boolean isMatch(final btCollisionObject pCollisionObject0, final btCollisionObject pCollisionObject1) {
+        // Objects must opt in to contact callbacks.
+        if((pCollisionObject0.getCollisionFlags() & btCollisionObject.CollisionFlags.CF_CUSTOM_MATERIAL_CALLBACK) == 0) {
+            // Assert that there's no match.
+            return false;
+        }
+        // Compare the Filter against the Flag.
+        return (pCollisionObject0.getContactCallbackFilter() & pCollisionObject1.getContactCallbackFlag()) != 0;
+    }
+
+    /** Packs one side of a pair into 31 bits: the match flag, then the low bits of the generation, then the handle. */
+    private static final long side(final int pHandle, final int pGeneration, final boolean pIsMatch) {
+        // Handles are non-negative and below 2^22 - 2, which leaves room for the FrozenPile's; a generation only has to differ from the one seen by the last scan, so its low bits suffice.
+        return ((pIsMatch ? 1L : 0L) << ContactTracker.SHIFT_MATCH) | ((pGeneration & ContactTracker.MASK_GENERATION) << ContactTracker.BITS_HANDLE) | (pHandle & ContactTracker.MASK_HANDLE);
+    }
+
+    /** Packs a pair of Entities into a single key; the lower handle is always stored in the upper half. */
+    private static final long pack(final int pHandle0, final int pHandle1, final int pGeneration0, final int pGeneration1, final boolean pIsMatch0, final boolean pIsMatch1) {
+        // Order the Handles, so that (a, b) and (b, a) produce the same key.
+        final boolean lIsOrdered = pHandle0 <= pHandle1;
+        final long    lLow       = lIsOrdered ? ContactTracker.side(pHandle0, pGeneration0, pIsMatch0) : ContactTracker.side(pHandle1, pGeneration1, pIsMatch1);
+        final long    lHigh      = lIsOrdered ? ContactTracker.side(pHandle1, pGeneration1, pIsMatch1) : ContactTracker.side(pHandle0, pGeneration0, pIsMatch0);
+        // Combine the sides; the sign bit is never set, so no key reaches the merge's sentinel.
+        return (lLow << 32) | lHigh;
+    }
+
+    /** Unpacks the handle from one side of a key. */
+    private static final int handle(final long pSide) {
+        // Fetch the packed Handle.
+        final int lHandle = (int)(pSide & ContactTracker.MASK_HANDLE);
+        // Restore the FrozenPile's negative Handle.
+        return lHandle == ContactTracker.KEY_PILE ? FrozenPile.HANDLE_PILE : lHandle;
+    }
+
+    /** Scans the Dispatcher, and writes an event for every pair that has begun, persisted or ended since the last scan. Bodies are mapped onto the Entities by the handle stored in their UserIndex. Contacts with the FrozenPile are reported against its handle; the pile is static, so it never matches, but the Entities resting on it do. */
+    public final void scan(final btDispatcher pDispatcher, final Array<PhysicsEntity> pEntities, final FrozenPile pFrozenPile, final ContactEventBuffer pContactEventBuffer) {
+        // Swap the buffers; the current pairs become the previous.
+        final long[] lBuffer = this.mPrevious;
+        this.mPrevious       = this.mCurrent;
+        this.mPreviousCount  = this.mCurrentCount;
+        this.mCurrent        = lBuffer;
+        this.mCurrentCount   = 0;
+        this.mContacts       = 0;
+        // Fetch the native Dispatcher.
+        final long lDispatcher = btDispatcher.getCPtr(pDispatcher);
+        // Fetch the number of Manifolds.
+        final int  lManifolds  = CollisionJNI.btDispatcher_getNumManifolds(lDispatcher, pDispatcher);
+        // Iterate the Manifolds.
+        for(int i = 0; i < lManifolds; i++) {
+            // Point the view at the Manifold.
+            final ManifoldView lManifold = this.getManifoldView().wrap(CollisionJNI.btDispatcher_getManifoldByIndexInternal(lDispatcher, pDispatcher, i));
+            // Fetch the number of Contacts.
+            final int lContacts = lManifold.getNumContacts();
+            // Are the objects actually touching?
+            if(lContacts == 0) {
+                continue;
+            }
+            // Fetch the Handles. (Objects that aren't Entities keep Bullet's default UserIndex of -1.)
+            final int lHandle0 = CollisionJNI.btCollisionObject_getUserIndex(CollisionJNI.btPersistentManifold_getBody0(btPersistentManifold.getCPtr(lManifold), lManifold), null);
+            final int lHandle1 = CollisionJNI.btCollisionObject_getUserIndex(CollisionJNI.btPersistentManifold_getBody1(btPersistentManifold.getCPtr(lManifold), lManifold), null);
+            // Is either object the FrozenPile? (Only its partner may be an Entity.)
+            final boolean lIsPile0 = lHandle0 == FrozenPile.HANDLE_PILE;
+            final boolean lIsPile1 = lHandle1 == FrozenPile.HANDLE_PILE;
+            // Is each object an Entity, or the pile?
+            if((lHandle0 < 0 && !lIsPile0) || (lHandle1 < 0 && !lIsPile1) || (lIsPile0 && lIsPile1) || lHandle0 >= pEntities.size || lHandle1 >= pEntities.size) {
+                continue;
+            }
+            // Fetch the Entities. (The pile has none.)
+            final PhysicsEntity     lPhysicsEntity0   = lIsPile0 ? null : pEntities.get(lHandle0);
+            final PhysicsEntity     lPhysicsEntity1   = lIsPile1 ? null : pEntities.get(lHandle1);
+            // Fetch the CollisionObjects.
+            final btCollisionObject lCollisionObject0 = lIsPile0 ? pFrozenPile.getBody() : lPhysicsEntity0.getBody();
+            final btCollisionObject lCollisionObject1 = lIsPile1 ? pFrozenPile.getBody() : lPhysicsEntity1.getBody();
+            // Apply the callback filters. (The pile's Flag decides whether its partner matches, but the pile is never reported as a match itself.)
+            final boolean lIsMatch0 = !lIsPile0 && ContactTracker.isMatch(lCollisionObject0, lCollisionObject1);
+            final boolean lIsMatch1 = !lIsPile1 && ContactTracker.isMatch(lCollisionObject1, lCollisionObject0);
+            // Is either side interested in the contact?
+            if(!lIsMatch0 && !lIsMatch1) {
+                continue;
+            }
+            // Count the Contacts.
+            this.mContacts += lContacts;
+            // Track the pair.
+            this.add(ContactTracker.pack(lHandle0, lHandle1, lIsPile0 ? 0 : lPhysicsEntity0.getGeneration(), lIsPile1 ? 0 : lPhysicsEntity1.getGeneration(), lIsMatch0, lIsMatch1));
+        }
+        // Order the pairs so that they may be merged against the previous scan.
+        Arrays.sort(this.mCurrent, 0, this.mCurrentCount);
+        // Collapse the pairs that were found in several manifolds, such as those between the children of compound shapes.
+        int lUnique = 0;
+        for(int i = 0; i < this.mCurrentCount; i++) {
+            // Is this the first occurrence of the key?
+            if(lUnique == 0 || this.mCurrent[lUnique - 1] != this.mCurrent[i]) {
+                // Keep the key.
+                this.mCurrent[lUnique++] = this.mCurrent[i];
+            }
+        }
+        this.mCurrentCount = lUnique;
+        // Report the separations first; a recycled Entity's old contacts end before its new ones begin, since events carry no generation.
+        this.merge(pContactEventBuffer, true);
+        this.merge(pContactEventBuffer, false);
+    }
+
+    /** Merges the sorted pairs against those of the previous scan, and writes either the pairs which ended, or those which began and persisted. */
+    private final void merge(final ContactEventBuffer pContactEventBuffer, final boolean pIsEnded) {
+        // Declare the positions within each list.
+        int i = 0;
+        int j = 0;
+        while(i < this.mCurrentCount || j < this.mPreviousCount) {
+            // Fetch the next keys. (Long.MAX_VALUE is used as a sentinel for an exhausted list.)
+            final long lCurrent  = i < this.mCurrentCount  ? this.mCurrent[i]  : Long.MAX_VALUE;
+            final long lPrevious = j < this.mPreviousCount ? this.mPrevious[j] : Long.MAX_VALUE;
+            // Classify the pair.
+            if(lCurrent == lPrevious) {
+                // The pair was touching before, and still is.
+                if(!pIsEnded) {
+                    this.write(pContactEventBuffer, ContactEventBuffer.EVENT_PERSIST, lCurrent);
+                }
+                i++;
+                j++;
+            }
+            else if(lCurrent < lPrevious) {
+                // The pair has started touching.
+                if(!pIsEnded) {
+                    this.write(pContactEventBuffer, ContactEventBuffer.EVENT_BEGIN, lCurrent);
+                }
+                i++;
+            }
+            else {
+                // The pair has separated.
+                if(pIsEnded) {
+                    this.write(pContactEventBuffer, ContactEventBuffer.EVENT_END, lPrevious);
+                }
+                j++;
+            }
+        }
+    }
+
+    /** Forgets all tracked pairs; the next scan will report every touching pair as a new contact. */
+    public final void clear() {
+        // Reset the counts.
+        this.mCurrentCount  = 0;
+        this.mPreviousCount = 0;
+        this.mContacts      = 0;
+    }
+
+    /** Appends a key to the current pairs, growing the buffer if necessary. */
+    private final void add(final long pKey) {
+        // Is the buffer full?
+        if(this.mCurrentCount == this.mCurrent.length) {
+            // Grow the buffer.
+            this.mCurrent = Arrays.copyOf(this.mCurrent, this.mCurrent.length << 1);
+        }
+        // Append the key.
+        this.mCurrent[this.mCurrentCount++] = pKey;
+    }
+
+    /** Unpacks a key into the ContactEventBuffer. */
+    private final void write(final ContactEventBuffer pContactEventBuffer, final int pType, final long pKey) {
+        // Split the key into its sides.
+        final long lLow  = (pKey >>> 32) & ContactTracker.MASK_SIDE;
+        final long lHigh = pKey & ContactTracker.MASK_SIDE;
+        // Write the Event.
+        pContactEventBuffer.write(pType, ContactTracker.handle(lLow), ContactTracker.handle(lHigh), ((lLow >>> ContactTracker.SHIFT_MATCH) & 1L) != 0, ((lHigh >>> ContactTracker.SHIFT_MATCH) & 1L) != 0);
+    }
+
+    /* Getters. */
+    private final ManifoldView getManifoldView() {
+        return this.mManifoldView;
+    }
+
+    public final int getPairs() {
+        return this.mCurrentCount;
+    }
+
+    public final int getContacts() {
+        return this.mContacts;
+    }
+
+}
@@ -0,0 +1,132 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.btCompoundShape;
+import com.badlogic.gdx.physics.bullet.dynamics.btDynamicsWorld;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+
+/** A single static body, built from the shapes of Entities that have come to rest. Frozen Entities leave the DynamicsWorld, and their shapes are baked into a compound at their final Transforms; so however large the pile grows, the solver sees one static object. Each change bumps the generation, so that renderers know when to rebuild their merged geometry. */
+public final class FrozenPile implements Disposable {
+
+    /* Static Declarations. */
+    /** The handle carried by the pile's UserValue and UserIndex; negative, so it's never mistaken for an Entity. */
+    public  static final int HANDLE_PILE = -2;
+
+    /* Member Variables. */
+    private final btCompoundShape                         mCompoundShape;
+    private final btRigidBody.btRigidBodyConstructionInfo mConstructionInfo;
+    private final btRigidBody                             mBody;
+    private final Array<PhysicsEntity>                    mEntities;
+    private       boolean                                 mAdded;
+    private       long                                    mGeneration;
+
+    /** Constructor. */
+    public FrozenPile() {
+        // Allocate the Compound; the dynamic AABB tree keeps collision against a large pile cheap.
+        this.mCompoundShape    = NativeRegistry.track(new btCompoundShape(true));
+        this.mConstructionInfo = NativeRegistry.track(new btRigidBody.btRigidBodyConstructionInfo(0.0f, null, this.getCompoundShape(), Vector3.Zero));
+        this.mEntities         = new Array<PhysicsEntity>();
+        this.mAdded            = false;
+        this.mGeneration       = 0L;
+        // gdx-bullet registers every wrapped CollisionObject in a process-wide map, which isn't thread-safe.
+        synchronized(PhysicsEntity.LOCK_REGISTRY) {
+            // Allocate the Body.
+            this.mBody = NativeRegistry.track(new btRigidBody(this.getConstructionInfo()));
+        }
+        // Mark the Body as something other than an Entity.
+        this.getBody().setUserValue(FrozenPile.HANDLE_PILE);
+        this.getBody().setUserIndex(FrozenPile.HANDLE_PILE);
+        // Behave like the Floor for contact callbacks; Entities landing on the pile match, whilst the pile itself never does.
+        this.getBody().setContactCallbackFlag(PhysicsSimulation.GROUND_FLAG);
+        this.getBody().setContactCallbackFilter(0);
+    }
+
+    /** Bakes an Entity into the pile at its current Transform. The Entity's Body must already have been removed from the DynamicsWorld; changes take effect on commit. */
+    final void add(final PhysicsEntity pPhysicsEntity) {
+        // Add the Entity's shape. (Shapes are owned by the Builders, which outlive the pile.)
+        this.getCompoundShape().addChildShape(pPhysicsEntity.getWorldTransform(), pPhysicsEntity.getBody().getCollisionShape());
+        // Track the Entity.
+        this.getEntities().add(pPhysicsEntity);
+    }
+
+    /** Publishes the changes made since the last commit to the DynamicsWorld. The Group and Mask place the pile on a collision layer when it's first added. */
+    final void commit(final btDynamicsWorld pDynamicsWorld, final short pGroup, final short pMask) {
+        // Is the pile yet to be placed?
+        if(!this.mAdded) {
+            // Is there anything to place?
+            if(this.getEntities().size > 0) {
+                // Add the pile as a static Body.
+                pDynamicsWorld.addRigidBody(this.getBody(), pGroup, pMask);
+                this.mAdded = true;
+            }
+        }
+        else {
+            // Static Bodies aren't refreshed by the broadphase, so update the bounds of the grown Compound.
+            pDynamicsWorld.updateSingleAabb(this.getBody());
+        }
+        // Bump the Generation.
+        this.mGeneration++;
+    }
+
+    /** Empties the pile, and removes it from the DynamicsWorld. The Entities are forgotten; it's the caller's responsibility to recycle them. */
+    final void clear(final btDynamicsWorld pDynamicsWorld) {
+        // Iterate the children in reverse, since removal swaps the last child into place.
+        for(int i = this.getCompoundShape().getNumChildShapes() - 1; i >= 0; i--) {
+            // Remove the child.
+            this.getCompoundShape().removeChildShapeByIndex(i);
+        }
+        // Is the pile in the DynamicsWorld?
+        if(this.mAdded) {
+            // Remove the pile.
+            pDynamicsWorld.removeRigidBody(this.getBody());
+            this.mAdded = false;
+        }
+        // Forget the Entities.
+        this.getEntities().clear();
+        // Bump the Generation.
+        this.mGeneration++;
+    }
+
+    /** Releases the pile. It must already have been removed from the DynamicsWorld. */
+    @Override public final void dispose() {
+        // Disposal unregisters the Body from gdx-bullet's process-wide map.
+        synchronized(PhysicsEntity.LOCK_REGISTRY) {
+            // Dispose of the Body.
+            NativeRegistry.dispose(this.getBody());
+        }
+        // Dispose of dependencies.
+        NativeRegistry.dispose(this.getConstructionInfo());
+        NativeRegistry.dispose(this.getCompoundShape());
+    }
+
+    /* Getters. */
+    private final btCompoundShape getCompoundShape() {
+        return this.mCompoundShape;
+    }
+
+    private final btRigidBody.btRigidBodyConstructionInfo getConstructionInfo() {
+        return this.mConstructionInfo;
+    }
+
+    public final btRigidBody getBody() {
+        return this.mBody;
+    }
+
+    /** Returns the frozen Entities. Their Bodies aren't simulated, but their renderable Transforms remain valid. */
+    public final Array<PhysicsEntity> getEntities() {
+        return this.mEntities;
+    }
+
+    public final boolean isAdded() {
+        return this.mAdded;
+    }
+
+    public final long getGeneration() {
+        return this.mGeneration;
+    }
+
+}
@@ -0,0 +1,270 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.physics.bullet.BulletBase;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btCompoundShape;
+import com.badlogic.gdx.physics.bullet.collision.btConvexHullShape;
+import com.badlogic.gdx.physics.bullet.collision.btDefaultCollisionConfiguration;
+import com.badlogic.gdx.physics.bullet.dynamics.btDynamicsWorld;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+
+/** A process-wide ledger of the native objects that the scene allocates. Objects are tracked as they're created and disposed of through the registry, which counts the live objects of each type and estimates the native memory they hold; so a long session, or many simulations created and destroyed in turn, can be checked for a flat native footprint. Disposal through the registry also catches the mistakes that crash Bullet rather than leak: an object disposed of twice is counted and skipped, and a CollisionObject disposed of whilst it's still in a DynamicsWorld is reported. The byte estimates are approximate; they're for spotting growth, not for budgeting. Safe to use from any thread. */
+public final class NativeRegistry {
+
+    /* Static Declarations. */
+    private static final NativeRegistry                     REGISTRY        = new NativeRegistry();
+    private static final String                             TAG             = "NativeRegistry";
+    private static final int                                SIZE_DEFAULT    = 128;
+    private static final int                                SIZE_BODY       = 640;
+    private static final int                                SIZE_WORLD      = 1024;
+    private static final int                                SIZE_HULL       = 128;
+    private static final int                                SIZE_POINT      = 16;
+    private static final int                                SIZE_COMPOUND   = 128;
+    private static final int                                SIZE_CHILD      = 96;
+    /** The default CollisionConfiguration preallocates pools of 4096 persistent manifolds and collision algorithms. */
+    private static final int                                SIZE_POOLS      = 4 * 1024 * 1024;
+    private static final int                                SIZE_INDEX      = 2;
+
+    /* Member Variables. */
+    private final IdentityHashMap<Object, Integer> mLive;
+    private final ObjectIntMap<String>             mCounts;
+    private final ObjectIntMap<String>             mTypeBytes;
+    private       long                             mBytes;
+    private       long                             mPeakBytes;
+    private       long                             mTracked;
+    private       int                              mDoubleDisposed;
+    private       int                              mAttached;
+
+    /** Constructor. There's a single registry, since gdx-bullet's own registry is process-wide. */
+    private NativeRegistry() {
+        // Initialize Member Variables.
+        this.mLive           = new IdentityHashMap<Object, Integer>();
+        this.mCounts         = new ObjectIntMap<String>();
+        this.mTypeBytes      = new ObjectIntMap<String>();
+        this.mBytes          = 0L;
+        this.mPeakBytes      = 0L;
+        this.mTracked        = 0L;
+        this.mDoubleDisposed = 0;
+        this.mAttached       = 0;
+    }
+
+    /** Tracks a native object, estimating its size from its type. Returns the object. */
+    public static final <T extends Disposable> T track(final T pDisposable) {
+        // Estimate the object's size.
+        return NativeRegistry.track(pDisposable, NativeRegistry.estimate(pDisposable));
+    }
+
+    /** Tracks a native object of a known size, in bytes. Returns the object. */
+    public static final <T extends Disposable> T track(final T pDisposable, final int pBytes) {
+        // Fetch the type.
+        final String lType = pDisposable.getClass().getSimpleName();
+        synchronized(NativeRegistry.REGISTRY) {
+            // Is the object already tracked?
+            if(NativeRegistry.REGISTRY.mLive.containsKey(pDisposable)) {
+                return pDisposable;
+            }
+            // Track the object.
+            NativeRegistry.REGISTRY.mLive.put(pDisposable, pBytes);
+            NativeRegistry.REGISTRY.mCounts.getAndIncrement(lType, 0, 1);
+            NativeRegistry.REGISTRY.mTypeBytes.getAndIncrement(lType, 0, pBytes);
+            // Account for the object.
+            NativeRegistry.REGISTRY.mBytes    += pBytes;
+            NativeRegistry.REGISTRY.mPeakBytes = Math.max(NativeRegistry.REGISTRY.mPeakBytes, NativeRegistry.REGISTRY.mBytes);
+            NativeRegistry.REGISTRY.mTracked++;
+        }
+        // Return the object.
+        return pDisposable;
+    }
+
+    /** Disposes of an object, and stops tracking it. Objects which have already been disposed of are skipped; untracked objects are simply disposed of. A null object is ignored. */
+    public static final void dispose(final Disposable pDisposable) {
+        // Is there anything to dispose of?
+        if(pDisposable == null) {
+            return;
+        }
+        // Has the wrapper already been disposed of?
+        if(pDisposable instanceof BulletBase && ((BulletBase)pDisposable).isDisposed()) {
+            // Count the mistake, rather than hand Bullet a freed pointer.
+            synchronized(NativeRegistry.REGISTRY) {
+                NativeRegistry.REGISTRY.mDoubleDisposed++;
+            }
+            NativeRegistry.onError("A " + pDisposable.getClass().getSimpleName() + " was disposed of twice.");
+            return;
+        }
+        // Is the CollisionObject still in a DynamicsWorld? (Bullet would be left stepping freed memory.)
+        if(pDisposable instanceof btCollisionObject && ((btCollisionObject)pDisposable).getBroadphaseHandle() != null) {
+            // Count the mistake; there's no world to remove it from here.
+            synchronized(NativeRegistry.REGISTRY) {
+                NativeRegistry.REGISTRY.mAttached++;
+            }
+            NativeRegistry.onError("A " + pDisposable.getClass().getSimpleName() + " was disposed of whilst still in a DynamicsWorld.");
+        }
+        // Stop tracking the object.
+        NativeRegistry.release(pDisposable);
+        // Dispose of the object.
+        pDisposable.dispose();
+    }
+
+    /** Stops tracking an object without disposing of it; for objects whose ownership passes to something that disposes of them itself. */
+    public static final void release(final Disposable pDisposable) {
+        // Fetch the type.
+        final String lType = pDisposable.getClass().getSimpleName();
+        synchronized(NativeRegistry.REGISTRY) {
+            // Forget the object; was it tracked?
+            final Integer lBytes = NativeRegistry.REGISTRY.mLive.remove(pDisposable);
+            if(lBytes == null) {
+                return;
+            }
+            // Release the accounting.
+            NativeRegistry.REGISTRY.mCounts.getAndIncrement(lType, 0, -1);
+            NativeRegistry.REGISTRY.mTypeBytes.getAndIncrement(lType, 0, -lBytes);
+            NativeRegistry.REGISTRY.mBytes -= lBytes;
+        }
+    }
+
+    /** Estimates the native memory held by an object, in bytes. */
+    private static final int estimate(final Disposable pDisposable) {
+        // Hulls hold a copy of their points.
+        if(pDisposable instanceof btConvexHullShape) {
+            return NativeRegistry.SIZE_HULL + ((btConvexHullShape)pDisposable).getNumPoints() * NativeRegistry.SIZE_POINT;
+        }
+        // Compounds hold a record, and a node of their tree, per child.
+        if(pDisposable instanceof btCompoundShape) {
+            return NativeRegistry.SIZE_COMPOUND + ((btCompoundShape)pDisposable).getNumChildShapes() * NativeRegistry.SIZE_CHILD;
+        }
+        // Bodies are the bulk of a scene.
+        if(pDisposable instanceof btRigidBody) {
+            return NativeRegistry.SIZE_BODY;
+        }
+        if(pDisposable instanceof btDynamicsWorld) {
+            return NativeRegistry.SIZE_WORLD;
+        }
+        if(pDisposable instanceof btDefaultCollisionConfiguration) {
+            return NativeRegistry.SIZE_POOLS;
+        }
+        // Models hold the vertices and indices of their Meshes.
+        if(pDisposable instanceof Model) {
+            // Declare the size.
+            int lBytes = 0;
+            // Iterate the Meshes.
+            for(final Mesh lMesh : ((Model)pDisposable).meshes) {
+                // Accumulate the buffers.
+                lBytes += lMesh.getNumVertices() * lMesh.getVertexSize() + lMesh.getNumIndices() * NativeRegistry.SIZE_INDEX;
+            }
+            // Return the size.
+            return lBytes;
+        }
+        // Assume a small object.
+        return NativeRegistry.SIZE_DEFAULT;
+    }
+
+    /** Reports a misuse. */
+    private static final void onError(final String pMessage) {
+        // Is there an Application to log to?
+        if(Gdx.app != null) {
+            Gdx.app.error(NativeRegistry.TAG, pMessage);
+        }
+        else {
+            System.err.println(NativeRegistry.TAG + ": " + pMessage);
+        }
+    }
+
+    /** Formats the live objects of each type, and the bytes they're estimated to hold; one line per type, largest first. */
+    public static final String report() {
+        // Allocate the StringBuilder.
+        final StringBuilder lStringBuilder = new StringBuilder();
+        synchronized(NativeRegistry.REGISTRY) {
+            // Fetch the types which are still live.
+            final Array<String> lTypes = new Array<String>();
+            for(final ObjectIntMap.Entry<String> lEntry : NativeRegistry.REGISTRY.mCounts.entries()) {
+                if(lEntry.value > 0) {
+                    lTypes.add(lEntry.key);
+                }
+            }
+            // Order the types by their estimated size.
+            lTypes.sort(new Comparator<String>() { @Override public final int compare(final String pA, final String pB) {
+                return NativeRegistry.REGISTRY.mTypeBytes.get(pB, 0) - NativeRegistry.REGISTRY.mTypeBytes.get(pA, 0);
+            } });
+            // Iterate the types.
+            for(final String lType : lTypes) {
+                // Write the type.
+                lStringBuilder.append(String.format("%-40s %8d %12d", lType, NativeRegistry.REGISTRY.mCounts.get(lType, 0), NativeRegistry.REGISTRY.mTypeBytes.get(lType, 0))).append('\n');
+            }
+            // Write the totals.
+            lStringBuilder.append(String.format("%d live (%d bytes, peak %d) of %d tracked; %d disposed of twice, %d disposed of whilst in a world", NativeRegistry.REGISTRY.mLive.size(), NativeRegistry.REGISTRY.mBytes, NativeRegistry.REGISTRY.mPeakBytes, NativeRegistry.REGISTRY.mTracked, NativeRegistry.REGISTRY.mDoubleDisposed, NativeRegistry.REGISTRY.mAttached));
+        }
+        // Return the report.
+        return lStringBuilder.toString();
+    }
+
+    /** Logs the objects which are still live; call this once everything should have been disposed of. Returns the number of leaked objects. */
+    public static final int reportLeaks() {
+        // Fetch the number of live objects.
+        final int lLive = NativeRegistry.getLive();
+        // Has anything leaked?
+        if(lLive > 0 || NativeRegistry.getDoubleDisposed() > 0 || NativeRegistry.getAttached() > 0) {
+            // Report the leaks.
+            NativeRegistry.onError("Native objects outlived their owners:\n" + NativeRegistry.report());
+        }
+        // Return the number of leaked objects.
+        return lLive;
+    }
+
+    /* Getters. */
+    /** Returns the number of tracked objects which are still live. */
+    public static final int getLive() {
+        synchronized(NativeRegistry.REGISTRY) {
+            return NativeRegistry.REGISTRY.mLive.size();
+        }
+    }
+
+    /** Returns the number of live objects of a type, by its simple name. */
+    public static final int getLive(final String pType) {
+        synchronized(NativeRegistry.REGISTRY) {
+            return NativeRegistry.REGISTRY.mCounts.get(pType, 0);
+        }
+    }
+
+    /** Returns the estimated native memory held by the live objects, in bytes. */
+    public static final long getBytes() {
+        synchronized(NativeRegistry.REGISTRY) {
+            return NativeRegistry.REGISTRY.mBytes;
+        }
+    }
+
+    public static final long getPeakBytes() {
+        synchronized(NativeRegistry.REGISTRY) {
+            return NativeRegistry.REGISTRY.mPeakBytes;
+        }
+    }
+
+    /** Returns the number of objects that have ever been tracked. */
+    public static final long getTracked() {
+        synchronized(NativeRegistry.REGISTRY) {
+            return NativeRegistry.REGISTRY.mTracked;
+        }
+    }
+
+    public static final int getDoubleDisposed() {
+        synchronized(NativeRegistry.REGISTRY) {
+            return NativeRegistry.REGISTRY.mDoubleDisposed;
+        }
+    }
+
+    /** Returns the number of CollisionObjects that were disposed of whilst still in a DynamicsWorld. */
+    public static final int getAttached() {
+        synchronized(NativeRegistry.REGISTRY) {
+            return NativeRegistry.REGISTRY.mAttached;
+        }
+    }
+
+}
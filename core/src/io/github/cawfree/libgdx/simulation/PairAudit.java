@@ -0,0 +1,49 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.physics.bullet.collision.btBroadphaseProxy;
+import com.badlogic.gdx.physics.bullet.collision.btOverlapFilterCallback;
+
+/** Counts the pairs that the broadphase proposes, and how many of them the collision layers reject. It applies exactly the same group and mask test as Bullet's default filter, so installing it doesn't change the simulation; but every candidate pair costs a call into Java, so it's meant for measurement rather than for shipping. The counts accumulate until they're reset. */
+public final class PairAudit extends btOverlapFilterCallback {
+
+    /* Member Variables. */
+    private int mTested;
+    private int mRejected;
+
+    /** Constructor. */
+    public PairAudit() {
+        // Initialize Member Variables.
+        this.mTested   = 0;
+        this.mRejected = 0;
+    }
+
+    /** Decides whether the broadphase should keep a pair of overlapping proxies. */
+    @Override public final boolean needBroadphaseCollision(final btBroadphaseProxy pProxy0, final btBroadphaseProxy pProxy1) {
+        // Apply the layer matrix in both directions.
+        final boolean lIsCollides = (pProxy0.getCollisionFilterGroup() & pProxy1.getCollisionFilterMask()) != 0 && (pProxy1.getCollisionFilterGroup() & pProxy0.getCollisionFilterMask()) != 0;
+        // Count the pair.
+        this.mTested++;
+        this.mRejected += lIsCollides ? 0 : 1;
+        // Return the decision.
+        return lIsCollides;
+    }
+
+    /** Forgets the counted pairs. */
+    public final void reset() {
+        // Reset the counts.
+        this.mTested   = 0;
+        this.mRejected = 0;
+    }
+
+    /* Getters. */
+    /** Returns the number of candidate pairs that have been tested. */
+    public final int getTested() {
+        return this.mTested;
+    }
+
+    /** Returns the number of candidate pairs that the layers have rejected. */
+    public final int getRejected() {
+        return this.mRejected;
+    }
+
+}
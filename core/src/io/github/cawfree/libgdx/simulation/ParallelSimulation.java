@@ -0,0 +1,153 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/** Steps a batch of isolated PhysicsSimulations across every available core. The worlds share the Builders and Model of a single compiled template, so the collision shapes and construction info exist only once, whilst each world owns its own DynamicsWorld and Entities. */
+public final class ParallelSimulation implements Disposable {
+
+    /** Summarizes a single world's run. */
+    public static final class Result {
+        /* Member Variables. */
+        private final int  mWorld;
+        private final int  mSteps;
+        private final int  mLiveBodies;
+        private final int  mPairs;
+        private final long mContactEvents;
+        private final long mNanos;
+        /** Constructor. */
+        private Result(final int pWorld, final int pSteps, final int pLiveBodies, final int pPairs, final long pContactEvents, final long pNanos) {
+            // Initialize Member Variables.
+            this.mWorld         = pWorld;
+            this.mSteps         = pSteps;
+            this.mLiveBodies    = pLiveBodies;
+            this.mPairs         = pPairs;
+            this.mContactEvents = pContactEvents;
+            this.mNanos         = pNanos;
+        }
+        /* Getters. */
+        public final int          getWorld() { return this.mWorld;         }
+        public final int          getSteps() { return this.mSteps;         }
+        public final int     getLiveBodies() { return this.mLiveBodies;    }
+        public final int          getPairs() { return this.mPairs;         }
+        public final long getContactEvents() { return this.mContactEvents; }
+        public final long         getNanos() { return this.mNanos;         }
+    }
+
+    /* Member Variables. */
+    private final Array<PhysicsSimulation> mWorlds;
+    private final ExecutorService          mExecutorService;
+
+    /** Constructor. Creates the specified number of worlds from a compiled template, to be stepped on the specified number of threads. The template is not stepped, and must outlive this ParallelSimulation. */
+    public ParallelSimulation(final PhysicsSimulation pTemplate, final int pWorlds, final int pThreads) {
+        // Initialize Member Variables.
+        this.mWorlds          = new Array<PhysicsSimulation>(pWorlds);
+        this.mExecutorService = Executors.newFixedThreadPool(pThreads, new ThreadFactory() { private int mCount = 0; @Override public final Thread newThread(final Runnable pRunnable) {
+            // Allocate a named daemon Thread, so that an abandoned batch can't keep the process alive.
+            final Thread lThread = new Thread(pRunnable, "physics-" + (this.mCount++));
+            lThread.setDaemon(true);
+            // Return the Thread.
+            return lThread;
+        } });
+        // Construct the worlds. (This is done up front and on a single thread, since Bullet's global state is configured as each world is built.)
+        for(int i = 0; i < pWorlds; i++) {
+            // Allocate an isolated PhysicsSimulation.
+            final PhysicsSimulation lPhysicsSimulation = new PhysicsSimulation(pTemplate);
+            // Prepare the Pools and the ground.
+            lPhysicsSimulation.compile();
+            // Track the world.
+            this.getWorlds().add(lPhysicsSimulation);
+        }
+    }
+
+    /** Constructor. Uses a thread for every available core. */
+    public ParallelSimulation(final PhysicsSimulation pTemplate, final int pWorlds) {
+        // Use every core.
+        this(pTemplate, pWorlds, Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Advances every world by the specified number of fixed timesteps, and blocks until they have all finished. Results are returned in world order. */
+    public final Array<Result> run(final int pSteps) {
+        // Declare the tasks.
+        final List<Callable<Result>> lTasks = new ArrayList<Callable<Result>>(this.getWorlds().size);
+        // Iterate the worlds.
+        for(int i = 0; i < this.getWorlds().size; i++) {
+            // Wrap the world in a task.
+            lTasks.add(this.onCreateTask(i, this.getWorlds().get(i), pSteps));
+        }
+        // Allocate the Results.
+        final Array<Result> lResults = new Array<Result>(this.getWorlds().size);
+        try {
+            // Step the worlds, and collect the Results.
+            for(final Future<Result> lFuture : this.getExecutorService().invokeAll(lTasks)) {
+                // Buffer the Result.
+                lResults.add(lFuture.get());
+            }
+        }
+        catch(final InterruptedException pInterruptedException) {
+            // Preserve the interrupt.
+            Thread.currentThread().interrupt();
+        }
+        catch(final ExecutionException pExecutionException) {
+            // Propagate the failure of the world.
+            throw new IllegalStateException("A world failed to step.", pExecutionException.getCause());
+        }
+        // Return the Results.
+        return lResults;
+    }
+
+    /** Creates the task which steps a single world. Each world is only ever touched by one thread at a time. */
+    private final Callable<Result> onCreateTask(final int pWorld, final PhysicsSimulation pPhysicsSimulation, final int pSteps) {
+        // Allocate the task.
+        return new Callable<Result>() { @Override public final Result call() {
+            // Nothing renders these worlds.
+            pPhysicsSimulation.setAutoSync(false);
+            // Declare the number of contact events produced.
+            long lContactEvents = 0L;
+            // Fetch the start time.
+            final long lStart = System.nanoTime();
+            // Step the world.
+            for(int i = 0; i < pSteps; i++) {
+                // Elapse a single step.
+                pPhysicsSimulation.step();
+                // Consume the contact events, so that the buffer never saturates.
+                lContactEvents += pPhysicsSimulation.getContactEventBuffer().getPending();
+                pPhysicsSimulation.getContactEventBuffer().clear();
+            }
+            // Return the Result.
+            return new Result(pWorld, pSteps, pPhysicsSimulation.getLiveBodies(), pPhysicsSimulation.getContactTracker().getPairs(), lContactEvents, System.nanoTime() - lStart);
+        } };
+    }
+
+    /** Stops the threads, and disposes of every world. The template is left untouched. */
+    @Override public final void dispose() {
+        // Stop accepting work.
+        this.getExecutorService().shutdown();
+        // Iterate the worlds.
+        for(final PhysicsSimulation lPhysicsSimulation : this.getWorlds()) {
+            // Dispose of the world.
+            lPhysicsSimulation.dispose();
+        }
+        // Forget the worlds.
+        this.getWorlds().clear();
+    }
+
+    /* Getters. */
+    public final Array<PhysicsSimulation> getWorlds() {
+        return this.mWorlds;
+    }
+
+    private final ExecutorService getExecutorService() {
+        return this.mExecutorService;
+    }
+
+}
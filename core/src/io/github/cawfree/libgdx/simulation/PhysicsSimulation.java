@@ -0,0 +1,1143 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.Bullet;
+import com.badlogic.gdx.physics.bullet.collision.Collision;
+import com.badlogic.gdx.physics.bullet.collision.ContactListener;
+import com.badlogic.gdx.physics.bullet.collision.btBroadphaseInterface;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionConfiguration;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionDispatcher;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btDefaultCollisionConfiguration;
+import com.badlogic.gdx.physics.bullet.collision.btDispatcher;
+import com.badlogic.gdx.physics.bullet.dynamics.btConstraintSolver;
+import com.badlogic.gdx.physics.bullet.dynamics.btDiscreteDynamicsWorld;
+import com.badlogic.gdx.physics.bullet.dynamics.btDynamicsWorld;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.physics.bullet.dynamics.btSequentialImpulseConstraintSolver;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ArrayMap;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Random;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+import io.github.cawfree.libgdx.entity.PhysicsEntityPool;
+
+/** A self-contained Bullet simulation. Owns the DynamicsWorld, the Builder registry and the live PhysicsEntities, and makes no graphics calls; so it can be stepped at full speed without a GL context. Isolated simulations borrow the Builders and Model of a compiled template, and may be stepped concurrently with one another. */
+public final class PhysicsSimulation implements Disposable {
+
+    /* Static Declarations. */
+    public  static final short GROUND_FLAG        = (1 << 8);
+    public  static final short OBJECT_FLAG        = (1 << 9);
+    public  static final float FRAMES_PER_SECOND  = 60.0f;
+    /** The default fixed timestep; see setTimeStep(). */
+    public  static final float TIME_STEP          = (1.0f / PhysicsSimulation.FRAMES_PER_SECOND);
+    private static final int   MAX_SUB_STEPS      = 5;
+    private static final float DELAY_RESPAWN_MS   = 1.5f;
+    public  static final float DEFAULT_SPAWN_INTERVAL = PhysicsSimulation.DELAY_RESPAWN_MS;
+    private static final int   RESERVED_BODIES    = 2;
+
+    /* Lifecycle Defaults. */
+    public  static final int   DEFAULT_MAXIMUM_BODIES = 256;
+    public  static final int   DEFAULT_POOL_CAPACITY  = 16;
+    public  static final float DEFAULT_FLOOR_LIMIT    = -10.0f;
+    public  static final float DEFAULT_REST_TIMEOUT   = 30.0f;
+    public  static final int   DEFAULT_CONTACT_EVENTS = 1024;
+    public  static final float DEFAULT_FREEZE_TIMEOUT = 0.0f;
+    public  static final int   DEFAULT_MAXIMUM_FROZEN = 512;
+
+    /* Object Definitions. */
+    public  static final String KEY_OBJECT_GROUND   = "ground";
+    public  static final String KEY_OBJECT_SPHERE   = "sphere";
+    public  static final String KEY_OBJECT_BOX      = "box";
+    public  static final String KEY_OBJECT_CONE     = "cone";
+    public  static final String KEY_OBJECT_CYLINDER = "cylinder";
+    public  static final String KEY_OBJECT_CAPSULE  = "capsule";
+    public  static final String KEY_OBJECT_SHIP     = "ship";
+    public  static final String KEY_OBJECT_SPINNER  = "spinner";
+
+    /* Member Variables. */
+    private final boolean                                    mHeadless;
+    private final boolean                                    mIsolated;
+    private final WorldConfiguration                         mConfiguration;
+    private final Array<PhysicsEntity>                       mInstances;
+    private final Array<PhysicsEntity>                       mEntities;
+    private final ArrayMap<String, PhysicsEntity.Builder<?>> mConstructors;
+    private final ArrayMap<String, PhysicsEntityPool>        mPools;
+    private final ArrayMap<String, Model>                    mModels;
+    private       PhysicsEntity                              mGround;
+    private       float                                      mSpawnTimer;
+    private       float                                      mSpawnInterval;
+    private       SolverProfile                              mSolverProfile;
+    private       SolverGovernor                             mSolverGovernor;
+    private       StepController                             mStepController;
+    private       float                                      mTimeStep;
+    private       boolean                                    mInterpolated;
+    private       int                                        mMovingSteps;
+    private       PairAudit                                  mPairAudit;
+    private       Random                                     mRandom;
+    private       long                                       mSeed;
+    private       ReplayLog                                  mReplayLog;
+    private       int                                        mMaximumBodies;
+    private       int                                        mPoolCapacity;
+    private       float                                      mFloorLimit;
+    private       float                                      mRestTimeout;
+    private       float                                      mFreezeTimeout;
+    private       int                                        mMaximumFrozen;
+    private       ContactMode                                mContactMode;
+    private       SyncMode                                   mSyncMode;
+    private       boolean                                    mAutoSync;
+    private final Vector3                                    mMinimum;
+    private final Vector3                                    mMaximum;
+    private final Quaternion                                 mRotation;
+    private final Matrix4                                    mSpawnTransform;
+    private final IntArray                                   mDirty;
+    private final Bits                                       mDirtyBits;
+    private final IntArray                                   mMoving;
+    private final Vector3                                    mFrom;
+    private final Vector3                                    mTo;
+    private final Quaternion                                 mFromRotation;
+    private final Quaternion                                 mToRotation;
+    private final ContactEventBuffer                         mContactEventBuffer;
+    private final ContactTracker                             mContactTracker;
+    private final SimulationStatistics                       mStatistics;
+    private final FrozenPile                                 mFrozenPile;
+
+    /* Bullet Physics Dependencies. */
+    private final btCollisionConfiguration mCollisionConfig;
+    private final btDispatcher             mDispatcher;
+    private final btBroadphaseInterface    mBroadphaseInterface;
+    private final btConstraintSolver       mConstraintsSolver;
+    private final btDynamicsWorld          mDynamicsWorld;
+    private final ContactListener          mContactListener;
+
+    /** Constructor. When headless, compiled Models carry no geometry and require no GL context. */
+    public PhysicsSimulation(final boolean pIsHeadless) {
+        // Use the default WorldConfiguration.
+        this(pIsHeadless, new WorldConfiguration());
+    }
+
+    /** Constructor. The DynamicsWorld is assembled as described by the WorldConfiguration. */
+    public PhysicsSimulation(final boolean pIsHeadless, final WorldConfiguration pWorldConfiguration) {
+        // Implement the Owning Constructor.
+        this(pIsHeadless, pWorldConfiguration, false);
+    }
+
+    /** Constructor. Creates an isolated simulation which shares the compiled Builders and Model of the template, so the collision shapes and construction info are never duplicated. The template must outlive the simulation. Isolated simulations detach their Entities' MotionStates and only report contacts through the ContactEventBuffer, which makes it safe to step several of them at once. */
+    public PhysicsSimulation(final PhysicsSimulation pTemplate) {
+        // Implement the Isolated Constructor.
+        this(pTemplate.isHeadless(), pTemplate.getConfiguration(), true);
+        // Borrow the Builders and their Models.
+        this.getConstructors().putAll(pTemplate.getConstructors());
+        this.getModels().putAll(pTemplate.getModels());
+        // Inherit the lifecycle configuration.
+        this.setMaximumBodies(pTemplate.getMaximumBodies());
+        this.mPoolCapacity  = pTemplate.getPoolCapacity();
+        this.mFloorLimit    = pTemplate.getFloorLimit();
+        this.mRestTimeout   = pTemplate.getRestTimeout();
+        this.mFreezeTimeout = pTemplate.getFreezeTimeout();
+        this.mMaximumFrozen = pTemplate.getMaximumFrozen();
+        this.mSpawnInterval = pTemplate.getSpawnInterval();
+        // Solve as the template currently does.
+        this.setSolverProfile(pTemplate.getSolverProfile());
+    }
+
+    /** Constructor. */
+    private PhysicsSimulation(final boolean pIsHeadless, final WorldConfiguration pWorldConfiguration, final boolean pIsIsolated) {
+        // Assert that we want to use Bullet Physics.
+        Bullet.init();
+        // Initialize Member Variables.
+        this.mHeadless      = pIsHeadless;
+        this.mIsolated      = pIsIsolated;
+        this.mConfiguration = pWorldConfiguration;
+        this.mInstances     = new Array<PhysicsEntity>();
+        this.mEntities      = new Array<PhysicsEntity>();
+        this.mConstructors  = new ArrayMap<String, PhysicsEntity.Builder<?>>(String.class, PhysicsEntity.Builder.class);
+        this.mPools         = new ArrayMap<String, PhysicsEntityPool>(String.class, PhysicsEntityPool.class);
+        this.mModels        = new ArrayMap<String, Model>(String.class, Model.class);
+        this.mSpawnTimer    = 0.0f;
+        this.mSpawnInterval = PhysicsSimulation.DEFAULT_SPAWN_INTERVAL;
+        this.mSolverGovernor = null;
+        this.mStepController = null;
+        this.mTimeStep       = PhysicsSimulation.TIME_STEP;
+        this.mInterpolated   = false;
+        this.mMovingSteps    = 1;
+        this.mPairAudit      = null;
+        this.mRandom         = MathUtils.random;
+        this.mSeed           = 0L;
+        this.mReplayLog      = null;
+        this.setMaximumBodies(PhysicsSimulation.DEFAULT_MAXIMUM_BODIES);
+        this.mPoolCapacity  = PhysicsSimulation.DEFAULT_POOL_CAPACITY;
+        this.mFloorLimit    = PhysicsSimulation.DEFAULT_FLOOR_LIMIT;
+        this.mRestTimeout   = PhysicsSimulation.DEFAULT_REST_TIMEOUT;
+        this.mFreezeTimeout = PhysicsSimulation.DEFAULT_FREEZE_TIMEOUT;
+        this.mMaximumFrozen = PhysicsSimulation.DEFAULT_MAXIMUM_FROZEN;
+        this.mContactEventBuffer = new ContactEventBuffer(PhysicsSimulation.DEFAULT_CONTACT_EVENTS);
+        this.mContactTracker     = new ContactTracker();
+        this.mStatistics         = new SimulationStatistics();
+        this.mFrozenPile         = new FrozenPile();
+        this.mAutoSync           = true;
+        this.mMinimum            = new Vector3();
+        this.mMaximum            = new Vector3();
+        this.mRotation           = new Quaternion();
+        this.mSpawnTransform     = new Matrix4();
+        this.mDirty              = new IntArray();
+        this.mDirtyBits          = new Bits();
+        this.mMoving             = new IntArray();
+        this.mFrom               = new Vector3();
+        this.mTo                 = new Vector3();
+        this.mFromRotation       = new Quaternion();
+        this.mToRotation         = new Quaternion();
+        // Allocate the CollisionConfig; defines how to handle collisions within the scene.
+        this.mCollisionConfig = NativeRegistry.track(new btDefaultCollisionConfiguration());
+        // Allocate a CollisionDispatcher; this propagates collision events across the scene. We maintain a reference to ensure we may manually dispose of it later.
+        this.mDispatcher = NativeRegistry.track(new btCollisionDispatcher(this.getCollisionConfig()));
+        // Allocate the configured BroadphaseInterface.
+        this.mBroadphaseInterface = NativeRegistry.track(this.getConfiguration().createBroadphase());
+        // Allocate the ConstraintSolver.
+        this.mConstraintsSolver = NativeRegistry.track(new btSequentialImpulseConstraintSolver());
+        // Declare the DynamicsWorld based upon the declared components.
+        this.mDynamicsWorld = NativeRegistry.track(new btDiscreteDynamicsWorld(this.getDispatcher(), this.getBroadphaseInterface(), this.getConstraintSolver(), this.getCollisionConfig()));
+        // Configure the direction of Gravity in this world.
+        this.getDynamicsWorld().setGravity(new Vector3(0, -9.81f, 0));
+        // Configure the ConstraintSolver.
+        this.setSolverProfile(this.getConfiguration().getSolverProfile());
+        // Register this class as the ContactListener. For some reason, there's some `static` style configuration going on. (The ContactListener is process-wide, and constructing one enables it in place of any other; so isolated simulations, which only use the ContactEventBuffer, never allocate one.)
+        this.mContactListener = pIsIsolated ? null : NativeRegistry.track(new ContactListener() { @Override public final boolean onContactAdded(final int pUserValue0, final int pPartId0, final int pIndex0, final boolean pIsMatch0, final int pUserValue1, final int pPartId1, final int pIndex1, final boolean pIsMatch1) {
+            // Use this class' implementation.
+            return PhysicsSimulation.this.onContactAdded(pUserValue0, pPartId0, pIndex0, pIsMatch0, pUserValue1, pPartId1, pIndex1, pIsMatch1);
+        } });
+        // Report contacts through the event buffer by default.
+        this.setContactMode(ContactMode.MANIFOLD);
+        // Read back Transforms in bulk by default.
+        this.setSyncMode(SyncMode.BULK);
+    }
+
+    /** Selects how simulated Transforms are read back from Bullet. Must be called on the thread which steps the simulation. */
+    public final void setSyncMode(final SyncMode pSyncMode) {
+        // MotionState upcalls share gdx-bullet's static Matrix4, so they're unsafe in an isolated simulation.
+        if(this.isIsolated() && pSyncMode == SyncMode.MOTION_STATE) {
+            // Assert that the mode is unsupported.
+            throw new IllegalStateException("Isolated simulations must read back Transforms in bulk.");
+        }
+        // Assign the SyncMode.
+        this.mSyncMode = pSyncMode;
+        // Iterate every Entity we've registered; both live and pooled.
+        for(final PhysicsEntity lPhysicsEntity : this.getEntities()) {
+            // Should the Entity's MotionState be detached?
+            if(this.isDetached(lPhysicsEntity)) {
+                // Detach the MotionState.
+                lPhysicsEntity.detach();
+            }
+            else {
+                // Attach the MotionState.
+                lPhysicsEntity.attach();
+            }
+        }
+        // Make sure the renderable state catches up.
+        this.invalidate();
+    }
+
+    /** Determines whether an Entity's Transform is pulled from its Body, rather than pushed through its MotionState. The Floor keeps its MotionState unless the simulation is isolated, so that it may be moved kinematically. */
+    private final boolean isDetached(final PhysicsEntity pPhysicsEntity) {
+        // Are MotionStates being used for this Entity?
+        return this.isIsolated() || (this.getSyncMode() == SyncMode.BULK && pPhysicsEntity != this.getGround());
+    }
+
+    /** Selects how contacts are reported. In MANIFOLD mode, the ContactListener is disabled and game code is expected to drain the ContactEventBuffer. */
+    public final void setContactMode(final ContactMode pContactMode) {
+        // The ContactListener is process-wide, so it can't be attributed to an isolated simulation.
+        if(this.isIsolated() && pContactMode == ContactMode.LISTENER) {
+            // Assert that the mode is unsupported.
+            throw new IllegalStateException("Isolated simulations must report contacts through the ContactEventBuffer.");
+        }
+        // Assign the ContactMode.
+        this.mContactMode = pContactMode;
+        // Are we using the ContactListener?
+        if(pContactMode == ContactMode.LISTENER) {
+            // Enable the ContactListener.
+            this.getContactListener().enable();
+        }
+        // Do we own a ContactListener to silence?
+        else if(this.getContactListener() != null) {
+            // Disable the ContactListener.
+            this.getContactListener().disable();
+        }
+        // Forget any pairs tracked so far.
+        this.getContactTracker().clear();
+    }
+
+    /** Registers a Builder. Builders are spawnable once they have been compiled. */
+    public final PhysicsSimulation register(final PhysicsEntity.Builder<?> pBuilder) {
+        // Track the Builder against its Node.
+        this.getConstructors().put(pBuilder.getNode(), pBuilder);
+        // Return the reference.
+        return this;
+    }
+
+    /** Registers the ground and the primitive shapes that make up the default scene. */
+    public final PhysicsSimulation registerPrimitives() {
+        // Initialize Builder Mapping.
+        this.register(new PhysicsEntity.Builder.Cube(PhysicsSimulation.KEY_OBJECT_GROUND, new Vector3(2.5f, 0.5f, 2.5f), Color.FOREST, 0.0f));
+        this.register(new PhysicsEntity.Builder.Sphere(PhysicsSimulation.KEY_OBJECT_SPHERE, 1f, 30, Color.CHARTREUSE, 1.0f));
+        this.register(new PhysicsEntity.Builder.Cube(PhysicsSimulation.KEY_OBJECT_BOX, new Vector3(0.5f, 0.5f, 0.5f), Color.CORAL, 1.0f));
+        this.register(new PhysicsEntity.Builder.Cone(PhysicsSimulation.KEY_OBJECT_CONE, 0.5f, 2.5f, 10, Color.FIREBRICK, 1.0f));
+        this.register(new PhysicsEntity.Builder.Capsule(PhysicsSimulation.KEY_OBJECT_CAPSULE, 0.5f, 1.0f, 10, Color.GOLDENROD, 1.0f));
+        this.register(new PhysicsEntity.Builder.Cylinder(PhysicsSimulation.KEY_OBJECT_CYLINDER, new Vector3(0.5f, 1.0f, 0.5f), 10, Color.SALMON, 1.0f));
+        // Return the reference.
+        return this;
+    }
+
+    /** Builds a Model for every Builder registered since the last compile, prepares their Pools and then places the ground. (This is a complete physical representation of the objects in our scene.) Builders become spawnable as soon as they've been compiled, so this may be called repeatedly as Builders become available. Returns the Model that was built, or null if every Builder already had one; the simulation owns it, and disposes of it along with itself. Isolated simulations always reuse the template's Models. */
+    public final Model compile() {
+        // Declare the Model.
+              Model         lModel      = null;
+        // Declare the Builders which still require a Model.
+        final Array<String> lUnmodelled = new Array<String>(String.class);
+        // Iterate the Constructors.
+        for(final PhysicsEntity.Builder<?> lBuilder : this.getConstructors().values()) {
+            // Has the Builder not been built into a Model yet?
+            if(!this.getModels().containsKey(lBuilder.getNode())) {
+                // Track the Builder.
+                lUnmodelled.add(lBuilder.getNode());
+            }
+        }
+        // Are there any Builders to model?
+        if(lUnmodelled.size > 0) {
+            // Are we running without graphics?
+            if(this.isHeadless()) {
+                // Allocate a geometry-free Model.
+                lModel = new Model();
+                // Iterate the Builders.
+                for(final String lNode : lUnmodelled) {
+                    // Declare the proxy Node.
+                    this.getConstructors().get(lNode).proxy(lModel);
+                }
+            }
+            else {
+                // Declare the ModelBuilder.
+                final ModelBuilder lModelBuilder = new ModelBuilder();
+                // Assert that we're beginning to build the Model.
+                lModelBuilder.begin();
+                // Iterate the Builders.
+                for(final String lNode : lUnmodelled) {
+                    // Build the renderable Node.
+                    this.getConstructors().get(lNode).build(lModelBuilder);
+                }
+                // Build the Model.
+                lModel = lModelBuilder.end();
+            }
+            // Account for the Model; it's disposed of along with the simulation.
+            NativeRegistry.track(lModel);
+            // Iterate the Builders.
+            for(final String lNode : lUnmodelled) {
+                // Remember which Model the Builder's Node lives in.
+                this.getModels().put(lNode, lModel);
+            }
+        }
+        // Iterate the Constructors.
+        for(final PhysicsEntity.Builder<?> lBuilder : this.getConstructors().values()) {
+            // Is the Builder spawnable, and yet to be prepared?
+            if(!PhysicsSimulation.KEY_OBJECT_GROUND.equals(lBuilder.getNode()) && !this.getPools().containsKey(lBuilder.getNode())) {
+                // Allocate a Pool of pre-constructed Entities for the Builder.
+                this.getPools().put(lBuilder.getNode(), new PhysicsEntityPool(lBuilder, this.getModels().get(lBuilder.getNode()), this.getPoolCapacity()).prefill(this.getPoolCapacity()));
+            }
+        }
+        // Have we been provided with a ground definition, which hasn't been placed?
+        if(this.getGround() == null && this.getConstructors().containsKey(PhysicsSimulation.KEY_OBJECT_GROUND)) {
+            // Allocate the Floor.
+            this.onCreateGround(this.getConstructors().get(PhysicsSimulation.KEY_OBJECT_GROUND));
+        }
+        // Return the Model.
+        return lModel;
+    }
+
+    /** Places the persistent floor of the scene. */
+    private final void onCreateGround(final PhysicsEntity.Builder<?> pBuilder) {
+        // Allocate the Floor. (It's massless, so Bullet treats it as a static Body; static Bodies don't keep their neighbours awake.)
+        final PhysicsEntity lFloorObject = pBuilder.build(this.getModels().get(pBuilder.getNode()));
+        // Track the Floor; registration needs to know which Entity it is.
+        this.mGround = lFloorObject;
+        // Register the Floor as a 3D physics instance.
+        this.onRegisterEntity(lFloorObject);
+        this.getInstances().add(lFloorObject);
+        // Register the Floor as a rigid mBody on its layer; it's a persistent entity.
+        this.getDynamicsWorld().addRigidBody(lFloorObject.getBody(), this.getCollisionLayers().getGroup(pBuilder.getLayer()), this.getCollisionLayers().getMask(pBuilder.getLayer()));
+        // Configure the Floor's Callbacks.
+        lFloorObject.getBody().setContactCallbackFlag(PhysicsSimulation.GROUND_FLAG);
+        lFloorObject.getBody().setContactCallbackFilter(0);
+        // Make sure the Floor is rendered where it's placed.
+        this.onDirty(lFloorObject);
+    }
+
+    /** Defines whether the Floor is going to be moved. A kinematic Floor is never deactivated, and its Transform is read from the MotionState every step; so this should only be enabled whilst the Floor actually moves. */
+    public final void setGroundKinematic(final boolean pIsKinematic) {
+        // Fetch the Body of the Floor.
+        final btRigidBody lBody = this.getGround().getBody();
+        // Are we animating the Floor?
+        if(pIsKinematic) {
+            // Drive the Floor from its MotionState, and keep it awake.
+            lBody.setCollisionFlags((lBody.getCollisionFlags() & ~btCollisionObject.CollisionFlags.CF_STATIC_OBJECT) | btCollisionObject.CollisionFlags.CF_KINEMATIC_OBJECT);
+            lBody.setActivationState(Collision.DISABLE_DEACTIVATION);
+        }
+        else {
+            // Return the Floor to being static.
+            lBody.setCollisionFlags((lBody.getCollisionFlags() & ~btCollisionObject.CollisionFlags.CF_KINEMATIC_OBJECT) | btCollisionObject.CollisionFlags.CF_STATIC_OBJECT);
+            lBody.forceActivationState(Collision.ISLAND_SLEEPING);
+        }
+    }
+
+    /** Advances the simulation by a single fixed timestep. */
+    public final void step() {
+        // Elapse exactly one step.
+        this.update(this.getTimeStep());
+    }
+
+    /** Advances the simulation by the elapsed time. With a StepController, the frame is divided into as many fixed steps as its budget affords; otherwise, the step is clamped to the fixed timestep so that slow frames don't destabilize the scene, and the remainder is dropped. */
+    public final void update(final float pDeltaTime) {
+        // Is the stepping controlled?
+        if(this.getStepController() != null) {
+            // Fetch the number of fixed steps the frame may take.
+            final int lSteps = this.getStepController().onFrame(this, pDeltaTime);
+            // Are any due?
+            if(lSteps > 0) {
+                // Take the steps together, and measure them.
+                this.advance(lSteps * this.getTimeStep(), lSteps);
+                this.getStepController().onStepped(lSteps, this.getStatistics().getStepNanos());
+            }
+            else {
+                // Nothing was simulated this frame.
+                this.getStatistics().onIdle();
+            }
+            // Report the frame.
+            this.getStatistics().onFrame(lSteps, this.getStepController().getDropped(), this.getStepController().isOverrun());
+        }
+        else {
+            // Compute how much to elapse the simulation by.
+            final float lStep = Math.min(this.getTimeStep(), pDeltaTime);
+            // Advance the simulation.
+            final int   lSteps = this.advance(lStep, PhysicsSimulation.MAX_SUB_STEPS);
+            // Report the frame; whatever exceeded the step was dropped.
+            this.getStatistics().onFrame(lSteps, pDeltaTime - lStep, pDeltaTime > lStep);
+        }
+    }
+
+    /** Advances the simulation by the elapsed time, in at most SubSteps fixed steps; Bullet carries any remainder into the next call. This bypasses the StepController, so it's for drivers which do their own pacing, such as a replay. Returns the number of fixed steps that were taken. */
+    public final int advance(final float pElapsed, final int pSubSteps) {
+        // Are we being recorded?
+        if(this.getReplayLog() != null) {
+            // Record the step, before anything it spawns.
+            this.getReplayLog().onStep(pElapsed, pSubSteps);
+        }
+        // Fetch the time the step began.
+        final long  lStepTime = System.nanoTime();
+        // Update the simulation.
+        final int   lSubSteps = this.getDynamicsWorld().stepSimulation(pElapsed, pSubSteps, this.getTimeStep());
+        // Forget what moved during the last step; the Entities that moved during this one are found as they're reaped.
+        this.mMoving.clear();
+        this.mMovingSteps = Math.max(1, lSubSteps);
+        // Are we batching contacts?
+        if(this.getContactMode() == ContactMode.MANIFOLD) {
+            // Scan the manifolds once, and publish the resulting events.
+            this.getContactTracker().scan(this.getDispatcher(), this.getEntities(), this.getFrozenPile(), this.getContactEventBuffer());
+        }
+        // Read back the Entities that moved, retire those that have left the scene or come to rest, and count those that remain asleep.
+        final int   lSleeping  = this.reap(pElapsed);
+        // Fetch the time spawning began.
+        final long  lSpawnTime = System.nanoTime();
+        /** @Cawfree: Spawn timing operation. */
+        if(this.getSpawnInterval() > 0.0f && (this.mSpawnTimer -= pElapsed) < 0) {
+            this.spawn();
+            this.mSpawnTimer = this.getSpawnInterval();
+        }
+        // Record the cost of the update. (Anything that was just spawned is awake.)
+        this.getStatistics().onUpdate(lSpawnTime - lStepTime, System.nanoTime() - lSpawnTime, this.getInstances().size, this.getInstances().size - lSleeping, lSleeping, this.getFrozenPile().getEntities().size, this.getContactTracker().getContacts());
+        // Are the pairs being audited?
+        if(this.getPairAudit() != null) {
+            // Record the pairs, and how many the layers rejected since the last update.
+            this.getStatistics().onPairs(this.getDynamicsWorld().getPairCache().getNumOverlappingPairs(), this.getPairAudit().getTested(), this.getPairAudit().getRejected());
+            this.getPairAudit().reset();
+        }
+        else {
+            // Record the pairs alone.
+            this.getStatistics().onPairs(this.getDynamicsWorld().getPairCache().getNumOverlappingPairs(), 0, 0);
+        }
+        // Is the quality of the solver being governed?
+        if(this.getSolverGovernor() != null) {
+            // Let the Governor respond to the cost of the step.
+            this.getSolverGovernor().onUpdate(this);
+        }
+        // Are the renderable transforms owned by this thread?
+        if(this.isAutoSync()) {
+            // Publish the simulated state to the Instances.
+            this.sync();
+        }
+        // Return the number of steps taken.
+        return lSubSteps;
+    }
+
+    /** Copies the simulated Transform and AABB of every Entity that has moved since the last sync into its renderable state. Sleeping Entities are skipped. */
+    public final void sync() {
+        // Iterate the Entities which have moved.
+        for(int i = 0; i < this.mDirty.size; i++) {
+            // Synchronize the Entity. (Entities frozen or retired since they moved are caught up too, which is harmless.)
+            this.getEntities().get(this.mDirty.get(i)).sync(this.mMinimum, this.mMaximum);
+        }
+        // Forget the moved Entities.
+        this.mDirty.clear();
+        this.mDirtyBits.clear();
+    }
+
+    /** Moves the renderable Transform of every Entity that moved during the last update to where it was at this point between its last two steps, as given by the StepController's accumulator; so motion looks smooth when the simulation is stepped less often than it's rendered. Rendering trails the simulation by up to a step. Entities are never blended from before they were placed, frozen or sleeping Entities aren't blended at all, and Bounds stay as of the last sync. Must be called after sync(), on the thread which steps the simulation; does nothing unless interpolation has been enabled. */
+    public final void interpolate() {
+        // Is interpolation enabled?
+        if(!this.isInterpolated()) {
+            return;
+        }
+        // Fetch the blend between the last two steps.
+        final float lAlpha = this.getInterpolation();
+        // Iterate the Entities which moved.
+        for(int i = 0; i < this.mMoving.size; i++) {
+            // Blend the Entity.
+            this.getEntities().get(this.mMoving.get(i)).interpolate(lAlpha, this.mFrom, this.mTo, this.mFromRotation, this.mToRotation);
+        }
+    }
+
+    /** Returns how far rendering has progressed from the Transforms before the last update towards the simulated Transforms; one if there's no StepController to carry a remainder. When the last update took several steps, the blend is scaled so that rendering still trails by less than a single step. */
+    public final float getInterpolation() {
+        // Is there a remainder to interpolate by?
+        if(this.getStepController() == null) {
+            return 1.0f;
+        }
+        // Blend towards the simulated Transforms, trailing them by the time left until the next step.
+        return 1.0f - (1.0f - MathUtils.clamp(this.getStepController().getAlpha(), 0.0f, 1.0f)) / this.mMovingSteps;
+    }
+
+    /** Marks every live Entity as moved, so that the next sync copies them all. This is for callers who move Bodies outside of a step. */
+    public final void invalidate() {
+        // Iterate the Instances.
+        for(int i = 0; i < this.getInstances().size; i++) {
+            // Mark the Instance.
+            this.onDirty(this.getInstances().get(i));
+        }
+    }
+
+    /** Marks an Entity as moved since the last sync. */
+    private final void onDirty(final PhysicsEntity pPhysicsEntity) {
+        // Is the Entity yet to be marked?
+        if(!this.mDirtyBits.getAndSet(pPhysicsEntity.getHandle())) {
+            // Track the Entity.
+            this.mDirty.add(pPhysicsEntity.getHandle());
+        }
+    }
+
+    /** Retires Entities which have fallen beneath the floor, or have rested for longer than the timeout. The Instances are compacted in a single pass as Entities are removed, so that reaping stays linear however many are removed, and the survivors keep their order. Returns the number of surviving Entities which are asleep. */
+    private final int reap(final float pDeltaTime) {
+        // Declare the number of sleeping Entities.
+        int     lSleeping  = 0;
+        // Declare whether anything was frozen.
+        boolean lIsFrozen  = false;
+        // Declare where the next surviving Instance is written.
+        int     lSurvivors = 0;
+        // Iterate the Instances.
+        for(int i = 0; i < this.getInstances().size; i++) {
+            // Fetch the PhysicsEntity.
+            final PhysicsEntity lPhysicsEntity = this.getInstances().get(i);
+            // Accumulate how long the Entity has been asleep. (This is the only time its activation state is queried.)
+            final float   lRestTime      = lPhysicsEntity.rest(pDeltaTime);
+            // Was the Entity simulated during the step?
+            if(lRestTime == 0.0f) {
+                // Has the MotionState been detached?
+                if(this.isDetached(lPhysicsEntity)) {
+                    // Pull the simulated Transform from the Body.
+                    lPhysicsEntity.pull();
+                }
+                // The renderable state is stale, and may be interpolated.
+                this.onDirty(lPhysicsEntity);
+                this.mMoving.add(lPhysicsEntity.getHandle());
+            }
+            // Ignore the Floor; it's a persistent entity.
+            if(lPhysicsEntity == this.getGround()) {
+                // Keep the Floor.
+                this.getInstances().set(lSurvivors++, lPhysicsEntity);
+                continue;
+            }
+            // Has the Entity fallen out of the scene? (We read the translation directly to avoid allocation.)
+            final boolean lIsOutOfBounds = lPhysicsEntity.getWorldTransform().val[Matrix4.M13] < this.getFloorLimit();
+            // Has the Entity slept for long enough to be frozen?
+            if(!lIsOutOfBounds && this.getFreezeTimeout() > 0.0f && lRestTime > this.getFreezeTimeout()) {
+                // Bake the Entity into the FrozenPile. (Its Instance is dropped by the compaction.)
+                this.onFreeze(lPhysicsEntity);
+                lIsFrozen = true;
+                continue;
+            }
+            // Has the Entity rested for too long?
+            final boolean lIsRested      = lRestTime > this.getRestTimeout() && this.getRestTimeout() > 0.0f;
+            // Should the Entity be retired?
+            if(lIsOutOfBounds || lIsRested) {
+                // Retire the Entity. (Its Instance is dropped by the compaction.)
+                this.onRetire(lPhysicsEntity);
+                continue;
+            }
+            // Is the surviving Entity asleep?
+            if(lRestTime > 0.0f) {
+                // Count the Entity.
+                lSleeping++;
+            }
+            // Keep the Entity.
+            this.getInstances().set(lSurvivors++, lPhysicsEntity);
+        }
+        // Drop the Instances that were removed.
+        this.getInstances().truncate(lSurvivors);
+        // Were any Entities frozen?
+        if(lIsFrozen) {
+            // Publish the grown FrozenPile.
+            this.commitFrozen();
+        }
+        // Return the number of sleeping Entities.
+        return lSleeping;
+    }
+
+    /** Removes a resting Entity from the dynamic simulation, and bakes it into the FrozenPile. When the pile is full, it's thawed first. */
+    final void freeze(final PhysicsEntity pPhysicsEntity) {
+        // Remove the Instance.
+        this.getInstances().removeValue(pPhysicsEntity, true);
+        // Bake the Entity.
+        this.onFreeze(pPhysicsEntity);
+    }
+
+    /** Bakes an Entity into the FrozenPile, leaving its Instance to the caller. */
+    private final void onFreeze(final PhysicsEntity pPhysicsEntity) {
+        // Is the FrozenPile full?
+        if(this.getFrozenPile().getEntities().size >= this.getMaximumFrozen()) {
+            // Recycle the pile.
+            this.thaw();
+        }
+        // Remove the Body from the DynamicsWorld.
+        this.getDynamicsWorld().removeRigidBody(pPhysicsEntity.getBody());
+        // Bake the Entity into the pile.
+        this.getFrozenPile().add(pPhysicsEntity);
+    }
+
+    /** Publishes the Entities frozen since the last commit to the DynamicsWorld, as a single static body. */
+    final void commitFrozen() {
+        // Commit the FrozenPile on the static layer.
+        this.getFrozenPile().commit(this.getDynamicsWorld(), this.getCollisionLayers().getGroup(CollisionLayers.LAYER_STATIC), this.getCollisionLayers().getMask(CollisionLayers.LAYER_STATIC));
+    }
+
+    /** Empties the FrozenPile, and returns its Entities to their Pools. */
+    public final void thaw() {
+        // Iterate the frozen Entities.
+        for(final PhysicsEntity lPhysicsEntity : this.getFrozenPile().getEntities()) {
+            // Return the Entity to its Pool. (This resets the Entity.)
+            this.getPools().get(lPhysicsEntity.getNode()).free(lPhysicsEntity);
+        }
+        // Empty the pile.
+        this.getFrozenPile().clear(this.getDynamicsWorld());
+    }
+
+    /** Removes a PhysicsEntity from the scene, and returns it to its Pool. */
+    public final void retire(final PhysicsEntity pPhysicsEntity) {
+        // Remove the Instance.
+        this.getInstances().removeValue(pPhysicsEntity, true);
+        // Release the Entity.
+        this.onRetire(pPhysicsEntity);
+    }
+
+    /** Removes an Entity's Body from the DynamicsWorld and returns the Entity to its Pool, leaving its Instance to the caller. */
+    private final void onRetire(final PhysicsEntity pPhysicsEntity) {
+        // Remove the Body from the DynamicsWorld.
+        this.getDynamicsWorld().removeRigidBody(pPhysicsEntity.getBody());
+        // Return the Entity to its Pool. (This resets the Entity.)
+        this.getPools().get(pPhysicsEntity.getNode()).free(pPhysicsEntity);
+    }
+
+    /** Retires every spawned Entity, and thaws the FrozenPile; only the Floor remains. */
+    public final void clear() {
+        // Empty the FrozenPile.
+        this.thaw();
+        // Fetch the number of persistent Instances. (The Floor is always the first.)
+        final int lPersistent = this.getGround() != null ? 1 : 0;
+        // Iterate the spawned Instances.
+        for(int i = this.getInstances().size - 1; i >= lPersistent; i--) {
+            // Fetch the PhysicsEntity.
+            final PhysicsEntity lPhysicsEntity = this.getInstances().get(i);
+            // Remove the Body from the DynamicsWorld.
+            this.getDynamicsWorld().removeRigidBody(lPhysicsEntity.getBody());
+            // Return the Entity to its Pool. (This resets the Entity.)
+            this.getPools().get(lPhysicsEntity.getNode()).free(lPhysicsEntity);
+        }
+        // Remove the spawned Instances at once, rather than searching for each in turn.
+        this.getInstances().truncate(lPersistent);
+    }
+
+    /** Assigns a PhysicsEntity a stable handle the first time it is seen. Handles are used as the Body's UserValue and UserIndex, and remain valid whilst the Entity is recycled. */
+    private final void onRegisterEntity(final PhysicsEntity pPhysicsEntity) {
+        // Has the Entity not yet been registered?
+        if(pPhysicsEntity.getHandle() < 0) {
+            // Assign the Handle.
+            pPhysicsEntity.setHandle(this.getEntities().size);
+            // Track the Entity.
+            this.getEntities().add(pPhysicsEntity);
+            // Configure the UserValue; this is how contacts are mapped back onto Entities.
+            pPhysicsEntity.getBody().setUserValue(pPhysicsEntity.getHandle());
+            // Mirror the Handle natively; this is how the ContactTracker maps manifolds back onto Entities.
+            pPhysicsEntity.getBody().setUserIndex(pPhysicsEntity.getHandle());
+            // Are the Entity's Transforms read back in bulk?
+            if(this.isDetached(pPhysicsEntity)) {
+                // Avoid MotionState upcalls whilst stepping.
+                pPhysicsEntity.detach();
+            }
+        }
+    }
+
+    /** Returns the number of spawned Entities that are currently live; this excludes the Floor. */
+    public final int getLiveBodies() {
+        // Exclude the Floor from the Instances.
+        return this.getInstances().size - (this.getGround() != null ? 1 : 0);
+    }
+
+    /** Called when Contact has been detected. The contact is published as the beginning of a contact, like any other; Materials are left to game code. */
+    public final boolean onContactAdded(final int pUserValue0, final int pPartId0, final int pIndex0, final boolean pIsMatch0, final int pUserValue1, final int pPartId1, final int pIndex1, final boolean pIsMatch1) {
+        // Is either object matched by the contact filter?
+        if(pIsMatch0 || pIsMatch1) {
+            // Publish the contact.
+            this.getContactEventBuffer().write(ContactEventBuffer.EVENT_BEGIN, pUserValue0, pUserValue1, pIsMatch0, pIsMatch1);
+        }
+        // Assert that we've handled the Contact.
+        return true;
+    }
+
+    /** Spawns a random shape within the 3D scene. When the scene is full, the oldest Entity is recycled. Returns null if nothing has been compiled yet. */
+    public final PhysicsEntity spawn() {
+        // Is there anything to spawn?
+        if(this.getPools().size == 0) {
+            return null;
+        }
+        // Determine the index of the random item to generate. (MathUtils.random(int) includes its bound, so the old MathUtils.random(Size - 1) drew nextInt(Size); with the float draws below, a seeded MathUtils.random still produces the same scene.)
+        final int   lIndex = this.mRandom.nextInt(this.getPools().size);
+        // Choose a random orientation.
+        final float lYaw   = this.mRandom.nextFloat() * 360f;
+        final float lPitch = this.mRandom.nextFloat() * 360f;
+        final float lRoll  = this.mRandom.nextFloat() * 360f;
+        // Choose a random position for the Object.
+        final float lX     = -2.5f + this.mRandom.nextFloat() * 5f;
+        final float lZ     = -2.5f + this.mRandom.nextFloat() * 5f;
+        // Spawn the Entity.
+        return this.spawn(this.getPools().getKeyAt(lIndex), lYaw, lPitch, lRoll, lX, 9f, lZ);
+    }
+
+    /** Spawns the shape of the specified Builder, rotated by the Euler angles in degrees and then placed at the position. When the scene is full, the oldest Entity is recycled. Returns null if the Builder hasn't been compiled. */
+    public final PhysicsEntity spawn(final String pNode, final float pYaw, final float pPitch, final float pRoll, final float pX, final float pY, final float pZ) {
+        // Fetch the Pool.
+        final PhysicsEntityPool lPhysicsEntityPool = this.getPools().get(pNode);
+        // Is the Builder spawnable?
+        if(lPhysicsEntityPool == null) {
+            return null;
+        }
+        // Are we being recorded?
+        if(this.getReplayLog() != null) {
+            // Record the spawn.
+            this.getReplayLog().onSpawn(pNode, pYaw, pPitch, pRoll, pX, pY, pZ);
+        }
+        // Rotate the entity. (Matrix4.setFromEulerAngles() uses a static Quaternion, so we use our own.)
+        this.mSpawnTransform.set(this.mRotation.setEulerAngles(pYaw, pPitch, pRoll));
+        // Place the entity.
+        this.mSpawnTransform.trn(pX, pY, pZ);
+        // Spawn the Entity.
+        return this.onSpawn(lPhysicsEntityPool, this.mSpawnTransform);
+    }
+
+    /** Spawns the shape of the specified Builder at the specified Transform. When the scene is full, the oldest Entity is recycled. Returns null if the Builder hasn't been compiled. */
+    public final PhysicsEntity spawn(final String pNode, final Matrix4 pTransform) {
+        // Fetch the Pool.
+        final PhysicsEntityPool lPhysicsEntityPool = this.getPools().get(pNode);
+        // Is the Builder spawnable?
+        if(lPhysicsEntityPool == null) {
+            return null;
+        }
+        // Are we being recorded?
+        if(this.getReplayLog() != null) {
+            // Record the spawn.
+            this.getReplayLog().onSpawn(pNode, pTransform);
+        }
+        // Spawn the Entity.
+        return this.onSpawn(lPhysicsEntityPool, pTransform);
+    }
+
+    /** Places a recycled Entity from the Pool into the scene. */
+    private final PhysicsEntity onSpawn(final PhysicsEntityPool pPhysicsEntityPool, final Matrix4 pTransform) {
+        // Have we reached the maximum number of live Bodies?
+        if(this.getLiveBodies() >= this.getMaximumBodies()) {
+            // Retire the oldest Entity. (The Floor is always the first Instance.)
+            this.retire(this.getInstances().get(this.getGround() != null ? 1 : 0));
+        }
+        // Fetch a recycled PhysicsEntity.
+        final PhysicsEntity lPhysicsEntity = pPhysicsEntityPool.obtain();
+        // Ensure the Entity has a Handle.
+        this.onRegisterEntity(lPhysicsEntity);
+        // Place the Entity.
+        lPhysicsEntity.getWorldTransform().set(pTransform);
+        lPhysicsEntity.snap();
+        lPhysicsEntity.getBody().proceedToTransform(lPhysicsEntity.getWorldTransform());
+        lPhysicsEntity.getBody().setCollisionFlags(lPhysicsEntity.getBody().getCollisionFlags() | btCollisionObject.CollisionFlags.CF_CUSTOM_MATERIAL_CALLBACK);
+        // Register the PhysicsEntity as an Instance.
+        this.getInstances().add(lPhysicsEntity);
+        // Add the PhysicsEntity's mBody as a Rigid Body on the Builder's layer, so the broadphase never pairs it with layers it ignores.
+        this.getDynamicsWorld().addRigidBody(lPhysicsEntity.getBody(), this.getCollisionLayers().getGroup(pPhysicsEntityPool.getBuilder().getLayer()), this.getCollisionLayers().getMask(pPhysicsEntityPool.getBuilder().getLayer()));
+        // Count the Spawn, and make sure it's rendered where it was placed.
+        this.getStatistics().onSpawn();
+        this.onDirty(lPhysicsEntity);
+        // Configure the Callbacks; we want to detect collisions with the Floor.
+        lPhysicsEntity.getBody().setContactCallbackFlag(PhysicsSimulation.OBJECT_FLAG);
+        lPhysicsEntity.getBody().setContactCallbackFilter(PhysicsSimulation.GROUND_FLAG);
+        // Return the PhysicsEntity.
+        return lPhysicsEntity;
+    }
+
+    /** Handles destruction of the simulation. */
+    @Override public final void dispose() {
+        // Stop auditing the pairs.
+        this.setPairAudit(false);
+        // Iterate the Instances.
+        for(final PhysicsEntity lPhysicsEntity : this.getInstances()) {
+            // Detach the Body from the DynamicsWorld before it is freed.
+            this.getDynamicsWorld().removeRigidBody(lPhysicsEntity.getBody());
+        }
+        // Is the FrozenPile in the DynamicsWorld?
+        if(this.getFrozenPile().isAdded()) {
+            // Detach the pile before it is freed.
+            this.getDynamicsWorld().removeRigidBody(this.getFrozenPile().getBody());
+        }
+        // Dispose of the FrozenPile; its Entities are disposed of along with every other.
+        this.getFrozenPile().dispose();
+        // Iterate every Entity we've constructed; both live and pooled.
+        for(final PhysicsEntity lPhysicsEntity : this.getEntities()) {
+            // Dispose of the PhysicsEntity.
+            lPhysicsEntity.dispose();
+        }
+        // Iterate the Pools.
+        for(final PhysicsEntityPool lPhysicsEntityPool : this.getPools().values()) {
+            // Dispose of any pooled Entities which were never handed out.
+            while(lPhysicsEntityPool.getFree() > 0) {
+                // Fetch the Entity.
+                final PhysicsEntity lPhysicsEntity = lPhysicsEntityPool.obtain();
+                // Has the Entity not already been disposed of?
+                if(lPhysicsEntity.getHandle() < 0) {
+                    // Dispose of the PhysicsEntity.
+                    lPhysicsEntity.dispose();
+                }
+            }
+        }
+        // Do we own the Constructors and Models?
+        if(!this.isIsolated()) {
+            // Iterate the Constructors.
+            for(final PhysicsEntity.Builder<?> lConstructor : this.getConstructors().values()) {
+                // Dispose of the Builder.
+                lConstructor.dispose();
+            }
+            // Declare the distinct Models; each compile's Model is shared by every Builder it compiled.
+            final Array<Model> lModels = new Array<Model>();
+            // Iterate the Models.
+            for(final Model lModel : this.getModels().values()) {
+                // Is the Model yet to be disposed of?
+                if(!lModels.contains(lModel, true)) {
+                    // Dispose of the Model.
+                    lModels.add(lModel);
+                    NativeRegistry.dispose(lModel);
+                }
+            }
+        }
+        // Empty the Constructors.
+        this.getInstances().clear();
+        this.getEntities().clear();
+        this.getPools().clear();
+        this.getModels().clear();
+        this.getConstructors().clear();
+        // Dispose of the ContactListener, if we own one.
+        NativeRegistry.dispose(this.getContactListener());
+        // Dispose of dependencies.
+        NativeRegistry.dispose(this.getDynamicsWorld());
+        NativeRegistry.dispose(this.getConstraintSolver());
+        NativeRegistry.dispose(this.getBroadphaseInterface());
+        NativeRegistry.dispose(this.getDispatcher());
+        NativeRegistry.dispose(this.getCollisionConfig());
+    }
+
+    /* Getters. */
+    public final boolean isHeadless() {
+        return this.mHeadless;
+    }
+
+    public final boolean isIsolated() {
+        return this.mIsolated;
+    }
+
+    public final WorldConfiguration getConfiguration() {
+        return this.mConfiguration;
+    }
+
+    public final Array<PhysicsEntity> getInstances() {
+        return this.mInstances;
+    }
+
+    public final Array<PhysicsEntity> getEntities() {
+        return this.mEntities;
+    }
+
+    public final ArrayMap<String, PhysicsEntity.Builder<?>> getConstructors() {
+        return this.mConstructors;
+    }
+
+    public final ArrayMap<String, PhysicsEntityPool> getPools() {
+        return this.mPools;
+    }
+
+    /** Defines the number of Entities that may be live at once. A bounded broadphase must have a handle for each of them, the Floor and the FrozenPile. */
+    public final void setMaximumBodies(final int pMaximumBodies) {
+        // Would the broadphase run out of handles?
+        if(this.getConfiguration().isBounded() && pMaximumBodies + PhysicsSimulation.RESERVED_BODIES > this.getConfiguration().getMaximumHandles()) {
+            // Assert that the limit can't be honoured.
+            throw new IllegalStateException("The broadphase has " + this.getConfiguration().getMaximumHandles() + " handles, which can't hold " + pMaximumBodies + " bodies.");
+        }
+        // Assign the MaximumBodies.
+        this.mMaximumBodies = pMaximumBodies;
+    }
+
+    public final int getMaximumBodies() {
+        return this.mMaximumBodies;
+    }
+
+    public final void setPoolCapacity(final int pPoolCapacity) {
+        this.mPoolCapacity = pPoolCapacity;
+    }
+
+    public final int getPoolCapacity() {
+        return this.mPoolCapacity;
+    }
+
+    public final void setFloorLimit(final float pFloorLimit) {
+        this.mFloorLimit = pFloorLimit;
+    }
+
+    public final float getFloorLimit() {
+        return this.mFloorLimit;
+    }
+
+    public final void setRestTimeout(final float pRestTimeout) {
+        this.mRestTimeout = pRestTimeout;
+    }
+
+    public final float getRestTimeout() {
+        return this.mRestTimeout;
+    }
+
+    /** Defines how often update() spawns a random Entity, in seconds; zero disables spawning. */
+    public final void setSpawnInterval(final float pSpawnInterval) {
+        this.mSpawnInterval = pSpawnInterval;
+    }
+
+    public final float getSpawnInterval() {
+        return this.mSpawnInterval;
+    }
+
+    /** Applies a SolverProfile to the DynamicsWorld; this takes effect from the next step. Must be called on the thread which steps the simulation. */
+    public final void setSolverProfile(final SolverProfile pSolverProfile) {
+        // Configure the ContactSolverInfo.
+        pSolverProfile.apply(this.getDynamicsWorld().getSolverInfo());
+        // Track the SolverProfile.
+        this.mSolverProfile = pSolverProfile;
+        // Are we being recorded?
+        if(this.getReplayLog() != null) {
+            // Record the change; whether it was requested or governed, it alters every step that follows.
+            this.getReplayLog().onSolverProfile(pSolverProfile);
+        }
+    }
+
+    public final SolverProfile getSolverProfile() {
+        return this.mSolverProfile;
+    }
+
+    /** Assigns a SolverGovernor, which adapts the SolverProfile to the cost of each step; or null, to fix the SolverProfile. */
+    public final void setSolverGovernor(final SolverGovernor pSolverGovernor) {
+        this.mSolverGovernor = pSolverGovernor;
+    }
+
+    public final SolverGovernor getSolverGovernor() {
+        return this.mSolverGovernor;
+    }
+
+    /** Assigns a StepController, which divides each update into fixed steps within a CPU budget; or null, to clamp each update to a single step. */
+    public final void setStepController(final StepController pStepController) {
+        this.mStepController = pStepController;
+    }
+
+    public final StepController getStepController() {
+        return this.mStepController;
+    }
+
+    /** Defines the fixed timestep the simulation is stepped at, in seconds; this may be longer than a rendered frame, such as a 30Hz simulation beneath a 60-120Hz display, in which case interpolation keeps the motion smooth. Must be called on the thread which steps the simulation. */
+    public final void setTimeStep(final float pTimeStep) {
+        this.mTimeStep = pTimeStep;
+    }
+
+    public final float getTimeStep() {
+        return this.mTimeStep;
+    }
+
+    /** Defines whether the renderable Transforms are blended between steps; by interpolate(), or by TransformSnapshot.apply() whilst the simulation is stepped on a PhysicsThread. */
+    public final void setInterpolated(final boolean pIsInterpolated) {
+        this.mInterpolated = pIsInterpolated;
+    }
+
+    public final boolean isInterpolated() {
+        return this.mInterpolated;
+    }
+
+    /** Makes random spawns deterministic; they're drawn from a generator of their own, seeded with the Seed, rather than from the shared MathUtils.random. */
+    public final void setSeed(final long pSeed) {
+        // Allocate the seeded generator.
+        this.mRandom = new RandomXS128(pSeed);
+        this.mSeed   = pSeed;
+    }
+
+    /** Returns the Seed of the spawn generator; zero whilst spawns are drawn from MathUtils.random. */
+    public final long getSeed() {
+        return this.mSeed;
+    }
+
+    /** Assigns the ReplayLog that steps, spawns and changes of SolverProfile are recorded into; or null, to stop recording. Use ReplayLog.begin() and end() rather than calling this directly. */
+    final void setReplayLog(final ReplayLog pReplayLog) {
+        this.mReplayLog = pReplayLog;
+    }
+
+    /** Returns the ReplayLog that the simulation is being recorded into; null if it isn't. */
+    public final ReplayLog getReplayLog() {
+        return this.mReplayLog;
+    }
+
+    /** Defines whether the broadphase's candidate pairs are counted against the collision layers. Auditing applies the same filter as Bullet, but costs a call into Java for every candidate pair; so it's for measuring the saving of a layer matrix, not for shipping. Must be called on the thread which steps the simulation. */
+    public final void setPairAudit(final boolean pIsPairAudit) {
+        // Is the audit already in the requested state?
+        if(pIsPairAudit == (this.getPairAudit() != null)) {
+            return;
+        }
+        // Are we starting the audit?
+        if(pIsPairAudit) {
+            // Allocate the PairAudit, and install it as the pair cache's filter.
+            this.mPairAudit = new PairAudit();
+            this.getDynamicsWorld().getPairCache().setOverlapFilterCallback(this.getPairAudit());
+        }
+        else {
+            // Restore Bullet's own filter, and release the PairAudit.
+            this.getDynamicsWorld().getPairCache().setOverlapFilterCallback(null);
+            this.getPairAudit().dispose();
+            this.mPairAudit = null;
+        }
+    }
+
+    public final PairAudit getPairAudit() {
+        return this.mPairAudit;
+    }
+
+    /** Returns the collision layers that Bodies are added to. */
+    public final CollisionLayers getCollisionLayers() {
+        return this.getConfiguration().getCollisionLayers();
+    }
+
+    /** Defines how long an Entity must sleep before it's frozen into static geometry; zero disables freezing. */
+    public final void setFreezeTimeout(final float pFreezeTimeout) {
+        this.mFreezeTimeout = pFreezeTimeout;
+    }
+
+    public final float getFreezeTimeout() {
+        return this.mFreezeTimeout;
+    }
+
+    public final void setMaximumFrozen(final int pMaximumFrozen) {
+        this.mMaximumFrozen = pMaximumFrozen;
+    }
+
+    public final int getMaximumFrozen() {
+        return this.mMaximumFrozen;
+    }
+
+    public final FrozenPile getFrozenPile() {
+        return this.mFrozenPile;
+    }
+
+    /** Returns the Model that each compiled Builder's Node belongs to. */
+    public final ArrayMap<String, Model> getModels() {
+        return this.mModels;
+    }
+
+    public final PhysicsEntity getGround() {
+        return this.mGround;
+    }
+
+    public final btDynamicsWorld getDynamicsWorld() {
+        return this.mDynamicsWorld;
+    }
+
+    private final btCollisionConfiguration getCollisionConfig() {
+        return this.mCollisionConfig;
+    }
+
+    private final btDispatcher getDispatcher() {
+        return this.mDispatcher;
+    }
+
+    private final btBroadphaseInterface getBroadphaseInterface() {
+        return this.mBroadphaseInterface;
+    }
+
+    private final btConstraintSolver getConstraintSolver() {
+        return this.mConstraintsSolver;
+    }
+
+    /** Returns the ContactListener, or null if the simulation is isolated. */
+    private final ContactListener getContactListener() {
+        return this.mContactListener;
+    }
+
+    /** Defines whether each update writes to the renderable transforms. This must be disabled when the simulation is stepped on a thread other than the renderer's. */
+    public final void setAutoSync(final boolean pIsAutoSync) {
+        this.mAutoSync = pIsAutoSync;
+    }
+
+    public final boolean isAutoSync() {
+        return this.mAutoSync;
+    }
+
+    public final ContactMode getContactMode() {
+        return this.mContactMode;
+    }
+
+    public final SyncMode getSyncMode() {
+        return this.mSyncMode;
+    }
+
+    public final ContactEventBuffer getContactEventBuffer() {
+        return this.mContactEventBuffer;
+    }
+
+    public final ContactTracker getContactTracker() {
+        return this.mContactTracker;
+    }
+
+    /** Returns the statistics of the most recent update. These must only be read on the thread which steps the simulation; other threads should read the copy published with each TransformSnapshot. */
+    public final SimulationStatistics getStatistics() {
+        return this.mStatistics;
+    }
+
+}
@@ -0,0 +1,178 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/** Steps a PhysicsSimulation on a dedicated thread at its fixed timestep. State is published through a lock-free triple buffer of TransformSnapshots, and mutations from other threads are queued as Commands that are applied between steps. */
+public final class PhysicsThread implements Runnable, Disposable {
+
+    /** A mutation of the simulation, executed on the physics thread between steps. */
+    public interface Command {
+        /** Applies the Command. */
+        void execute(final PhysicsSimulation pPhysicsSimulation);
+    }
+
+    /* Static Declarations. */
+    private static final int  FLAG_FRESH      = (1 << 2);
+    private static final int  MASK_INDEX      = 3;
+    private static final long NANOS_PER_SEC   = 1000000000L;
+    private static final int  MAX_CATCH_UP    = 5;
+
+    /* Member Variables. */
+    private final PhysicsSimulation              mSimulation;
+    private final TransformSnapshot[]            mSnapshots;
+    private final AtomicInteger                  mReady;
+    private final ConcurrentLinkedQueue<Command> mCommands;
+    private final Vector3                        mMinimum;
+    private final Vector3                        mMaximum;
+    private       int                            mBack;
+    private       int                            mFront;
+    private       long                           mTick;
+    private       Thread                         mThread;
+    private volatile boolean                     mRunning;
+
+    /** Constructor. The PhysicsSimulation must have been compiled, and must not be touched by any other thread whilst this one is running. */
+    public PhysicsThread(final PhysicsSimulation pPhysicsSimulation) {
+        // Initialize Member Variables.
+        this.mSimulation = pPhysicsSimulation;
+        this.mSnapshots  = new TransformSnapshot[] { new TransformSnapshot(), new TransformSnapshot(), new TransformSnapshot() };
+        this.mBack       = 0;
+        this.mReady      = new AtomicInteger(1);
+        this.mFront      = 2;
+        this.mCommands   = new ConcurrentLinkedQueue<Command>();
+        this.mMinimum    = new Vector3();
+        this.mMaximum    = new Vector3();
+        this.mTick       = 0L;
+        this.mRunning    = false;
+    }
+
+    /** Starts stepping the simulation. From here on, the renderable transforms are only written by acquire(). */
+    public final void start() {
+        // The render thread owns the renderable transforms.
+        this.getSimulation().setAutoSync(false);
+        // Publish the initial state, so that the first frame has something to draw.
+        this.publish();
+        // Allocate the Thread.
+        this.mThread  = new Thread(this, "physics");
+        this.mRunning = true;
+        // Start the Thread.
+        this.mThread.start();
+    }
+
+    /** The physics loop. */
+    @Override public final void run() {
+        // Fetch the length of a step. (The timestep is fixed whilst the thread runs.)
+        final long lNanosPerStep = (long)(this.getSimulation().getTimeStep() * PhysicsThread.NANOS_PER_SEC);
+        // Define when the next step is due.
+        long lDeadline = System.nanoTime();
+        // Whilst we're running.
+        while(this.mRunning) {
+            // Apply any pending mutations.
+            this.onExecuteCommands();
+            // Step the simulation.
+            this.getSimulation().step();
+            // Publish the result.
+            this.publish();
+            // Schedule the next step.
+            lDeadline += lNanosPerStep;
+            // Compute how long to wait.
+            final long lDelay = lDeadline - System.nanoTime();
+            // Are we ahead of schedule?
+            if(lDelay > 0) {
+                // Wait for the next step.
+                LockSupport.parkNanos(lDelay);
+            }
+            // Have we fallen too far behind to catch up?
+            else if(-lDelay > lNanosPerStep * PhysicsThread.MAX_CATCH_UP) {
+                // Drop the missed time, rather than spiral.
+                lDeadline = System.nanoTime();
+            }
+        }
+    }
+
+    /** Executes every queued Command. */
+    private final void onExecuteCommands() {
+        // Fetch the first Command.
+        Command lCommand = this.getCommands().poll();
+        // Whilst there are Commands.
+        while(lCommand != null) {
+            // Execute the Command.
+            lCommand.execute(this.getSimulation());
+            // Fetch the next Command.
+            lCommand = this.getCommands().poll();
+        }
+    }
+
+    /** Captures the simulation into the back buffer, and swaps it with the ready buffer. */
+    private final void publish() {
+        // Capture the state.
+        this.mSnapshots[this.mBack].capture(this.getSimulation(), this.mTick++, this.mMinimum, this.mMaximum);
+        // Exchange the back buffer for the ready buffer, flagging it as fresh.
+        this.mBack = this.mReady.getAndSet(this.mBack | PhysicsThread.FLAG_FRESH) & PhysicsThread.MASK_INDEX;
+    }
+
+    /** Returns the most recently published snapshot. Must only be called from the render thread. */
+    public final TransformSnapshot acquire() {
+        // Has a new snapshot been published?
+        if((this.mReady.get() & PhysicsThread.FLAG_FRESH) != 0) {
+            // Exchange the front buffer for the ready buffer.
+            this.mFront = this.mReady.getAndSet(this.mFront) & PhysicsThread.MASK_INDEX;
+        }
+        // Return the front buffer.
+        return this.mSnapshots[this.mFront];
+    }
+
+    /** Queues a Command for execution on the physics thread. If the thread isn't running, the Command is executed immediately. */
+    public final void post(final Command pCommand) {
+        // Are we running?
+        if(this.mRunning) {
+            // Queue the Command.
+            this.getCommands().add(pCommand);
+        }
+        else {
+            // Execute the Command.
+            pCommand.execute(this.getSimulation());
+        }
+    }
+
+    /** Stops the thread, and waits for the current step to finish. The simulation is returned to the caller, and is not disposed of. */
+    @Override public final void dispose() {
+        // Stop the loop.
+        this.mRunning = false;
+        // Is the Thread alive?
+        if(this.mThread != null) {
+            try {
+                // Wait for the Thread to finish.
+                this.mThread.join();
+            }
+            catch(final InterruptedException pInterruptedException) {
+                // Preserve the interrupt.
+                Thread.currentThread().interrupt();
+            }
+            // Release the Thread.
+            this.mThread = null;
+        }
+        // Apply any outstanding mutations.
+        this.onExecuteCommands();
+        // The caller owns the renderable transforms again.
+        this.getSimulation().setAutoSync(true);
+    }
+
+    /* Getters. */
+    public final PhysicsSimulation getSimulation() {
+        return this.mSimulation;
+    }
+
+    private final ConcurrentLinkedQueue<Command> getCommands() {
+        return this.mCommands;
+    }
+
+    public final boolean isRunning() {
+        return this.mRunning;
+    }
+
+}
@@ -0,0 +1,224 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.AllHitsRayResultCallback;
+import com.badlogic.gdx.physics.bullet.collision.ClosestRayResultCallback;
+import com.badlogic.gdx.physics.bullet.collision.CollisionJNI;
+import com.badlogic.gdx.physics.bullet.collision.RayResultCallback;
+import com.badlogic.gdx.physics.bullet.linearmath.LinearMathJNI;
+import com.badlogic.gdx.utils.Disposable;
+
+/** Casts batches of rays into a PhysicsSimulation, and writes the hits into caller-provided primitive arrays. The result callbacks are allocated once and reset between rays, and hits are mapped onto Entity handles through the native UserIndex; so a batch generates no garbage. A RayQuery must only be used on the thread which steps its simulation. */
+public final class RayQuery implements Disposable {
+
+    /* Static Declarations. */
+    public  static final int STRIDE_RAY    = 6;
+    public  static final int STRIDE_VECTOR = 3;
+    public  static final int HANDLE_NONE   = -1;
+
+    /* Member Variables. */
+    private final PhysicsSimulation        mSimulation;
+    private final ClosestRayResultCallback mClosestRayResultCallback;
+    private final AllHitsRayResultCallback mAllHitsRayResultCallback;
+    private final Vector3                  mFrom;
+    private final Vector3                  mTo;
+    private final Vector3                  mPoint;
+    private final Vector3                  mNormal;
+
+    /** Constructor. */
+    public RayQuery(final PhysicsSimulation pPhysicsSimulation) {
+        // Initialize Member Variables.
+        this.mSimulation               = pPhysicsSimulation;
+        this.mClosestRayResultCallback = new ClosestRayResultCallback(Vector3.Zero, Vector3.Z);
+        this.mAllHitsRayResultCallback = new AllHitsRayResultCallback(Vector3.Zero, Vector3.Z);
+        this.mFrom                     = new Vector3();
+        this.mTo                       = new Vector3();
+        this.mPoint                    = new Vector3();
+        this.mNormal                   = new Vector3();
+    }
+
+    /** Restricts the rays to objects whose group matches the mask; by default, rays hit everything. */
+    public final void setFilter(final short pGroup, final short pMask) {
+        // Configure both Callbacks.
+        this.getClosestRayResultCallback().setCollisionFilterGroup(pGroup);
+        this.getClosestRayResultCallback().setCollisionFilterMask(pMask);
+        this.getAllHitsRayResultCallback().setCollisionFilterGroup(pGroup);
+        this.getAllHitsRayResultCallback().setCollisionFilterMask(pMask);
+    }
+
+    /** Casts the rays, and records the nearest hit of each. Rays are packed as (fromX, fromY, fromZ, toX, toY, toZ). For every ray i, the handle is written at i, the fraction at i, and the point and normal at i * STRIDE_VECTOR; rays that miss are given HANDLE_NONE. Returns the number of rays which hit an Entity. */
+    public final int closest(final float[] pRays, final int pCount, final int[] pHandles, final float[] pFractions, final float[] pPoints, final float[] pNormals) {
+        // Fetch the Callback.
+        final ClosestRayResultCallback lCallback = this.getClosestRayResultCallback();
+        // Declare the number of hits.
+        int lHits = 0;
+        // Iterate the Rays.
+        for(int i = 0; i < pCount; i++) {
+            // Aim the Callback; the hit point is interpolated along the Ray.
+            this.unpack(pRays, i);
+            lCallback.setRayFromWorld(this.mFrom);
+            lCallback.setRayToWorld(this.mTo);
+            // Cast the Ray.
+            this.onRayTest(lCallback);
+            // Fetch the Handle of the nearest object. (Objects that aren't Entities keep Bullet's default UserIndex of -1.)
+            final long lCollisionObject = CollisionJNI.RayResultCallback_collisionObject_get(RayResultCallback.getCPtr(lCallback), lCallback);
+            final int  lHandle          = lCollisionObject != 0L ? CollisionJNI.btCollisionObject_getUserIndex(lCollisionObject, null) : RayQuery.HANDLE_NONE;
+            // Did the Ray miss?
+            if(lHandle < 0) {
+                // Record the miss.
+                pHandles[i]   = RayQuery.HANDLE_NONE;
+                pFractions[i] = 1.0f;
+                continue;
+            }
+            // Fetch the hit.
+            lCallback.getHitPointWorld(this.mPoint);
+            lCallback.getHitNormalWorld(this.mNormal);
+            // Record the hit.
+            pHandles[i]   = lHandle;
+            pFractions[i] = lCallback.getClosestHitFraction();
+            RayQuery.write(pPoints,  i, this.mPoint);
+            RayQuery.write(pNormals, i, this.mNormal);
+            // Count the hit.
+            lHits++;
+        }
+        // Return the number of hits.
+        return lHits;
+    }
+
+    /** Casts the rays, and records every Entity each of them passes through, nearest first. The hits of ray i occupy the range [pOffsets[i], pOffsets[i + 1]), so pOffsets must hold pCount + 1 entries. Hits beyond the capacity of pHandles are discarded. Returns the total number of hits written. */
+    public final int all(final float[] pRays, final int pCount, final int[] pOffsets, final int[] pHandles, final float[] pFractions, final float[] pPoints, final float[] pNormals) {
+        // Fetch the Callback.
+        final AllHitsRayResultCallback lCallback = this.getAllHitsRayResultCallback();
+        final long                     lCPtr     = AllHitsRayResultCallback.getCPtr(lCallback);
+        // Fetch the native result arrays; these are owned by the Callback, and persist between rays.
+        final long lCollisionObjects = CollisionJNI.AllHitsRayResultCallback_collisionObjects_get(lCPtr, lCallback);
+        final long lHitFractions     = CollisionJNI.AllHitsRayResultCallback_hitFractions_get(lCPtr, lCallback);
+        final long lHitNormals       = CollisionJNI.AllHitsRayResultCallback_hitNormalWorld_get(lCPtr, lCallback);
+        final long lHitPoints        = CollisionJNI.AllHitsRayResultCallback_hitPointWorld_get(lCPtr, lCallback);
+        // Declare the number of hits.
+        int lHits = 0;
+        // Iterate the Rays.
+        for(int i = 0; i < pCount; i++) {
+            // Aim the Callback.
+            this.unpack(pRays, i);
+            lCallback.setRayFromWorld(this.mFrom);
+            lCallback.setRayToWorld(this.mTo);
+            // Empty the results of the previous Ray.
+            CollisionJNI.btCollisionObjectConstArray_clear(lCollisionObjects, null);
+            LinearMathJNI.btScalarArray_clear(lHitFractions, null);
+            LinearMathJNI.btVector3Array_clear(lHitNormals, null);
+            LinearMathJNI.btVector3Array_clear(lHitPoints, null);
+            // Cast the Ray.
+            this.onRayTest(lCallback);
+            // Mark where this Ray's hits begin.
+            pOffsets[i] = lHits;
+            // Fetch the number of objects the Ray passed through.
+            final int lObjects = CollisionJNI.btCollisionObjectConstArray_size(lCollisionObjects, null);
+            // Iterate the objects.
+            for(int j = 0; j < lObjects && lHits < pHandles.length; j++) {
+                // Fetch the Handle.
+                final int lHandle = CollisionJNI.btCollisionObject_getUserIndex(CollisionJNI.btCollisionObjectConstArray_at__SWIG_0(lCollisionObjects, null, j), null);
+                // Is the object an Entity?
+                if(lHandle < 0) {
+                    continue;
+                }
+                // Fetch the Fraction.
+                final float lFraction = LinearMathJNI.btScalarArray_at__SWIG_0(lHitFractions, null, j);
+                // Derive the Point from the Fraction, exactly as Bullet does.
+                this.mPoint.set(this.mFrom).lerp(this.mTo, lFraction);
+                // Fetch the Normal. (This is returned through gdx-bullet's shared static Vector3.)
+                this.mNormal.set(LinearMathJNI.btVector3Array_at__SWIG_0(lHitNormals, null, j));
+                // Insert the hit in order of distance; hits arrive in broadphase order, and a ray rarely passes through many objects.
+                int k = lHits;
+                while(k > pOffsets[i] && pFractions[k - 1] > lFraction) {
+                    // Shift the farther hit along.
+                    RayQuery.move(k - 1, k, pHandles, pFractions, pPoints, pNormals);
+                    k--;
+                }
+                // Record the hit.
+                pHandles[k]   = lHandle;
+                pFractions[k] = lFraction;
+                RayQuery.write(pPoints,  k, this.mPoint);
+                RayQuery.write(pNormals, k, this.mNormal);
+                // Count the hit.
+                lHits++;
+            }
+        }
+        // Terminate the final range.
+        pOffsets[pCount] = lHits;
+        // Return the number of hits.
+        return lHits;
+    }
+
+    /** Reads the specified Ray into the endpoints. */
+    private final void unpack(final float[] pRays, final int pIndex) {
+        // Compute the offset of the Ray.
+        final int lOffset = pIndex * RayQuery.STRIDE_RAY;
+        // Unpack the Ray.
+        this.mFrom.set(pRays[lOffset    ], pRays[lOffset + 1], pRays[lOffset + 2]);
+        this.mTo.set(  pRays[lOffset + 3], pRays[lOffset + 4], pRays[lOffset + 5]);
+    }
+
+    /** Resets a Callback, and casts the unpacked Ray into the DynamicsWorld. */
+    private final void onRayTest(final RayResultCallback pRayResultCallback) {
+        // Re-initialize the Callback, since it is re-used.
+        CollisionJNI.RayResultCallback_collisionObject_set(RayResultCallback.getCPtr(pRayResultCallback), pRayResultCallback, 0L, null);
+        pRayResultCallback.setClosestHitFraction(1.0f);
+        // Perform the RayTest.
+        this.getSimulation().getDynamicsWorld().rayTest(this.mFrom, this.mTo, pRayResultCallback);
+    }
+
+    /** Writes a Vector3 into the specified slot of a packed array. */
+    private static final void write(final float[] pVectors, final int pIndex, final Vector3 pVector3) {
+        // Compute the offset of the slot.
+        final int lOffset = pIndex * RayQuery.STRIDE_VECTOR;
+        // Write the components.
+        pVectors[lOffset    ] = pVector3.x;
+        pVectors[lOffset + 1] = pVector3.y;
+        pVectors[lOffset + 2] = pVector3.z;
+    }
+
+    /** Copies a hit from one slot into another. */
+    private static final void move(final int pFrom, final int pTo, final int[] pHandles, final float[] pFractions, final float[] pPoints, final float[] pNormals) {
+        // Copy the scalars.
+        pHandles[pTo]   = pHandles[pFrom];
+        pFractions[pTo] = pFractions[pFrom];
+        // Copy the vectors.
+        System.arraycopy(pPoints,  pFrom * RayQuery.STRIDE_VECTOR, pPoints,  pTo * RayQuery.STRIDE_VECTOR, RayQuery.STRIDE_VECTOR);
+        System.arraycopy(pNormals, pFrom * RayQuery.STRIDE_VECTOR, pNormals, pTo * RayQuery.STRIDE_VECTOR, RayQuery.STRIDE_VECTOR);
+    }
+
+    /** Packs a Ray into the specified slot of a ray array. */
+    public static final void pack(final float[] pRays, final int pIndex, final Vector3 pFrom, final Vector3 pTo) {
+        // Compute the offset of the slot.
+        final int lOffset = pIndex * RayQuery.STRIDE_RAY;
+        // Write the endpoints.
+        pRays[lOffset    ] = pFrom.x;
+        pRays[lOffset + 1] = pFrom.y;
+        pRays[lOffset + 2] = pFrom.z;
+        pRays[lOffset + 3] = pTo.x;
+        pRays[lOffset + 4] = pTo.y;
+        pRays[lOffset + 5] = pTo.z;
+    }
+
+    /** Releases the Callbacks. */
+    @Override public final void dispose() {
+        // Dispose of dependencies.
+        this.getClosestRayResultCallback().dispose();
+        this.getAllHitsRayResultCallback().dispose();
+    }
+
+    /* Getters. */
+    private final PhysicsSimulation getSimulation() {
+        return this.mSimulation;
+    }
+
+    private final ClosestRayResultCallback getClosestRayResultCallback() {
+        return this.mClosestRayResultCallback;
+    }
+
+    private final AllHitsRayResultCallback getAllHitsRayResultCallback() {
+        return this.mAllHitsRayResultCallback;
+    }
+
+}
@@ -0,0 +1,599 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+
+/** A compact log of everything that drives a simulation; each step's elapsed time, each spawn, each pick and each change of SolverProfile, in the order they happened. A simulation recorded from the moment it was compiled may be replayed headlessly, as fast as it can be stepped, and lands in the same place; so a performance regression seen in a session can be reproduced exactly and bisected. The log ends with the Transform of every Instance, which a replay is checked against. Bullet is only deterministic for the same build, the same WorldConfiguration and the same sequence of calls; mutations which aren't logged, such as restoring a WorldCheckpoint's velocities, will cause a replay to diverge. */
+public final class ReplayLog {
+
+    /** Observes a replay. */
+    public interface Listener {
+        /** Called after each step has been replayed, with the time the step took. */
+        void onStep(final PhysicsSimulation pPhysicsSimulation, final int pStep, final long pNanos);
+    }
+
+    /* Event Types. */
+    private static final byte    EVENT_STEP      = 1;
+    private static final byte    EVENT_KEY       = 2;
+    private static final byte    EVENT_SPAWN     = 3;
+    private static final byte    EVENT_PLACE     = 4;
+    private static final byte    EVENT_PICK      = 5;
+    private static final byte    EVENT_SOLVER    = 6;
+    private static final byte    EVENT_END       = 7;
+
+    /* Static Declarations. */
+    private static final int     MAGIC           = 0x524C4F47;
+    private static final int     VERSION         = 3;
+    private static final int     SIZE_HEADER     = 4 + 4 + 4 + 8 + 4 + 4 + 4 + 4 + 4 + 4 + 4;
+    private static final Charset CHARSET         = Charset.forName("UTF-8");
+    private static final String  SUFFIX_PARTIAL  = ".tmp";
+    /** The elements of a Matrix4 which carry a rigid Transform; the basis by column, and then the origin. */
+    private static final int[]   ELEMENTS        = new int[] { Matrix4.M00, Matrix4.M10, Matrix4.M20, Matrix4.M01, Matrix4.M11, Matrix4.M21, Matrix4.M02, Matrix4.M12, Matrix4.M22, Matrix4.M03, Matrix4.M13, Matrix4.M23 };
+
+    /* Member Variables. */
+    private final ObjectIntMap<String> mKeys;
+    private final Matrix4              mTransform;
+    private final Vector3              mPosition;
+    private final Quaternion           mRotation;
+    private final float[]              mRays;
+    private final int[]                mHandles;
+    private final float[]              mFractions;
+    private final float[]              mPoints;
+    private final float[]              mNormals;
+    private       ByteBuffer           mByteBuffer;
+    private       PhysicsSimulation    mRecording;
+    private       int                  mMismatches;
+    private       int                  mSkipped;
+    private       float                mDeviation;
+
+    /** Constructor. The log is empty until something is recorded or read. */
+    public ReplayLog() {
+        // Initialize Member Variables.
+        this.mKeys       = new ObjectIntMap<String>();
+        this.mTransform  = new Matrix4();
+        this.mPosition   = new Vector3();
+        this.mRotation   = new Quaternion();
+        this.mRays       = new float[RayQuery.STRIDE_RAY];
+        this.mHandles    = new int[1];
+        this.mFractions  = new float[1];
+        this.mPoints     = new float[RayQuery.STRIDE_VECTOR];
+        this.mNormals    = new float[RayQuery.STRIDE_VECTOR];
+        this.mByteBuffer = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+        this.mRecording  = null;
+        this.mMismatches = 0;
+        this.mSkipped    = 0;
+        this.mDeviation  = 0.0f;
+    }
+
+    /** Begins recording a simulation, replacing whatever was held. Recording must begin before anything has been spawned, and the simulation's lifecycle configuration must be final; it's stored in the header. Must be called on the thread which steps the simulation. */
+    public final void begin(final PhysicsSimulation pPhysicsSimulation) {
+        // Has the scene already been disturbed?
+        if(pPhysicsSimulation.getLiveBodies() > 0 || pPhysicsSimulation.getFrozenPile().getEntities().size > 0) {
+            throw new IllegalStateException("Recording must begin before anything has been spawned.");
+        }
+        // Forget the previous log.
+        this.mKeys.clear();
+        this.mByteBuffer.clear();
+        // Write the header; the length is filled in whenever the log is written.
+        this.mByteBuffer.putInt(ReplayLog.MAGIC).putInt(ReplayLog.VERSION).putInt(0);
+        this.mByteBuffer.putLong(pPhysicsSimulation.getSeed());
+        this.mByteBuffer.putInt(pPhysicsSimulation.getMaximumBodies());
+        this.mByteBuffer.putFloat(pPhysicsSimulation.getRestTimeout());
+        this.mByteBuffer.putFloat(pPhysicsSimulation.getFreezeTimeout());
+        this.mByteBuffer.putInt(pPhysicsSimulation.getMaximumFrozen());
+        this.mByteBuffer.putFloat(pPhysicsSimulation.getFloorLimit());
+        this.mByteBuffer.putInt(pPhysicsSimulation.getSolverProfile().ordinal());
+        this.mByteBuffer.putFloat(pPhysicsSimulation.getTimeStep());
+        // Start recording.
+        this.mRecording = pPhysicsSimulation;
+        pPhysicsSimulation.setReplayLog(this);
+    }
+
+    /** Stops recording, and appends the Transform of every Instance for replays to be checked against. Must be called on the thread which steps the simulation. */
+    public final void end() {
+        // Are we recording?
+        if(this.mRecording == null) {
+            return;
+        }
+        // Fetch the Instances.
+        final Array<PhysicsEntity> lInstances = this.mRecording.getInstances();
+        // Make room for the final state.
+        this.ensureRemaining(1 + 4 + lInstances.size * (2 + 4 * 7));
+        // Write the final state.
+        this.mByteBuffer.put(ReplayLog.EVENT_END);
+        this.mByteBuffer.putInt(lInstances.size);
+        for(int i = 0; i < lInstances.size; i++) {
+            // Fetch the PhysicsEntity.
+            final PhysicsEntity lPhysicsEntity = lInstances.get(i);
+            // Decompose the simulated Transform.
+            lPhysicsEntity.getWorldTransform().getTranslation(this.mPosition);
+            lPhysicsEntity.getWorldTransform().getRotation(this.mRotation, true);
+            // Write the Instance. (The Floor isn't spawned, so it's identified by its position alone.)
+            this.mByteBuffer.putShort((short)this.mKeys.get(lPhysicsEntity.getNode(), -1));
+            this.mByteBuffer.putFloat(this.mPosition.x).putFloat(this.mPosition.y).putFloat(this.mPosition.z);
+            this.mByteBuffer.putFloat(this.mRotation.x).putFloat(this.mRotation.y).putFloat(this.mRotation.z).putFloat(this.mRotation.w);
+        }
+        // Stop recording.
+        this.mRecording.setReplayLog(null);
+        this.mRecording = null;
+    }
+
+    /** Records a step, as the elapsed time and the most substeps it was allowed. */
+    final void onStep(final float pElapsed, final int pSubSteps) {
+        // Write the step.
+        this.ensureRemaining(1 + 4 + 1);
+        this.mByteBuffer.put(ReplayLog.EVENT_STEP);
+        this.mByteBuffer.putFloat(pElapsed);
+        this.mByteBuffer.put((byte)pSubSteps);
+    }
+
+    /** Records a spawn by Euler angles and position. */
+    final void onSpawn(final String pNode, final float pYaw, final float pPitch, final float pRoll, final float pX, final float pY, final float pZ) {
+        // Fetch the index of the Builder.
+        final int lKey = this.onKey(pNode);
+        // Write the spawn.
+        this.ensureRemaining(1 + 2 + 4 * 6);
+        this.mByteBuffer.put(ReplayLog.EVENT_SPAWN);
+        this.mByteBuffer.putShort((short)lKey);
+        this.mByteBuffer.putFloat(pYaw).putFloat(pPitch).putFloat(pRoll);
+        this.mByteBuffer.putFloat(pX).putFloat(pY).putFloat(pZ);
+    }
+
+    /** Records a spawn at an arbitrary Transform. */
+    final void onSpawn(final String pNode, final Matrix4 pTransform) {
+        // Fetch the index of the Builder.
+        final int lKey = this.onKey(pNode);
+        // Write the spawn.
+        this.ensureRemaining(1 + 2 + 4 * ReplayLog.ELEMENTS.length);
+        this.mByteBuffer.put(ReplayLog.EVENT_PLACE);
+        this.mByteBuffer.putShort((short)lKey);
+        for(final int lElement : ReplayLog.ELEMENTS) {
+            this.mByteBuffer.putFloat(pTransform.val[lElement]);
+        }
+    }
+
+    /** Records a change of SolverProfile. */
+    final void onSolverProfile(final SolverProfile pSolverProfile) {
+        // Write the change.
+        this.ensureRemaining(1 + 1);
+        this.mByteBuffer.put(ReplayLog.EVENT_SOLVER);
+        this.mByteBuffer.put((byte)pSolverProfile.ordinal());
+    }
+
+    /** Records a pick; the Ray is packed as by RayQuery.pack(), and the Handle is what it hit, or RayQuery.HANDLE_NONE. A replay casts the Ray again, and counts the picks which hit something else. Must be called on the thread which steps the simulation. */
+    public final void onPick(final float[] pRays, final int pHandle) {
+        // Write the pick.
+        this.ensureRemaining(1 + 4 * RayQuery.STRIDE_RAY + 4);
+        this.mByteBuffer.put(ReplayLog.EVENT_PICK);
+        for(int i = 0; i < RayQuery.STRIDE_RAY; i++) {
+            this.mByteBuffer.putFloat(pRays[i]);
+        }
+        this.mByteBuffer.putInt(pHandle);
+    }
+
+    /** Returns the index of a Builder's key, defining it within the log the first time it's seen. */
+    private final int onKey(final String pNode) {
+        // Has the key already been defined?
+        final int lKey = this.mKeys.get(pNode, -1);
+        if(lKey >= 0) {
+            return lKey;
+        }
+        // Define the key.
+        final byte[] lBytes = pNode.getBytes(ReplayLog.CHARSET);
+        this.ensureRemaining(1 + 2 + lBytes.length);
+        this.mByteBuffer.put(ReplayLog.EVENT_KEY);
+        this.mByteBuffer.putShort((short)lBytes.length);
+        this.mByteBuffer.put(lBytes);
+        // Assign the next index.
+        this.mKeys.put(pNode, this.mKeys.size);
+        return this.mKeys.size - 1;
+    }
+
+    /** Replays the log into a simulation which has been compiled, but not yet stepped or spawned into. It must have been built with the same WorldConfiguration and Builders as the recording; the rest of the configuration is applied from the log, and random spawning is disabled. Returns the number of steps replayed. The Listener may be null. */
+    public final int replay(final PhysicsSimulation pPhysicsSimulation, final Listener pListener) {
+        // Apply the recorded configuration.
+        final ByteBuffer lByteBuffer = this.getEvents();
+        pPhysicsSimulation.setMaximumBodies(lByteBuffer.getInt(20));
+        pPhysicsSimulation.setRestTimeout(lByteBuffer.getFloat(24));
+        pPhysicsSimulation.setFreezeTimeout(lByteBuffer.getFloat(28));
+        pPhysicsSimulation.setMaximumFrozen(lByteBuffer.getInt(32));
+        pPhysicsSimulation.setFloorLimit(lByteBuffer.getFloat(36));
+        pPhysicsSimulation.setSolverProfile(SolverProfile.values()[lByteBuffer.getInt(40)]);
+        pPhysicsSimulation.setTimeStep(lByteBuffer.getFloat(44));
+        // Spawns and changes of SolverProfile come from the log alone.
+        pPhysicsSimulation.setSpawnInterval(0.0f);
+        pPhysicsSimulation.setSolverGovernor(null);
+        // Allocate the RayQuery that picks are checked with.
+        final RayQuery      lRayQuery = new RayQuery(pPhysicsSimulation);
+        // Declare the keys defined so far.
+        final Array<String> lKeys     = new Array<String>();
+        // Reset the counters.
+        this.mMismatches = 0;
+        this.mSkipped    = 0;
+        // Declare the number of steps.
+        int lSteps = 0;
+        try {
+            // Iterate the events.
+            while(lByteBuffer.hasRemaining()) {
+                // Read the type.
+                final byte lType = lByteBuffer.get();
+                // Has the final state been reached?
+                if(lType == ReplayLog.EVENT_END) {
+                    break;
+                }
+                // Apply the event.
+                switch(lType) {
+                    case ReplayLog.EVENT_STEP   : {
+                        // Step the simulation.
+                        final long lStart = System.nanoTime();
+                        pPhysicsSimulation.advance(lByteBuffer.getFloat(), lByteBuffer.get() & 0xFF);
+                        final long lNanos = System.nanoTime() - lStart;
+                        // Consume the contact events, so that the buffer never saturates.
+                        pPhysicsSimulation.getContactEventBuffer().clear();
+                        // Report the step.
+                        if(pListener != null) {
+                            pListener.onStep(pPhysicsSimulation, lSteps, lNanos);
+                        }
+                        lSteps++;
+                    } break;
+                    case ReplayLog.EVENT_KEY    : {
+                        // Define the key.
+                        final byte[] lBytes = new byte[lByteBuffer.getShort() & 0xFFFF];
+                        lByteBuffer.get(lBytes);
+                        lKeys.add(new String(lBytes, ReplayLog.CHARSET));
+                    } break;
+                    case ReplayLog.EVENT_SPAWN  : {
+                        // Spawn the Entity; is its Builder missing from the simulation?
+                        final String lKey = lKeys.get(lByteBuffer.getShort());
+                        if(pPhysicsSimulation.spawn(lKey, lByteBuffer.getFloat(), lByteBuffer.getFloat(), lByteBuffer.getFloat(), lByteBuffer.getFloat(), lByteBuffer.getFloat(), lByteBuffer.getFloat()) == null) {
+                            this.mSkipped++;
+                        }
+                    } break;
+                    case ReplayLog.EVENT_PLACE  : {
+                        // Read the Transform.
+                        final String  lKey    = lKeys.get(lByteBuffer.getShort());
+                        final float[] lValues = this.mTransform.idt().val;
+                        for(final int lElement : ReplayLog.ELEMENTS) {
+                            lValues[lElement] = lByteBuffer.getFloat();
+                        }
+                        // Spawn the Entity; is its Builder missing from the simulation?
+                        if(pPhysicsSimulation.spawn(lKey, this.mTransform) == null) {
+                            this.mSkipped++;
+                        }
+                    } break;
+                    case ReplayLog.EVENT_PICK   : {
+                        // Read the Ray.
+                        for(int i = 0; i < RayQuery.STRIDE_RAY; i++) {
+                            this.mRays[i] = lByteBuffer.getFloat();
+                        }
+                        // Cast the Ray again; did it hit something else?
+                        final int lHandle = lRayQuery.closest(this.mRays, 1, this.mHandles, this.mFractions, this.mPoints, this.mNormals) > 0 ? this.mHandles[0] : RayQuery.HANDLE_NONE;
+                        if(lHandle != lByteBuffer.getInt()) {
+                            this.mMismatches++;
+                        }
+                    } break;
+                    case ReplayLog.EVENT_SOLVER : {
+                        // Apply the SolverProfile.
+                        pPhysicsSimulation.setSolverProfile(SolverProfile.values()[lByteBuffer.get()]);
+                    } break;
+                    default                     : {
+                        // Assert that the log is malformed.
+                        throw new IllegalStateException("Unknown event " + lType + " at offset " + (lByteBuffer.position() - 1) + ".");
+                    }
+                }
+            }
+        }
+        finally {
+            // Release the RayQuery.
+            lRayQuery.dispose();
+        }
+        // Return the number of steps.
+        return lSteps;
+    }
+
+    /** Compares the Instances of a replayed simulation with the final state of the log. Returns true if there are as many, each was built by the same Builder, and each lies within the Tolerance of where it was recorded; the distance between the positions, or between the rotations as unit Quaternions, whichever is greater, is kept as the deviation. */
+    public final boolean verify(final PhysicsSimulation pPhysicsSimulation, final float pTolerance) {
+        // Find the final state.
+        final ByteBuffer lByteBuffer = this.getEvents();
+        if(!this.seekEnd(lByteBuffer)) {
+            throw new IllegalStateException("The log was never ended, so there's nothing to verify against.");
+        }
+        // Re-read the keys, in the order they were defined.
+        final Array<String> lKeys = this.getKeys();
+        // Fetch the Instances.
+        final Array<PhysicsEntity> lInstances = pPhysicsSimulation.getInstances();
+        // Reset the deviation.
+        this.mDeviation = 0.0f;
+        // Are there as many Instances?
+        if(lByteBuffer.getInt() != lInstances.size) {
+            this.mDeviation = Float.POSITIVE_INFINITY;
+            return false;
+        }
+        // Iterate the Instances.
+        for(int i = 0; i < lInstances.size; i++) {
+            // Fetch the PhysicsEntity.
+            final PhysicsEntity lPhysicsEntity = lInstances.get(i);
+            // Was it built by a different Builder?
+            final int lKey = lByteBuffer.getShort();
+            if(lKey >= 0 && !lKeys.get(lKey).equals(lPhysicsEntity.getNode())) {
+                this.mDeviation = Float.POSITIVE_INFINITY;
+                return false;
+            }
+            // Decompose the replayed Transform.
+            lPhysicsEntity.getWorldTransform().getTranslation(this.mPosition);
+            lPhysicsEntity.getWorldTransform().getRotation(this.mRotation, true);
+            // Measure how far the position has drifted.
+            final float lDistance = this.mPosition.dst(lByteBuffer.getFloat(), lByteBuffer.getFloat(), lByteBuffer.getFloat());
+            // Measure how far the rotation has drifted. (q and -q are the same rotation, so the nearer is taken.)
+            final float lX = lByteBuffer.getFloat(), lY = lByteBuffer.getFloat(), lZ = lByteBuffer.getFloat(), lW = lByteBuffer.getFloat();
+            final float lSign    = this.mRotation.dot(lX, lY, lZ, lW) < 0.0f ? -1.0f : 1.0f;
+            final float lAngular = (float)Math.sqrt((this.mRotation.x - lSign * lX) * (this.mRotation.x - lSign * lX) + (this.mRotation.y - lSign * lY) * (this.mRotation.y - lSign * lY) + (this.mRotation.z - lSign * lZ) * (this.mRotation.z - lSign * lZ) + (this.mRotation.w - lSign * lW) * (this.mRotation.w - lSign * lW));
+            // Keep the worst deviation.
+            this.mDeviation = Math.max(this.mDeviation, Math.max(lDistance, lAngular));
+        }
+        // Is every Instance within the Tolerance?
+        return this.mDeviation <= pTolerance;
+    }
+
+    /** Returns a view of the events, which begin after the header. */
+    private final ByteBuffer getEvents() {
+        // Is there anything to read?
+        if(this.isEmpty()) {
+            throw new IllegalStateException("The " + ReplayLog.class.getSimpleName() + " doesn't hold a log.");
+        }
+        // View the log, without disturbing it.
+        final ByteBuffer lByteBuffer = this.mByteBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        lByteBuffer.flip();
+        lByteBuffer.position(ReplayLog.SIZE_HEADER);
+        // Return the view.
+        return lByteBuffer;
+    }
+
+    /** Returns the keys defined by the log, in the order they were defined. */
+    private final Array<String> getKeys() {
+        // Allocate the keys.
+        final Array<String> lKeys       = new Array<String>();
+        // Fetch the events.
+        final ByteBuffer    lByteBuffer = this.getEvents();
+        // Iterate the events.
+        while(lByteBuffer.hasRemaining()) {
+            // Read the type.
+            final byte lType = lByteBuffer.get();
+            // Is this a key?
+            if(lType == ReplayLog.EVENT_KEY) {
+                // Define the key.
+                final byte[] lBytes = new byte[lByteBuffer.getShort() & 0xFFFF];
+                lByteBuffer.get(lBytes);
+                lKeys.add(new String(lBytes, ReplayLog.CHARSET));
+            }
+            // Has the final state been reached?
+            else if(lType == ReplayLog.EVENT_END || !ReplayLog.skip(lType, lByteBuffer)) {
+                break;
+            }
+        }
+        // Return the keys.
+        return lKeys;
+    }
+
+    /** Positions a view of the events just after the final state's marker. Returns false if the log was never ended. */
+    private final boolean seekEnd(final ByteBuffer pByteBuffer) {
+        // Iterate the events.
+        while(pByteBuffer.hasRemaining()) {
+            // Read the type.
+            final byte lType = pByteBuffer.get();
+            // Has the final state been reached?
+            if(lType == ReplayLog.EVENT_END) {
+                return true;
+            }
+            // Skip the event.
+            if(lType == ReplayLog.EVENT_KEY) {
+                pByteBuffer.position(pByteBuffer.position() + 2 + (pByteBuffer.getShort(pByteBuffer.position()) & 0xFFFF));
+            }
+            else if(!ReplayLog.skip(lType, pByteBuffer)) {
+                return false;
+            }
+        }
+        // Assert that there's no final state.
+        return false;
+    }
+
+    /** Skips the payload of a fixed-size event. Returns false if the type isn't one. */
+    private static final boolean skip(final byte pType, final ByteBuffer pByteBuffer) {
+        // Fetch the size of the payload.
+        final int lSize;
+        switch(pType) {
+            case ReplayLog.EVENT_STEP   : lSize = 4 + 1;                                 break;
+            case ReplayLog.EVENT_SPAWN  : lSize = 2 + 4 * 6;                             break;
+            case ReplayLog.EVENT_PLACE  : lSize = 2 + 4 * ReplayLog.ELEMENTS.length;     break;
+            case ReplayLog.EVENT_PICK   : lSize = 4 * RayQuery.STRIDE_RAY + 4;           break;
+            case ReplayLog.EVENT_SOLVER : lSize = 1;                                     break;
+            default                     : return false;
+        }
+        // Skip the payload.
+        pByteBuffer.position(pByteBuffer.position() + lSize);
+        return true;
+    }
+
+    /** Writes the log to a channel. A log may be written whilst it's still being recorded. */
+    public final void write(final WritableByteChannel pWritableByteChannel) throws IOException {
+        // Fill in the length.
+        this.mByteBuffer.putInt(8, this.mByteBuffer.position());
+        // Write from the start of the log, without disturbing it.
+        final ByteBuffer lByteBuffer = this.mByteBuffer.duplicate();
+        lByteBuffer.flip();
+        // Write the log.
+        while(lByteBuffer.hasRemaining()) {
+            pWritableByteChannel.write(lByteBuffer);
+        }
+    }
+
+    /** Reads a log from a channel, replacing whatever was held. Returns false if the channel ended early, or didn't hold a log of this version; in which case the log is left empty. */
+    public final boolean read(final ReadableByteChannel pReadableByteChannel) throws IOException {
+        // Stop recording; the buffer is about to be replaced.
+        this.end();
+        // Read the header.
+        this.mByteBuffer.clear().limit(ReplayLog.SIZE_HEADER);
+        if(!ReplayLog.fill(pReadableByteChannel, this.mByteBuffer) || !ReplayLog.isHeader(this.mByteBuffer)) {
+            return this.onInvalid();
+        }
+        // Make room for the log, keeping the header.
+        final int lLength = this.mByteBuffer.getInt(8);
+        this.mByteBuffer.limit(this.mByteBuffer.capacity());
+        this.ensureRemaining(lLength - ReplayLog.SIZE_HEADER);
+        // Read the remainder of the log.
+        this.mByteBuffer.limit(lLength);
+        if(!ReplayLog.fill(pReadableByteChannel, this.mByteBuffer)) {
+            return this.onInvalid();
+        }
+        // Hold the log, positioned at its end.
+        this.mByteBuffer.limit(this.mByteBuffer.capacity());
+        return true;
+    }
+
+    /** Writes the log to a file. The log is written alongside, and then moved into place; so an interrupted save never leaves a truncated file behind. */
+    public final void save(final File pFile) throws IOException {
+        // Write to a partial file first.
+        final File lPartial = new File(pFile.getPath() + ReplayLog.SUFFIX_PARTIAL);
+        // Ensure the directory exists.
+        if(pFile.getParentFile() != null) {
+            pFile.getParentFile().mkdirs();
+        }
+        // Open the partial file.
+        final FileOutputStream lFileOutputStream = new FileOutputStream(lPartial);
+        try {
+            // Write the log.
+            this.write(lFileOutputStream.getChannel());
+        }
+        finally {
+            // Close the partial file.
+            lFileOutputStream.close();
+        }
+        // Publish the log.
+        if(!lPartial.renameTo(pFile)) {
+            // Replace the existing log, and try again.
+            pFile.delete();
+            if(!lPartial.renameTo(pFile)) {
+                throw new IOException("Failed to replace " + pFile + ".");
+            }
+        }
+    }
+
+    /** Loads a log from a file, by mapping it into memory; this replaces whatever was held. Returns false if there's no file, or it doesn't hold a log of this version; in which case the log is left empty. */
+    public final boolean load(final File pFile) throws IOException {
+        // Stop recording; the buffer is about to be replaced.
+        this.end();
+        // Is there a log?
+        if(!pFile.isFile()) {
+            return this.onInvalid();
+        }
+        // Open the log.
+        final RandomAccessFile lRandomAccessFile = new RandomAccessFile(pFile, "r");
+        try {
+            // Map the log.
+            final ByteBuffer lMappedBuffer = lRandomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, lRandomAccessFile.length()).order(ByteOrder.LITTLE_ENDIAN);
+            // Is the log malformed, from a different version, or truncated?
+            if(!ReplayLog.isHeader(lMappedBuffer) || lMappedBuffer.getInt(8) != lMappedBuffer.capacity()) {
+                return this.onInvalid();
+            }
+            // Copy the log, positioned at its end.
+            this.mByteBuffer.clear();
+            this.ensureRemaining(lMappedBuffer.capacity());
+            this.mByteBuffer.put(lMappedBuffer);
+            return true;
+        }
+        finally {
+            // Close the log.
+            lRandomAccessFile.close();
+        }
+    }
+
+    /** Empties the log, and reports that nothing valid was read. */
+    private final boolean onInvalid() {
+        // Hold nothing.
+        this.mByteBuffer.clear();
+        // Assert that the log is invalid.
+        return false;
+    }
+
+    /** Returns whether a buffer begins with a well-formed header of this version. */
+    private static final boolean isHeader(final ByteBuffer pByteBuffer) {
+        // Is there room for a header, and is it of this version?
+        return pByteBuffer.limit() >= ReplayLog.SIZE_HEADER && pByteBuffer.getInt(0) == ReplayLog.MAGIC && pByteBuffer.getInt(4) == ReplayLog.VERSION && pByteBuffer.getInt(8) >= ReplayLog.SIZE_HEADER && pByteBuffer.getInt(40) >= 0 && pByteBuffer.getInt(40) < SolverProfile.values().length && pByteBuffer.getFloat(44) > 0.0f;
+    }
+
+    /** Reads from a channel until the buffer is full. Returns false if the channel ended first. */
+    private static final boolean fill(final ReadableByteChannel pReadableByteChannel, final ByteBuffer pByteBuffer) throws IOException {
+        // Whilst there's room.
+        while(pByteBuffer.hasRemaining()) {
+            // Has the channel ended?
+            if(pReadableByteChannel.read(pByteBuffer) < 0) {
+                return false;
+            }
+        }
+        // Assert that the buffer was filled.
+        return true;
+    }
+
+    /** Grows the buffer so that the specified number of bytes may be appended, keeping its contents. */
+    private final void ensureRemaining(final int pBytes) {
+        // Do we already have enough room?
+        if(pBytes <= this.mByteBuffer.remaining()) {
+            return;
+        }
+        // Allocate the larger buffer.
+        final ByteBuffer lByteBuffer = ByteBuffer.allocate(Math.max(this.mByteBuffer.position() + pBytes, this.mByteBuffer.capacity() << 1)).order(ByteOrder.LITTLE_ENDIAN);
+        // Copy the contents, up to the current position.
+        this.mByteBuffer.flip();
+        lByteBuffer.put(this.mByteBuffer);
+        // Assign the buffer.
+        this.mByteBuffer = lByteBuffer;
+    }
+
+    /* Getters. */
+    /** Returns whether nothing has been recorded or read. */
+    public final boolean isEmpty() {
+        return this.mByteBuffer.position() == 0;
+    }
+
+    /** Returns whether a simulation is being recorded. */
+    public final boolean isRecording() {
+        return this.mRecording != null;
+    }
+
+    /** Returns the size of the log, in bytes. */
+    public final int getSize() {
+        return this.mByteBuffer.position();
+    }
+
+    /** Returns the number of picks which hit something else during the last replay. */
+    public final int getMismatches() {
+        return this.mMismatches;
+    }
+
+    /** Returns the number of spawns whose Builder was missing from the simulation during the last replay. */
+    public final int getSkipped() {
+        return this.mSkipped;
+    }
+
+    /** Returns the worst deviation found by the last verify. */
+    public final float getDeviation() {
+        return this.mDeviation;
+    }
+
+}
@@ -0,0 +1,173 @@
+package io.github.cawfree.libgdx.simulation;
+
+/** The cost and population of a PhysicsSimulation's most recent update. Written by the thread that steps the simulation; a copy is published with each TransformSnapshot so that other threads may read it. */
+public final class SimulationStatistics {
+
+    /* Member Variables. */
+    private long  mStepNanos;
+    private long  mSpawnNanos;
+    private long  mSpawns;
+    private int   mBodies;
+    private int   mActiveBodies;
+    private int   mSleepingBodies;
+    private int   mFrozenBodies;
+    private int   mContacts;
+    private int   mPairs;
+    private int   mTestedPairs;
+    private int   mRejectedPairs;
+    private int   mSubSteps;
+    private int   mOverruns;
+    private float mDroppedTime;
+
+    /** Constructor. */
+    public SimulationStatistics() {
+        // Initialize Member Variables.
+        this.mStepNanos      = 0L;
+        this.mSpawnNanos     = 0L;
+        this.mSpawns         = 0L;
+        this.mBodies         = 0;
+        this.mActiveBodies   = 0;
+        this.mSleepingBodies = 0;
+        this.mFrozenBodies   = 0;
+        this.mContacts       = 0;
+        this.mPairs          = 0;
+        this.mTestedPairs    = 0;
+        this.mRejectedPairs  = 0;
+        this.mSubSteps       = 0;
+        this.mOverruns       = 0;
+        this.mDroppedTime    = 0.0f;
+    }
+
+    /** Records the cost of an update. */
+    final void onUpdate(final long pStepNanos, final long pSpawnNanos, final int pBodies, final int pActiveBodies, final int pSleepingBodies, final int pFrozenBodies, final int pContacts) {
+        // Assign the costs.
+        this.mStepNanos      = pStepNanos;
+        this.mSpawnNanos     = pSpawnNanos;
+        // Assign the population.
+        this.mBodies         = pBodies;
+        this.mActiveBodies   = pActiveBodies;
+        this.mSleepingBodies = pSleepingBodies;
+        this.mFrozenBodies   = pFrozenBodies;
+        this.mContacts       = pContacts;
+    }
+
+    /** Records the broadphase's pairs. */
+    final void onPairs(final int pPairs, final int pTestedPairs, final int pRejectedPairs) {
+        // Assign the pairs.
+        this.mPairs         = pPairs;
+        this.mTestedPairs   = pTestedPairs;
+        this.mRejectedPairs = pRejectedPairs;
+    }
+
+    /** Records an update which took no steps. */
+    final void onIdle() {
+        // Nothing was stepped or spawned.
+        this.mStepNanos  = 0L;
+        this.mSpawnNanos = 0L;
+    }
+
+    /** Records how an update was divided into steps, and the simulated time it dropped. */
+    final void onFrame(final int pSubSteps, final float pDropped, final boolean pIsOverrun) {
+        // Assign the steps.
+        this.mSubSteps     = pSubSteps;
+        // Accumulate the losses.
+        this.mDroppedTime += pDropped;
+        this.mOverruns    += pIsOverrun ? 1 : 0;
+    }
+
+    /** Counts a spawn. */
+    final void onSpawn() {
+        // Increment the Spawns.
+        this.mSpawns++;
+    }
+
+    /** Copies another set of statistics into this one. */
+    public final SimulationStatistics set(final SimulationStatistics pSimulationStatistics) {
+        // Copy the fields.
+        this.mStepNanos      = pSimulationStatistics.getStepNanos();
+        this.mSpawnNanos     = pSimulationStatistics.getSpawnNanos();
+        this.mSpawns         = pSimulationStatistics.getSpawns();
+        this.mBodies         = pSimulationStatistics.getBodies();
+        this.mActiveBodies   = pSimulationStatistics.getActiveBodies();
+        this.mSleepingBodies = pSimulationStatistics.getSleepingBodies();
+        this.mFrozenBodies   = pSimulationStatistics.getFrozenBodies();
+        this.mContacts       = pSimulationStatistics.getContacts();
+        this.mPairs          = pSimulationStatistics.getPairs();
+        this.mTestedPairs    = pSimulationStatistics.getTestedPairs();
+        this.mRejectedPairs  = pSimulationStatistics.getRejectedPairs();
+        this.mSubSteps       = pSimulationStatistics.getSubSteps();
+        this.mOverruns       = pSimulationStatistics.getOverruns();
+        this.mDroppedTime    = pSimulationStatistics.getDroppedTime();
+        // Return the reference.
+        return this;
+    }
+
+    /* Getters. */
+    /** Returns the time spent inside stepSimulation, excluding spawning. */
+    public final long getStepNanos() {
+        return this.mStepNanos;
+    }
+
+    public final long getSpawnNanos() {
+        return this.mSpawnNanos;
+    }
+
+    /** Returns the total number of Entities spawned since the simulation was created. */
+    public final long getSpawns() {
+        return this.mSpawns;
+    }
+
+    /** Returns the number of live bodies, including the Floor. */
+    public final int getBodies() {
+        return this.mBodies;
+    }
+
+    public final int getActiveBodies() {
+        return this.mActiveBodies;
+    }
+
+    public final int getSleepingBodies() {
+        return this.mSleepingBodies;
+    }
+
+    /** Returns the number of Entities baked into the FrozenPile. */
+    public final int getFrozenBodies() {
+        return this.mFrozenBodies;
+    }
+
+    /** Returns the number of touching contact points, as seen by the ContactTracker; this is zero whilst contacts are reported through the ContactListener. */
+    public final int getContacts() {
+        return this.mContacts;
+    }
+
+    /** Returns the number of overlapping pairs that the broadphase handed to the narrowphase. */
+    public final int getPairs() {
+        return this.mPairs;
+    }
+
+    /** Returns the number of candidate pairs the broadphase tested against the collision layers since the previous update; this is zero unless a PairAudit is installed. */
+    public final int getTestedPairs() {
+        return this.mTestedPairs;
+    }
+
+    /** Returns how many of the tested pairs the collision layers rejected before the narrowphase; this is zero unless a PairAudit is installed. */
+    public final int getRejectedPairs() {
+        return this.mRejectedPairs;
+    }
+
+    /** Returns the number of fixed steps the most recent update took. */
+    public final int getSubSteps() {
+        return this.mSubSteps;
+    }
+
+    /** Returns the number of updates which owed more steps than they could take. */
+    public final int getOverruns() {
+        return this.mOverruns;
+    }
+
+    /** Returns the total simulated time that updates have dropped, in seconds. */
+    public final float getDroppedTime() {
+        return this.mDroppedTime;
+    }
+
+}
@@ -0,0 +1,102 @@
+package io.github.cawfree.libgdx.simulation;
+
+/** Trades solver quality for speed. The cost of each step is smoothed, and when it stays over budget the simulation is moved to a cheaper SolverProfile; once it has stayed comfortably under budget for much longer, quality is restored, up to a ceiling. The asymmetry stops the profile from oscillating. A SolverGovernor must only be used from the thread which steps the simulation. */
+public final class SolverGovernor {
+
+    /* Static Declarations. */
+    private static final float SMOOTHING       = 0.1f;
+    private static final float HEADROOM        = 0.5f;
+    private static final int   STEPS_DOWNGRADE = 30;
+    private static final int   STEPS_UPGRADE   = 300;
+
+    /* Member Variables. */
+    private final long          mBudget;
+    private final SolverProfile mCeiling;
+    private       float         mAverage;
+    private       int           mOver;
+    private       int           mUnder;
+    private       int           mDowngrades;
+    private       int           mUpgrades;
+
+    /** Constructor. The Budget is the time, in nanoseconds, that a step may take; the Ceiling is the most accurate SolverProfile the governor will select. */
+    public SolverGovernor(final long pBudget, final SolverProfile pCeiling) {
+        // Initialize Member Variables.
+        this.mBudget     = pBudget;
+        this.mCeiling    = pCeiling;
+        this.mAverage    = -1.0f;
+        this.mOver       = 0;
+        this.mUnder      = 0;
+        this.mDowngrades = 0;
+        this.mUpgrades   = 0;
+    }
+
+    /** Called once the simulation has updated. */
+    final void onUpdate(final PhysicsSimulation pPhysicsSimulation) {
+        // Fetch the cost of the step.
+        final long lStepNanos = pPhysicsSimulation.getStatistics().getStepNanos();
+        // Smooth the cost. (The first step seeds the average.)
+        this.mAverage = this.mAverage < 0.0f ? lStepNanos : this.mAverage + (lStepNanos - this.mAverage) * SolverGovernor.SMOOTHING;
+        // Is the simulation over budget?
+        if(this.mAverage > this.getBudget()) {
+            // Count the step.
+            this.mOver++;
+            this.mUnder = 0;
+            // Has it been over budget for long enough?
+            if(this.mOver >= SolverGovernor.STEPS_DOWNGRADE) {
+                // Can we go any cheaper?
+                if(pPhysicsSimulation.getSolverProfile() != pPhysicsSimulation.getSolverProfile().cheaper()) {
+                    // Downgrade the Solver.
+                    pPhysicsSimulation.setSolverProfile(pPhysicsSimulation.getSolverProfile().cheaper());
+                    this.mDowngrades++;
+                }
+                // Give the new profile time to settle.
+                this.mOver = 0;
+            }
+        }
+        // Is there room for a dearer profile?
+        else if(this.mAverage < this.getBudget() * SolverGovernor.HEADROOM) {
+            // Count the step.
+            this.mUnder++;
+            this.mOver = 0;
+            // Has it been under budget for long enough?
+            if(this.mUnder >= SolverGovernor.STEPS_UPGRADE) {
+                // Are we beneath the Ceiling?
+                if(pPhysicsSimulation.getSolverProfile().ordinal() < this.getCeiling().ordinal()) {
+                    // Upgrade the Solver.
+                    pPhysicsSimulation.setSolverProfile(pPhysicsSimulation.getSolverProfile().dearer());
+                    this.mUpgrades++;
+                }
+                // Give the new profile time to settle.
+                this.mUnder = 0;
+            }
+        }
+        else {
+            // The cost is acceptable; hold the profile.
+            this.mOver  = 0;
+            this.mUnder = 0;
+        }
+    }
+
+    /* Getters. */
+    public final long getBudget() {
+        return this.mBudget;
+    }
+
+    public final SolverProfile getCeiling() {
+        return this.mCeiling;
+    }
+
+    /** Returns the smoothed cost of a step, in nanoseconds. */
+    public final float getAverage() {
+        return this.mAverage;
+    }
+
+    public final int getDowngrades() {
+        return this.mDowngrades;
+    }
+
+    public final int getUpgrades() {
+        return this.mUpgrades;
+    }
+
+}
@@ -0,0 +1,298 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.ClosestConvexResultCallback;
+import com.badlogic.gdx.physics.bullet.collision.CollisionJNI;
+import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
+import com.badlogic.gdx.physics.bullet.collision.btBroadphaseAabbCallback;
+import com.badlogic.gdx.physics.bullet.collision.btBroadphaseProxy;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btConvexShape;
+import com.badlogic.gdx.physics.bullet.collision.btGhostPairCallback;
+import com.badlogic.gdx.physics.bullet.collision.btSphereShape;
+import com.badlogic.gdx.physics.bullet.linearmath.LinearMathJNI;
+import com.badlogic.gdx.physics.bullet.linearmath.btVector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+/** Answers "what is in this region" questions about a PhysicsSimulation through its broadphase, rather than by iterating the Instances. AABB overlaps walk the broadphase's tree, convex sweeps are batched like a RayQuery, and TriggerVolumes report the Entities that enter and leave them. Results are written into caller-provided primitive arrays, and callbacks and cast shapes are allocated once; so sweeps generate no garbage, whilst an overlap allocates only the small wrapper that SWIG creates for each candidate proxy it hands to the callback. Hits are mapped onto Entity handles through the native UserIndex. A SpatialQuery must only be used on the thread which steps its simulation, and must be disposed of before it. */
+public final class SpatialQuery implements Disposable {
+
+    /** Collects the Entities whose broadphase proxies overlap an AABB. */
+    private static final class OverlapCallback extends btBroadphaseAabbCallback {
+        /* Member Variables. */
+        private final Vector3 mMinimum;
+        private final Vector3 mMaximum;
+        private final Vector3 mProxyMinimum;
+        private final Vector3 mProxyMaximum;
+        private       int[]   mHandles;
+        private       int     mHits;
+        private       short   mGroup;
+        private       short   mMask;
+        /** Constructor. */
+        private OverlapCallback() {
+            // Initialize Member Variables.
+            this.mMinimum      = new Vector3();
+            this.mMaximum      = new Vector3();
+            this.mProxyMinimum = new Vector3();
+            this.mProxyMaximum = new Vector3();
+            this.mHandles      = null;
+            this.mHits         = 0;
+            this.mGroup        = (short)-1;
+            this.mMask         = (short)-1;
+        }
+        /** Called for each proxy whose tree node overlaps the AABB, through a fresh wrapper that SWIG allocates for the call. Returns true to continue the search. */
+        @Override public final boolean process(final btBroadphaseProxy pBroadphaseProxy) {
+            // Does the proxy pass the filter?
+            if((pBroadphaseProxy.getCollisionFilterGroup() & this.mMask) == 0 || (this.mGroup & pBroadphaseProxy.getCollisionFilterMask()) == 0) {
+                return true;
+            }
+            // Fetch the Handle. (Objects that aren't Entities keep Bullet's default UserIndex of -1.)
+            final int lHandle = CollisionJNI.btCollisionObject_getUserIndex(pBroadphaseProxy.getClientObject(), null);
+            // Is the object an Entity, and is there room to record it?
+            if(lHandle < 0 || this.mHits >= this.mHandles.length) {
+                return true;
+            }
+            // Read the proxy's exact AABB straight from its native fields, rather than through further btVector3 wrappers.
+            final long lProxy = btBroadphaseProxy.getCPtr(pBroadphaseProxy);
+            SpatialQuery.read(CollisionJNI.btBroadphaseProxy_aabbMin_get(lProxy, pBroadphaseProxy), this.mProxyMinimum);
+            SpatialQuery.read(CollisionJNI.btBroadphaseProxy_aabbMax_get(lProxy, pBroadphaseProxy), this.mProxyMaximum);
+            // Does the proxy's exact AABB overlap? (Tree nodes are padded, so their overlap is only a candidate.)
+            if(!SpatialQuery.isOverlapping(this.mProxyMinimum, this.mProxyMaximum, this.mMinimum, this.mMaximum)) {
+                return true;
+            }
+            // Record the Entity.
+            this.mHandles[this.mHits++] = lHandle;
+            // Continue the search.
+            return true;
+        }
+    }
+
+    /* Member Variables. */
+    private final PhysicsSimulation           mSimulation;
+    private final OverlapCallback             mOverlapCallback;
+    private final ClosestConvexResultCallback mClosestConvexResultCallback;
+    private final btGhostPairCallback         mGhostPairCallback;
+    private final btSphereShape               mSphereShape;
+    private final btBoxShape                  mBoxShape;
+    private final Array<TriggerVolume>        mTriggerVolumes;
+    private final Matrix4                     mFromTransform;
+    private final Matrix4                     mToTransform;
+    private final Vector3                     mFrom;
+    private final btVector3                   mConvexFrom;
+    private final Vector3                     mTo;
+    private final Vector3                     mPoint;
+    private final Vector3                     mNormal;
+
+    /** Constructor. */
+    public SpatialQuery(final PhysicsSimulation pPhysicsSimulation) {
+        // Initialize Member Variables.
+        this.mSimulation                  = pPhysicsSimulation;
+        this.mOverlapCallback             = new OverlapCallback();
+        this.mClosestConvexResultCallback = new ClosestConvexResultCallback(Vector3.Zero, Vector3.Z);
+        this.mGhostPairCallback           = new btGhostPairCallback();
+        this.mSphereShape                 = new btSphereShape(1.0f);
+        this.mBoxShape                    = new btBoxShape(new Vector3(1.0f, 1.0f, 1.0f));
+        this.mTriggerVolumes              = new Array<TriggerVolume>();
+        this.mFromTransform               = new Matrix4();
+        this.mToTransform                 = new Matrix4();
+        this.mFrom                        = new Vector3();
+        this.mConvexFrom                  = new btVector3();
+        this.mTo                          = new Vector3();
+        this.mPoint                       = new Vector3();
+        this.mNormal                      = new Vector3();
+        // Have the pair cache keep each GhostObject's overlapping objects up to date.
+        this.getSimulation().getDynamicsWorld().getPairCache().setInternalGhostPairCallback(this.getGhostPairCallback());
+    }
+
+    /** Restricts the queries to objects whose group matches the mask; by default, queries find everything. TriggerVolumes are filtered by their own layer instead. */
+    public final void setFilter(final short pGroup, final short pMask) {
+        // Configure the Callbacks.
+        this.getOverlapCallback().mGroup = pGroup;
+        this.getOverlapCallback().mMask  = pMask;
+        this.getClosestConvexResultCallback().setCollisionFilterGroup(pGroup);
+        this.getClosestConvexResultCallback().setCollisionFilterMask(pMask);
+    }
+
+    /** Finds the Entities whose AABB overlaps the specified AABB, by walking the broadphase. The handles are written into pHandles; Entities beyond its capacity are discarded. Returns the number of handles written. */
+    public final int overlap(final Vector3 pMinimum, final Vector3 pMaximum, final int[] pHandles) {
+        // Fetch the Callback.
+        final OverlapCallback lCallback = this.getOverlapCallback();
+        // Aim the Callback.
+        lCallback.mMinimum.set(pMinimum);
+        lCallback.mMaximum.set(pMaximum);
+        lCallback.mHandles = pHandles;
+        lCallback.mHits    = 0;
+        // Walk the broadphase.
+        this.getSimulation().getDynamicsWorld().getBroadphase().aabbTest(pMinimum, pMaximum, lCallback);
+        // Forget the caller's array.
+        lCallback.mHandles = null;
+        // Return the number of hits.
+        return lCallback.mHits;
+    }
+
+    /** Sweeps a sphere of the specified radius along each of the sweeps, and records the nearest hit of each. Sweeps are packed and written exactly as the rays of RayQuery.closest. Returns the number of sweeps which hit an Entity. */
+    public final int sphereCast(final float pRadius, final float[] pSweeps, final int pCount, final int[] pHandles, final float[] pFractions, final float[] pPoints, final float[] pNormals) {
+        // Size the Sphere.
+        this.getSphereShape().setUnscaledRadius(pRadius);
+        // Sweep the Sphere.
+        return this.convexCast(this.getSphereShape(), pSweeps, pCount, pHandles, pFractions, pPoints, pNormals);
+    }
+
+    /** Sweeps an axis-aligned box of the specified half extents along each of the sweeps, and records the nearest hit of each. Sweeps are packed and written exactly as the rays of RayQuery.closest. Returns the number of sweeps which hit an Entity. */
+    public final int boxCast(final Vector3 pHalfExtents, final float[] pSweeps, final int pCount, final int[] pHandles, final float[] pFractions, final float[] pPoints, final float[] pNormals) {
+        // Size the Box; it's a unit box, so the scale is the half extents.
+        this.getBoxShape().setLocalScaling(pHalfExtents);
+        // Sweep the Box.
+        return this.convexCast(this.getBoxShape(), pSweeps, pCount, pHandles, pFractions, pPoints, pNormals);
+    }
+
+    /** Sweeps a ConvexShape, without rotation, along each of the sweeps, and records the nearest hit of each. Sweeps are packed and written exactly as the rays of RayQuery.closest; sweeps that hit nothing are given RayQuery.HANDLE_NONE. Returns the number of sweeps which hit an Entity. */
+    public final int convexCast(final btConvexShape pConvexShape, final float[] pSweeps, final int pCount, final int[] pHandles, final float[] pFractions, final float[] pPoints, final float[] pNormals) {
+        // Fetch the Callback.
+        final ClosestConvexResultCallback lCallback = this.getClosestConvexResultCallback();
+        final long                        lCPtr     = ClosestConvexResultCallback.getCPtr(lCallback);
+        // Declare the number of hits.
+        int lHits = 0;
+        // Iterate the Sweeps.
+        for(int i = 0; i < pCount; i++) {
+            // Unpack the Sweep.
+            final int lOffset = i * RayQuery.STRIDE_RAY;
+            this.mFrom.set(pSweeps[lOffset    ], pSweeps[lOffset + 1], pSweeps[lOffset + 2]);
+            this.mTo.set(  pSweeps[lOffset + 3], pSweeps[lOffset + 4], pSweeps[lOffset + 5]);
+            this.mFromTransform.setToTranslation(this.mFrom);
+            this.mToTransform.setToTranslation(this.mTo);
+            // Re-initialize the Callback, since it is re-used.
+            CollisionJNI.ClosestConvexResultCallback_hitCollisionObject_set(lCPtr, lCallback, 0L, null);
+            lCallback.setClosestHitFraction(1.0f);
+            this.mConvexFrom.setValue(this.mFrom.x, this.mFrom.y, this.mFrom.z);
+            lCallback.setConvexFromWorld(this.mConvexFrom);
+            lCallback.setConvexToWorld(this.mTo);
+            // Sweep the Shape.
+            this.getSimulation().getDynamicsWorld().convexSweepTest(pConvexShape, this.mFromTransform, this.mToTransform, lCallback);
+            // Fetch the Handle of the nearest object.
+            final long lCollisionObject = CollisionJNI.ClosestConvexResultCallback_hitCollisionObject_get(lCPtr, lCallback);
+            final int  lHandle          = lCollisionObject != 0L ? CollisionJNI.btCollisionObject_getUserIndex(lCollisionObject, null) : RayQuery.HANDLE_NONE;
+            // Did the Sweep miss?
+            if(lHandle < 0) {
+                // Record the miss.
+                pHandles[i]   = RayQuery.HANDLE_NONE;
+                pFractions[i] = 1.0f;
+                continue;
+            }
+            // Fetch the hit; the point is where the Shape first touches the Entity.
+            lCallback.getHitPointWorld(this.mPoint);
+            lCallback.getHitNormalWorld(this.mNormal);
+            // Record the hit.
+            pHandles[i]   = lHandle;
+            pFractions[i] = lCallback.getClosestHitFraction();
+            SpatialQuery.write(pPoints,  i, this.mPoint);
+            SpatialQuery.write(pNormals, i, this.mNormal);
+            // Count the hit.
+            lHits++;
+        }
+        // Return the number of hits.
+        return lHits;
+    }
+
+    /** Places a TriggerVolume of the specified shape into the scene, on the specified collision layer; it tracks the Entities whose layers collide with it. The CollisionShape is owned by the caller. */
+    public final TriggerVolume createTrigger(final btCollisionShape pCollisionShape, final Matrix4 pTransform, final String pLayer) {
+        // Allocate the TriggerVolume.
+        final TriggerVolume lTriggerVolume = new TriggerVolume(pCollisionShape, pTransform, pLayer);
+        // Add it to the DynamicsWorld.
+        this.getSimulation().getDynamicsWorld().addCollisionObject(lTriggerVolume.getGhostObject(), this.getSimulation().getCollisionLayers().getGroup(pLayer), this.getSimulation().getCollisionLayers().getMask(pLayer));
+        // Track the TriggerVolume.
+        this.getTriggerVolumes().add(lTriggerVolume);
+        // Return the TriggerVolume.
+        return lTriggerVolume;
+    }
+
+    /** Removes a TriggerVolume from the scene, and releases it. */
+    public final void destroyTrigger(final TriggerVolume pTriggerVolume) {
+        // Was the TriggerVolume created here?
+        if(this.getTriggerVolumes().removeValue(pTriggerVolume, true)) {
+            // Detach the GhostObject before it is freed.
+            this.getSimulation().getDynamicsWorld().removeCollisionObject(pTriggerVolume.getGhostObject());
+            pTriggerVolume.getGhostObject().dispose();
+        }
+    }
+
+    /** Refreshes every TriggerVolume. Should be called after each step, so that each reports the Entities which entered and exited during it. */
+    public final void update() {
+        // Iterate the TriggerVolumes.
+        for(int i = 0; i < this.getTriggerVolumes().size; i++) {
+            // Update the TriggerVolume.
+            this.getTriggerVolumes().get(i).update();
+        }
+    }
+
+    /** Determines whether two AABBs overlap. */
+    private static final boolean isOverlapping(final Vector3 pMinimum0, final Vector3 pMaximum0, final Vector3 pMinimum1, final Vector3 pMaximum1) {
+        // Test each axis.
+        return pMinimum0.x <= pMaximum1.x && pMaximum0.x >= pMinimum1.x && pMinimum0.y <= pMaximum1.y && pMaximum0.y >= pMinimum1.y && pMinimum0.z <= pMaximum1.z && pMaximum0.z >= pMinimum1.z;
+    }
+
+    /** Reads a native btVector3, by address, into a Vector3. */
+    private static final void read(final long pVector, final Vector3 pVector3) {
+        // Fetch the components.
+        pVector3.set(LinearMathJNI.btVector3_getX(pVector, null), LinearMathJNI.btVector3_getY(pVector, null), LinearMathJNI.btVector3_getZ(pVector, null));
+    }
+
+    /** Writes a Vector3 into the specified slot of a packed array. */
+    private static final void write(final float[] pVectors, final int pIndex, final Vector3 pVector3) {
+        // Compute the offset of the slot.
+        final int lOffset = pIndex * RayQuery.STRIDE_VECTOR;
+        // Write the components.
+        pVectors[lOffset    ] = pVector3.x;
+        pVectors[lOffset + 1] = pVector3.y;
+        pVectors[lOffset + 2] = pVector3.z;
+    }
+
+    /** Releases the TriggerVolumes, the Callbacks and the cast shapes. */
+    @Override public final void dispose() {
+        // Release every TriggerVolume.
+        while(this.getTriggerVolumes().size > 0) {
+            this.destroyTrigger(this.getTriggerVolumes().peek());
+        }
+        // Stop tracking ghost pairs before the Callback is freed.
+        this.getSimulation().getDynamicsWorld().getPairCache().setInternalGhostPairCallback(null);
+        // Dispose of dependencies.
+        this.getOverlapCallback().dispose();
+        this.getClosestConvexResultCallback().dispose();
+        this.getGhostPairCallback().dispose();
+        this.getSphereShape().dispose();
+        this.getBoxShape().dispose();
+        this.mConvexFrom.dispose();
+    }
+
+    /* Getters. */
+    private final PhysicsSimulation getSimulation() {
+        return this.mSimulation;
+    }
+
+    private final OverlapCallback getOverlapCallback() {
+        return this.mOverlapCallback;
+    }
+
+    private final ClosestConvexResultCallback getClosestConvexResultCallback() {
+        return this.mClosestConvexResultCallback;
+    }
+
+    private final btGhostPairCallback getGhostPairCallback() {
+        return this.mGhostPairCallback;
+    }
+
+    private final btSphereShape getSphereShape() {
+        return this.mSphereShape;
+    }
+
+    private final btBoxShape getBoxShape() {
+        return this.mBoxShape;
+    }
+
+    public final Array<TriggerVolume> getTriggerVolumes() {
+        return this.mTriggerVolumes;
+    }
+
+}
@@ -0,0 +1,237 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/** Divides frame time into fixed steps within a CPU budget. Elapsed time is accumulated, and each frame takes as many whole steps as the accumulator holds, but no more than the budget affords at the measured cost of a step; so a heavy scene can't fall into the spiral of taking ever more steps to catch up. Time that can't be afforded is discarded, and reported as dropped; the Policy decides how the simulation degrades to stop dropping more. What remains in the accumulator is the fraction of a step that hasn't been simulated yet. A StepController must only be used from the thread which steps the simulation. */
+public final class StepController {
+
+    /** How the simulation degrades when a frame can't afford the steps it's owed. */
+    public enum Policy {
+        /** Discard the unaffordable time; simulated time stutters, but runs at the wall clock's rate when it can. */
+        DROP,
+        /** Slow simulated time until the steps fit the budget, and recover gradually once they comfortably do; the scene runs in slow motion rather than stuttering. */
+        SLOW,
+        /** Move to a cheaper SolverProfile until the steps fit the budget, and restore quality once they've comfortably fitted for a while. */
+        DEGRADE
+    }
+
+    /* Static Declarations. */
+    public  static final int   DEFAULT_MAXIMUM_STEPS = 5;
+    private static final float SMOOTHING             = 0.1f;
+    private static final float MAXIMUM_FRAME         = 0.25f;
+    private static final float MINIMUM_TIME_SCALE    = 0.25f;
+    private static final float RECOVERY              = 0.01f;
+    private static final float HEADROOM              = 0.5f;
+    private static final int   FRAMES_DOWNGRADE      = 30;
+    private static final int   FRAMES_UPGRADE        = 300;
+
+    /* Member Variables. */
+    private final long          mBudget;
+    private final int           mMaximumSteps;
+    private final Policy        mPolicy;
+    private       SolverProfile mCeiling;
+    private       float         mTimeStep;
+    private       float         mAccumulator;
+    private       float         mCost;
+    private       float         mTimeScale;
+    private       int           mSinceChange;
+    private       int           mUnder;
+    private       int           mSteps;
+    private       boolean       mOverrun;
+    private       float         mDropped;
+    private       int           mOverruns;
+    private       float         mDroppedTime;
+    private       int           mDowngrades;
+    private       int           mUpgrades;
+
+    /** Constructor. The Budget is the time, in nanoseconds, that a frame's steps may take together; no frame takes more than MaximumSteps. */
+    public StepController(final long pBudget, final int pMaximumSteps, final Policy pPolicy) {
+        // Initialize Member Variables.
+        this.mBudget       = pBudget;
+        this.mMaximumSteps = pMaximumSteps;
+        this.mPolicy       = pPolicy;
+        this.mCeiling      = null;
+        this.mTimeStep     = PhysicsSimulation.TIME_STEP;
+        this.mAccumulator  = 0.0f;
+        this.mCost         = -1.0f;
+        this.mTimeScale    = 1.0f;
+        this.mSinceChange  = 0;
+        this.mUnder        = 0;
+        this.mSteps        = 0;
+        this.mOverrun      = false;
+        this.mDropped      = 0.0f;
+        this.mOverruns     = 0;
+        this.mDroppedTime  = 0.0f;
+        this.mDowngrades   = 0;
+        this.mUpgrades     = 0;
+    }
+
+    /** Constructor. Takes at most DEFAULT_MAXIMUM_STEPS per frame. */
+    public StepController(final long pBudget, final Policy pPolicy) {
+        // Use the default maximum.
+        this(pBudget, StepController.DEFAULT_MAXIMUM_STEPS, pPolicy);
+    }
+
+    /** Accumulates a frame's elapsed time, and returns the number of fixed steps to take. */
+    final int onFrame(final PhysicsSimulation pPhysicsSimulation, final float pDeltaTime) {
+        // Remember the profile we started with; quality is never restored beyond it.
+        if(this.mCeiling == null) {
+            this.mCeiling = pPhysicsSimulation.getSolverProfile();
+        }
+        // Fetch the simulation's timestep; steps are owed in whole multiples of it.
+        this.mTimeStep          = pPhysicsSimulation.getTimeStep();
+        // Clamp the frame; a long stall, such as a resume from the background, isn't worth catching up on.
+        final float lFrame      = Math.min(pDeltaTime, StepController.MAXIMUM_FRAME);
+        // Accumulate the frame, in simulated time.
+        this.mAccumulator      += lFrame * this.mTimeScale;
+        this.mDropped           = (pDeltaTime - lFrame) * this.mTimeScale;
+        // Compute the steps that are owed, and those that the budget affords. (Until a step has been measured, nothing is withheld.)
+        final int   lOwed       = (int)(this.mAccumulator / this.mTimeStep);
+        final int   lAffordable = this.mCost < 0.0f ? this.getMaximumSteps() : MathUtils.clamp((int)(this.getBudget() / this.mCost), 1, this.getMaximumSteps());
+        // Take what we can.
+        this.mSteps             = Math.min(lOwed, lAffordable);
+        this.mOverrun           = lOwed > lAffordable;
+        this.mSinceChange++;
+        // Is the frame over budget?
+        if(this.isOverrun()) {
+            // Discard the time we can't afford; carrying it forward is what spirals.
+            final float lExcess = (lOwed - this.getSteps()) * this.mTimeStep;
+            this.mAccumulator  -= lExcess;
+            this.mDropped      += lExcess;
+            this.mOverruns++;
+            this.mUnder         = 0;
+            // Degrade, so that later frames fit.
+            this.onDegrade(pPhysicsSimulation, lOwed, lAffordable);
+        }
+        // Would the owed steps have fitted comfortably?
+        else if(lOwed * Math.max(this.mCost, 0.0f) < this.getBudget() * StepController.HEADROOM) {
+            // Recover.
+            this.onRecover(pPhysicsSimulation);
+        }
+        // Consume the steps.
+        this.mAccumulator -= this.getSteps() * this.mTimeStep;
+        // Report the dropped time.
+        this.mDroppedTime += this.getDropped();
+        // Return the number of steps.
+        return this.getSteps();
+    }
+
+    /** Applies the Policy to a frame which owed more steps than it could afford. */
+    private final void onDegrade(final PhysicsSimulation pPhysicsSimulation, final int pOwed, final int pAffordable) {
+        switch(this.getPolicy()) {
+            case SLOW    : {
+                // Slow simulated time in proportion to the shortfall.
+                this.mTimeScale = Math.max(StepController.MINIMUM_TIME_SCALE, this.mTimeScale * pAffordable / pOwed);
+            } break;
+            case DEGRADE : {
+                // Have we given the last change time to take effect, and can we go any cheaper?
+                if(this.mSinceChange >= StepController.FRAMES_DOWNGRADE && pPhysicsSimulation.getSolverProfile() != pPhysicsSimulation.getSolverProfile().cheaper()) {
+                    // Downgrade the Solver.
+                    pPhysicsSimulation.setSolverProfile(pPhysicsSimulation.getSolverProfile().cheaper());
+                    this.mDowngrades++;
+                    this.mSinceChange = 0;
+                }
+            } break;
+            default      : {
+                // The time is simply dropped.
+            } break;
+        }
+    }
+
+    /** Undoes the Policy's degradation, gradually, whilst frames fit comfortably within the budget. */
+    private final void onRecover(final PhysicsSimulation pPhysicsSimulation) {
+        switch(this.getPolicy()) {
+            case SLOW    : {
+                // Return towards real time.
+                this.mTimeScale = Math.min(1.0f, this.mTimeScale + StepController.RECOVERY);
+            } break;
+            case DEGRADE : {
+                // Has there been room for long enough, and are we beneath the Ceiling?
+                if(++this.mUnder >= StepController.FRAMES_UPGRADE && pPhysicsSimulation.getSolverProfile().ordinal() < this.mCeiling.ordinal()) {
+                    // Upgrade the Solver.
+                    pPhysicsSimulation.setSolverProfile(pPhysicsSimulation.getSolverProfile().dearer());
+                    this.mUpgrades++;
+                    this.mSinceChange = 0;
+                    this.mUnder       = 0;
+                }
+            } break;
+            default      : {
+                // There's nothing to recover.
+            } break;
+        }
+    }
+
+    /** Measures the steps that were just taken. */
+    final void onStepped(final int pSteps, final long pNanos) {
+        // Were any steps taken?
+        if(pSteps <= 0) {
+            return;
+        }
+        // Fetch the cost of a single step.
+        final float lCost = (float)pNanos / pSteps;
+        // Smooth the cost. (The first measurement seeds the average.)
+        this.mCost = this.mCost < 0.0f ? lCost : this.mCost + (lCost - this.mCost) * StepController.SMOOTHING;
+    }
+
+    /* Getters. */
+    public final long getBudget() {
+        return this.mBudget;
+    }
+
+    public final int getMaximumSteps() {
+        return this.mMaximumSteps;
+    }
+
+    public final Policy getPolicy() {
+        return this.mPolicy;
+    }
+
+    /** Returns how far simulated time has progressed towards the next step, from zero to one; for interpolating between the last two steps. */
+    public final float getAlpha() {
+        return this.mAccumulator / this.mTimeStep;
+    }
+
+    /** Returns the smoothed cost of a single step, in nanoseconds; negative until one has been measured. */
+    public final float getCost() {
+        return this.mCost;
+    }
+
+    /** Returns the rate at which simulated time passes, relative to the frame time; less than one whilst the SLOW Policy is in effect. */
+    public final float getTimeScale() {
+        return this.mTimeScale;
+    }
+
+    /** Returns the number of steps the last frame took. */
+    public final int getSteps() {
+        return this.mSteps;
+    }
+
+    /** Returns whether the last frame owed more steps than the budget afforded. */
+    public final boolean isOverrun() {
+        return this.mOverrun;
+    }
+
+    /** Returns the simulated time the last frame discarded, in seconds. */
+    public final float getDropped() {
+        return this.mDropped;
+    }
+
+    /** Returns the number of frames which have owed more steps than the budget afforded. */
+    public final int getOverruns() {
+        return this.mOverruns;
+    }
+
+    /** Returns the total simulated time discarded, in seconds. */
+    public final float getDroppedTime() {
+        return this.mDroppedTime;
+    }
+
+    public final int getDowngrades() {
+        return this.mDowngrades;
+    }
+
+    public final int getUpgrades() {
+        return this.mUpgrades;
+    }
+
+}
@@ -0,0 +1,9 @@
+package io.github.cawfree.libgdx.simulation;
+
+/** Defines how a PhysicsSimulation reads simulated Transforms back from Bullet. */
+public enum SyncMode {
+    /** Each Body carries a MotionState; Bullet calls back into Java for every active Body on every substep. */
+    MOTION_STATE,
+    /** MotionStates are detached, and the Transforms of the Bodies that were active are read once per update, in a single pass; so the cost scales with active Bodies, not with Bodies and substeps. */
+    BULK
+}
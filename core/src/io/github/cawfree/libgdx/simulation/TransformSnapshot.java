@@ -0,0 +1,214 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Array;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+
+/** An immutable-once-published copy of the live Entities' Transforms and AABBs. Written by the physics thread, and read by the render thread. Each Entity carries its Transform from before the step as well, so the render thread may blend between the two, along with the generation it was captured in, so the render thread can tell when an Entity has been recycled. */
+public final class TransformSnapshot {
+
+    /* Static Declarations. */
+    public  static final int   STRIDE          = 38;
+    private static final int   OFFSET_MINIMUM  = 16;
+    private static final int   OFFSET_MAXIMUM  = 19;
+    private static final int   OFFSET_PREVIOUS = 22;
+    private static final float NANOS_PER_SEC   = 1000000000.0f;
+
+    /* Member Variables. */
+    private final Array<PhysicsEntity> mInstances;
+    private       PhysicsEntity[]      mEntities;
+    private       int[]                mGenerations;
+    private       float[]              mData;
+    private       long                 mTick;
+    private       long                 mTime;
+    private       float                mTimeStep;
+    private final SimulationStatistics mStatistics;
+    private final Array<PhysicsEntity> mFrozen;
+    private       long                 mFrozenGeneration;
+    private final Matrix4              mMatrix;
+    private final Vector3              mFrom;
+    private final Vector3              mTo;
+    private final Quaternion           mFromRotation;
+    private final Quaternion           mToRotation;
+
+    /** Constructor. */
+    public TransformSnapshot() {
+        // Initialize Member Variables.
+        this.mInstances        = new Array<PhysicsEntity>(false, 64);
+        this.mEntities         = new PhysicsEntity[64];
+        this.mGenerations      = new int[64];
+        this.mData             = new float[64 * TransformSnapshot.STRIDE];
+        this.mTick             = 0L;
+        this.mTime             = 0L;
+        this.mTimeStep         = PhysicsSimulation.TIME_STEP;
+        this.mStatistics       = new SimulationStatistics();
+        this.mFrozen           = new Array<PhysicsEntity>(false, 64);
+        this.mFrozenGeneration = -1L;
+        this.mMatrix           = new Matrix4();
+        this.mFrom             = new Vector3();
+        this.mTo               = new Vector3();
+        this.mFromRotation     = new Quaternion();
+        this.mToRotation       = new Quaternion();
+    }
+
+    /** Captures the state of the simulation. Must be called on the thread that steps the simulation. */
+    public final void capture(final PhysicsSimulation pPhysicsSimulation, final long pTick, final Vector3 pMinimum, final Vector3 pMaximum) {
+        // Fetch the live Instances.
+        final Array<PhysicsEntity> lInstances = pPhysicsSimulation.getInstances();
+        // Forget the previous Instances.
+        for(int i = 0; i < this.getInstances().size; i++) {
+            // Release the slot.
+            this.mEntities[this.getInstances().get(i).getHandle()] = null;
+        }
+        this.getInstances().clear();
+        // Ensure there's a slot for every Entity the simulation has constructed.
+        this.ensureCapacity(pPhysicsSimulation.getEntities().size);
+        // Iterate the Instances.
+        for(int i = 0; i < lInstances.size; i++) {
+            // Fetch the PhysicsEntity.
+            final PhysicsEntity lPhysicsEntity = lInstances.get(i);
+            // Compute the offset of the Entity's slot.
+            final int           lOffset        = lPhysicsEntity.getHandle() * TransformSnapshot.STRIDE;
+            // Copy the Transform.
+            System.arraycopy(lPhysicsEntity.getWorldTransform().val, 0, this.mData, lOffset, 16);
+            // Copy where the Entity was before the step; only Entities simulated during the step have moved from there.
+            System.arraycopy((lPhysicsEntity.getRestTime() == 0.0f ? lPhysicsEntity.getPreviousTransform() : lPhysicsEntity.getWorldTransform()).val, 0, this.mData, lOffset + TransformSnapshot.OFFSET_PREVIOUS, 16);
+            // Fetch the AABB.
+            lPhysicsEntity.getBody().getAabb(pMinimum, pMaximum);
+            // Copy the AABB.
+            this.mData[lOffset + TransformSnapshot.OFFSET_MINIMUM    ] = pMinimum.x;
+            this.mData[lOffset + TransformSnapshot.OFFSET_MINIMUM + 1] = pMinimum.y;
+            this.mData[lOffset + TransformSnapshot.OFFSET_MINIMUM + 2] = pMinimum.z;
+            this.mData[lOffset + TransformSnapshot.OFFSET_MAXIMUM    ] = pMaximum.x;
+            this.mData[lOffset + TransformSnapshot.OFFSET_MAXIMUM + 1] = pMaximum.y;
+            this.mData[lOffset + TransformSnapshot.OFFSET_MAXIMUM + 2] = pMaximum.z;
+            // Track the Entity, and the life it's in.
+            this.mEntities[lPhysicsEntity.getHandle()]    = lPhysicsEntity;
+            this.mGenerations[lPhysicsEntity.getHandle()] = lPhysicsEntity.getGeneration();
+            this.getInstances().add(lPhysicsEntity);
+        }
+        // Has the FrozenPile changed since this buffer was last captured?
+        if(this.mFrozenGeneration != pPhysicsSimulation.getFrozenPile().getGeneration()) {
+            // Copy the frozen Entities.
+            this.getFrozen().clear();
+            this.getFrozen().addAll(pPhysicsSimulation.getFrozenPile().getEntities());
+            this.mFrozenGeneration = pPhysicsSimulation.getFrozenPile().getGeneration();
+        }
+        // Copy the cost of the step that produced this state.
+        this.getStatistics().set(pPhysicsSimulation.getStatistics());
+        // Assign the Tick, and when and how far it was stepped.
+        this.mTick     = pTick;
+        this.mTime     = System.nanoTime();
+        this.mTimeStep = pPhysicsSimulation.getTimeStep();
+    }
+
+    /** Writes the captured state into the renderable Transform and Bounds of each Entity. Entities recycled since they were last drawn are restored first. When Interpolated, Transforms are blended from before the step towards the captured state by the time that has passed since it was published, so rendering trails the physics thread by up to a step, but moves smoothly between them. Must be called on the render thread. */
+    public final void apply(final boolean pIsInterpolated) {
+        // Fetch how far to blend.
+        final float lAlpha = pIsInterpolated ? this.getAlpha() : 1.0f;
+        // Iterate the Instances.
+        for(int i = 0; i < this.getInstances().size; i++) {
+            // Fetch the PhysicsEntity.
+            final PhysicsEntity lPhysicsEntity = this.getInstances().get(i);
+            // Compute the offset of the Entity's slot.
+            final int           lOffset        = lPhysicsEntity.getHandle() * TransformSnapshot.STRIDE;
+            // Fetch the Bounds.
+            final BoundingBox   lBounds        = lPhysicsEntity.getBounds();
+            // Restore the renderable state, if the Entity has been recycled since it was last drawn.
+            lPhysicsEntity.restore(this.mGenerations[lPhysicsEntity.getHandle()]);
+            // Are we between steps?
+            if(lAlpha < 1.0f) {
+                // Blend the Transform.
+                this.blend(lOffset, lAlpha, lPhysicsEntity.transform);
+            }
+            else {
+                // Copy the Transform.
+                System.arraycopy(this.mData, lOffset, lPhysicsEntity.transform.val, 0, 16);
+            }
+            // Copy the AABB.
+            lBounds.min.set(this.mData[lOffset + TransformSnapshot.OFFSET_MINIMUM], this.mData[lOffset + TransformSnapshot.OFFSET_MINIMUM + 1], this.mData[lOffset + TransformSnapshot.OFFSET_MINIMUM + 2]);
+            lBounds.max.set(this.mData[lOffset + TransformSnapshot.OFFSET_MAXIMUM], this.mData[lOffset + TransformSnapshot.OFFSET_MAXIMUM + 1], this.mData[lOffset + TransformSnapshot.OFFSET_MAXIMUM + 2]);
+            lBounds.set(lBounds.min, lBounds.max);
+        }
+    }
+
+    /** Returns how far the render thread has progressed through the step that follows this snapshot, from zero to one. */
+    private final float getAlpha() {
+        // Measure the time since publication in steps.
+        return MathUtils.clamp((System.nanoTime() - this.mTime) / (this.mTimeStep * TransformSnapshot.NANOS_PER_SEC), 0.0f, 1.0f);
+    }
+
+    /** Blends the Transform captured before the step in a slot towards the one captured after it, into the specified Matrix4. */
+    private final void blend(final int pOffset, final float pAlpha, final Matrix4 pTransform) {
+        // Fetch where the Entity was.
+        System.arraycopy(this.mData, pOffset + TransformSnapshot.OFFSET_PREVIOUS, this.mMatrix.val, 0, 16);
+        this.mMatrix.getTranslation(this.mFrom);
+        this.mMatrix.getRotation(this.mFromRotation, true);
+        // Fetch where the Entity is.
+        System.arraycopy(this.mData, pOffset, this.mMatrix.val, 0, 16);
+        this.mMatrix.getTranslation(this.mTo);
+        this.mMatrix.getRotation(this.mToRotation, true);
+        // Blend the Transform. (Bodies are rigid, so there's no scale to preserve.)
+        pTransform.set(this.mFrom.lerp(this.mTo, pAlpha), this.mFromRotation.slerp(this.mToRotation, pAlpha));
+    }
+
+    /** Grows the slot buffers to fit the specified number of Entities. */
+    private final void ensureCapacity(final int pEntities) {
+        // Do we already have enough room?
+        if(pEntities <= this.mEntities.length) {
+            return;
+        }
+        // Compute the new capacity.
+        final int lCapacity = Math.max(pEntities, this.mEntities.length << 1);
+        // Grow the buffers.
+        final PhysicsEntity[] lEntities    = new PhysicsEntity[lCapacity];
+        final int[]           lGenerations = new int[lCapacity];
+        final float[]         lData        = new float[lCapacity * TransformSnapshot.STRIDE];
+        System.arraycopy(this.mEntities,    0, lEntities,    0, this.mEntities.length);
+        System.arraycopy(this.mGenerations, 0, lGenerations, 0, this.mGenerations.length);
+        System.arraycopy(this.mData,        0, lData,        0, this.mData.length);
+        // Assign the buffers.
+        this.mEntities    = lEntities;
+        this.mGenerations = lGenerations;
+        this.mData        = lData;
+    }
+
+    /** Returns the Entity with the specified handle, if it was live when the snapshot was captured. */
+    public final PhysicsEntity getEntity(final int pHandle) {
+        // Is the Handle within range?
+        return (pHandle >= 0 && pHandle < this.mEntities.length) ? this.mEntities[pHandle] : null;
+    }
+
+    /** Returns the generation that the Entity with the specified handle was captured in; only meaningful whilst getEntity() returns it. */
+    public final int getGeneration(final int pHandle) {
+        return this.mGenerations[pHandle];
+    }
+
+    /* Getters. */
+    public final Array<PhysicsEntity> getInstances() {
+        return this.mInstances;
+    }
+
+    public final long getTick() {
+        return this.mTick;
+    }
+
+    public final SimulationStatistics getStatistics() {
+        return this.mStatistics;
+    }
+
+    /** Returns the Entities that were frozen when the snapshot was captured. */
+    public final Array<PhysicsEntity> getFrozen() {
+        return this.mFrozen;
+    }
+
+    public final long getFrozenGeneration() {
+        return this.mFrozenGeneration;
+    }
+
+}
@@ -0,0 +1,108 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btPairCachingGhostObject;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.IntArray;
+
+/** A persistent region of the scene which tracks the Entities inside of it. The region is a btPairCachingGhostObject, whose overlapping objects are maintained by the broadphase as bodies move; so each update only walks the objects that currently overlap it, and compares them with the last update to find the Entities that entered and exited. An Entity is inside when its AABB overlaps the region's AABB. TriggerVolumes are created by a SpatialQuery, and must only be used on the thread which steps its simulation. */
+public final class TriggerVolume {
+
+    /* Member Variables. */
+    private final btPairCachingGhostObject mGhostObject;
+    private final String                   mLayer;
+    private final IntArray                 mEntered;
+    private final IntArray                 mExited;
+    private       Bits                     mInside;
+    private       Bits                     mPrevious;
+
+    /** Constructor. The CollisionShape is owned by the caller, and must outlive the TriggerVolume. */
+    TriggerVolume(final btCollisionShape pCollisionShape, final Matrix4 pTransform, final String pLayer) {
+        // Initialize Member Variables.
+        this.mGhostObject = new btPairCachingGhostObject();
+        this.mLayer       = pLayer;
+        this.mEntered     = new IntArray();
+        this.mExited      = new IntArray();
+        this.mInside      = new Bits(64);
+        this.mPrevious    = new Bits(64);
+        // Configure the GhostObject; it detects overlaps, but never pushes back.
+        this.getGhostObject().setCollisionShape(pCollisionShape);
+        this.getGhostObject().setWorldTransform(pTransform);
+        this.getGhostObject().setCollisionFlags(this.getGhostObject().getCollisionFlags() | btCollisionObject.CollisionFlags.CF_NO_CONTACT_RESPONSE);
+        // Assert that the GhostObject isn't an Entity, so that queries and contact scans skip it.
+        this.getGhostObject().setUserIndex(RayQuery.HANDLE_NONE);
+    }
+
+    /** Refreshes the Entities inside of the region, and records which of them entered and exited since the last update. */
+    final void update() {
+        // Exchange the sets; the current set becomes the previous.
+        final Bits lPrevious = this.mInside;
+        this.mInside   = this.mPrevious;
+        this.mPrevious = lPrevious;
+        this.mInside.clear();
+        // Forget the last transitions.
+        this.getEntered().clear();
+        this.getExited().clear();
+        // Iterate the overlapping objects. (Bodies are resolved to their existing wrappers, so this allocates nothing.)
+        for(int i = 0; i < this.getGhostObject().getNumOverlappingObjects(); i++) {
+            // Fetch the Handle.
+            final int lHandle = this.getGhostObject().getOverlappingObject(i).getUserIndex();
+            // Is the object an Entity?
+            if(lHandle >= 0) {
+                // Mark the Entity as inside.
+                this.mInside.set(lHandle);
+                // Has the Entity only just arrived?
+                if(!this.mPrevious.get(lHandle)) {
+                    // Record the arrival.
+                    this.getEntered().add(lHandle);
+                }
+            }
+        }
+        // Iterate the Entities that were inside.
+        for(int i = this.mPrevious.nextSetBit(0); i >= 0; i = this.mPrevious.nextSetBit(i + 1)) {
+            // Has the Entity left?
+            if(!this.mInside.get(i)) {
+                // Record the departure.
+                this.getExited().add(i);
+            }
+        }
+    }
+
+    /** Moves the region. The new overlaps are found by the broadphase during the next step. */
+    public final void setTransform(final Matrix4 pTransform) {
+        // Move the GhostObject.
+        this.getGhostObject().setWorldTransform(pTransform);
+    }
+
+    /** Determines whether the Entity with the specified handle was inside as of the last update. */
+    public final boolean contains(final int pHandle) {
+        return pHandle >= 0 && this.mInside.get(pHandle);
+    }
+
+    /* Getters. */
+    final btPairCachingGhostObject getGhostObject() {
+        return this.mGhostObject;
+    }
+
+    public final String getLayer() {
+        return this.mLayer;
+    }
+
+    /** Returns the handles of the Entities which entered since the previous update. */
+    public final IntArray getEntered() {
+        return this.mEntered;
+    }
+
+    /** Returns the handles of the Entities which exited since the previous update. */
+    public final IntArray getExited() {
+        return this.mExited;
+    }
+
+    /** Returns the handles of the Entities inside of the region, as of the last update. */
+    public final Bits getInside() {
+        return this.mInside;
+    }
+
+}
@@ -0,0 +1,358 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ArrayMap;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+import io.github.cawfree.libgdx.entity.PhysicsEntity;
+
+/** A binary checkpoint of every spawned Entity in a simulation, which may be restored in place of re-simulating the scene; for resuming after the process has been killed, warm-starting from a settled pile, or rolling back. Each Entity records the key of its Builder, its exact Transform, its velocities, its activation state, its collision and contact flags, and how long it has rested; Entities within the FrozenPile are recorded too, and are frozen again on restore. The checkpoint is held as a single little-endian buffer, which is written and read through channels, and loaded from memory-mapped files. Restoring spawns recycled Entities from the simulation's Pools, so only Builders which have been compiled may be restored, and Entities receive new handles. The Floor is never recorded. */
+public final class WorldCheckpoint {
+
+    /* Static Declarations. */
+    private static final int     MAGIC          = 0x434B5054;
+    private static final int     VERSION        = 1;
+    private static final int     SIZE_HEADER    = 20;
+    private static final int     SIZE_RECORD    = 2 + 1 + 1 + 4 * 3 + 4 * 2 + 4 * 12 + 4 * 6;
+    private static final int     FLAG_FROZEN    = (1 << 0);
+    private static final Charset CHARSET        = Charset.forName("UTF-8");
+    private static final String  SUFFIX_PARTIAL = ".tmp";
+    /** The elements of a Matrix4 which carry a rigid Transform; the basis by column, and then the origin. */
+    private static final int[]   ELEMENTS       = new int[] { Matrix4.M00, Matrix4.M10, Matrix4.M20, Matrix4.M01, Matrix4.M11, Matrix4.M21, Matrix4.M02, Matrix4.M12, Matrix4.M22, Matrix4.M03, Matrix4.M13, Matrix4.M23 };
+
+    /* Member Variables. */
+    private final Matrix4    mTransform;
+    private final Vector3    mVelocity;
+    private       ByteBuffer mByteBuffer;
+
+    /** Constructor. The checkpoint is empty until something is captured or read. */
+    public WorldCheckpoint() {
+        // Initialize Member Variables.
+        this.mTransform  = new Matrix4();
+        this.mVelocity   = new Vector3();
+        this.mByteBuffer = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+        // Hold nothing.
+        this.mByteBuffer.limit(0);
+    }
+
+    /** Records the state of every spawned Entity, replacing whatever was held. Must be called on the thread which steps the simulation. Returns the number of Entities recorded. */
+    public final int capture(final PhysicsSimulation pPhysicsSimulation) {
+        // Fetch the Builders.
+        final ArrayMap<String, PhysicsEntity.Builder<?>> lConstructors = pPhysicsSimulation.getConstructors();
+        // Fetch the Entities; frozen Entities come first, so that restoring them never searches a long list of Instances.
+        final Array<PhysicsEntity> lFrozen    = pPhysicsSimulation.getFrozenPile().getEntities();
+        final Array<PhysicsEntity> lInstances = pPhysicsSimulation.getInstances();
+        // Compute the size of the key table.
+        int lKeys = 0;
+        for(int i = 0; i < lConstructors.size; i++) {
+            lKeys += 2 + lConstructors.getKeyAt(i).getBytes(WorldCheckpoint.CHARSET).length;
+        }
+        // Make room for the checkpoint. (The Floor is included in the estimate, but isn't written.)
+        this.ensureCapacity(WorldCheckpoint.SIZE_HEADER + lKeys + (lFrozen.size + lInstances.size) * WorldCheckpoint.SIZE_RECORD);
+        // Write the header; the length and number of Entities are filled in once they're known.
+        final ByteBuffer lByteBuffer = this.mByteBuffer;
+        lByteBuffer.clear();
+        lByteBuffer.putInt(WorldCheckpoint.MAGIC).putInt(WorldCheckpoint.VERSION).putInt(0).putInt(0).putInt(lConstructors.size);
+        // Write the key of each Builder; records refer to them by index.
+        for(int i = 0; i < lConstructors.size; i++) {
+            final byte[] lKey = lConstructors.getKeyAt(i).getBytes(WorldCheckpoint.CHARSET);
+            lByteBuffer.putShort((short)lKey.length);
+            lByteBuffer.put(lKey);
+        }
+        // Write the Entities.
+        int lEntities = 0;
+        for(int i = 0; i < lFrozen.size; i++) {
+            this.write(lConstructors, lFrozen.get(i), true);
+            lEntities++;
+        }
+        for(int i = 0; i < lInstances.size; i++) {
+            // Fetch the PhysicsEntity.
+            final PhysicsEntity lPhysicsEntity = lInstances.get(i);
+            // Ignore the Floor; it's a persistent entity.
+            if(lPhysicsEntity == pPhysicsSimulation.getGround()) {
+                continue;
+            }
+            // Write the Entity.
+            this.write(lConstructors, lPhysicsEntity, false);
+            lEntities++;
+        }
+        // Fill in the header.
+        lByteBuffer.putInt(8, lByteBuffer.position());
+        lByteBuffer.putInt(12, lEntities);
+        // Hold the checkpoint.
+        lByteBuffer.flip();
+        // Return the number of Entities.
+        return lEntities;
+    }
+
+    /** Appends the record of an Entity. */
+    private final void write(final ArrayMap<String, PhysicsEntity.Builder<?>> pConstructors, final PhysicsEntity pPhysicsEntity, final boolean pIsFrozen) {
+        // Fetch the dependencies.
+        final ByteBuffer  lByteBuffer = this.mByteBuffer;
+        final btRigidBody lBody       = pPhysicsEntity.getBody();
+        final float[]     lValues     = pPhysicsEntity.getWorldTransform().val;
+        // Write the Builder, activation state and flags. (The Builders are few, so they're found by a linear search.)
+        lByteBuffer.putShort((short)pConstructors.indexOfKey(pPhysicsEntity.getNode()));
+        lByteBuffer.put((byte)lBody.getActivationState());
+        lByteBuffer.put((byte)(pIsFrozen ? WorldCheckpoint.FLAG_FROZEN : 0));
+        lByteBuffer.putInt(lBody.getCollisionFlags());
+        lByteBuffer.putInt(lBody.getContactCallbackFlag());
+        lByteBuffer.putInt(lBody.getContactCallbackFilter());
+        lByteBuffer.putFloat(pPhysicsEntity.getRestTime());
+        lByteBuffer.putFloat(lBody.getDeactivationTime());
+        // Write the basis and origin exactly, so that a restored Entity is placed precisely where it was.
+        for(final int lElement : WorldCheckpoint.ELEMENTS) {
+            lByteBuffer.putFloat(lValues[lElement]);
+        }
+        // Write the velocities. (These accessors share a static Vector3, so it's copied straight away.)
+        this.mVelocity.set(lBody.getLinearVelocity());
+        lByteBuffer.putFloat(this.mVelocity.x).putFloat(this.mVelocity.y).putFloat(this.mVelocity.z);
+        this.mVelocity.set(lBody.getAngularVelocity());
+        lByteBuffer.putFloat(this.mVelocity.x).putFloat(this.mVelocity.y).putFloat(this.mVelocity.z);
+    }
+
+    /** Replaces every spawned Entity of the simulation with those of the checkpoint. Must be called on the thread which steps the simulation. Entities whose Builder hasn't been compiled are skipped. Returns the number of Entities restored. */
+    public final int restore(final PhysicsSimulation pPhysicsSimulation) {
+        // Is there anything to restore?
+        if(this.isEmpty()) {
+            throw new IllegalStateException("The " + WorldCheckpoint.class.getSimpleName() + " doesn't hold a checkpoint.");
+        }
+        // Read from the start of the checkpoint, without disturbing it.
+        final ByteBuffer lByteBuffer = this.mByteBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        // Read the header.
+        final int        lEntities   = lByteBuffer.getInt(12);
+        final String[]   lKeys       = new String[lByteBuffer.getInt(16)];
+        lByteBuffer.position(WorldCheckpoint.SIZE_HEADER);
+        // Read the key of each Builder.
+        for(int i = 0; i < lKeys.length; i++) {
+            final byte[] lKey = new byte[lByteBuffer.getShort() & 0xFFFF];
+            lByteBuffer.get(lKey);
+            lKeys[i] = new String(lKey, WorldCheckpoint.CHARSET);
+        }
+        // Empty the scene.
+        pPhysicsSimulation.clear();
+        // Declare the number of Entities restored, and whether any were frozen.
+        int     lRestored = 0;
+        boolean lIsFrozen = false;
+        // Iterate the records.
+        for(int i = 0; i < lEntities; i++) {
+            // Read the Builder, activation state and flags.
+            final int   lBuilder             = lByteBuffer.getShort();
+            final int   lActivationState     = lByteBuffer.get();
+            final int   lFlags               = lByteBuffer.get();
+            final int   lCollisionFlags      = lByteBuffer.getInt();
+            final int   lContactCallbackFlag = lByteBuffer.getInt();
+            final int   lContactFilter       = lByteBuffer.getInt();
+            final float lRestTime            = lByteBuffer.getFloat();
+            final float lDeactivationTime    = lByteBuffer.getFloat();
+            // Read the Transform.
+            final float[] lValues = this.mTransform.idt().val;
+            for(final int lElement : WorldCheckpoint.ELEMENTS) {
+                lValues[lElement] = lByteBuffer.getFloat();
+            }
+            // Spawn the Entity; is its Builder unknown, or yet to be compiled?
+            final PhysicsEntity lPhysicsEntity = (lBuilder >= 0 && lBuilder < lKeys.length) ? pPhysicsSimulation.spawn(lKeys[lBuilder], this.mTransform) : null;
+            if(lPhysicsEntity == null) {
+                // Skip the velocities.
+                lByteBuffer.position(lByteBuffer.position() + 4 * 6);
+                continue;
+            }
+            // Fetch the Body.
+            final btRigidBody lBody = lPhysicsEntity.getBody();
+            // Restore the velocities.
+            lBody.setLinearVelocity(this.mVelocity.set(lByteBuffer.getFloat(), lByteBuffer.getFloat(), lByteBuffer.getFloat()));
+            lBody.setAngularVelocity(this.mVelocity.set(lByteBuffer.getFloat(), lByteBuffer.getFloat(), lByteBuffer.getFloat()));
+            // Restore the flags; these replace whatever spawning configured.
+            lBody.setCollisionFlags(lCollisionFlags);
+            lBody.setContactCallbackFlag(lContactCallbackFlag);
+            lBody.setContactCallbackFilter(lContactFilter);
+            // Restore the activation state, and how long the Entity has rested.
+            lBody.forceActivationState(lActivationState);
+            lBody.setDeactivationTime(lDeactivationTime);
+            lPhysicsEntity.setRestTime(lRestTime);
+            // Was the Entity frozen?
+            if((lFlags & WorldCheckpoint.FLAG_FROZEN) != 0) {
+                // Bake the Entity back into the FrozenPile.
+                pPhysicsSimulation.freeze(lPhysicsEntity);
+                lIsFrozen = true;
+            }
+            // Count the Entity.
+            lRestored++;
+        }
+        // Were any Entities frozen?
+        if(lIsFrozen) {
+            // Publish the rebuilt FrozenPile.
+            pPhysicsSimulation.commitFrozen();
+        }
+        // Return the number of Entities restored.
+        return lRestored;
+    }
+
+    /** Writes the checkpoint to a channel. */
+    public final void write(final WritableByteChannel pWritableByteChannel) throws IOException {
+        // Write from the start of the checkpoint, without disturbing it.
+        final ByteBuffer lByteBuffer = this.mByteBuffer.duplicate();
+        // Write the checkpoint.
+        while(lByteBuffer.hasRemaining()) {
+            pWritableByteChannel.write(lByteBuffer);
+        }
+    }
+
+    /** Reads a checkpoint from a channel, replacing whatever was held. Returns false if the channel ended early, or didn't hold a checkpoint of this version; in which case the checkpoint is left empty. */
+    public final boolean read(final ReadableByteChannel pReadableByteChannel) throws IOException {
+        // Read the header.
+        this.mByteBuffer.clear().limit(WorldCheckpoint.SIZE_HEADER);
+        if(!WorldCheckpoint.fill(pReadableByteChannel, this.mByteBuffer) || !WorldCheckpoint.isHeader(this.mByteBuffer)) {
+            return this.onInvalid();
+        }
+        // Fetch the length of the checkpoint.
+        final int lLength = this.mByteBuffer.getInt(8);
+        // Make room for the checkpoint, keeping the header.
+        this.ensureCapacity(lLength);
+        // Read the remainder of the checkpoint.
+        this.mByteBuffer.limit(lLength).position(WorldCheckpoint.SIZE_HEADER);
+        if(!WorldCheckpoint.fill(pReadableByteChannel, this.mByteBuffer)) {
+            return this.onInvalid();
+        }
+        // Hold the checkpoint.
+        this.mByteBuffer.flip();
+        return true;
+    }
+
+    /** Writes the checkpoint to a file. The checkpoint is written alongside, and then moved into place; so an interrupted save never leaves a truncated file behind. */
+    public final void save(final File pFile) throws IOException {
+        // Write to a partial file first.
+        final File lPartial = new File(pFile.getPath() + WorldCheckpoint.SUFFIX_PARTIAL);
+        // Ensure the directory exists.
+        if(pFile.getParentFile() != null) {
+            pFile.getParentFile().mkdirs();
+        }
+        // Open the partial file.
+        final FileOutputStream lFileOutputStream = new FileOutputStream(lPartial);
+        try {
+            // Write the checkpoint.
+            this.write(lFileOutputStream.getChannel());
+        }
+        finally {
+            // Close the partial file.
+            lFileOutputStream.close();
+        }
+        // Publish the checkpoint.
+        if(!lPartial.renameTo(pFile)) {
+            // Replace the existing checkpoint, and try again.
+            pFile.delete();
+            if(!lPartial.renameTo(pFile)) {
+                throw new IOException("Failed to replace " + pFile + ".");
+            }
+        }
+    }
+
+    /** Loads a checkpoint from a file, by mapping it into memory; this replaces whatever was held. Returns false if there's no file, or it doesn't hold a checkpoint of this version; in which case the checkpoint is left empty. */
+    public final boolean load(final File pFile) throws IOException {
+        // Is there a checkpoint?
+        if(!pFile.isFile()) {
+            return this.onInvalid();
+        }
+        // Open the checkpoint.
+        final RandomAccessFile lRandomAccessFile = new RandomAccessFile(pFile, "r");
+        try {
+            // Map the checkpoint.
+            final ByteBuffer lMappedBuffer = lRandomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, lRandomAccessFile.length()).order(ByteOrder.LITTLE_ENDIAN);
+            // Is the checkpoint malformed, from a different version, or truncated?
+            if(!WorldCheckpoint.isHeader(lMappedBuffer) || lMappedBuffer.getInt(8) != lMappedBuffer.capacity()) {
+                return this.onInvalid();
+            }
+            // Copy the checkpoint. (This is a single bulk copy out of the page cache.)
+            this.ensureCapacity(lMappedBuffer.capacity());
+            this.mByteBuffer.clear();
+            this.mByteBuffer.put(lMappedBuffer);
+            // Hold the checkpoint.
+            this.mByteBuffer.flip();
+            return true;
+        }
+        finally {
+            // Close the checkpoint.
+            lRandomAccessFile.close();
+        }
+    }
+
+    /** Empties the checkpoint, and reports that nothing valid was read. */
+    private final boolean onInvalid() {
+        // Hold nothing.
+        this.mByteBuffer.clear().limit(0);
+        // Assert that the checkpoint is invalid.
+        return false;
+    }
+
+    /** Returns whether a buffer begins with a well-formed header of this version, whose length and counts are consistent. */
+    private static final boolean isHeader(final ByteBuffer pByteBuffer) {
+        // Is there room for a header?
+        if(pByteBuffer.limit() < WorldCheckpoint.SIZE_HEADER) {
+            return false;
+        }
+        // Fetch the length, and the number of Entities and Builders.
+        final int lLength   = pByteBuffer.getInt(8);
+        final int lEntities = pByteBuffer.getInt(12);
+        final int lBuilders = pByteBuffer.getInt(16);
+        // Is the checkpoint of this version, and could its records possibly fit?
+        return pByteBuffer.getInt(0) == WorldCheckpoint.MAGIC && pByteBuffer.getInt(4) == WorldCheckpoint.VERSION && lEntities >= 0 && lBuilders >= 0 && lBuilders <= Short.MAX_VALUE && lLength >= WorldCheckpoint.SIZE_HEADER + lBuilders * 2 + (long)lEntities * WorldCheckpoint.SIZE_RECORD;
+    }
+
+    /** Reads from a channel until the buffer is full. Returns false if the channel ended first. */
+    private static final boolean fill(final ReadableByteChannel pReadableByteChannel, final ByteBuffer pByteBuffer) throws IOException {
+        // Whilst there's room.
+        while(pByteBuffer.hasRemaining()) {
+            // Has the channel ended?
+            if(pReadableByteChannel.read(pByteBuffer) < 0) {
+                return false;
+            }
+        }
+        // Assert that the buffer was filled.
+        return true;
+    }
+
+    /** Grows the buffer to fit the specified number of bytes, keeping its contents. */
+    private final void ensureCapacity(final int pBytes) {
+        // Do we already have enough room?
+        if(pBytes <= this.mByteBuffer.capacity()) {
+            return;
+        }
+        // Allocate the larger buffer.
+        final ByteBuffer lByteBuffer = ByteBuffer.allocate(Math.max(pBytes, this.mByteBuffer.capacity() << 1)).order(ByteOrder.LITTLE_ENDIAN);
+        // Copy the contents, up to the current position.
+        this.mByteBuffer.flip();
+        lByteBuffer.put(this.mByteBuffer);
+        // Assign the buffer.
+        this.mByteBuffer = lByteBuffer;
+    }
+
+    /* Getters. */
+    /** Returns whether nothing has been captured or read. */
+    public final boolean isEmpty() {
+        return this.mByteBuffer.limit() == 0;
+    }
+
+    /** Returns the size of the checkpoint, in bytes. */
+    public final int getSize() {
+        return this.mByteBuffer.limit();
+    }
+
+    /** Returns the number of Entities held by the checkpoint. */
+    public final int getEntities() {
+        return this.isEmpty() ? 0 : this.mByteBuffer.getInt(12);
+    }
+
+}
@@ -0,0 +1,206 @@
+package io.github.cawfree.libgdx.simulation;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.bt32BitAxisSweep3;
+import com.badlogic.gdx.physics.bullet.collision.btAxisSweep3;
+import com.badlogic.gdx.physics.bullet.collision.btBroadphaseInterface;
+import com.badlogic.gdx.physics.bullet.collision.btDbvtBroadphase;
+
+/** Describes how a PhysicsSimulation's DynamicsWorld is put together. The broadphase may be a dynamic AABB tree, which needs no bounds, or a sweep-and-prune over a fixed region of space, which is cheaper for bounded, densely populated scenes. A configuration may be shared by several simulations; each builds its own broadphase from it. */
+public final class WorldConfiguration {
+
+    /** The available broadphases. */
+    public enum Broadphase {
+        /** btDbvtBroadphase; a pair of dynamic AABB trees. Unbounded, and the default. */
+        DBVT,
+        /** btAxisSweep3; incremental sweep-and-prune with 16-bit quantization. Bounded, and limited to 32766 objects. */
+        AXIS_SWEEP,
+        /** bt32BitAxisSweep3; as AXIS_SWEEP, with 32-bit quantization for larger worlds or more objects. */
+        AXIS_SWEEP_32
+    }
+
+    /* Static Declarations. */
+    public  static final float DEFAULT_EXTENT              = 50.0f;
+    public  static final int   DEFAULT_MAXIMUM_HANDLES     = 1024;
+    public  static final int   MAXIMUM_HANDLES_AXIS_SWEEP  = 32766;
+    public  static final float DEFAULT_VELOCITY_PREDICTION = 0.0f;
+    public  static final int   DEFAULT_DYNAMIC_UPDATES     = 1;
+    public  static final int   DEFAULT_FIXED_UPDATES       = 1;
+
+    /* Member Variables. */
+    private       Broadphase    mBroadphase;
+    private final Vector3       mMinimum;
+    private final Vector3       mMaximum;
+    private       int           mMaximumHandles;
+    private       float         mVelocityPrediction;
+    private       int           mDynamicUpdates;
+    private       int           mFixedUpdates;
+    private       boolean       mDeferredCollide;
+    private       SolverProfile mSolverProfile;
+    private final CollisionLayers mCollisionLayers;
+
+    /** Constructor. Describes the default world; a DBVT broadphase with Bullet's own tuning. */
+    public WorldConfiguration() {
+        // Initialize Member Variables.
+        this.mBroadphase         = Broadphase.DBVT;
+        this.mMinimum            = new Vector3(-WorldConfiguration.DEFAULT_EXTENT, -WorldConfiguration.DEFAULT_EXTENT, -WorldConfiguration.DEFAULT_EXTENT);
+        this.mMaximum            = new Vector3( WorldConfiguration.DEFAULT_EXTENT,  WorldConfiguration.DEFAULT_EXTENT,  WorldConfiguration.DEFAULT_EXTENT);
+        this.mMaximumHandles     = WorldConfiguration.DEFAULT_MAXIMUM_HANDLES;
+        this.mVelocityPrediction = WorldConfiguration.DEFAULT_VELOCITY_PREDICTION;
+        this.mDynamicUpdates     = WorldConfiguration.DEFAULT_DYNAMIC_UPDATES;
+        this.mFixedUpdates       = WorldConfiguration.DEFAULT_FIXED_UPDATES;
+        this.mDeferredCollide    = false;
+        this.mSolverProfile      = SolverProfile.BALANCED;
+        this.mCollisionLayers    = new CollisionLayers();
+    }
+
+    /** Allocates the configured broadphase. The caller takes ownership. */
+    public final btBroadphaseInterface createBroadphase() {
+        // Which Broadphase has been selected?
+        switch(this.getBroadphase()) {
+            case AXIS_SWEEP    : {
+                // Is the number of objects representable?
+                if(this.getMaximumHandles() > WorldConfiguration.MAXIMUM_HANDLES_AXIS_SWEEP) {
+                    // Assert that the configuration is invalid.
+                    throw new IllegalStateException("btAxisSweep3 supports at most " + WorldConfiguration.MAXIMUM_HANDLES_AXIS_SWEEP + " handles; use AXIS_SWEEP_32.");
+                }
+                // Allocate the sweep-and-prune.
+                return new btAxisSweep3(this.getMinimum(), this.getMaximum(), this.getMaximumHandles());
+            }
+            case AXIS_SWEEP_32 : {
+                // Allocate the 32-bit sweep-and-prune.
+                return new bt32BitAxisSweep3(this.getMinimum(), this.getMaximum(), this.getMaximumHandles());
+            }
+            default            : {
+                // Allocate the DBVT.
+                final btDbvtBroadphase lDbvtBroadphase = new btDbvtBroadphase();
+                // Apply the tuning.
+                lDbvtBroadphase.setVelocityPrediction(this.getVelocityPrediction());
+                lDbvtBroadphase.setDupdates(this.getDynamicUpdates());
+                lDbvtBroadphase.setFupdates(this.getFixedUpdates());
+                lDbvtBroadphase.setDeferedcollide(this.isDeferredCollide());
+                // Return the DBVT.
+                return lDbvtBroadphase;
+            }
+        }
+    }
+
+    /** Determines whether the broadphase limits the number of objects that may be in the world at once. */
+    public final boolean isBounded() {
+        // Only the sweep-and-prunes preallocate their handles.
+        return this.getBroadphase() != Broadphase.DBVT;
+    }
+
+    /** Selects the broadphase. */
+    public final WorldConfiguration setBroadphase(final Broadphase pBroadphase) {
+        // Assign the Broadphase.
+        this.mBroadphase = pBroadphase;
+        // Return the reference.
+        return this;
+    }
+
+    /** Defines the region of space covered by a sweep-and-prune. Objects that leave it still collide, but far less efficiently. */
+    public final WorldConfiguration setBounds(final Vector3 pMinimum, final Vector3 pMaximum) {
+        // Assign the Bounds.
+        this.mMinimum.set(pMinimum);
+        this.mMaximum.set(pMaximum);
+        // Return the reference.
+        return this;
+    }
+
+    /** Defines the number of objects a sweep-and-prune preallocates room for. */
+    public final WorldConfiguration setMaximumHandles(final int pMaximumHandles) {
+        // Assign the MaximumHandles.
+        this.mMaximumHandles = pMaximumHandles;
+        // Return the reference.
+        return this;
+    }
+
+    /** Defines how far a DBVT leaf is extended along its object's velocity; larger values trade looser bounds for fewer tree updates. */
+    public final WorldConfiguration setVelocityPrediction(final float pVelocityPrediction) {
+        // Assign the VelocityPrediction.
+        this.mVelocityPrediction = pVelocityPrediction;
+        // Return the reference.
+        return this;
+    }
+
+    /** Defines the percentage of the DBVT's dynamic tree that is re-balanced every step. */
+    public final WorldConfiguration setDynamicUpdates(final int pDynamicUpdates) {
+        // Assign the DynamicUpdates.
+        this.mDynamicUpdates = pDynamicUpdates;
+        // Return the reference.
+        return this;
+    }
+
+    /** Defines the percentage of the DBVT's static tree that is re-balanced every step. */
+    public final WorldConfiguration setFixedUpdates(final int pFixedUpdates) {
+        // Assign the FixedUpdates.
+        this.mFixedUpdates = pFixedUpdates;
+        // Return the reference.
+        return this;
+    }
+
+    /** Defines whether the DBVT defers colliding its static tree against itself. */
+    public final WorldConfiguration setDeferredCollide(final boolean pIsDeferredCollide) {
+        // Assign the DeferredCollide.
+        this.mDeferredCollide = pIsDeferredCollide;
+        // Return the reference.
+        return this;
+    }
+
+    /** Selects the SolverProfile that the world starts with. */
+    public final WorldConfiguration setSolverProfile(final SolverProfile pSolverProfile) {
+        // Assign the SolverProfile.
+        this.mSolverProfile = pSolverProfile;
+        // Return the reference.
+        return this;
+    }
+
+    /* Getters. */
+    public final Broadphase getBroadphase() {
+        return this.mBroadphase;
+    }
+
+    public final Vector3 getMinimum() {
+        return this.mMinimum;
+    }
+
+    public final Vector3 getMaximum() {
+        return this.mMaximum;
+    }
+
+    public final int getMaximumHandles() {
+        return this.mMaximumHandles;
+    }
+
+    public final float getVelocityPrediction() {
+        return this.mVelocityPrediction;
+    }
+
+    public final int getDynamicUpdates() {
+        return this.mDynamicUpdates;
+    }
+
+    public final int getFixedUpdates() {
+        return this.mFixedUpdates;
+    }
+
+    public final boolean isDeferredCollide() {
+        return this.mDeferredCollide;
+    }
+
+    public final SolverProfile getSolverProfile() {
+        return this.mSolverProfile;
+    }
+
+    /** Returns the collision layers of the world, which may be declared and matched up before the simulation is built. */
+    public final CollisionLayers getCollisionLayers() {
+        return this.mCollisionLayers;
+    }
+
+    @Override public final String toString() {
+        // Describe the Broadphase.
+        return this.isBounded() ? (this.getBroadphase() + "[" + this.getMinimum() + " - " + this.getMaximum() + ", handles=" + this.getMaximumHandles() + "]") : (this.getBroadphase() + "[prediction=" + this.getVelocityPrediction() + ", dupdates=" + this.getDynamicUpdates() + ", fupdates=" + this.getFixedUpdates() + ", deferred=" + this.isDeferredCollide() + "]");
+    }
+
+}